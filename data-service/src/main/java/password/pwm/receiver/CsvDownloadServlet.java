@@ -20,7 +20,21 @@
 
 package password.pwm.receiver;
 
+import org.apache.commons.csv.CSVPrinter;
+import password.pwm.http.HttpContentType;
+import password.pwm.http.HttpHeader;
+import password.pwm.util.java.PwmUtil;
+import password.pwm.util.java.StringUtil;
+
 import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 @WebServlet(
         name = "CsvDownloadServlet",
@@ -28,6 +42,67 @@ import jakarta.servlet.annotation.WebServlet;
                 "/csv",
         }
 )
-public class CsvDownloadServlet
+public class CsvDownloadServlet extends HttpServlet
 {
+    private static final String PARAM_DAYS = "days";
+
+    private static final List<String> HEADERS = List.of(
+            "instanceHash",
+            "description",
+            "version",
+            "installTime",
+            "timestamp",
+            "ldapVendor",
+            "osName",
+            "osVersion",
+            "servletName",
+            "dbVendor",
+            "deploymentType",
+            "javaVm" );
+
+    @Override
+    protected void doGet( final HttpServletRequest req, final HttpServletResponse resp )
+            throws IOException
+    {
+        final String daysString = req.getParameter( PARAM_DAYS );
+        final int days = StringUtil.isEmpty( daysString ) ? 30 : Integer.parseInt( daysString );
+        final ContextManager contextManager = ContextManager.getContextManager( req.getServletContext() );
+
+        final PwmReceiverApp app = contextManager.getApp();
+
+        {
+            final String errorState = app.getStatus().getErrorState();
+            if ( StringUtil.notEmpty( errorState ) )
+            {
+                resp.sendError( 500, errorState );
+                return;
+            }
+        }
+
+        final Instant since = Instant.now().minus( Duration.of( days, ChronoUnit.DAYS ) );
+        final List<SiteRecord> siteRecords = app.getStorage().readSiteRecords( since );
+
+        resp.setHeader( HttpHeader.ContentType.getHttpName(), HttpContentType.csv.getHeaderValueWithEncoding() );
+        resp.setHeader( HttpHeader.ContentDisposition.getHttpName(), "attachment; filename=telemetry.csv" );
+
+        final CSVPrinter csvPrinter = PwmUtil.makeCsvPrinter( resp.getOutputStream() );
+        csvPrinter.printRecord( HEADERS );
+        for ( final SiteRecord siteRecord : siteRecords )
+        {
+            csvPrinter.printRecord(
+                    siteRecord.getInstanceHash(),
+                    siteRecord.getDescription(),
+                    siteRecord.getVersion(),
+                    siteRecord.getInstallTime(),
+                    siteRecord.getTimestamp(),
+                    siteRecord.getLdapVendor(),
+                    siteRecord.getOsName(),
+                    siteRecord.getOsVersion(),
+                    siteRecord.getServletName(),
+                    siteRecord.getDbVendor(),
+                    siteRecord.getDeploymentType(),
+                    siteRecord.getJavaVm() );
+        }
+        csvPrinter.flush();
+    }
 }
@@ -110,6 +110,16 @@ public class PwmReceiverApp
         }
     }
 
+    /**
+     * Rebuild the telemetry aggregates from the raw records.  The rebuild runs on the background executor, so it does
+     * not overlap an ftp ingest.
+     */
+    void rebuildAggregates( )
+    {
+        LOGGER.info( "scheduling rebuild of telemetry aggregates" );
+        scheduledExecutorService.execute( () -> storage.rebuildAggregates() );
+    }
+
     public Settings getSettings( )
     {
         return settings;
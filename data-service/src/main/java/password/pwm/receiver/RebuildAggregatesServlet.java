@@ -0,0 +1,101 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.receiver;
+
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import password.pwm.PwmConstants;
+import password.pwm.error.ErrorInformation;
+import password.pwm.error.PwmError;
+import password.pwm.i18n.Message;
+import password.pwm.util.java.StringUtil;
+import password.pwm.ws.server.RestResultBean;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+
+/**
+ * Schedules a rebuild of the telemetry aggregates.  Requests must supply the configured {@code adminSecret} setting
+ * value in the {@value #SECRET_HEADER} header; the servlet is disabled when no secret is configured.
+ */
+@WebServlet(
+        urlPatterns = {
+                "/rebuild-aggregates",
+        }
+)
+public class RebuildAggregatesServlet extends HttpServlet
+{
+    private static final Logger LOGGER = Logger.createLogger( RebuildAggregatesServlet.class );
+
+    static final String SECRET_HEADER = "X-Admin-Secret";
+
+    @Override
+    protected void doPost( final HttpServletRequest req, final HttpServletResponse resp )
+            throws IOException
+    {
+        final ContextManager contextManager = ContextManager.getContextManager( req.getServletContext() );
+        final PwmReceiverApp app = contextManager.getApp();
+
+        final String errorState = app.getStatus().getErrorState();
+        if ( StringUtil.notEmpty( errorState ) )
+        {
+            final RestResultBean restResultBean = RestResultBean.fromError( new ErrorInformation( PwmError.ERROR_SERVICE_NOT_AVAILABLE, errorState ) );
+            ReceiverUtil.outputJsonResponse( req, resp, restResultBean );
+            return;
+        }
+
+        final String adminSecret = app.getSettings().getSetting( Settings.Setting.adminSecret );
+        if ( StringUtil.isEmpty( adminSecret ) )
+        {
+            final String errorMsg = "aggregate rebuild requests are disabled, no adminSecret is configured";
+            final RestResultBean restResultBean = RestResultBean.fromError( new ErrorInformation( PwmError.ERROR_SERVICE_NOT_AVAILABLE, errorMsg ) );
+            ReceiverUtil.outputJsonResponse( req, resp, restResultBean );
+            return;
+        }
+
+        if ( !secretMatches( adminSecret, req.getHeader( SECRET_HEADER ) ) )
+        {
+            LOGGER.info( () -> "rejected aggregate rebuild request with missing or incorrect " + SECRET_HEADER + " header" );
+            final RestResultBean restResultBean = RestResultBean.fromError( new ErrorInformation( PwmError.ERROR_UNAUTHORIZED ) );
+            ReceiverUtil.outputJsonResponse( req, resp, restResultBean );
+            return;
+        }
+
+        app.rebuildAggregates();
+
+        final RestResultBean restResultBean = RestResultBean.forSuccessMessage( null, null, null, Message.Success_Unknown );
+        ReceiverUtil.outputJsonResponse( req, resp, restResultBean );
+    }
+
+    static boolean secretMatches( final String adminSecret, final String suppliedSecret )
+    {
+        if ( StringUtil.isEmpty( adminSecret ) || suppliedSecret == null )
+        {
+            return false;
+        }
+
+        return MessageDigest.isEqual(
+                adminSecret.getBytes( PwmConstants.DEFAULT_CHARSET ),
+                suppliedSecret.getBytes( PwmConstants.DEFAULT_CHARSET ) );
+    }
+}
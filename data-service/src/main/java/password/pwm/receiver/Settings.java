@@ -48,7 +48,9 @@ public class Settings
         ftpReadPath( null ),
         storagePath( null ),
         maxInstanceSeconds( Long.toString( TimeDuration.of( 14, TimeDuration.Unit.DAYS ).as( TimeDuration.Unit.SECONDS ) ) ),
-        currentVersion( null ),;
+        currentVersion( null ),
+        rebuildAggregates( "false" ),
+        adminSecret( null ),;
 
         private final String defaultValue;
 
@@ -0,0 +1,157 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.receiver;
+
+import lombok.Builder;
+import lombok.Value;
+import password.pwm.PwmAboutProperty;
+import password.pwm.bean.TelemetryPublishBean;
+import password.pwm.config.PwmSetting;
+import password.pwm.svc.stats.Statistic;
+import password.pwm.util.java.TimeDuration;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compact form of the latest telemetry record for a site, holding only the values used by the summary views.
+ */
+@Value
+@Builder
+class SiteRecord
+{
+    private static final String NA_TEXT = "n/a";
+
+    private String instanceHash;
+    private Instant timestamp;
+    private Instant installTime;
+    private String description;
+    private String version;
+    private String ldapVendor;
+    private String osName;
+    private String osVersion;
+    private String servletName;
+    private String dbVendor;
+    private String deploymentType;
+    private String javaVm;
+    private List<String> settings;
+    private Map<String, Integer> stats;
+
+    static SiteRecord fromBean( final TelemetryPublishBean bean )
+    {
+        final Map<String, String> about = bean.getAbout();
+        if ( about == null || bean.getTimestamp() == null )
+        {
+            return null;
+        }
+
+        final List<String> settings = new ArrayList<>();
+        if ( bean.getConfiguredSettings() != null )
+        {
+            for ( final String settingKey : bean.getConfiguredSettings() )
+            {
+                PwmSetting.forKey( settingKey ).ifPresent( setting -> settings.add( setting.toMenuLocationDebug( null, null ) ) );
+            }
+        }
+
+        final Map<String, Integer> stats = new TreeMap<>();
+        if ( bean.getStatistics() != null )
+        {
+            for ( final Map.Entry<String, String> entry : bean.getStatistics().entrySet() )
+            {
+                Statistic.forKey( entry.getKey() ).ifPresent( statistic ->
+                        stats.merge( statistic.getLabel( null ), Integer.parseInt( entry.getValue() ), Integer::sum ) );
+            }
+        }
+
+        return SiteRecord.builder()
+                .instanceHash( bean.getInstanceHash() )
+                .timestamp( bean.getTimestamp() )
+                .installTime( bean.getInstallTime() )
+                .description( bean.getSiteDescription() )
+                .version( bean.getVersionVersion() )
+                .ldapVendor( bean.getLdapVendorName() == null ? NA_TEXT : bean.getLdapVendorName() )
+                .osName( about.get( PwmAboutProperty.java_osName.name() ) )
+                .osVersion( about.get( PwmAboutProperty.java_osVersion.name() ) )
+                .servletName( about.get( PwmAboutProperty.java_appServerInfo.name() ) )
+                .dbVendor( dbVendorName( about ) )
+                .deploymentType( about.get( PwmAboutProperty.app_deployment_type.name() ) )
+                .javaVm( javaVmInfo( about ) )
+                .settings( Collections.unmodifiableList( settings ) )
+                .stats( Collections.unmodifiableMap( stats ) )
+                .build();
+    }
+
+    List<String> getSettings()
+    {
+        return settings == null ? Collections.emptyList() : settings;
+    }
+
+    Map<String, Integer> getStats()
+    {
+        return stats == null ? Collections.emptyMap() : stats;
+    }
+
+    SummaryBean.SiteSummary toSiteSummary()
+    {
+        return SummaryBean.SiteSummary.builder()
+                .description( description )
+                .version( version )
+                .installAge( installTime == null ? null : TimeDuration.fromCurrent( installTime ).asDuration() )
+                .updateAge( TimeDuration.fromCurrent( timestamp ).asDuration() )
+                .ldapVendor( ldapVendor )
+                .osName( osName )
+                .osVersion( osVersion )
+                .servletName( servletName )
+                .dbVendor( dbVendor )
+                .platform( deploymentType )
+                .javaVm( javaVm )
+                .build();
+    }
+
+    private static String dbVendorName( final Map<String, String> about )
+    {
+        String dbVendor = NA_TEXT;
+        if ( about.get( PwmAboutProperty.database_databaseProductName.name() ) != null )
+        {
+            dbVendor = about.get( PwmAboutProperty.database_databaseProductName.name() );
+
+            if ( about.get( PwmAboutProperty.database_databaseProductVersion.name() ) != null )
+            {
+                dbVendor += "/" + about.get( PwmAboutProperty.database_databaseProductVersion.name() );
+            }
+        }
+        return dbVendor;
+    }
+
+    private static String javaVmInfo( final Map<String, String> about )
+    {
+        return about.getOrDefault( PwmAboutProperty.java_vmName.name(), NA_TEXT )
+                + " ("
+                + about.getOrDefault( PwmAboutProperty.java_vmVendor.name(), NA_TEXT )
+                + " ) "
+                + about.getOrDefault( PwmAboutProperty.java_vmVersion.name(), NA_TEXT );
+    }
+}
@@ -22,6 +22,7 @@ package password.pwm.receiver;
 
 import jetbrains.exodus.ArrayByteIterable;
 import jetbrains.exodus.ByteIterable;
+import jetbrains.exodus.bindings.LongBinding;
 import jetbrains.exodus.bindings.StringBinding;
 import jetbrains.exodus.env.Cursor;
 import jetbrains.exodus.env.Environment;
@@ -37,16 +38,40 @@ import password.pwm.util.json.JsonFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
+/**
+ * Telemetry storage.  Raw records are kept in the primary store, and alongside them the latest compact
+ * {@link SiteRecord} per site and a {@link TelemetryAggregate} per UTC day, where each site contributes to the
+ * day of its latest record.  The site and aggregate stores are updated in the same transaction as the raw record,
+ * so summaries can be read without scanning every raw record.
+ */
 public class Storage
 {
     private static final Logger LOGGER = Logger.createLogger( Storage.class );
     private static final String STORE_NAME = "store1";
+    private static final String SITE_STORE_NAME = "sites1";
+    private static final String AGGREGATE_STORE_NAME = "aggregates1";
+    private static final String META_STORE_NAME = "meta1";
+
+    private static final String META_KEY_AGGREGATE_VERSION = "aggregateVersion";
+
+    /**
+     * Increment when the content of {@link SiteRecord} or {@link TelemetryAggregate} changes, causing the aggregates
+     * to be rebuilt from the raw records at startup.
+     */
+    private static final String AGGREGATE_VERSION = "1";
 
     private final Environment environment;
     private Store store;
+    private Store siteStore;
+    private Store aggregateStore;
+    private Store metaStore;
 
     public Storage( final Settings settings ) throws IOException
     {
@@ -70,33 +95,63 @@ public class Storage
 
         LOGGER.info( () -> "environment open" );
 
-        environment.executeInTransaction( txn -> store
-                = environment.openStore( STORE_NAME, StoreConfig.WITHOUT_DUPLICATES, txn ) );
+        environment.executeInTransaction( txn ->
+        {
+            store = environment.openStore( STORE_NAME, StoreConfig.WITHOUT_DUPLICATES, txn );
+            siteStore = environment.openStore( SITE_STORE_NAME, StoreConfig.WITHOUT_DUPLICATES, txn );
+            aggregateStore = environment.openStore( AGGREGATE_STORE_NAME, StoreConfig.WITHOUT_DUPLICATES, txn );
+            metaStore = environment.openStore( META_STORE_NAME, StoreConfig.WITHOUT_DUPLICATES, txn );
+        } );
 
         LOGGER.info( () -> "store open with " + count() + " records" );
+
+        final boolean rebuildSetting = Boolean.parseBoolean( settings.getSetting( Settings.Setting.rebuildAggregates ) );
+        if ( rebuildSetting || !AGGREGATE_VERSION.equals( readAggregateVersion() ) )
+        {
+            rebuildAggregates();
+        }
     }
 
     public void store( final TelemetryPublishBean bean )
     {
-        if ( bean == null )
+        if ( bean == null || bean.getInstanceHash() == null || bean.getTimestamp() == null )
         {
             return;
         }
 
-        final String instanceHash = bean.getInstanceHash();
-        if ( instanceHash != null )
+        environment.executeInTransaction( transaction ->
         {
-            final TelemetryPublishBean existingBean = get( instanceHash );
-            Instant existingTimestamp = null;
-            if ( existingBean != null )
+            final SiteRecord existingRecord = readSiteRecord( transaction, bean.getInstanceHash() );
+            if ( existingRecord == null )
+            {
+                final TelemetryPublishBean existingBean = get( transaction, bean.getInstanceHash() );
+                if ( existingBean != null && existingBean.getTimestamp() != null && !existingBean.getTimestamp().isBefore( bean.getTimestamp() ) )
+                {
+                    return;
+                }
+            }
+            else if ( !existingRecord.getTimestamp().isBefore( bean.getTimestamp() ) )
             {
-                existingTimestamp = existingBean.getTimestamp();
+                return;
             }
-            if ( existingTimestamp == null || existingTimestamp.isBefore( bean.getTimestamp() ) )
+
+            final ByteIterable k = StringBinding.stringToEntry( bean.getInstanceHash() );
+            final ByteIterable v = StringBinding.stringToEntry( JsonFactory.get().serialize( bean ) );
+            store.put( transaction, k, v );
+
+            if ( existingRecord != null )
             {
-                put( bean );
+                applyToAggregate( transaction, existingRecord, -1 );
+                siteStore.delete( transaction, k );
             }
-        }
+
+            final SiteRecord siteRecord = SiteRecord.fromBean( bean );
+            if ( siteRecord != null )
+            {
+                applyToAggregate( transaction, siteRecord, 1 );
+                siteStore.put( transaction, k, StringBinding.stringToEntry( JsonFactory.get().serialize( siteRecord ) ) );
+            }
+        } );
     }
 
     public Iterator<TelemetryPublishBean> iterator( )
@@ -104,32 +159,168 @@ public class Storage
         return new InnerIterator();
     }
 
-    private void put( final TelemetryPublishBean value )
+    /**
+     * Sum of the aggregates for sites whose latest record is on or after the UTC day of {@code since}.
+     */
+    TelemetryAggregate readAggregate( final Instant since )
     {
-        environment.executeInTransaction( transaction ->
+        return environment.computeInReadonlyTransaction( transaction ->
         {
-            final ByteIterable k = StringBinding.stringToEntry( value.getInstanceHash() );
-            final ByteIterable v = StringBinding.stringToEntry( JsonFactory.get().serialize( value ) );
-            store.put( transaction, k, v );
+            final TelemetryAggregate aggregate = new TelemetryAggregate();
+            try ( Cursor cursor = aggregateStore.openCursor( transaction ) )
+            {
+                if ( cursor.getSearchKeyRange( LongBinding.longToEntry( epochDay( since ) ) ) != null )
+                {
+                    do
+                    {
+                        final String json = StringBinding.entryToString( cursor.getValue() );
+                        aggregate.addAll( JsonFactory.get().deserialize( json, TelemetryAggregate.class ) );
+                    }
+                    while ( cursor.getNext() );
+                }
+            }
+            return aggregate;
         } );
     }
 
-    private TelemetryPublishBean get( final String hash )
+    /**
+     * Latest record of each site whose latest record is on or after the UTC day of {@code since}.
+     */
+    List<SiteRecord> readSiteRecords( final Instant since )
     {
-        return environment.computeInTransaction( transaction ->
+        final long sinceDay = epochDay( since );
+        return environment.computeInReadonlyTransaction( transaction ->
         {
-            final ByteIterable k = StringBinding.stringToEntry( hash );
-            final ByteIterable v = store.get( transaction, k );
-            if ( v != null )
+            final List<SiteRecord> siteRecords = new ArrayList<>();
+            try ( Cursor cursor = siteStore.openCursor( transaction ) )
             {
-                final String string = StringBinding.entryToString( new ArrayByteIterable( v ) );
-                if ( StringUtil.notEmpty( string ) )
+                while ( cursor.getNext() )
                 {
-                    return JsonFactory.get().deserialize( string, TelemetryPublishBean.class );
+                    final String json = StringBinding.entryToString( cursor.getValue() );
+                    final SiteRecord siteRecord = JsonFactory.get().deserialize( json, SiteRecord.class );
+                    if ( epochDay( siteRecord.getTimestamp() ) >= sinceDay )
+                    {
+                        siteRecords.add( siteRecord );
+                    }
                 }
             }
-            return null;
+            return siteRecords;
+        } );
+    }
+
+    /**
+     * Discard the site and aggregate stores and recreate them from the raw records.
+     */
+    public void rebuildAggregates( )
+    {
+        final Instant startTime = Instant.now();
+        LOGGER.info( () -> "beginning rebuild of telemetry aggregates" );
+
+        environment.executeInTransaction( transaction ->
+        {
+            clearStore( transaction, siteStore );
+            clearStore( transaction, aggregateStore );
+
+            try ( Cursor cursor = store.openCursor( transaction ) )
+            {
+                while ( cursor.getNext() )
+                {
+                    final String json = StringBinding.entryToString( cursor.getValue() );
+                    if ( StringUtil.notEmpty( json ) )
+                    {
+                        final SiteRecord siteRecord = SiteRecord.fromBean( JsonFactory.get().deserialize( json, TelemetryPublishBean.class ) );
+                        if ( siteRecord != null )
+                        {
+                            applyToAggregate( transaction, siteRecord, 1 );
+                            siteStore.put( transaction, cursor.getKey(), StringBinding.stringToEntry( JsonFactory.get().serialize( siteRecord ) ) );
+                        }
+                    }
+                }
+            }
+
+            metaStore.put( transaction, StringBinding.stringToEntry( META_KEY_AGGREGATE_VERSION ), StringBinding.stringToEntry( AGGREGATE_VERSION ) );
         } );
+
+        LOGGER.info( () -> "completed rebuild of telemetry aggregates for " + siteCount() + " sites in "
+                + Duration.between( startTime, Instant.now() ).toMillis() + "ms" );
+    }
+
+    private void applyToAggregate( final Transaction transaction, final SiteRecord siteRecord, final int sign )
+    {
+        final ByteIterable k = LongBinding.longToEntry( epochDay( siteRecord.getTimestamp() ) );
+        final ByteIterable existingValue = aggregateStore.get( transaction, k );
+        final TelemetryAggregate aggregate = existingValue == null
+                ? new TelemetryAggregate()
+                : JsonFactory.get().deserialize( StringBinding.entryToString( existingValue ), TelemetryAggregate.class );
+
+        aggregate.apply( siteRecord, sign );
+
+        if ( aggregate.isEmpty() )
+        {
+            aggregateStore.delete( transaction, k );
+        }
+        else
+        {
+            aggregateStore.put( transaction, k, StringBinding.stringToEntry( JsonFactory.get().serialize( aggregate ) ) );
+        }
+    }
+
+    private SiteRecord readSiteRecord( final Transaction transaction, final String hash )
+    {
+        final ByteIterable v = siteStore.get( transaction, StringBinding.stringToEntry( hash ) );
+        return v == null
+                ? null
+                : JsonFactory.get().deserialize( StringBinding.entryToString( v ), SiteRecord.class );
+    }
+
+    private String readAggregateVersion( )
+    {
+        return environment.computeInReadonlyTransaction( transaction ->
+        {
+            final ByteIterable v = metaStore.get( transaction, StringBinding.stringToEntry( META_KEY_AGGREGATE_VERSION ) );
+            return v == null ? null : StringBinding.entryToString( v );
+        } );
+    }
+
+    private long siteCount( )
+    {
+        return environment.computeInReadonlyTransaction( transaction -> siteStore.count( transaction ) );
+    }
+
+    private static void clearStore( final Transaction transaction, final Store targetStore )
+    {
+        try ( Cursor cursor = targetStore.openCursor( transaction ) )
+        {
+            while ( cursor.getNext() )
+            {
+                cursor.deleteCurrent();
+            }
+        }
+    }
+
+    private static long epochDay( final Instant instant )
+    {
+        return instant.atOffset( ZoneOffset.UTC ).toLocalDate().toEpochDay();
+    }
+
+    private TelemetryPublishBean get( final String hash )
+    {
+        return environment.computeInTransaction( transaction -> get( transaction, hash ) );
+    }
+
+    private TelemetryPublishBean get( final Transaction transaction, final String hash )
+    {
+        final ByteIterable k = StringBinding.stringToEntry( hash );
+        final ByteIterable v = store.get( transaction, k );
+        if ( v != null )
+        {
+            final String string = StringBinding.entryToString( new ArrayByteIterable( v ) );
+            if ( StringUtil.notEmpty( string ) )
+            {
+                return JsonFactory.get().deserialize( string, TelemetryPublishBean.class );
+            }
+        }
+        return null;
     }
 
     public void close( )
@@ -22,16 +22,9 @@ package password.pwm.receiver;
 
 import lombok.Builder;
 import lombok.Value;
-import password.pwm.PwmAboutProperty;
-import password.pwm.bean.TelemetryPublishBean;
-import password.pwm.config.PwmSetting;
-import password.pwm.svc.stats.Statistic;
-import password.pwm.util.java.StringUtil;
-import password.pwm.util.java.TimeDuration;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -53,149 +46,28 @@ public class SummaryBean
 
     static SummaryBean fromStorage( final Storage storage, final Duration maxAge )
     {
+        final Instant since = Instant.now().minus( maxAge );
+        final TelemetryAggregate aggregate = storage.readAggregate( since );
 
-        final String naText = "n/a";
-
-        int serverCount = 0;
         final Map<String, SiteSummary> siteSummaryMap = new TreeMap<>();
-        final Map<String, Integer> ldapVendorCount = new TreeMap<>();
-        final Map<String, Integer> appServerCount = new TreeMap<>();
-        final Map<String, Integer> settingCount = new TreeMap<>();
-        final Map<String, Integer> statCount = new TreeMap<>();
-        final Map<String, Integer> deploymentCount = new TreeMap<>();
-        final Map<String, Integer> osCount = new TreeMap<>();
-        final Map<String, Integer> dbCount = new TreeMap<>();
-        final Map<String, Integer> javaCount = new TreeMap<>();
-        final Map<String, Integer> appVersionCount = new TreeMap<>();
-
-        for ( Iterator<TelemetryPublishBean> iterator = storage.iterator(); iterator.hasNext(); )
+        for ( final SiteRecord siteRecord : storage.readSiteRecords( since ) )
         {
-            final TelemetryPublishBean bean = iterator.next();
-            final Duration age = Duration.between( Instant.now(), bean.getTimestamp() );
-
-            if ( bean.getAbout() != null && age.toMillis() < maxAge.toMillis() )
-            {
-                serverCount++;
-                final String hashID = bean.getInstanceHash();
-                final String ldapVendor = bean.getLdapVendorName() == null
-                        ? naText
-                        : bean.getLdapVendorName();
-
-                final String dbVendor = dbVendorName( bean );
-
-                final SiteSummary siteSummary = SiteSummary.builder()
-                        .description( bean.getSiteDescription() )
-                        .version( bean.getVersionVersion() )
-                        .installAge( TimeDuration.fromCurrent( bean.getInstallTime() ).asDuration() )
-                        .updateAge( TimeDuration.fromCurrent( bean.getTimestamp() ).asDuration() )
-                        .ldapVendor( ldapVendor )
-
-                        .osName( bean.getAbout().get( PwmAboutProperty.java_osName.name() ) )
-                        .osVersion( bean.getAbout().get( PwmAboutProperty.java_osVersion.name() ) )
-                        .servletName( bean.getAbout().get( PwmAboutProperty.java_appServerInfo.name() ) )
-                        .dbVendor( dbVendor )
-                        .platform( bean.getAbout().get( PwmAboutProperty.app_deployment_type.name() ) )
-                        .javaVm( javaVmInfo( bean, "n/a" ) )
-                        .build();
-
-                siteSummaryMap.put( hashID, siteSummary );
-
-                incrementCounterMap( dbCount, dbVendor );
-
-                incrementCounterMap( ldapVendorCount, ldapVendor );
-
-                incrementCounterMap( appServerCount, siteSummary.getServletName() );
-
-                incrementCounterMap( osCount, bean.getAbout().get( PwmAboutProperty.java_osName.name() ) );
-
-                incrementCounterMap( javaCount, siteSummary.getJavaVm() );
-
-                incrementCounterMap( deploymentCount, bean.getAbout().get( PwmAboutProperty.app_deployment_type.name() ) );
-
-                incrementCounterMap( appVersionCount, siteSummary.getVersion() );
-
-                for ( final String settingKey : bean.getConfiguredSettings() )
-                {
-                    PwmSetting.forKey( settingKey ).ifPresent( ( setting ) ->
-                    {
-                        final String description = setting.toMenuLocationDebug( null, null );
-                        incrementCounterMap( settingCount, description );
-                    } );
-                }
-
-                for ( final String statKey : bean.getStatistics().keySet() )
-                {
-                    Statistic.forKey( statKey ).ifPresent( ( statistic ->
-                    {
-                        final int count = Integer.parseInt( bean.getStatistics().get( statKey ) );
-                        incrementCounterMap( statCount, statistic.getLabel( null ), count );
-                    } ) );
-                }
-            }
+            siteSummaryMap.put( siteRecord.getInstanceHash(), siteRecord.toSiteSummary() );
         }
 
-
         return SummaryBean.builder()
-                .serverCount( serverCount )
+                .serverCount( aggregate.getServerCount() )
                 .siteSummary( siteSummaryMap )
-                .ldapVendorCount( ldapVendorCount )
-                .settingCount( settingCount )
-                .statCount( statCount )
-                .appServerCount( appServerCount )
-                .osCount( osCount )
-                .dbCount( dbCount )
-                .deploymentCount( deploymentCount )
-                .javaCount( javaCount )
-                .appVersionCount( appVersionCount )
+                .ldapVendorCount( aggregate.getCounts( TelemetryAggregate.Dimension.ldapVendor ) )
+                .settingCount( aggregate.getCounts( TelemetryAggregate.Dimension.setting ) )
+                .statCount( aggregate.getCounts( TelemetryAggregate.Dimension.stat ) )
+                .appServerCount( aggregate.getCounts( TelemetryAggregate.Dimension.appServer ) )
+                .osCount( aggregate.getCounts( TelemetryAggregate.Dimension.os ) )
+                .dbCount( aggregate.getCounts( TelemetryAggregate.Dimension.db ) )
+                .deploymentCount( aggregate.getCounts( TelemetryAggregate.Dimension.deployment ) )
+                .javaCount( aggregate.getCounts( TelemetryAggregate.Dimension.java ) )
+                .appVersionCount( aggregate.getCounts( TelemetryAggregate.Dimension.appVersion ) )
                 .build();
-
-    }
-
-    private static void incrementCounterMap( final Map<String, Integer> map, final String key )
-    {
-        incrementCounterMap( map, key, 1 );
-    }
-
-    private static void incrementCounterMap( final Map<String, Integer> map, final String key, final int count )
-    {
-        if ( map == null || StringUtil.isEmpty( key ) )
-        {
-            return;
-        }
-
-        if ( map.containsKey( key ) )
-        {
-            map.put( key, map.get( key ) + count );
-        }
-        else
-        {
-            map.put( key, count );
-        }
-    }
-
-    private static String dbVendorName( final TelemetryPublishBean bean )
-    {
-        String dbVendor = "n/a";
-        final Map<String, String> aboutMap = bean.getAbout();
-        if ( aboutMap.get( PwmAboutProperty.database_databaseProductName.name() ) != null )
-        {
-            dbVendor = aboutMap.get( PwmAboutProperty.database_databaseProductName.name() );
-
-            if ( aboutMap.get( PwmAboutProperty.database_databaseProductVersion.name() ) != null )
-            {
-                dbVendor += "/" + aboutMap.get( PwmAboutProperty.database_databaseProductVersion.name() );
-            }
-        }
-        return dbVendor;
-    }
-
-    private static String javaVmInfo( final TelemetryPublishBean bean, final String naText )
-    {
-        return bean.getAbout().getOrDefault( PwmAboutProperty.java_vmName.name(), naText )
-                + " ("
-                + bean.getAbout().getOrDefault( PwmAboutProperty.java_vmVendor.name(), naText )
-                + " ) "
-                + bean.getAbout().getOrDefault( PwmAboutProperty.java_vmVersion.name(), naText );
     }
 
     @Value
@@ -0,0 +1,126 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.receiver;
+
+import password.pwm.util.java.StringUtil;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counters for a set of site records.  Aggregates are maintained incrementally: a record is applied with a
+ * positive sign when stored and with a negative sign when it is replaced by a newer record for the same site.
+ */
+class TelemetryAggregate
+{
+    enum Dimension
+    {
+        ldapVendor,
+        appServer,
+        setting,
+        stat,
+        os,
+        deployment,
+        db,
+        java,
+        appVersion,
+    }
+
+    private int serverCount;
+    private Map<String, Map<String, Integer>> counts = new TreeMap<>();
+
+    int getServerCount()
+    {
+        return serverCount;
+    }
+
+    Map<String, Integer> getCounts( final Dimension dimension )
+    {
+        final Map<String, Integer> dimensionCounts = counts.get( dimension.name() );
+        return dimensionCounts == null
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap( dimensionCounts );
+    }
+
+    boolean isEmpty()
+    {
+        return serverCount <= 0;
+    }
+
+    void apply( final SiteRecord siteRecord, final int sign )
+    {
+        serverCount += sign;
+        increment( Dimension.ldapVendor, siteRecord.getLdapVendor(), sign );
+        increment( Dimension.appServer, siteRecord.getServletName(), sign );
+        increment( Dimension.os, siteRecord.getOsName(), sign );
+        increment( Dimension.deployment, siteRecord.getDeploymentType(), sign );
+        increment( Dimension.db, siteRecord.getDbVendor(), sign );
+        increment( Dimension.java, siteRecord.getJavaVm(), sign );
+        increment( Dimension.appVersion, siteRecord.getVersion(), sign );
+
+        for ( final String setting : siteRecord.getSettings() )
+        {
+            increment( Dimension.setting, setting, sign );
+        }
+
+        for ( final Map.Entry<String, Integer> entry : siteRecord.getStats().entrySet() )
+        {
+            increment( Dimension.stat, entry.getKey(), sign * entry.getValue() );
+        }
+    }
+
+    void addAll( final TelemetryAggregate other )
+    {
+        serverCount += other.serverCount;
+        for ( final Map.Entry<String, Map<String, Integer>> dimensionEntry : other.counts.entrySet() )
+        {
+            final Map<String, Integer> dimensionCounts = counts.computeIfAbsent( dimensionEntry.getKey(), k -> new TreeMap<>() );
+            for ( final Map.Entry<String, Integer> entry : dimensionEntry.getValue().entrySet() )
+            {
+                dimensionCounts.merge( entry.getKey(), entry.getValue(), Integer::sum );
+            }
+        }
+    }
+
+    private void increment( final Dimension dimension, final String key, final int amount )
+    {
+        if ( StringUtil.isEmpty( key ) || amount == 0 )
+        {
+            return;
+        }
+
+        final Map<String, Integer> dimensionCounts = counts.computeIfAbsent( dimension.name(), k -> new TreeMap<>() );
+        final int newValue = dimensionCounts.getOrDefault( key, 0 ) + amount;
+        if ( newValue == 0 )
+        {
+            dimensionCounts.remove( key );
+            if ( dimensionCounts.isEmpty() )
+            {
+                counts.remove( dimension.name() );
+            }
+        }
+        else
+        {
+            dimensionCounts.put( key, newValue );
+        }
+    }
+}
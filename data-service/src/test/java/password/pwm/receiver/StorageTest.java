@@ -0,0 +1,152 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.receiver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import password.pwm.PwmAboutProperty;
+import password.pwm.bean.TelemetryPublishBean;
+import password.pwm.config.PwmSetting;
+import password.pwm.svc.stats.Statistic;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public class StorageTest
+{
+    @TempDir
+    public Path temporaryFolder;
+
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        final Path propertiesFile = temporaryFolder.resolve( "data-service.properties" );
+        final String storagePath = temporaryFolder.toAbsolutePath().toString().replace( "\\", "/" );
+        Files.writeString( propertiesFile, Settings.Setting.storagePath.name() + "=" + storagePath + "\n", StandardCharsets.UTF_8 );
+        storage = new Storage( Settings.readFromFile( propertiesFile.toString() ) );
+    }
+
+    @AfterEach
+    public void shutdown()
+    {
+        storage.close();
+    }
+
+    private static TelemetryPublishBean makeBean( final String instanceHash, final Instant timestamp, final String ldapVendor )
+    {
+        return TelemetryPublishBean.builder()
+                .instanceHash( instanceHash )
+                .timestamp( timestamp )
+                .ldapVendorName( ldapVendor )
+                .versionVersion( "2.1.0" )
+                .about( Map.of( PwmAboutProperty.java_osName.name(), "Linux" ) )
+                .statistics( Map.of( Statistic.PASSWORD_CHANGES.getKey(), "5" ) )
+                .configuredSettings( List.of( PwmSetting.PASSWORD_SHAREDHISTORY_ENABLE.getKey() ) )
+                .build();
+    }
+
+    private static String statLabel()
+    {
+        return Statistic.PASSWORD_CHANGES.getLabel( null );
+    }
+
+    @Test
+    public void testStoreUpdatesAggregate()
+    {
+        final Instant now = Instant.now();
+        storage.store( makeBean( "site1", now, "vendorA" ) );
+        storage.store( makeBean( "site2", now, "vendorB" ) );
+
+        final TelemetryAggregate aggregate = storage.readAggregate( now.minus( Duration.ofDays( 1 ) ) );
+        Assertions.assertEquals( 2, aggregate.getServerCount() );
+        Assertions.assertEquals( Map.of( "vendorA", 1, "vendorB", 1 ), aggregate.getCounts( TelemetryAggregate.Dimension.ldapVendor ) );
+        Assertions.assertEquals( Map.of( "Linux", 2 ), aggregate.getCounts( TelemetryAggregate.Dimension.os ) );
+        Assertions.assertEquals( 10, aggregate.getCounts( TelemetryAggregate.Dimension.stat ).get( statLabel() ) );
+        Assertions.assertEquals( 1, aggregate.getCounts( TelemetryAggregate.Dimension.setting ).size() );
+        Assertions.assertEquals( 2, storage.readSiteRecords( now.minus( Duration.ofDays( 1 ) ) ).size() );
+    }
+
+    @Test
+    public void testNewerRecordReplacesSite()
+    {
+        final Instant now = Instant.now();
+        storage.store( makeBean( "site1", now.minusSeconds( 60 ), "vendorA" ) );
+        storage.store( makeBean( "site1", now, "vendorB" ) );
+
+        // an older record for the site is ignored
+        storage.store( makeBean( "site1", now.minusSeconds( 120 ), "vendorC" ) );
+
+        final TelemetryAggregate aggregate = storage.readAggregate( now.minus( Duration.ofDays( 1 ) ) );
+        Assertions.assertEquals( 1, aggregate.getServerCount() );
+        Assertions.assertEquals( Map.of( "vendorB", 1 ), aggregate.getCounts( TelemetryAggregate.Dimension.ldapVendor ) );
+        Assertions.assertEquals( 5, aggregate.getCounts( TelemetryAggregate.Dimension.stat ).get( statLabel() ) );
+        Assertions.assertEquals( 1, storage.count() );
+    }
+
+    @Test
+    public void testSummaryWindow()
+    {
+        final Instant now = Instant.now();
+        storage.store( makeBean( "site1", now, "vendorA" ) );
+        storage.store( makeBean( "site2", now.minus( Duration.ofDays( 10 ) ), "vendorB" ) );
+
+        final Instant since = now.minus( Duration.ofDays( 2 ) );
+        final TelemetryAggregate aggregate = storage.readAggregate( since );
+        Assertions.assertEquals( 1, aggregate.getServerCount() );
+        Assertions.assertEquals( Map.of( "vendorA", 1 ), aggregate.getCounts( TelemetryAggregate.Dimension.ldapVendor ) );
+        Assertions.assertEquals( List.of( "site1" ), storage.readSiteRecords( since ).stream().map( SiteRecord::getInstanceHash ).toList() );
+
+        Assertions.assertEquals( 2, storage.readAggregate( now.minus( Duration.ofDays( 30 ) ) ).getServerCount() );
+    }
+
+    @Test
+    public void testRebuildAggregates()
+    {
+        final Instant now = Instant.now();
+        storage.store( makeBean( "site1", now.minusSeconds( 60 ), "vendorA" ) );
+        storage.store( makeBean( "site1", now, "vendorB" ) );
+        storage.store( makeBean( "site2", now.minus( Duration.ofDays( 3 ) ), "vendorB" ) );
+
+        final Instant since = now.minus( Duration.ofDays( 30 ) );
+        final TelemetryAggregate before = storage.readAggregate( since );
+
+        storage.rebuildAggregates();
+
+        final TelemetryAggregate after = storage.readAggregate( since );
+        Assertions.assertEquals( before.getServerCount(), after.getServerCount() );
+        for ( final TelemetryAggregate.Dimension dimension : TelemetryAggregate.Dimension.values() )
+        {
+            Assertions.assertEquals( before.getCounts( dimension ), after.getCounts( dimension ), dimension.name() );
+        }
+        Assertions.assertEquals( Map.of( "vendorB", 2 ), after.getCounts( TelemetryAggregate.Dimension.ldapVendor ) );
+        Assertions.assertEquals( 2, storage.readSiteRecords( since ).size() );
+    }
+}
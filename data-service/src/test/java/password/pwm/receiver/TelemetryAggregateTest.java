@@ -0,0 +1,97 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.receiver;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public class TelemetryAggregateTest
+{
+    private static SiteRecord makeSiteRecord( final String ldapVendor, final int statValue )
+    {
+        return SiteRecord.builder()
+                .instanceHash( "site" )
+                .timestamp( Instant.now() )
+                .ldapVendor( ldapVendor )
+                .osName( "Linux" )
+                .settings( List.of( "setting1" ) )
+                .stats( Map.of( "stat1", statValue ) )
+                .build();
+    }
+
+    @Test
+    public void testApplyAndRemove()
+    {
+        final TelemetryAggregate aggregate = new TelemetryAggregate();
+        final SiteRecord record1 = makeSiteRecord( "vendorA", 3 );
+        final SiteRecord record2 = makeSiteRecord( "vendorB", 4 );
+
+        aggregate.apply( record1, 1 );
+        aggregate.apply( record2, 1 );
+        Assertions.assertEquals( 2, aggregate.getServerCount() );
+        Assertions.assertEquals( Map.of( "vendorA", 1, "vendorB", 1 ), aggregate.getCounts( TelemetryAggregate.Dimension.ldapVendor ) );
+        Assertions.assertEquals( Map.of( "stat1", 7 ), aggregate.getCounts( TelemetryAggregate.Dimension.stat ) );
+        Assertions.assertEquals( Map.of( "setting1", 2 ), aggregate.getCounts( TelemetryAggregate.Dimension.setting ) );
+
+        // removed values drop out of the counts entirely
+        aggregate.apply( record1, -1 );
+        Assertions.assertEquals( Map.of( "vendorB", 1 ), aggregate.getCounts( TelemetryAggregate.Dimension.ldapVendor ) );
+        Assertions.assertEquals( Map.of( "stat1", 4 ), aggregate.getCounts( TelemetryAggregate.Dimension.stat ) );
+
+        aggregate.apply( record2, -1 );
+        Assertions.assertTrue( aggregate.isEmpty() );
+        for ( final TelemetryAggregate.Dimension dimension : TelemetryAggregate.Dimension.values() )
+        {
+            Assertions.assertTrue( aggregate.getCounts( dimension ).isEmpty(), dimension.name() );
+        }
+    }
+
+    @Test
+    public void testAddAll()
+    {
+        final TelemetryAggregate day1 = new TelemetryAggregate();
+        day1.apply( makeSiteRecord( "vendorA", 1 ), 1 );
+        final TelemetryAggregate day2 = new TelemetryAggregate();
+        day2.apply( makeSiteRecord( "vendorA", 2 ), 1 );
+        day2.apply( makeSiteRecord( "vendorB", 3 ), 1 );
+
+        final TelemetryAggregate total = new TelemetryAggregate();
+        total.addAll( day1 );
+        total.addAll( day2 );
+        Assertions.assertEquals( 3, total.getServerCount() );
+        Assertions.assertEquals( Map.of( "vendorA", 2, "vendorB", 1 ), total.getCounts( TelemetryAggregate.Dimension.ldapVendor ) );
+        Assertions.assertEquals( Map.of( "stat1", 6 ), total.getCounts( TelemetryAggregate.Dimension.stat ) );
+        Assertions.assertEquals( Map.of( "Linux", 3 ), total.getCounts( TelemetryAggregate.Dimension.os ) );
+    }
+
+    @Test
+    public void testSecretMatches()
+    {
+        Assertions.assertTrue( RebuildAggregatesServlet.secretMatches( "secret", "secret" ) );
+        Assertions.assertFalse( RebuildAggregatesServlet.secretMatches( "secret", "other" ) );
+        Assertions.assertFalse( RebuildAggregatesServlet.secretMatches( "secret", null ) );
+        Assertions.assertFalse( RebuildAggregatesServlet.secretMatches( "", "" ) );
+    }
+}
@@ -23,38 +23,41 @@ package password.pwm.util;
 import password.pwm.util.java.PwmNumberFormat;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.time.Duration;
 import java.util.Locale;
 import java.util.Objects;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Measures the rate of events over a trailing time window.  The window is divided into a fixed number of time buckets,
+ * each holding a {@link LongAdder}, so concurrent callers of {@link #markEvents(int)} do not contend on a lock or
+ * a single counter.  A bucket is replaced (rather than reset) when its time slot is reused, events marked concurrently
+ * with the replacement may be counted in the expiring bucket.
+ */
 public class EventRateMeter
 {
-    private final long maxDuration;
-    private final Lock lock = new ReentrantLock();
+    private static final int BUCKET_COUNT = 60;
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>( BUCKET_COUNT );
 
-    private volatile MovingAverage movingAverage;
-    private volatile double remainder;
+    private volatile long startMillis;
 
     public EventRateMeter( final Duration maxDuration )
     {
-        this.maxDuration = Objects.requireNonNull( maxDuration ) .toMillis();
+        this.bucketMillis = Math.max( 1, Objects.requireNonNull( maxDuration ).toMillis() / BUCKET_COUNT );
         reset();
     }
 
     public void reset( )
     {
-        lock.lock();
-        try
-        {
-            movingAverage = new MovingAverage( Duration.ofMillis( maxDuration ) );
-            remainder = 0;
-        }
-        finally
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
         {
-            lock.unlock();
+            buckets.set( i, new Bucket( -1 ) );
         }
+        startMillis = System.currentTimeMillis();
     }
 
     public void markEvent()
@@ -64,25 +67,27 @@ public class EventRateMeter
 
     public void markEvents( final int eventCount )
     {
-        lock.lock();
-        try
+        final long slot = System.currentTimeMillis() / bucketMillis;
+        bucketForSlot( slot ).getCounter().add( eventCount );
+    }
+
+    private Bucket bucketForSlot( final long slot )
+    {
+        final int index = ( int ) ( slot % BUCKET_COUNT );
+        while ( true )
         {
-            final long timeSinceLastUpdate = System.currentTimeMillis() - movingAverage.getLastMillis();
-            if ( timeSinceLastUpdate != 0 )
+            final Bucket bucket = buckets.get( index );
+            if ( bucket.getSlot() >= slot )
             {
-                final double eventRate = ( eventCount + remainder ) / timeSinceLastUpdate;
-                movingAverage.update( eventRate * 1000 );
-                remainder = 0;
+                return bucket;
             }
-            else
+
+            final Bucket newBucket = new Bucket( slot );
+            if ( buckets.compareAndSet( index, bucket, newBucket ) )
             {
-                remainder += eventCount;
+                return newBucket;
             }
         }
-        finally
-        {
-            lock.unlock();
-        }
     }
 
     public String prettyEps( final Locale locale )
@@ -92,15 +97,52 @@ public class EventRateMeter
 
     public BigDecimal rawEps( )
     {
-        lock.lock();
-        try
+        final long now = System.currentTimeMillis();
+        final long currentSlot = now / bucketMillis;
+        final long oldestSlot = currentSlot - BUCKET_COUNT + 1;
+
+        long eventCount = 0;
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
         {
-            return BigDecimal.valueOf( this.movingAverage.getAverage() );
+            final Bucket bucket = buckets.get( i );
+            if ( bucket.getSlot() >= oldestSlot && bucket.getSlot() <= currentSlot )
+            {
+                eventCount += bucket.getCounter().sum();
+            }
         }
-        finally
+
+        if ( eventCount == 0 )
         {
-            lock.unlock();
+            return BigDecimal.ZERO;
         }
+
+        // the current bucket is only partially elapsed, and a new meter has not yet seen a full window
+        final long bucketWindowMillis = ( BUCKET_COUNT - 1 ) * bucketMillis + ( now - currentSlot * bucketMillis );
+        final long measuredMillis = Math.max( bucketMillis, Math.min( bucketWindowMillis, now - startMillis ) );
+
+        return BigDecimal.valueOf( eventCount )
+                .multiply( BigDecimal.valueOf( 1000 ) )
+                .divide( BigDecimal.valueOf( measuredMillis ), MathContext.DECIMAL64 );
     }
 
+    private static class Bucket
+    {
+        private final long slot;
+        private final LongAdder counter = new LongAdder();
+
+        Bucket( final long slot )
+        {
+            this.slot = slot;
+        }
+
+        long getSlot()
+        {
+            return slot;
+        }
+
+        LongAdder getCounter()
+        {
+            return counter;
+        }
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package password.pwm.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket log-linear histogram of non-negative values, typically latencies in milliseconds.  Each power of two
+ * range is split into {@link #SUB_BUCKET_COUNT} linear buckets, so any recorded value is reported with a relative
+ * error of at most 1/{@value #SUB_BUCKET_COUNT}.  Recording is lock-free and allocation free.
+ */
+public class LatencyHistogram
+{
+    static final int SUB_BUCKET_COUNT = 16;
+
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros( SUB_BUCKET_COUNT );
+    private static final int BUCKET_COUNT = ( Long.SIZE - SUB_BUCKET_BITS + 1 ) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray( BUCKET_COUNT );
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator( Math::max, 0 );
+
+    public void record( final Duration duration )
+    {
+        record( duration.toMillis() );
+    }
+
+    public void record( final long value )
+    {
+        final long normalizedValue = Math.max( 0, value );
+        buckets.incrementAndGet( bucketIndex( normalizedValue ) );
+        count.increment();
+        sum.add( normalizedValue );
+        max.accumulate( normalizedValue );
+    }
+
+    public long count()
+    {
+        return count.sum();
+    }
+
+    public long sum()
+    {
+        return sum.sum();
+    }
+
+    public long max()
+    {
+        return max.get();
+    }
+
+    public double average()
+    {
+        final long currentCount = count();
+        return currentCount == 0 ? 0 : ( double ) sum() / currentCount;
+    }
+
+    /**
+     * Value at the given quantile.
+     * @param quantile quantile between 0 and 1, for example 0.99 for the 99th percentile.
+     * @return upper bound of the bucket containing the quantile, or 0 if no values have been recorded.
+     */
+    public long valueAtQuantile( final double quantile )
+    {
+        if ( quantile < 0 || quantile > 1 )
+        {
+            throw new IllegalArgumentException( "quantile must be between 0 and 1" );
+        }
+
+        final long[] snapshot = snapshotBuckets();
+        long total = 0;
+        for ( final long bucketCount : snapshot )
+        {
+            total += bucketCount;
+        }
+
+        if ( total == 0 )
+        {
+            return 0;
+        }
+
+        final long rank = Math.max( 1, ( long ) Math.ceil( quantile * total ) );
+        long seen = 0;
+        for ( int i = 0; i < snapshot.length; i++ )
+        {
+            seen += snapshot[i];
+            if ( seen >= rank )
+            {
+                return Math.min( bucketUpperBound( i ), max() );
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Number of recorded values less than or equal to {@code value}.  Values in the bucket containing {@code value}
+     * are only counted if the entire bucket is at or below {@code value}.
+     * @param value upper bound, inclusive
+     * @return count of values
+     */
+    public long countAtOrBelow( final long value )
+    {
+        long total = 0;
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            if ( bucketUpperBound( i ) > value )
+            {
+                break;
+            }
+            total += buckets.get( i );
+        }
+        return total;
+    }
+
+    public void reset()
+    {
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            buckets.set( i, 0 );
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    private long[] snapshotBuckets()
+    {
+        final long[] snapshot = new long[BUCKET_COUNT];
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            snapshot[i] = buckets.get( i );
+        }
+        return snapshot;
+    }
+
+    static int bucketIndex( final long value )
+    {
+        if ( value < SUB_BUCKET_COUNT )
+        {
+            return ( int ) value;
+        }
+
+        final int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros( value );
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        final int subBucket = ( int ) ( value >>> shift ) - SUB_BUCKET_COUNT;
+        return ( shift + 1 ) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound( final int index )
+    {
+        if ( index < SUB_BUCKET_COUNT )
+        {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        final long subBucket = SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT;
+        final long nextLowerBound = ( subBucket + 1 ) << shift;
+        return nextLowerBound <= 0 ? Long.MAX_VALUE : nextLowerBound - 1;
+    }
+}
@@ -23,8 +23,7 @@ package password.pwm.util;
 import java.text.NumberFormat;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <p>MovingAverage.java</p>
@@ -47,16 +46,16 @@ import java.util.concurrent.locks.ReentrantLock;
  * algorithm described at <a href="http://en.wikipedia.org/wiki/Moving_average">http://en.wikipedia.org/wiki/Moving_average</a>. The average does not
  * sample itself; it merely computes the new average when updated with
  * a sample by an external mechanism.</p>
+ *
+ * <p>The average and the time of the last update are held in a single immutable value that is replaced
+ * using compare-and-set, so updates do not lock.</p>
  **/
 public class MovingAverage
 {
     private static final int FORMATTED_FRACTION_DIGITS = 3;
 
-    private final Lock lock = new ReentrantLock();
     private final long windowMillis;
-
-    private volatile long lastMillis;
-    private volatile double average;
+    private final AtomicReference<AverageState> state = new AtomicReference<>( AverageState.EMPTY );
 
     /**
      * Construct a {@link MovingAverage}, providing the time window
@@ -76,29 +75,8 @@ public class MovingAverage
      */
     public void update( final double sample )
     {
-        lock.lock();
-        try
-        {
-            final long now = System.currentTimeMillis();
-
-            if ( lastMillis == 0 )
-            {
-                // first sample
-                average = sample;
-                lastMillis = now;
-                return;
-            }
-
-            final long deltaTime = now - lastMillis;
-            final double coefficient = Math.exp( -1.0 * ( ( double ) deltaTime / windowMillis ) );
-            average = ( 1.0 - coefficient ) * sample + coefficient * average;
-
-            lastMillis = now;
-        }
-        finally
-        {
-            lock.unlock();
-        }
+        final long now = System.currentTimeMillis();
+        state.updateAndGet( current -> current.update( sample, now, windowMillis ) );
     }
 
     public String getFormattedAverage()
@@ -117,12 +95,12 @@ public class MovingAverage
     public double getAverage( )
     {
         update( 0 );
-        return average;
+        return state.get().average();
     }
 
     public long getLastMillis()
     {
-        return lastMillis;
+        return state.get().lastMillis();
     }
 
     public void update( final Duration timeDuration )
@@ -135,4 +113,22 @@ public class MovingAverage
         return Duration.of( ( long ) getAverage(), ChronoUnit.MILLIS );
     }
 
+    private record AverageState( long lastMillis, double average )
+    {
+        private static final AverageState EMPTY = new AverageState( 0, 0 );
+
+        AverageState update( final double sample, final long now, final long windowMillis )
+        {
+            if ( lastMillis == 0 )
+            {
+                // first sample
+                return new AverageState( now, sample );
+            }
+
+            final long deltaTime = Math.max( 0, now - lastMillis );
+            final double coefficient = Math.exp( -1.0 * ( ( double ) deltaTime / windowMillis ) );
+            return new AverageState( Math.max( now, lastMillis ), ( 1.0 - coefficient ) * sample + coefficient * average );
+        }
+    }
+
 }
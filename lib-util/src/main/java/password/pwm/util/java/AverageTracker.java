@@ -23,62 +23,47 @@ package password.pwm.util.java;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongArray;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Average of the most recent samples.  Samples are written to a ring buffer without locking; an average computed
+ * while samples are being added may include a mix of older and newer samples.
+ */
 public class AverageTracker
 {
     private final int maxSamples;
     private final AtomicLongArray samples;
-    private final AtomicInteger index = new AtomicInteger();
-    private final AtomicInteger top = new AtomicInteger();
-
-    private final transient ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong sampleCount = new AtomicLong();
 
     public AverageTracker( final int maxSamples )
     {
-        this.maxSamples = maxSamples - 1;
+        this.maxSamples = maxSamples;
         this.samples = new AtomicLongArray( maxSamples );
     }
 
     public void addSample( final long input )
     {
-        lock.writeLock().lock();
-        try
-        {
-            samples.set( index.get(), input );
-            index.updateAndGet( current -> current >= maxSamples ? 0 : current + 1 );
-            top.updateAndGet( current -> current >= maxSamples ? maxSamples : current + 1 );
-        }
-        finally
-        {
-            lock.writeLock().unlock();
-        }
+        final int slot = ( int ) ( sampleCount.getAndIncrement() % maxSamples );
+        samples.set( slot, input );
     }
 
     public BigDecimal avg( )
     {
-        lock.readLock().lock();
-        try
+        final int size = ( int ) Math.min( sampleCount.get(), maxSamples );
+        if ( size == 0 )
         {
-            if ( top.get() == 0 )
-            {
-                return BigDecimal.ZERO;
-            }
-
-            return primitiveSum();
+            return BigDecimal.ZERO;
         }
-        catch ( final ArithmeticException e )
+
+        try
         {
-            return bigSum();
+            return primitiveSum( size );
         }
-        finally
+        catch ( final ArithmeticException e )
         {
-            lock.readLock().unlock();
+            return bigSum( size );
         }
-
     }
 
     public long avgAsLong( )
@@ -86,32 +71,31 @@ public class AverageTracker
         return avg().longValue();
     }
 
-    private BigDecimal primitiveSum()
+    private BigDecimal primitiveSum( final int size )
             throws ArithmeticException
     {
         long total = 0;
-        for ( int i = 0; i <= top.get(); i++ )
+        for ( int i = 0; i < size; i++ )
         {
             // math add exact throws exception on overflow
             total = Math.addExact( total, samples.get( i ) );
         }
-        return calcAvg( BigDecimal.valueOf( total ) );
+        return calcAvg( BigDecimal.valueOf( total ), size );
     }
 
-    private BigDecimal bigSum()
+    private BigDecimal bigSum( final int size )
     {
         BigInteger total = BigInteger.ZERO;
-        for ( int i = 0; i <= top.get(); i++ )
+        for ( int i = 0; i < size; i++ )
         {
             total = total.add( BigInteger.valueOf( samples.get( i ) ) );
         }
 
-        return calcAvg( new BigDecimal( total ) );
+        return calcAvg( new BigDecimal( total ), size );
     }
 
-    private BigDecimal calcAvg( final BigDecimal total )
+    private static BigDecimal calcAvg( final BigDecimal total, final int size )
     {
-        final BigDecimal sampleSize = new BigDecimal( top.get() + 1 );
-        return total.divide( sampleSize, MathContext.DECIMAL128 );
+        return total.divide( new BigDecimal( size ), MathContext.DECIMAL128 );
     }
 }
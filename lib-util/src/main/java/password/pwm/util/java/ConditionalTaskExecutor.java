@@ -23,9 +23,8 @@ package password.pwm.util.java;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BooleanSupplier;
 
 /**
@@ -35,19 +34,25 @@ import java.util.function.BooleanSupplier;
  * <p>The user of this class must periodically call {@code conditionallyExecuteTask(}) or the task will never be run.  Because of this
  * reliance, the conditional is only evaluated during execution of {@code conditionallyExecuteTask()} so the conditional on its own is not
  * a strictly reliable indicator of how frequently the task will execute.</p>
+ *
+ * <p>Callers never wait on each other; if the task is already running in another thread the call returns immediately.</p>
  */
 public final class ConditionalTaskExecutor
 {
     private final Runnable task;
     private final BooleanSupplier predicate;
-    private final Lock lock = new ReentrantLock();
+    private final AtomicBoolean running = new AtomicBoolean();
 
     /**
      * Execute the task if the conditional has been met.  Exceptions when running the task will be logged but not returned.
      */
     public void conditionallyExecuteTask( )
     {
-        lock.lock();
+        if ( !running.compareAndSet( false, true ) )
+        {
+            return;
+        }
+
         try
         {
             if ( predicate.getAsBoolean() )
@@ -57,7 +62,7 @@ public final class ConditionalTaskExecutor
         }
         finally
         {
-            lock.unlock();
+            running.set( false );
         }
     }
 
@@ -106,12 +111,10 @@ public final class ConditionalTaskExecutor
         @Override
         public boolean getAsBoolean()
         {
-            if ( Instant.now().isAfter( nextExecuteTimestamp.get() ) )
-            {
-                setNextTimeFromNow( timeDuration );
-                return true;
-            }
-            return false;
+            final Instant now = Instant.now();
+            final Instant nextExecute = nextExecuteTimestamp.get();
+            return now.isAfter( nextExecute )
+                    && nextExecuteTimestamp.compareAndSet( nextExecute, now.plus( timeDuration ) );
         }
     }
 }
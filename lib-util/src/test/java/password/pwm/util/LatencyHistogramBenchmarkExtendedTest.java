@@ -0,0 +1,189 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package password.pwm.util;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contention benchmark of the lock-free recorders against the previous lock based implementations, recording from
+ * 32 threads into a single shared instance.
+ */
+public class LatencyHistogramBenchmarkExtendedTest
+{
+    private static final int THREAD_COUNT = 32;
+
+    @Test
+    public void launchBenchmark()
+            throws Exception
+    {
+        final Options opt = new OptionsBuilder()
+                .include( this.getClass().getName() + ".*" )
+                .mode( Mode.Throughput )
+                .timeUnit( TimeUnit.MICROSECONDS )
+                .warmupIterations( 3 )
+                .warmupTime( TimeValue.seconds( 2 ) )
+                .measurementIterations( 5 )
+                .measurementTime( TimeValue.seconds( 2 ) )
+                .threads( THREAD_COUNT )
+                .forks( 1 )
+                .shouldFailOnError( true )
+                .shouldDoGC( true )
+                .build();
+
+        new Runner( opt ).run();
+    }
+
+    /**
+     * Benchmarks are held in a nested class so the generated JMH classes do not inherit {@link #launchBenchmark()}.
+     */
+    @State( Scope.Benchmark )
+    public static class RecorderBenchmark
+    {
+        private final LegacyMovingAverage legacyMovingAverage = new LegacyMovingAverage( Duration.ofMinutes( 1 ) );
+        private final LegacyEventRateMeter legacyEventRateMeter = new LegacyEventRateMeter( Duration.ofMinutes( 1 ) );
+        private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+        private final EventRateMeter eventRateMeter = new EventRateMeter( Duration.ofMinutes( 1 ) );
+
+        @Benchmark
+        public void legacyLatencyAverage()
+        {
+            legacyMovingAverage.update( ThreadLocalRandom.current().nextInt( 1000 ) );
+        }
+
+        @Benchmark
+        public void latencyHistogram()
+        {
+            latencyHistogram.record( ThreadLocalRandom.current().nextInt( 1000 ) );
+        }
+
+        @Benchmark
+        public void legacyEventRateMeter()
+        {
+            legacyEventRateMeter.markEvent();
+        }
+
+        @Benchmark
+        public void eventRateMeter()
+        {
+            eventRateMeter.markEvent();
+        }
+    }
+
+    /**
+     * The lock based exponential moving average previously used to record latencies.
+     */
+    private static class LegacyMovingAverage
+    {
+        private final Lock lock = new ReentrantLock();
+        private final long windowMillis;
+
+        private volatile long lastMillis;
+        private volatile double average;
+
+        LegacyMovingAverage( final Duration timeDuration )
+        {
+            this.windowMillis = timeDuration.toMillis();
+        }
+
+        void update( final double sample )
+        {
+            lock.lock();
+            try
+            {
+                final long now = System.currentTimeMillis();
+                if ( lastMillis == 0 )
+                {
+                    average = sample;
+                    lastMillis = now;
+                    return;
+                }
+
+                final long deltaTime = now - lastMillis;
+                final double coefficient = Math.exp( -1.0 * ( ( double ) deltaTime / windowMillis ) );
+                average = ( 1.0 - coefficient ) * sample + coefficient * average;
+                lastMillis = now;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        long getLastMillis()
+        {
+            return lastMillis;
+        }
+    }
+
+    /**
+     * The lock based event rate meter previously used to record event rates.
+     */
+    private static class LegacyEventRateMeter
+    {
+        private final Lock lock = new ReentrantLock();
+        private final LegacyMovingAverage movingAverage;
+
+        private volatile double remainder;
+
+        LegacyEventRateMeter( final Duration maxDuration )
+        {
+            this.movingAverage = new LegacyMovingAverage( maxDuration );
+        }
+
+        void markEvent()
+        {
+            lock.lock();
+            try
+            {
+                final long timeSinceLastUpdate = System.currentTimeMillis() - movingAverage.getLastMillis();
+                if ( timeSinceLastUpdate != 0 )
+                {
+                    final double eventRate = ( 1 + remainder ) / timeSinceLastUpdate;
+                    movingAverage.update( eventRate * 1000 );
+                    remainder = 0;
+                }
+                else
+                {
+                    remainder += 1;
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+}
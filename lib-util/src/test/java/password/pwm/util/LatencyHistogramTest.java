@@ -0,0 +1,112 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package password.pwm.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void testBucketBoundaries()
+    {
+        for ( long value = 0; value < 100_000; value++ )
+        {
+            final int index = LatencyHistogram.bucketIndex( value );
+            Assertions.assertTrue( value <= LatencyHistogram.bucketUpperBound( index ) );
+            if ( index > 0 )
+            {
+                Assertions.assertTrue( value > LatencyHistogram.bucketUpperBound( index - 1 ) );
+            }
+        }
+
+        Assertions.assertEquals( Long.MAX_VALUE, LatencyHistogram.bucketUpperBound( LatencyHistogram.bucketIndex( Long.MAX_VALUE ) ) );
+    }
+
+    @Test
+    public void testQuantiles()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for ( int i = 1; i <= 1000; i++ )
+        {
+            histogram.record( i );
+        }
+
+        Assertions.assertEquals( 1000, histogram.count() );
+        Assertions.assertEquals( 1000, histogram.max() );
+        Assertions.assertEquals( 500.5, histogram.average(), 0.001 );
+
+        final long median = histogram.valueAtQuantile( 0.5 );
+        Assertions.assertTrue( median >= 500 && median <= 500 * ( 1 + 1.0 / LatencyHistogram.SUB_BUCKET_COUNT ), "median=" + median );
+
+        final long p99 = histogram.valueAtQuantile( 0.99 );
+        Assertions.assertTrue( p99 >= 990 && p99 <= 1000, "p99=" + p99 );
+
+        Assertions.assertEquals( 10, histogram.countAtOrBelow( 10 ) );
+        Assertions.assertEquals( 1000, histogram.countAtOrBelow( Long.MAX_VALUE ) );
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception
+    {
+        final int threadCount = 32;
+        final int recordsPerThread = 10_000;
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final EventRateMeter eventRateMeter = new EventRateMeter( Duration.ofMinutes( 1 ) );
+
+        final ExecutorService executorService = Executors.newFixedThreadPool( threadCount );
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            for ( int t = 0; t < threadCount; t++ )
+            {
+                futures.add( executorService.submit( () ->
+                {
+                    for ( int i = 0; i < recordsPerThread; i++ )
+                    {
+                        histogram.record( i % 250 );
+                        eventRateMeter.markEvent();
+                    }
+                } ) );
+            }
+            for ( final Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+
+        Assertions.assertEquals( threadCount * recordsPerThread, histogram.count() );
+        Assertions.assertEquals( threadCount * recordsPerThread, histogram.countAtOrBelow( 255 ) );
+        Assertions.assertTrue( eventRateMeter.rawEps().signum() > 0 );
+    }
+}
@@ -55,6 +55,23 @@ public enum AppProperty
     BACKUP_CONFIG_COUNT                             ( "backup.config.count" ),
     BACKUP_LOCALDB_COUNT                            ( "backup.localdb.count" ),
     CACHE_ENABLE                                    ( "cache.enable" ),
+
+    /**
+     * Enable the persistent second level cache.  When a database is configured the second level cache is shared
+     * by all nodes, but there is no cross-node invalidation: a value changed on one node is not evicted on other
+     * nodes, which continue to use it until it expires.
+     */
+    CACHE_L2_ENABLE                                 ( "cache.l2.enable" ),
+    CACHE_L2_MAX_PENDING_WRITES                     ( "cache.l2.maxPendingWrites" ),
+
+    /**
+     * Cache key source classes stored in the second level cache.  Cached values of these classes, including ldap
+     * profile and permission data, may be served stale by any node until their cache policy expires, so only
+     * classes with short cache lifetimes should be listed.
+     */
+    CACHE_L2_SOURCE_CLASSES                         ( "cache.l2.sourceClasses" ),
+    CACHE_L2_SWEEP_INTERVAL_SECONDS                 ( "cache.l2.sweepIntervalSeconds" ),
+    CACHE_L2_WRITE_INTERVAL_MS                      ( "cache.l2.writeIntervalMS" ),
     CACHE_MEMORY_MAX_ITEMS                          ( "cache.memory.maxItems" ),
     CACHE_PWRULECHECK_LIFETIME_MS                   ( "cache.pwRuleCheckLifetimeMS" ),
     CACHE_FORM_UNIQUE_VALUE_LIFETIME_MS             ( "cache.uniqueFormValueLifetimeMS" ),
@@ -120,6 +137,14 @@ public enum AppProperty
     HTTP_CLIENT_IMPLEMENTATION                      ( "http.client.implementation" ),
     HTTP_CLIENT_ENABLE_HOSTNAME_VERIFICATION        ( "http.client.enableHostnameVerification" ),
     HTTP_CLIENT_PROMISCUOUS_WORDLIST_ENABLE         ( "http.client.promiscuous.wordlist.enable" ),
+    HTTP_CLIENT_POOL_MAX_TOTAL                      ( "http.client.pool.maxTotal" ),
+    HTTP_CLIENT_POOL_MAX_PER_ROUTE                  ( "http.client.pool.maxPerRoute" ),
+    HTTP_CLIENT_POOL_KEEP_ALIVE_MS                  ( "http.client.pool.keepAliveMs" ),
+    HTTP_CLIENT_POOL_IDLE_TIMEOUT_MS                ( "http.client.pool.idleTimeoutMs" ),
+    HTTP_CLIENT_POOL_VALIDATE_AFTER_INACTIVITY_MS   ( "http.client.pool.validateAfterInactivityMs" ),
+    HTTP_CLIENT_ASYNC_MAX_THREADS                   ( "http.client.async.maxThreads" ),
+    HTTP_CLIENT_CIRCUIT_BREAKER_FAILURE_THRESHOLD   ( "http.client.circuitBreaker.failureThreshold" ),
+    HTTP_CLIENT_CIRCUIT_BREAKER_COOLDOWN_MS         ( "http.client.circuitBreaker.cooldownMs" ),
     HTTP_ENABLE_GZIP                                ( "http.gzip.enable" ),
     HTTP_ERRORS_ALLOW_HTML                          ( "http.errors.allowHtml" ),
     HTTP_HEADER_SERVER                              ( "http.header.server" ),
@@ -155,8 +180,11 @@ public enum AppProperty
     LOCALDB_LOGWRITER_MAX_BUFFER_WAIT_MS            ( "localdb.logWriter.maxBufferWaitMs" ),
     LOCALDB_LOGWRITER_MAX_TRIM_SIZE                 ( "localdb.logWriter.maxTrimSize" ),
     LOCALDB_RELOAD_WHEN_APP_RESTARTED               ( "localdb.reloadWhenAppRestarted" ),
+    LOCALDB_TUNING_PROFILE                          ( "localdb.tuningProfile" ),
     MACRO_RANDOM_CHAR_MAX_LENGTH                    ( "macro.randomChar.maxLength" ),
     MACRO_LDAP_ATTR_CHAR_MAX_LENGTH                 ( "macro.ldapAttr.maxLength" ),
+    METRICS_ENABLE                                  ( "metrics.enable" ),
+    METRICS_MAX_SERIES                              ( "metrics.maxSeries" ),
 
 
     /** Time intruder records exist in the intruder table before being deleted. */
@@ -169,6 +197,16 @@ public enum AppProperty
     INTRUDER_DELAY_PER_COUNT_MS                     ( "intruder.delayPerCountMS" ),
     INTRUDER_DELAY_MAX_JITTER_MS                    ( "intruder.delayMaxJitterMS" ),
     INTRUDER_STORAGE_HASH_ALGORITHM                 ( "intruder.storageHashAlgorithm" ),
+
+    /**
+     * Count intruder attempts in memory and write them to storage every {@code intruder.memoryTier.syncIntervalMS}.  Records that
+     * reach the lockout count are written immediately, but attempts below it that are counted since the last sync are lost if the
+     * server stops unexpectedly.  Other nodes sharing the intruder table see those attempts up to one sync interval later, so
+     * attempts spread across nodes can briefly exceed the configured count before a lockout applies.
+     */
+    INTRUDER_MEMORY_TIER_ENABLE                     ( "intruder.memoryTier.enable" ),
+    INTRUDER_MEMORY_TIER_MAX_ENTRIES                ( "intruder.memoryTier.maxEntries" ),
+    INTRUDER_MEMORY_TIER_SYNC_INTERVAL_MS           ( "intruder.memoryTier.syncIntervalMS" ),
     HEALTHCHECK_ENABLED                             ( "healthCheck.enabled" ),
     HEALTHCHECK_NOMINAL_CHECK_INTERVAL              ( "healthCheck.nominalCheckIntervalSeconds" ),
     HEALTHCHECK_MIN_CHECK_INTERVAL                  ( "healthCheck.minimumCheckIntervalSeconds" ),
@@ -240,8 +278,13 @@ public enum AppProperty
     PASSWORD_STRENGTH_THRESHOLD_WEAK                ( "password.strength.threshold.weak" ),
     PASSWORD_STRENGTH_THRESHOLD_VERY_WEAK           ( "password.strength.threshold.veryWeak" ),
     PASSWORD_RULE_WORDLIST_FAIL_WHEN_CLOSED         ( "password.rule.wordlist.failWhenClosed" ),
+    PHOTO_CACHE_ENABLE                              ( "photo.cache.enable" ),
+    PHOTO_CACHE_LOCALDB_SPILL                       ( "photo.cache.localDBSpill" ),
+    PHOTO_CACHE_MAX_AGE_SECONDS                     ( "photo.cache.maxAgeSeconds" ),
+    PHOTO_CACHE_MAX_MEMORY_BYTES                    ( "photo.cache.maxMemoryBytes" ),
     PHOTO_CLIENT_CACHE_SECONDS                      ( "photo.clientCacheTimeSeconds" ),
     PHOTO_INTERNAL_HTTP_PROXY_ENABLE                ( "photo.internalHttpProxy.enable" ),
+    PHOTO_THUMBNAIL_SIZE                            ( "photo.thumbnail.size" ),
     PWNOTIFY_BATCH_COUNT                            ( "pwNotify.batch.count" ),
     PWNOTIFY_BATCH_DELAY_TIME_MULTIPLIER            ( "pwNotify.batch.delayTimeMultiplier" ),
     PWNOTIFY_MAX_LDAP_SEARCH_SIZE                   ( "pwNotify.maxLdapSearchSize" ),
@@ -250,6 +293,11 @@ public enum AppProperty
     PEOPLESEARCH_EXPORT_CSV_MAX_ITEMS               ( "peoplesearch.export.csv.maxItems" ),
     PEOPLESEARCH_EXPORT_CSV_MAX_SECONDS             ( "peoplesearch.export.csv.maxSeconds" ),
     PEOPLESEARCH_EXPORT_CSV_MAX_THREADS             ( "peoplesearch.export.csv.threads" ),
+    PEOPLESEARCH_INDEX_ENABLE                       ( "peoplesearch.index.enable" ),
+    PEOPLESEARCH_INDEX_FULL_SYNC_INTERVAL_SECONDS   ( "peoplesearch.index.fullSyncIntervalSeconds" ),
+    PEOPLESEARCH_INDEX_MAX_ENTRIES                  ( "peoplesearch.index.maxEntries" ),
+    PEOPLESEARCH_INDEX_RECONCILE_INTERVAL_SECONDS   ( "peoplesearch.index.reconcileIntervalSeconds" ),
+    PEOPLESEARCH_INDEX_SYNC_INTERVAL_SECONDS        ( "peoplesearch.index.syncIntervalSeconds" ),
     PEOPLESEARCH_ORGCHART_ENABLE_CHILD_COUNT        ( "peoplesearch.orgChart.enableChildCount" ),
     PEOPLESEARCH_ORGCHART_MAX_PARENTS               ( "peoplesearch.orgChart.maxParents" ),
     PEOPLESEARCH_MAX_VALUE_VERIFYUSERDN             ( "peoplesearch.values.verifyUserDN" ),
@@ -292,6 +340,7 @@ public enum AppProperty
     SECURITY_WS_REST_SERVER_SECRET_HEADER           ( "security.ws.rest.server.secretKeyHeader" ),
     SECURITY_SHAREDHISTORY_HASH_ITERATIONS          ( "security.sharedHistory.hashIterations" ),
     SECURITY_SHAREDHISTORY_HASH_NAME                ( "security.sharedHistory.hashName" ),
+    SECURITY_SHAREDHISTORY_HASH_MODE                ( "security.sharedHistory.hashMode" ),
     SECURITY_SHAREDHISTORY_CASE_INSENSITIVE         ( "security.sharedHistory.caseInsensitive" ),
     SECURITY_SHAREDHISTORY_SALT_LENGTH              ( "security.sharedHistory.saltLength" ),
     SECURITY_CERTIFICATES_ALLOW_SELF_SIGNED         ( "security.certs.allowSelfSigned" ),
@@ -300,9 +349,18 @@ public enum AppProperty
     SECURITY_DEFAULT_EPHEMERAL_BLOCK_ALG            ( "security.defaultEphemeralBlockAlg" ),
     SECURITY_DEFAULT_EPHEMERAL_HASH_ALG             ( "security.defaultEphemeralHashAlg" ),
     SECURITY_DEFAULT_EPHEMERAL_HMAC_ALG             ( "security.defaultEphemeralHmacAlg" ),
+    SECURITY_HASHING_MAX_THREADS                    ( "security.hashing.maxThreads" ),
+    SECURITY_HASHING_MAX_QUEUE_SIZE                 ( "security.hashing.maxQueueSize" ),
+    SECURITY_HASHING_MAX_WAIT_MS                    ( "security.hashing.maxWaitMs" ),
     SEEDLIST_BUILTIN_PATH                           ( "seedlist.builtin.path" ),
+    SESSION_STATE_NEAR_CACHE_MAX_ENTRIES            ( "session.state.nearCache.maxEntries" ),
+    SESSION_STATE_NEAR_CACHE_LIFETIME_SECONDS       ( "session.state.nearCache.lifetimeSeconds" ),
+    SESSION_STATE_TOUCH_INTERVAL_SECONDS            ( "session.state.touchIntervalSeconds" ),
+    SESSION_STATE_SWEEP_INTERVAL_SECONDS            ( "session.state.sweepIntervalSeconds" ),
+    SESSION_STATE_SWEEP_BATCH_SIZE                  ( "session.state.sweepBatchSize" ),
     SMTP_SUBJECT_ENCODING_CHARSET                   ( "smtp.subjectEncodingCharset" ),
     SMTP_RETRYABLE_SEND_RESPONSE_STATUSES           ( "smtp.retryableSendResponseStatus" ),
+    STATISTICS_BUNDLE_CACHE_MAX_SIZE                ( "statistics.bundleCache.maxSize" ),
     TOKEN_CLEANER_INTERVAL_SECONDS                  ( "token.cleaner.intervalSeconds" ),
     TOKEN_MASK_EMAIL_REGEX                          ( "token.mask.email.regex" ),
     TOKEN_MASK_EMAIL_REPLACE                        ( "token.mask.email.replace" ),
@@ -342,10 +400,25 @@ public enum AppProperty
     WORDLIST_IMPORT_LINE_COMMENTS                   ( "wordlist.import.lineComments" ),
     WORDLIST_IMPORT_PAUSE_DURATION_MS               ( "wordlist.import.pauseDurationMs" ),
     WORDLIST_IMPORT_PAUSE_FREQUENCY_MS              ( "wordlist.import.pauseFrequencyMs" ),
+    WORDLIST_IMPORT_THREADS                         ( "wordlist.import.threads" ),
     WORDLIST_INSPECTOR_FREQUENCY_SECONDS            ( "wordlist.inspector.frequencySeconds" ),
     WORDLIST_TEST_MODE                              ( "wordlist.testMode" ),
     WORDLIST_BUCKET_CHECK_TIME_WARNING_MS           ( "wordlist.bucket.checkTimeWarningMs" ),
     WS_REST_CLIENT_PWRULE_HALTONERROR               ( "ws.restClient.pwRule.haltOnError" ),
+    WS_REST_CLIENT_DEADLINE_MS                      ( "ws.restClient.deadlineMs" ),
+    WS_REST_SERVER_AUTH_CACHE_ENABLE                ( "ws.restServer.authCache.enable" ),
+    WS_REST_SERVER_AUTH_CACHE_HASH_ITERATIONS       ( "ws.restServer.authCache.hashIterations" ),
+    WS_REST_SERVER_AUTH_CACHE_LIFETIME_MS           ( "ws.restServer.authCache.lifetimeMS" ),
+    WS_REST_SERVER_AUTH_CACHE_MAX_ENTRIES           ( "ws.restServer.authCache.maxEntries" ),
+    WS_REST_SERVER_BULK_MAX_ITEMS                   ( "ws.restServer.bulk.maxItems" ),
+
+    /** Maximum number of bulk rest items queued or running at once, across all concurrent bulk requests. */
+    WS_REST_SERVER_BULK_MAX_QUEUED_ITEMS            ( "ws.restServer.bulk.maxQueuedItems" ),
+
+    /** Number of threads shared by all bulk rest requests. */
+    WS_REST_SERVER_BULK_MAX_THREADS                 ( "ws.restServer.bulk.maxThreads" ),
+    WS_REST_SERVER_HASH_RANGE_MAX_RESULTS           ( "ws.restServer.hashRange.maxResults" ),
+    WS_REST_SERVER_HASH_RANGE_MIN_PREFIX_LENGTH     ( "ws.restServer.hashRange.minPrefixLength" ),
     WS_REST_SERVER_SIGNING_FORM_TIMEOUT_SECONDS     ( "ws.restServer.signing.form.timeoutSeconds" ),
     WS_REST_SERVER_STATISTICS_DEFAULT_HISTORY       ( "ws.restServer.statistics.defaultHistoryDays" ),
     WS_REST_SERVER_STATISTICS_DEFAULT_VERSION       ( "ws.restServer.statistics.defaultVersion" ),
@@ -49,6 +49,7 @@ import password.pwm.svc.sessiontrack.SessionTrackService;
 import password.pwm.svc.sessiontrack.UserAgentUtils;
 import password.pwm.svc.shorturl.UrlShortenerService;
 import password.pwm.svc.sms.SmsQueueService;
+import password.pwm.svc.stats.MetricsService;
 import password.pwm.svc.stats.Statistic;
 import password.pwm.svc.stats.StatisticsClient;
 import password.pwm.svc.stats.StatisticsService;
@@ -64,6 +65,7 @@ import password.pwm.util.localdb.LocalDB;
 import password.pwm.util.logging.LocalDBLogger;
 import password.pwm.util.logging.PwmLogManager;
 import password.pwm.util.logging.PwmLogger;
+import password.pwm.ws.server.rest.RestBulkService;
 
 import java.nio.file.Path;
 import java.time.Instant;
@@ -644,6 +646,11 @@ public class PwmApplication
         return ( HttpClientService ) pwmServiceManager.getService( PwmServiceEnum.HttpClientService );
     }
 
+    public RestBulkService getRestBulkService()
+    {
+        return ( RestBulkService ) pwmServiceManager.getService( PwmServiceEnum.RestBulkService );
+    }
+
     public List<PwmService> getPwmServices( )
     {
         final List<PwmService> pwmServices = new ArrayList<>( this.pwmServiceManager.getRunningServices() );
@@ -733,6 +740,11 @@ public class PwmApplication
         return ( StatisticsService ) pwmServiceManager.getService( PwmServiceEnum.StatisticsService );
     }
 
+    public MetricsService getMetricsService( )
+    {
+        return ( MetricsService ) pwmServiceManager.getService( PwmServiceEnum.MetricsService );
+    }
+
     public SessionStateService getSessionStateService( )
     {
         return ( SessionStateService ) pwmServiceManager.getService( PwmServiceEnum.SessionStateSvc );
@@ -31,6 +31,7 @@ import password.pwm.config.DomainConfig;
 import password.pwm.config.PwmSettingScope;
 import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.http.servlet.peoplesearch.PeopleSearchService;
+import password.pwm.http.servlet.peoplesearch.PhotoService;
 import password.pwm.http.servlet.resource.ResourceServletService;
 import password.pwm.http.state.SessionStateService;
 import password.pwm.ldap.LdapDomainService;
@@ -55,6 +56,7 @@ import password.pwm.svc.wordlist.SharedHistoryService;
 import password.pwm.util.java.AtomicLoopIntIncrementer;
 import password.pwm.util.java.TimeDuration;
 import password.pwm.util.logging.PwmLogger;
+import password.pwm.ws.server.RestAuthenticationCacheService;
 
 import java.time.Instant;
 import java.util.List;
@@ -229,6 +231,16 @@ public class PwmDomain
         return ( PeopleSearchService ) pwmServiceManager.getService( PwmServiceEnum.PeopleSearchService );
     }
 
+    public PhotoService getPhotoService( )
+    {
+        return ( PhotoService ) pwmServiceManager.getService( PwmServiceEnum.PhotoService );
+    }
+
+    public RestAuthenticationCacheService getRestAuthenticationCacheService( )
+    {
+        return ( RestAuthenticationCacheService ) pwmServiceManager.getService( PwmServiceEnum.RestAuthenticationCacheService );
+    }
+
     public PwNotifyService getPwNotifyService()
     {
         return ( PwNotifyService ) pwmServiceManager.getService( PwmServiceEnum.PwExpiryNotifyService );
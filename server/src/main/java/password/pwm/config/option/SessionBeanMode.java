@@ -25,4 +25,5 @@ public enum SessionBeanMode implements ConfigurationOption
     LOCAL,
     CRYPTCOOKIE,
     CRYPTREQUEST,
+    DB,
 }
@@ -34,6 +34,8 @@ public enum WebServiceUsage
     CheckPassword( RestAuthenticationType.NAMED_SECRET, RestAuthenticationType.LDAP ),
     ForgottenPassword( RestAuthenticationType.PUBLIC ),
     Health( RestAuthenticationType.PUBLIC ),
+    Metrics( RestAuthenticationType.NAMED_SECRET, RestAuthenticationType.LDAP ),
+    PasswordHashRange( RestAuthenticationType.NAMED_SECRET, RestAuthenticationType.LDAP ),
     Profile( RestAuthenticationType.NAMED_SECRET, RestAuthenticationType.LDAP ),
     RandomPassword( RestAuthenticationType.PUBLIC, RestAuthenticationType.NAMED_SECRET, RestAuthenticationType.LDAP ),
     SetPassword( RestAuthenticationType.NAMED_SECRET, RestAuthenticationType.LDAP ),
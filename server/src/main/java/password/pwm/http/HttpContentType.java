@@ -37,6 +37,7 @@ public enum HttpContentType
     csv( HttpEntityDataType.String, PwmConstants.DEFAULT_CHARSET.displayName(), "text/csv" ),
     javascript( HttpEntityDataType.String, PwmConstants.DEFAULT_CHARSET.displayName(), "text/javascript" ),
     plain( HttpEntityDataType.String, PwmConstants.DEFAULT_CHARSET.displayName(), "text/plain" ),
+    openmetrics( HttpEntityDataType.String, PwmConstants.DEFAULT_CHARSET.displayName(), "application/openmetrics-text" ),
     html( HttpEntityDataType.String, PwmConstants.DEFAULT_CHARSET.displayName(), "text/html" ),
     form( HttpEntityDataType.String, PwmConstants.DEFAULT_CHARSET.displayName(), "application/x-www-form-urlencoded" ),
     png( HttpEntityDataType.ByteArray, null, "image/png" ),
@@ -95,6 +95,7 @@ public enum PwmRequestAttribute
     NewUser_VisibleProfiles,
 
     CookieBeanStorage,
+    SharedSessionState,
     CookieNonce,
 
     ShortcutItems,
@@ -27,10 +27,13 @@ import password.pwm.error.PwmError;
 import password.pwm.error.PwmException;
 import password.pwm.error.PwmOperationalException;
 import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.http.ContextManager;
 import password.pwm.http.HttpMethod;
 import password.pwm.http.PwmRequest;
 import password.pwm.http.PwmRequestAttribute;
 import password.pwm.http.bean.PwmSessionBean;
+import password.pwm.svc.stats.MetricType;
+import password.pwm.svc.stats.MetricsClient;
 import password.pwm.svc.stats.Statistic;
 import password.pwm.svc.stats.StatisticsClient;
 import password.pwm.util.Validator;
@@ -48,6 +51,7 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -84,6 +88,41 @@ public abstract class AbstractPwmServlet extends HttpServlet implements PwmServl
             final HttpMethod method
     )
             throws ServletException, IOException
+    {
+        final Instant startTime = Instant.now();
+        try
+        {
+            handleRequestImpl( req, resp, method );
+        }
+        finally
+        {
+            recordRequestMetric( req, resp, startTime );
+        }
+    }
+
+    private void recordRequestMetric(
+            final HttpServletRequest req,
+            final HttpServletResponse resp,
+            final Instant startTime
+    )
+    {
+        try
+        {
+            final boolean success = resp.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+            MetricsClient.record( ContextManager.getPwmApplication( req ), MetricType.SERVLET, getServletDefinition().name(), startTime, success );
+        }
+        catch ( final PwmUnrecoverableException e )
+        {
+            LOGGER.trace( () -> "unable to record servlet request metric: " + e.getMessage() );
+        }
+    }
+
+    private void handleRequestImpl(
+            final HttpServletRequest req,
+            final HttpServletResponse resp,
+            final HttpMethod method
+    )
+            throws ServletException, IOException
     {
         try
         {
@@ -143,7 +143,12 @@ public class ConfigManagerLoginServlet extends AbstractPwmServlet
         final String password = pwmRequest.readParameterAsString( "password" );
         if ( StringUtil.notEmpty( password ) )
         {
-            if ( StoredConfigurationUtil.verifyPassword( storedConfig, password ) )
+            final boolean passwordVerified = pwmRequest.getPwmApplication().getSecureService().executeHashOperation(
+                    pwmRequest.getLabel(),
+                    "configPassword",
+                    () -> StoredConfigurationUtil.verifyPassword( storedConfig, password ) );
+
+            if ( passwordVerified )
             {
                 LOGGER.trace( pwmRequest, () -> "valid configuration password accepted" );
                 updateLoginHistory( pwmRequest, pwmRequest.getUserInfoIfLoggedIn(), true );
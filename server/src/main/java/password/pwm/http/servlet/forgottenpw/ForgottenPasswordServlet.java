@@ -763,7 +763,7 @@ public class ForgottenPasswordServlet extends ControlledPwmServlet
             final boolean responsesPassed;
             try
             {
-                responsesPassed = responseSet.get().test( crMap );
+                responsesPassed = pwmRequest.getPwmDomain().getCrService().testResponses( pwmRequest.getLabel(), responseSet.get(), crMap );
             }
             catch ( final ChaiUnavailableException e )
             {
@@ -685,7 +685,7 @@ public class ForgottenPasswordStateMachine
                 final boolean responsesPassed;
                 try
                 {
-                    responsesPassed = responseSet.get().test( crMap );
+                    responsesPassed = pwmRequestContext.getPwmDomain().getCrService().testResponses( pwmRequestContext.getSessionLabel(), responseSet.get(), crMap );
                 }
                 catch ( final ChaiUnavailableException e )
                 {
@@ -76,6 +76,7 @@ import password.pwm.util.java.CollectionUtil;
 import password.pwm.util.logging.PwmLogger;
 import password.pwm.util.macro.MacroRequest;
 import password.pwm.util.password.PasswordUtility;
+import password.pwm.ws.server.RestAuthenticationCacheService;
 
 import javax.servlet.ServletException;
 import java.io.IOException;
@@ -478,6 +479,12 @@ public class ForgottenPasswordUtil
                 theUser.setPassword( newPassword.getStringValue() );
                 LOGGER.trace( pwmRequest, () -> "set user " + userIdentity.toDisplayString()
                         + " password to system generated random value" );
+
+                final RestAuthenticationCacheService restAuthenticationCacheService = pwmDomain.getRestAuthenticationCacheService();
+                if ( restAuthenticationCacheService != null )
+                {
+                    restAuthenticationCacheService.invalidate( userIdentity );
+                }
             }
             catch ( final ChaiException e )
             {
@@ -36,6 +36,7 @@ import password.pwm.http.HttpHeader;
 import password.pwm.http.HttpMethod;
 import password.pwm.http.PwmRequest;
 import password.pwm.user.UserInfoBean;
+import password.pwm.svc.httpclient.HttpCircuitBreaker;
 import password.pwm.svc.httpclient.PwmHttpClient;
 import password.pwm.svc.httpclient.PwmHttpClientRequest;
 import password.pwm.svc.httpclient.PwmHttpClientResponse;
@@ -157,19 +158,31 @@ public class RemoteVerificationMethod implements VerificationMethodSystem
                 .headers( headers )
                 .build();
 
+        final HttpCircuitBreaker circuitBreaker = pwmDomain.getHttpClientService().getCircuitBreaker( url );
+        if ( !circuitBreaker.allowRequest() )
+        {
+            final String errorMsg = "remote responses web service at " + circuitBreaker.getEndpoint() + " is failing and in cool down period";
+            final ErrorInformation errorInformation = new ErrorInformation( PwmError.ERROR_SERVICE_UNREACHABLE, errorMsg );
+            LOGGER.error( sessionLabel, errorInformation );
+            throw new PwmUnrecoverableException( errorInformation );
+        }
+
         try
         {
             final PwmHttpClientResponse response = pwmHttpClient.makeRequest( pwmHttpClientRequest );
             final String responseBodyStr = response.getBody();
             this.lastResponse = JsonFactory.get().deserialize( responseBodyStr, RemoteVerificationResponseBean.class );
+            circuitBreaker.recordSuccess();
         }
         catch ( final PwmException e )
         {
+            circuitBreaker.recordFailure();
             LOGGER.error( sessionLabel, e.getErrorInformation() );
             throw new PwmUnrecoverableException( e.getErrorInformation() );
         }
         catch ( final Exception e )
         {
+            circuitBreaker.recordFailure();
             final String errorMsg = "error reading remote responses web service response: " + e.getMessage();
             final ErrorInformation errorInformation = new ErrorInformation( PwmError.ERROR_SERVICE_NOT_AVAILABLE, errorMsg );
             LOGGER.error( sessionLabel, errorInformation );
@@ -32,6 +32,7 @@ import password.pwm.config.profile.HelpdeskProfile;
 import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.http.PwmRequest;
 import password.pwm.http.servlet.peoplesearch.PhotoDataReader;
+import password.pwm.http.servlet.peoplesearch.PhotoService;
 import password.pwm.ldap.UserInfoFactory;
 import password.pwm.user.UserInfo;
 import password.pwm.util.java.TimeDuration;
@@ -84,7 +85,7 @@ public class HelpdeskCardInfoBean
         builder.userKey( HelpdeskServletUtil.obfuscateUserIdentity( pwmRequest, userIdentity ) );
 
         final PhotoDataReader photoDataReader = HelpdeskServlet.photoDataReader( pwmRequest, helpdeskProfile, userIdentity );
-        final Optional<String> optionalPhotoUrl = photoDataReader.figurePhotoURL();
+        final Optional<String> optionalPhotoUrl = photoDataReader.figurePhotoURL( PhotoService.PhotoVariant.thumbnail );
         optionalPhotoUrl.ifPresent( builder::photoURL );
 
         builder.displayNames( figureDisplayNames( pwmRequest.getPwmDomain(), helpdeskProfile, pwmRequest.getLabel(), userInfo ) );
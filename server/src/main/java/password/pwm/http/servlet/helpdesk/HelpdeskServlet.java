@@ -31,7 +31,6 @@ import password.pwm.AppProperty;
 import password.pwm.PwmConstants;
 import password.pwm.PwmDomain;
 import password.pwm.bean.EmailItemBean;
-import password.pwm.bean.PhotoDataBean;
 import password.pwm.bean.TokenDestinationItem;
 import password.pwm.bean.UserIdentity;
 import password.pwm.config.DomainConfig;
@@ -59,6 +58,7 @@ import password.pwm.http.PwmSession;
 import password.pwm.http.servlet.AbstractPwmServlet;
 import password.pwm.http.servlet.ControlledPwmServlet;
 import password.pwm.http.servlet.peoplesearch.PhotoDataReader;
+import password.pwm.http.servlet.peoplesearch.PhotoService;
 import password.pwm.http.servlet.peoplesearch.SearchRequestBean;
 import password.pwm.i18n.Message;
 import password.pwm.ldap.UserInfoFactory;
@@ -1355,7 +1355,8 @@ public class HelpdeskServlet extends ControlledPwmServlet
 
         LOGGER.debug( pwmRequest, () -> "received user photo request to view user " + userIdentity.toString() );
 
-        final Callable<Optional<PhotoDataBean>> callablePhotoReader = photoDataReader::readPhotoData;
+        final PhotoService.PhotoVariant photoVariant = PhotoDataReader.readPhotoVariantParam( pwmRequest );
+        final Callable<Optional<PhotoService.ServedPhoto>> callablePhotoReader = () -> photoDataReader.readPhotoData( photoVariant );
         PhotoDataReader.servletRespondWithPhoto( pwmRequest, callablePhotoReader );
         return ProcessStatus.Halt;
     }
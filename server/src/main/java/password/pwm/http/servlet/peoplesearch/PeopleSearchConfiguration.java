@@ -21,6 +21,8 @@
 package password.pwm.http.servlet.peoplesearch;
 
 import password.pwm.AppProperty;
+import password.pwm.PwmConstants;
+import password.pwm.bean.ProfileID;
 import password.pwm.bean.UserIdentity;
 import password.pwm.config.DomainConfig;
 import password.pwm.config.PwmSetting;
@@ -29,15 +31,21 @@ import password.pwm.config.profile.PeopleSearchProfile;
 import password.pwm.config.value.data.FormConfiguration;
 import password.pwm.config.value.data.UserPermission;
 import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.util.java.StringUtil;
 import password.pwm.util.java.TimeDuration;
 
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class PeopleSearchConfiguration
 {
+    private static final Pattern LDAP_MACRO_PATTERN = Pattern.compile( "@(?:User:LDAP|LDAP):([^:@]+)(?::(?:/@|[^@])*)?@" );
+
     private final PeopleSearchProfile peopleSearchProfile;
     private final DomainConfig domainConfig;
 
@@ -48,6 +56,11 @@ public class PeopleSearchConfiguration
         this.peopleSearchProfile = peopleSearchProfile;
     }
 
+    ProfileID getProfileID()
+    {
+        return peopleSearchProfile.getId();
+    }
+
     String getEmailAttribute( final UserIdentity userIdentity )
     {
         final LdapProfile ldapProfile = userIdentity.getLdapProfile( domainConfig.getAppConfig() );
@@ -180,6 +193,40 @@ public class PeopleSearchConfiguration
         return peopleSearchProfile.readSettingAsStringArray( PwmSetting.PEOPLE_SEARCH_DISPLAY_NAMES_CARD_LABELS );
     }
 
+    /**
+     * Ldap attributes referenced by the display card labels.  If the labels use any macros other than
+     * ldap attribute macros, then the labels can not be expanded from pre-read attribute values and
+     * an empty optional is returned.
+     * @return attribute names used by the display card labels
+     */
+    Optional<Set<String>> getDisplayNameCardAttributes()
+    {
+        return ldapMacroAttributes( getDisplayNameCardLables() );
+    }
+
+    static Optional<Set<String>> ldapMacroAttributes( final List<String> labels )
+    {
+        final Set<String> attributes = new LinkedHashSet<>();
+        for ( final String label : labels )
+        {
+            final Matcher matcher = LDAP_MACRO_PATTERN.matcher( label );
+            while ( matcher.find() )
+            {
+                final String attribute = matcher.group( 1 );
+                if ( !"dn".equalsIgnoreCase( attribute ) )
+                {
+                    attributes.add( attribute );
+                }
+            }
+
+            if ( LDAP_MACRO_PATTERN.matcher( label ).replaceAll( "" ).contains( "@" ) )
+            {
+                return Optional.empty();
+            }
+        }
+        return Optional.of( Collections.unmodifiableSet( attributes ) );
+    }
+
     public String getDisplayName()
     {
         return peopleSearchProfile.readSettingAsString( PwmSetting.PEOPLE_SEARCH_DISPLAY_NAME );
@@ -210,4 +257,82 @@ public class PeopleSearchConfiguration
     {
         return peopleSearchProfile.readSettingAsBoolean( PwmSetting.PEOPLE_SEARCH_ENABLE_ADVANCED_SEARCH );
     }
+
+    boolean isSearchIndexEnabled()
+    {
+        return Boolean.parseBoolean( domainConfig.readAppProperty( AppProperty.PEOPLESEARCH_INDEX_ENABLE ) )
+                && StringUtil.isEmpty( getSearchFilter() );
+    }
+
+    TimeDuration getSearchIndexSyncInterval()
+    {
+        final long seconds = Long.parseLong( domainConfig.readAppProperty( AppProperty.PEOPLESEARCH_INDEX_SYNC_INTERVAL_SECONDS ) );
+        return TimeDuration.of( seconds, TimeDuration.Unit.SECONDS );
+    }
+
+    TimeDuration getSearchIndexReconcileInterval()
+    {
+        final long seconds = Long.parseLong( domainConfig.readAppProperty( AppProperty.PEOPLESEARCH_INDEX_RECONCILE_INTERVAL_SECONDS ) );
+        return TimeDuration.of( seconds, TimeDuration.Unit.SECONDS );
+    }
+
+    TimeDuration getSearchIndexFullSyncInterval()
+    {
+        final long seconds = Long.parseLong( domainConfig.readAppProperty( AppProperty.PEOPLESEARCH_INDEX_FULL_SYNC_INTERVAL_SECONDS ) );
+        return TimeDuration.of( seconds, TimeDuration.Unit.SECONDS );
+    }
+
+    int getSearchIndexMaxEntries()
+    {
+        return Integer.parseInt( domainConfig.readAppProperty( AppProperty.PEOPLESEARCH_INDEX_MAX_ENTRIES ) );
+    }
+
+    String makeSimpleSearchFilter()
+    {
+        final String configuredFilter = getSearchFilter();
+        if ( configuredFilter != null && !configuredFilter.isEmpty() )
+        {
+            return configuredFilter;
+        }
+
+        final List<String> defaultObjectClasses = domainConfig.readSettingAsStringArray( PwmSetting.DEFAULT_OBJECT_CLASSES );
+        final Set<String> searchAttributes = getSearchAttributes();
+        final StringBuilder filter = new StringBuilder();
+
+        //open AND clause for objectclasses and attributes
+        filter.append( "(&" );
+        for ( final String objectClass : defaultObjectClasses )
+        {
+            filter.append( "(objectClass=" ).append( objectClass ).append( ')' );
+        }
+
+        // open OR clause for attributes
+        filter.append( "(|" );
+
+        for ( final String searchAttribute : searchAttributes )
+        {
+            filter.append( '(' ).append( searchAttribute ).append( "=*" ).append( PwmConstants.VALUE_REPLACEMENT_USERNAME ).append( "*)" );
+        }
+
+        // close OR clause
+        filter.append( ')' );
+
+        // close AND clause
+        filter.append( ')' );
+        return filter.toString();
+    }
+
+    /**
+     * Filter matching every entry that can be returned by a simple search, regardless of the search value.
+     * @return ldap search filter
+     */
+    String makeSearchPopulationFilter()
+    {
+        String filterString = makeSimpleSearchFilter().replace( PwmConstants.VALUE_REPLACEMENT_USERNAME, "*" );
+        while ( filterString.contains( "**" ) )
+        {
+            filterString = filterString.replace( "**", "*" );
+        }
+        return filterString;
+    }
 }
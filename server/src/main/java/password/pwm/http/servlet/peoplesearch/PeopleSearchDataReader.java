@@ -30,7 +30,6 @@ import org.apache.commons.csv.CSVPrinter;
 import password.pwm.AppProperty;
 import password.pwm.PwmConstants;
 import password.pwm.PwmDomain;
-import password.pwm.bean.PhotoDataBean;
 import password.pwm.bean.UserIdentity;
 import password.pwm.config.PwmSetting;
 import password.pwm.config.profile.PeopleSearchProfile;
@@ -62,6 +61,7 @@ import password.pwm.svc.cache.CachePolicy;
 import password.pwm.svc.stats.Statistic;
 import password.pwm.svc.stats.StatisticsClient;
 import password.pwm.user.UserInfo;
+import password.pwm.user.UserInfoBean;
 import password.pwm.util.i18n.LocaleHelper;
 import password.pwm.util.java.CollectionUtil;
 import password.pwm.util.java.PwmTimeUtil;
@@ -76,6 +76,7 @@ import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -99,6 +100,7 @@ class PeopleSearchDataReader
     {
         attributeRead,
         checkIfViewable,
+        orgChartReference,
         searchResultBean,
         photo,
     }
@@ -193,10 +195,11 @@ class PeopleSearchDataReader
         {
             // make children reference
             final Map<String, OrgChartReferenceBean> sortedChildren = new TreeMap<>();
-            final List<UserIdentity> childIdentities = readUserDNAttributeValues( userIdentity, peopleSearchConfiguration.getOrgChartChildAttr( userIdentity ) );
+            final List<UserIdentity> childIdentities = readUserDNAttributeValues( userIdentity, peopleSearchConfiguration.getOrgChartChildAttr( userIdentity ), false );
+            final Map<UserIdentity, OrgChartReferenceBean> childReferences = makeOrgChartReferencesForChildren( userIdentity, childIdentities );
             for ( final UserIdentity childIdentity : childIdentities )
             {
-                final OrgChartReferenceBean childReference = makeOrgChartReferenceForIdentity( childIdentity );
+                final OrgChartReferenceBean childReference = childReferences.get( childIdentity );
                 if ( childReference != null )
                 {
                     if ( childReference.getDisplayNames() != null && !childReference.getDisplayNames().isEmpty() )
@@ -386,13 +389,158 @@ class PeopleSearchDataReader
             final UserIdentity userIdentity
     )
             throws PwmUnrecoverableException
+    {
+        final CacheLoader<OrgChartReferenceBean> cacheLoader = () ->
+        {
+            final OrgChartReferenceBean orgChartReferenceBean = new OrgChartReferenceBean();
+            orgChartReferenceBean.setUserKey( PeopleSearchServlet.obfuscateUserIdentity( pwmRequest, userIdentity ) );
+            final PhotoDataReader photoDataReader = photoDataReader( userIdentity );
+            photoDataReader.figurePhotoURL( PhotoService.PhotoVariant.thumbnail ).ifPresent( orgChartReferenceBean::setPhotoURL );
+
+            final List<String> displayLabels = figureDisplaynames( userIdentity );
+            orgChartReferenceBean.setDisplayNames( displayLabels );
+
+            return orgChartReferenceBean;
+        };
+
+        return storeDataInCache( CacheIdentifier.orgChartReference, userIdentity.toDelimitedKey(), OrgChartReferenceBean.class, cacheLoader );
+    }
+
+    /**
+     * Make org chart references for all children of a parent.  When possible, the display attributes of all children
+     * are read using a single ldap search for entries having the parent as the value of the org chart parent attribute.
+     * Any children not returned by that search are read individually.
+     */
+    private Map<UserIdentity, OrgChartReferenceBean> makeOrgChartReferencesForChildren(
+            final UserIdentity parentIdentity,
+            final List<UserIdentity> childIdentities
+    )
+            throws PwmUnrecoverableException
+    {
+        final Map<UserIdentity, Map<String, String>> batchValues = batchReadOrgChartChildren( parentIdentity, childIdentities );
+        final boolean checkUserDNValues = Boolean.parseBoolean( pwmRequest.getDomainConfig().readAppProperty( AppProperty.PEOPLESEARCH_MAX_VALUE_VERIFYUSERDN ) );
+
+        final Map<UserIdentity, OrgChartReferenceBean> returnMap = new LinkedHashMap<>( childIdentities.size() );
+        for ( final UserIdentity childIdentity : childIdentities )
+        {
+            final Map<String, String> childValues = batchValues.get( childIdentity );
+            if ( childValues == null )
+            {
+                if ( checkUserDNValues )
+                {
+                    checkIfUserIdentityViewable( childIdentity );
+                }
+                returnMap.put( childIdentity, makeOrgChartReferenceForIdentity( childIdentity ) );
+            }
+            else
+            {
+                final OrgChartReferenceBean orgChartReferenceBean = makeOrgChartReferenceFromValues( childIdentity, childValues );
+                storeDataInCache( makeCacheKey( CacheIdentifier.orgChartReference.name(), childIdentity.toDelimitedKey() ), orgChartReferenceBean );
+                returnMap.put( childIdentity, orgChartReferenceBean );
+            }
+        }
+
+        LOGGER.trace( pwmRequest, () -> "read " + batchValues.size() + " of " + childIdentities.size()
+                + " org chart children of " + parentIdentity.toDisplayString() + " using batched search" );
+
+        return Collections.unmodifiableMap( returnMap );
+    }
+
+    private Map<UserIdentity, Map<String, String>> batchReadOrgChartChildren(
+            final UserIdentity parentIdentity,
+            final List<UserIdentity> childIdentities
+    )
+            throws PwmUnrecoverableException
+    {
+        final String parentAttr = peopleSearchConfiguration.getOrgChartParentAttr( parentIdentity );
+        final Optional<Set<String>> displayAttributes = peopleSearchConfiguration.getDisplayNameCardAttributes();
+        if ( childIdentities.size() < 2 || StringUtil.isEmpty( parentAttr ) || displayAttributes.isEmpty() )
+        {
+            return Collections.emptyMap();
+        }
+
+        final String searchFilter = makeOrgChartChildrenFilter( peopleSearchConfiguration.makeSearchPopulationFilter(), parentAttr, parentIdentity );
+
+        final SearchConfiguration searchConfiguration = SearchConfiguration.builder()
+                .filter( searchFilter )
+                .contexts( peopleSearchConfiguration.getLdapBase() )
+                .enableContextValidation( false )
+                .ldapProfile( parentIdentity.getLdapProfileID() )
+                .chaiProvider( getChaiUser( parentIdentity ).getChaiProvider() )
+                .build();
+
+        final Map<UserIdentity, Map<String, String>> searchResults;
+        try
+        {
+            searchResults = pwmRequest.getPwmDomain().getUserSearchEngine().performMultiUserSearch(
+                    searchConfiguration,
+                    childIdentities.size(),
+                    displayAttributes.get(),
+                    pwmRequest.getLabel() );
+        }
+        catch ( final PwmOperationalException e )
+        {
+            LOGGER.debug( pwmRequest, () -> "error during batched org chart search, will read children individually: " + e.getMessage() );
+            return Collections.emptyMap();
+        }
+
+        return matchOrgChartChildren( childIdentities, searchResults );
+    }
+
+    static String makeOrgChartChildrenFilter( final String searchPopulationFilter, final String parentAttr, final UserIdentity parentIdentity )
+    {
+        return "(&" + searchPopulationFilter + "(" + parentAttr + "=" + StringUtil.escapeLdapFilter( parentIdentity.getUserDN() ) + "))";
+    }
+
+    /**
+     * Match the batched search results to the children read from the child attribute.  The child attribute values are
+     * authoritative: search results that are not listed children are discarded, and children without a search result are
+     * absent from the returned map so they are read individually.
+     */
+    static Map<UserIdentity, Map<String, String>> matchOrgChartChildren(
+            final List<UserIdentity> childIdentities,
+            final Map<UserIdentity, Map<String, String>> searchResults
+    )
+    {
+        final Map<String, UserIdentity> childrenByDN = new HashMap<>( childIdentities.size() );
+        for ( final UserIdentity childIdentity : childIdentities )
+        {
+            childrenByDN.put( childIdentity.getUserDN().toLowerCase( PwmConstants.DEFAULT_LOCALE ), childIdentity );
+        }
+
+        final Map<UserIdentity, Map<String, String>> returnMap = new HashMap<>( searchResults.size() );
+        for ( final Map.Entry<UserIdentity, Map<String, String>> entry : searchResults.entrySet() )
+        {
+            final UserIdentity childIdentity = childrenByDN.get( entry.getKey().getUserDN().toLowerCase( PwmConstants.DEFAULT_LOCALE ) );
+            if ( childIdentity != null )
+            {
+                returnMap.put( childIdentity, entry.getValue() );
+            }
+        }
+        return returnMap;
+    }
+
+    private OrgChartReferenceBean makeOrgChartReferenceFromValues(
+            final UserIdentity userIdentity,
+            final Map<String, String> attributeValues
+    )
+            throws PwmUnrecoverableException
     {
         final OrgChartReferenceBean orgChartReferenceBean = new OrgChartReferenceBean();
         orgChartReferenceBean.setUserKey( PeopleSearchServlet.obfuscateUserIdentity( pwmRequest, userIdentity ) );
         final PhotoDataReader photoDataReader = photoDataReader( userIdentity );
-        photoDataReader.figurePhotoURL( ).ifPresent( orgChartReferenceBean::setPhotoURL );
+        photoDataReader.figurePhotoURL( PhotoService.PhotoVariant.thumbnail ).ifPresent( orgChartReferenceBean::setPhotoURL );
 
-        final List<String> displayLabels = figureDisplaynames( userIdentity );
+        final UserInfo userInfo = UserInfoBean.builder()
+                .userIdentity( userIdentity )
+                .attributes( attributeValues )
+                .build();
+        final MacroRequest macroRequest = MacroRequest.forUser( pwmRequest.getPwmApplication(), pwmRequest.getLabel(), userInfo, null );
+        final List<String> displayLabels = new ArrayList<>();
+        for ( final String displayStringSetting : this.peopleSearchConfiguration.getDisplayNameCardLables() )
+        {
+            displayLabels.add( macroRequest.expandMacros( displayStringSetting ) );
+        }
         orgChartReferenceBean.setDisplayNames( displayLabels );
 
         return orgChartReferenceBean;
@@ -404,6 +552,17 @@ class PeopleSearchDataReader
     )
             throws PwmUnrecoverableException
     {
+        final boolean checkUserDNValues = Boolean.parseBoolean( pwmRequest.getDomainConfig().readAppProperty( AppProperty.PEOPLESEARCH_MAX_VALUE_VERIFYUSERDN ) );
+        return readUserDNAttributeValues( userIdentity, attributeName, checkUserDNValues );
+    }
+
+    private List<UserIdentity> readUserDNAttributeValues(
+            final UserIdentity userIdentity,
+            final String attributeName,
+            final boolean checkUserDNValues
+    )
+            throws PwmUnrecoverableException
+    {
 
         final List<UserIdentity> returnObj = new ArrayList<>();
 
@@ -426,8 +585,6 @@ class PeopleSearchDataReader
             throw new PwmUnrecoverableException( new ErrorInformation( PwmError.ERROR_DIRECTORY_UNAVAILABLE, e.getMessage() ) );
         }
 
-
-        final boolean checkUserDNValues = Boolean.parseBoolean( pwmRequest.getDomainConfig().readAppProperty( AppProperty.PEOPLESEARCH_MAX_VALUE_VERIFYUSERDN ) );
         for ( final String userDN : ldapValues )
         {
             final UserIdentity loopIdentity = UserIdentity.create( userDN, userIdentity.getLdapProfileID(), pwmRequest.getDomainID() );
@@ -510,11 +667,11 @@ class PeopleSearchDataReader
         return displayLabels;
     }
 
-    Optional<PhotoDataBean> readPhotoData( final UserIdentity userIdentity )
+    Optional<PhotoService.ServedPhoto> readPhotoData( final UserIdentity userIdentity, final PhotoService.PhotoVariant photoVariant )
             throws PwmUnrecoverableException, PwmOperationalException
     {
         final PhotoDataReader photoDataReader = photoDataReader( userIdentity );
-        return photoDataReader.readPhotoData();
+        return photoDataReader.readPhotoData( photoVariant );
     }
 
     private Map<String, AttributeDetailBean> convertResultMapToBeans(
@@ -609,12 +766,7 @@ class PeopleSearchDataReader
         final Instant startTime = Instant.now();
         final CacheLoader<Boolean> cacheLoader = () ->
         {
-            final String filterSetting = makeSimpleSearchFilter( );
-            String filterString = filterSetting.replace( PwmConstants.VALUE_REPLACEMENT_USERNAME, "*" );
-            while ( filterString.contains( "**" ) )
-            {
-                filterString = filterString.replace( "**", "*" );
-            }
+            final String filterString = peopleSearchConfiguration.makeSearchPopulationFilter();
 
             final UserPermission userPermission = UserPermission.builder()
                     .type( UserPermissionType.ldapQuery )
@@ -641,41 +793,6 @@ class PeopleSearchDataReader
         }
     }
 
-    private String makeSimpleSearchFilter()
-    {
-        final String configuredFilter = this.peopleSearchConfiguration.getSearchFilter();
-        if ( configuredFilter != null && !configuredFilter.isEmpty() )
-        {
-            return configuredFilter;
-        }
-
-        final List<String> defaultObjectClasses = pwmRequest.getDomainConfig().readSettingAsStringArray( PwmSetting.DEFAULT_OBJECT_CLASSES );
-        final Set<String> searchAttributes = peopleSearchConfiguration.getSearchAttributes();
-        final StringBuilder filter = new StringBuilder();
-
-        //open AND clause for objectclasses and attributes
-        filter.append( "(&" );
-        for ( final String objectClass : defaultObjectClasses )
-        {
-            filter.append( "(objectClass=" ).append( objectClass ).append( ')' );
-        }
-
-        // open OR clause for attributes
-        filter.append( "(|" );
-
-        for ( final String searchAttribute : searchAttributes )
-        {
-            filter.append( '(' ).append( searchAttribute ).append( "=*" ).append( PwmConstants.VALUE_REPLACEMENT_USERNAME ).append( "*)" );
-        }
-
-        // close OR clause
-        filter.append( ')' );
-
-        // close AND clause
-        filter.append( ')' );
-        return filter.toString();
-    }
-
     private String makeAdvancedFilter( final Map<String, String> attributesInSearchRequest )
     {
         final List<String> defaultObjectClasses = pwmRequest.getDomainConfig().readSettingAsStringArray( PwmSetting.DEFAULT_OBJECT_CLASSES );
@@ -772,19 +889,28 @@ class PeopleSearchDataReader
 
         final UserSearchResults results;
         final boolean sizeExceeded;
-        try
+        final Optional<UserSearchResults> indexResults = searchLocalIndex( searchRequest );
+        if ( indexResults.isPresent() )
         {
-            final List<FormConfiguration> searchForm = peopleSearchConfiguration.getResultForm();
-            final int maxResults = peopleSearchConfiguration.getResultLimit();
-            final Locale locale = pwmRequest.getLocale();
-            results = userSearchService.performMultiUserSearchFromForm( locale, searchConfiguration, maxResults, searchForm, pwmRequest.getLabel() );
+            results = indexResults.get();
             sizeExceeded = results.isSizeExceeded();
         }
-        catch ( final PwmOperationalException e )
+        else
         {
-            final ErrorInformation errorInformation = e.getErrorInformation();
-            LOGGER.error( pwmRequest.getLabel(), errorInformation::toDebugStr );
-            throw new PwmUnrecoverableException( errorInformation );
+            try
+            {
+                final List<FormConfiguration> searchForm = peopleSearchConfiguration.getResultForm();
+                final int maxResults = peopleSearchConfiguration.getResultLimit();
+                final Locale locale = pwmRequest.getLocale();
+                results = userSearchService.performMultiUserSearchFromForm( locale, searchConfiguration, maxResults, searchForm, pwmRequest.getLabel() );
+                sizeExceeded = results.isSizeExceeded();
+            }
+            catch ( final PwmOperationalException e )
+            {
+                final ErrorInformation errorInformation = e.getErrorInformation();
+                LOGGER.error( pwmRequest.getLabel(), errorInformation::toDebugStr );
+                throw new PwmUnrecoverableException( errorInformation );
+            }
         }
 
         final List<Map<String, Object>> resultOutput = new ArrayList<>(
@@ -830,6 +956,48 @@ class PeopleSearchDataReader
                 .build();
     }
 
+    /**
+     * Answer a simple search from the local search index when one is available.  The index is populated using the
+     * proxy connection, so it is only used when the ldap search would also have been performed using the proxy user.
+     */
+    private Optional<UserSearchResults> searchLocalIndex(
+            final SearchRequestBean searchRequest
+    )
+    {
+        // the index is read using the proxy connection, so searches that run with the user's own connection
+        // are always sent to the directory to apply the user's ldap access controls.
+        final boolean simpleMode = searchRequest.getMode() == null || searchRequest.getMode() == SearchRequestBean.SearchMode.simple;
+        if ( !simpleMode || StringUtil.isEmpty( searchRequest.getUsername() ) || !useProxy() )
+        {
+            return Optional.empty();
+        }
+
+        final Optional<PeopleSearchIndex> searchIndex = pwmRequest.getPwmDomain().getPeopleSearchService()
+                .getSearchIndex( peopleSearchConfiguration.getProfileID() );
+        if ( searchIndex.isEmpty() )
+        {
+            return Optional.empty();
+        }
+
+        final int maxResults = peopleSearchConfiguration.getResultLimit();
+        final List<UserIdentity> matches = searchIndex.get().search( searchRequest.getUsername(), maxResults + 1 );
+        final Map<String, String> attributeHeaderMap = UserSearchResults.fromFormConfiguration(
+                peopleSearchConfiguration.getResultForm(), pwmRequest.getLocale() );
+
+        final Map<UserIdentity, Map<String, String>> resultMap = new LinkedHashMap<>();
+        for ( final UserIdentity userIdentity : matches )
+        {
+            if ( resultMap.size() >= maxResults )
+            {
+                break;
+            }
+            resultMap.put( userIdentity, searchIndex.get().readAttributes( userIdentity, attributeHeaderMap.keySet() ) );
+        }
+
+        LOGGER.trace( pwmRequest, () -> "search for '" + searchRequest.getUsername() + "' served from local search index" );
+        return Optional.of( new UserSearchResults( attributeHeaderMap, resultMap, matches.size() > maxResults ) );
+    }
+
     private Optional<SearchConfiguration> makeSearchConfiguration(
             final SearchRequestBean searchRequest
     )
@@ -860,7 +1028,7 @@ class PeopleSearchDataReader
                     return Optional.empty();
                 }
 
-                builder.filter( makeSimpleSearchFilter() );
+                builder.filter( peopleSearchConfiguration.makeSimpleSearchFilter() );
                 builder.username( searchRequest.getUsername() );
             }
             break;
@@ -0,0 +1,319 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.servlet.peoplesearch;
+
+import password.pwm.PwmConstants;
+import password.pwm.bean.ProfileID;
+import password.pwm.bean.UserIdentity;
+import password.pwm.util.java.StringUtil;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of people search entries.  Search attribute values are indexed by trigram and by word prefix
+ * so that simple (type-ahead) searches can be answered without an ldap round trip.  Entries are populated by
+ * {@link PeopleSearchService} using periodic ldap synchronization.
+ *
+ * <p>Query terms of at least {@link #GRAM_LENGTH} characters match any substring of an attribute value, equivalent
+ * to the {@code (attr=*term*)} ldap filter.  Shorter terms match the beginning of a word within an attribute value.</p>
+ */
+class PeopleSearchIndex
+{
+    static final int GRAM_LENGTH = 3;
+
+    private static final Comparator<UserIdentity> RESULT_ORDER = Comparator.comparing( UserIdentity::getUserDN, String.CASE_INSENSITIVE_ORDER )
+            .thenComparing( UserIdentity::getLdapProfileID, ProfileID.comparator() );
+
+    private final Set<String> searchAttributes;
+    private final Map<UserIdentity, Map<String, String>> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<UserIdentity>> gramPostings = new ConcurrentHashMap<>();
+    private final Map<String, Set<UserIdentity>> prefixPostings = new ConcurrentHashMap<>();
+
+    private volatile Instant lastSyncTime;
+
+    PeopleSearchIndex( final Collection<String> searchAttributes )
+    {
+        this.searchAttributes = Collections.unmodifiableSet( new HashSet<>( searchAttributes ) );
+    }
+
+    synchronized void put( final UserIdentity userIdentity, final Map<String, String> attributes )
+    {
+        remove( userIdentity );
+
+        final Map<String, String> storedAttributes = Map.copyOf( attributes );
+        entries.put( userIdentity, storedAttributes );
+        for ( final String key : indexKeys( storedAttributes, true ) )
+        {
+            gramPostings.computeIfAbsent( key, k -> ConcurrentHashMap.newKeySet() ).add( userIdentity );
+        }
+        for ( final String key : indexKeys( storedAttributes, false ) )
+        {
+            prefixPostings.computeIfAbsent( key, k -> ConcurrentHashMap.newKeySet() ).add( userIdentity );
+        }
+    }
+
+    synchronized void remove( final UserIdentity userIdentity )
+    {
+        final Map<String, String> existingAttributes = entries.remove( userIdentity );
+        if ( existingAttributes != null )
+        {
+            removePostings( gramPostings, indexKeys( existingAttributes, true ), userIdentity );
+            removePostings( prefixPostings, indexKeys( existingAttributes, false ), userIdentity );
+        }
+    }
+
+    /**
+     * Remove every entry that is not in the supplied set of identities.
+     * @param presentIdentities identities currently in the search population
+     * @return the number of entries removed.
+     */
+    synchronized int retainAll( final Set<UserIdentity> presentIdentities )
+    {
+        final List<UserIdentity> removedIdentities = new ArrayList<>();
+        for ( final UserIdentity userIdentity : entries.keySet() )
+        {
+            if ( !presentIdentities.contains( userIdentity ) )
+            {
+                removedIdentities.add( userIdentity );
+            }
+        }
+        removedIdentities.forEach( this::remove );
+        return removedIdentities.size();
+    }
+
+    Map<String, String> readAttributes( final UserIdentity userIdentity, final Collection<String> attributeNames )
+    {
+        final Map<String, String> storedAttributes = entries.getOrDefault( userIdentity, Collections.emptyMap() );
+        final Map<String, String> returnMap = new LinkedHashMap<>( attributeNames.size() );
+        for ( final String attributeName : attributeNames )
+        {
+            final String value = storedAttributes.get( attributeName );
+            if ( value != null )
+            {
+                returnMap.put( attributeName, value );
+            }
+        }
+        return returnMap;
+    }
+
+    /**
+     * Search the index.  The query is split on whitespace and each term must match at least one
+     * search attribute of an entry.
+     * @param query search query as entered by the user
+     * @param maxResults maximum number of results to return.
+     * @return matching identities ordered by ldap DN.
+     */
+    List<UserIdentity> search( final String query, final int maxResults )
+    {
+        final List<String> terms = new ArrayList<>();
+        for ( final String term : StringUtil.whitespaceSplit( normalize( query ) ) )
+        {
+            if ( StringUtil.notEmpty( term ) )
+            {
+                terms.add( term );
+            }
+        }
+
+        if ( terms.isEmpty() )
+        {
+            return Collections.emptyList();
+        }
+
+        Set<UserIdentity> candidates = null;
+        for ( final String term : terms )
+        {
+            final Set<UserIdentity> termCandidates = candidatesForTerm( term );
+            if ( candidates == null )
+            {
+                candidates = new HashSet<>( termCandidates );
+            }
+            else
+            {
+                candidates.retainAll( termCandidates );
+            }
+
+            if ( candidates.isEmpty() )
+            {
+                return Collections.emptyList();
+            }
+        }
+
+        final Set<UserIdentity> results = new TreeSet<>( RESULT_ORDER );
+        for ( final UserIdentity candidate : candidates )
+        {
+            final Map<String, String> attributes = entries.get( candidate );
+            if ( attributes != null && matchesAllTerms( attributes, terms ) )
+            {
+                results.add( candidate );
+            }
+        }
+
+        final List<UserIdentity> returnList = new ArrayList<>( Math.min( results.size(), maxResults ) );
+        for ( final UserIdentity userIdentity : results )
+        {
+            if ( returnList.size() >= maxResults )
+            {
+                break;
+            }
+            returnList.add( userIdentity );
+        }
+        return Collections.unmodifiableList( returnList );
+    }
+
+    int size()
+    {
+        return entries.size();
+    }
+
+    Instant getLastSyncTime()
+    {
+        return lastSyncTime;
+    }
+
+    void setLastSyncTime( final Instant lastSyncTime )
+    {
+        this.lastSyncTime = lastSyncTime;
+    }
+
+    private Set<UserIdentity> candidatesForTerm( final String term )
+    {
+        if ( term.length() < GRAM_LENGTH )
+        {
+            return prefixPostings.getOrDefault( term, Collections.emptySet() );
+        }
+
+        Set<UserIdentity> smallestPosting = null;
+        for ( final String gram : makeGrams( term ) )
+        {
+            final Set<UserIdentity> posting = gramPostings.getOrDefault( gram, Collections.emptySet() );
+            if ( smallestPosting == null || posting.size() < smallestPosting.size() )
+            {
+                smallestPosting = posting;
+            }
+        }
+        return smallestPosting == null ? Collections.emptySet() : smallestPosting;
+    }
+
+    private boolean matchesAllTerms( final Map<String, String> attributes, final List<String> terms )
+    {
+        for ( final String term : terms )
+        {
+            boolean termMatch = false;
+            for ( final String attributeName : searchAttributes )
+            {
+                final String value = attributes.get( attributeName );
+                if ( value != null && matchesTerm( normalize( value ), term ) )
+                {
+                    termMatch = true;
+                    break;
+                }
+            }
+
+            if ( !termMatch )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesTerm( final String normalizedValue, final String term )
+    {
+        if ( term.length() < GRAM_LENGTH )
+        {
+            for ( final String word : StringUtil.whitespaceSplit( normalizedValue ) )
+            {
+                if ( word.startsWith( term ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return normalizedValue.contains( term );
+    }
+
+    private Set<String> indexKeys( final Map<String, String> attributes, final boolean grams )
+    {
+        final Set<String> keys = new HashSet<>();
+        for ( final String attributeName : searchAttributes )
+        {
+            final String value = attributes.get( attributeName );
+            if ( StringUtil.notEmpty( value ) )
+            {
+                final String normalizedValue = normalize( value );
+                if ( grams )
+                {
+                    keys.addAll( makeGrams( normalizedValue ) );
+                }
+                else
+                {
+                    for ( final String word : StringUtil.whitespaceSplit( normalizedValue ) )
+                    {
+                        for ( int i = 1; i < GRAM_LENGTH && i <= word.length(); i++ )
+                        {
+                            keys.add( word.substring( 0, i ) );
+                        }
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static Set<String> makeGrams( final String value )
+    {
+        final Set<String> grams = new HashSet<>();
+        for ( int i = 0; i + GRAM_LENGTH <= value.length(); i++ )
+        {
+            grams.add( value.substring( i, i + GRAM_LENGTH ) );
+        }
+        return grams;
+    }
+
+    private static void removePostings( final Map<String, Set<UserIdentity>> postings, final Set<String> keys, final UserIdentity userIdentity )
+    {
+        for ( final String key : keys )
+        {
+            postings.computeIfPresent( key, ( k, posting ) ->
+            {
+                posting.remove( userIdentity );
+                return posting.isEmpty() ? null : posting;
+            } );
+        }
+    }
+
+    private static String normalize( final String input )
+    {
+        return input == null ? "" : input.trim().toLowerCase( PwmConstants.DEFAULT_LOCALE );
+    }
+}
@@ -20,20 +20,55 @@
 
 package password.pwm.http.servlet.peoplesearch;
 
+import com.novell.ldapchai.exception.ChaiException;
+import com.novell.ldapchai.provider.ChaiProvider;
+import com.novell.ldapchai.provider.SearchScope;
+import com.novell.ldapchai.util.SearchHelper;
 import password.pwm.PwmApplication;
+import password.pwm.PwmDomain;
 import password.pwm.bean.DomainID;
+import password.pwm.bean.ProfileID;
+import password.pwm.bean.UserIdentity;
+import password.pwm.config.DomainConfig;
+import password.pwm.config.profile.LdapProfile;
+import password.pwm.config.profile.PeopleSearchProfile;
+import password.pwm.config.value.data.FormConfiguration;
 import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.health.HealthRecord;
 import password.pwm.svc.AbstractPwmService;
 import password.pwm.svc.PwmService;
 import password.pwm.util.PwmScheduler;
+import password.pwm.util.java.StringUtil;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.logging.PwmLogger;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadPoolExecutor;
 
 public class PeopleSearchService extends AbstractPwmService implements PwmService
 {
+    private static final PwmLogger LOGGER = PwmLogger.forClass( PeopleSearchService.class );
+
+    // ldap "no attributes" selector (rfc4511 section 4.5.1.8), so only DNs are returned
+    private static final String NO_ATTRIBUTES = "1.1";
+
+    private static final DateTimeFormatter LDAP_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern( "yyyyMMddHHmmss'Z'" ).withZone( ZoneOffset.UTC );
+
+    private final Map<ProfileID, PeopleSearchIndex> searchIndexes = new ConcurrentHashMap<>();
+    private final Map<ProfileID, Instant> lastFullSyncTimes = new ConcurrentHashMap<>();
+    private final Map<ProfileID, Instant> lastReconcileTimes = new ConcurrentHashMap<>();
+
     private ThreadPoolExecutor threadPoolExecutor;
 
     @Override
@@ -44,6 +79,9 @@ public class PeopleSearchService extends AbstractPwmService implements PwmServic
 
         threadPoolExecutor = PwmScheduler.makeMultiThreadExecutor( maxThreadCount, pwmApplication, getSessionLabel(), PeopleSearchService.class );
 
+        final Optional<TimeDuration> syncInterval = figureSearchIndexSyncInterval();
+        syncInterval.ifPresent( interval -> scheduleFixedRateJob( this::syncSearchIndexes, TimeDuration.SECONDS_10, interval ) );
+
         return STATUS.OPEN;
     }
 
@@ -55,6 +93,9 @@ public class PeopleSearchService extends AbstractPwmService implements PwmServic
             threadPoolExecutor.shutdownNow();
             threadPoolExecutor = null;
         }
+        searchIndexes.clear();
+        lastFullSyncTimes.clear();
+        lastReconcileTimes.clear();
     }
 
     @Override
@@ -66,11 +107,220 @@ public class PeopleSearchService extends AbstractPwmService implements PwmServic
     @Override
     public ServiceInfoBean serviceInfo()
     {
-        return ServiceInfoBean.builder().build();
+        final Map<String, String> debugProperties = new LinkedHashMap<>();
+        for ( final Map.Entry<ProfileID, PeopleSearchIndex> entry : searchIndexes.entrySet() )
+        {
+            debugProperties.put( "searchIndexSize." + entry.getKey().stringValue(), String.valueOf( entry.getValue().size() ) );
+        }
+        return ServiceInfoBean.builder().debugProperties( debugProperties ).build();
     }
 
     public ThreadPoolExecutor getJobExecutor()
     {
         return threadPoolExecutor;
     }
+
+    Optional<PeopleSearchIndex> getSearchIndex( final ProfileID peopleSearchProfileID )
+    {
+        if ( status() != STATUS.OPEN )
+        {
+            return Optional.empty();
+        }
+        return Optional.ofNullable( searchIndexes.get( peopleSearchProfileID ) );
+    }
+
+    private Optional<TimeDuration> figureSearchIndexSyncInterval()
+            throws PwmUnrecoverableException
+    {
+        final DomainConfig domainConfig = getPwmApplication().getConfig().getDomainConfigs().get( getDomainID() );
+        TimeDuration syncInterval = null;
+        for ( final PeopleSearchProfile peopleSearchProfile : domainConfig.getPeopleSearchProfiles().values() )
+        {
+            final PeopleSearchConfiguration peopleSearchConfiguration = new PeopleSearchConfiguration( domainConfig, peopleSearchProfile );
+            if ( peopleSearchConfiguration.isSearchIndexEnabled() )
+            {
+                final TimeDuration profileInterval = peopleSearchConfiguration.getSearchIndexSyncInterval();
+                if ( syncInterval == null || profileInterval.isShorterThan( syncInterval ) )
+                {
+                    syncInterval = profileInterval;
+                }
+            }
+        }
+        return Optional.ofNullable( syncInterval );
+    }
+
+    private void syncSearchIndexes()
+    {
+        final PwmDomain pwmDomain = getPwmApplication().domains().get( getDomainID() );
+        for ( final PeopleSearchProfile peopleSearchProfile : pwmDomain.getConfig().getPeopleSearchProfiles().values() )
+        {
+            try
+            {
+                final PeopleSearchConfiguration peopleSearchConfiguration = new PeopleSearchConfiguration( pwmDomain.getConfig(), peopleSearchProfile );
+                if ( peopleSearchConfiguration.isSearchIndexEnabled() )
+                {
+                    syncSearchIndex( pwmDomain, peopleSearchConfiguration );
+                }
+            }
+            catch ( final PwmException e )
+            {
+                LOGGER.error( getSessionLabel(), () -> "error synchronizing people search index for profile "
+                        + peopleSearchProfile.getId().stringValue() + ": " + e.getMessage() );
+            }
+        }
+    }
+
+    private void syncSearchIndex( final PwmDomain pwmDomain, final PeopleSearchConfiguration peopleSearchConfiguration )
+            throws PwmException
+    {
+        final Instant startTime = Instant.now();
+        final ProfileID profileID = peopleSearchConfiguration.getProfileID();
+        final PeopleSearchIndex existingIndex = searchIndexes.get( profileID );
+        final Instant lastFullSync = lastFullSyncTimes.get( profileID );
+        final boolean fullSync = existingIndex == null
+                || lastFullSync == null
+                || TimeDuration.fromCurrent( lastFullSync ).isLongerThan( peopleSearchConfiguration.getSearchIndexFullSyncInterval() );
+
+        final String populationFilter = peopleSearchConfiguration.makeSearchPopulationFilter();
+
+        if ( !fullSync && isReconcileDue( peopleSearchConfiguration ) )
+        {
+            reconcileSearchIndex( pwmDomain, peopleSearchConfiguration, existingIndex, populationFilter );
+        }
+
+        final String searchFilter = fullSync
+                ? populationFilter
+                : "(&" + populationFilter + "(modifyTimestamp>=" + LDAP_TIMESTAMP_FORMAT.format( existingIndex.getLastSyncTime() ) + "))";
+
+        final Set<String> returnAttributes = new LinkedHashSet<>( peopleSearchConfiguration.getSearchAttributes() );
+        returnAttributes.addAll( FormConfiguration.convertToListOfNames( peopleSearchConfiguration.getResultForm() ) );
+
+        final Optional<Map<UserIdentity, Map<String, String>>> results = readSearchPopulation(
+                pwmDomain, peopleSearchConfiguration, searchFilter, returnAttributes );
+
+        final PeopleSearchIndex searchIndex = fullSync
+                ? new PeopleSearchIndex( peopleSearchConfiguration.getSearchAttributes() )
+                : existingIndex;
+
+        results.ifPresent( resultMap -> resultMap.forEach( searchIndex::put ) );
+
+        // a partial index would silently omit matches, so searches fall back to ldap until the population fits
+        if ( results.isEmpty() || searchIndex.size() > peopleSearchConfiguration.getSearchIndexMaxEntries() )
+        {
+            LOGGER.warn( getSessionLabel(), () -> "people search index for profile " + profileID.stringValue()
+                    + " exceeds the maximum of " + peopleSearchConfiguration.getSearchIndexMaxEntries()
+                    + " entries, searches will be performed against the ldap directory" );
+            searchIndexes.remove( profileID );
+            lastFullSyncTimes.remove( profileID );
+            lastReconcileTimes.remove( profileID );
+            return;
+        }
+
+        searchIndex.setLastSyncTime( startTime );
+
+        if ( fullSync )
+        {
+            searchIndexes.put( profileID, searchIndex );
+            lastFullSyncTimes.put( profileID, startTime );
+            lastReconcileTimes.put( profileID, startTime );
+        }
+
+        LOGGER.debug( getSessionLabel(), () -> "completed " + ( fullSync ? "full" : "delta" ) + " people search index sync for profile "
+                + profileID.stringValue() + ", read " + results.get().size() + " entries, index size is " + searchIndex.size(),
+                TimeDuration.fromCurrent( startTime ) );
+    }
+
+    private boolean isReconcileDue( final PeopleSearchConfiguration peopleSearchConfiguration )
+    {
+        final Instant lastReconcile = lastReconcileTimes.get( peopleSearchConfiguration.getProfileID() );
+        return lastReconcile == null
+                || TimeDuration.fromCurrent( lastReconcile ).isLongerThan( peopleSearchConfiguration.getSearchIndexReconcileInterval() );
+    }
+
+    /**
+     * Remove entries that have been deleted, moved or renamed out of the search population.  A delta sync only finds
+     * modified entries, so this pass reads the DNs of the entire population (without attribute values) and drops
+     * any indexed entry that is no longer present.
+     */
+    private void reconcileSearchIndex(
+            final PwmDomain pwmDomain,
+            final PeopleSearchConfiguration peopleSearchConfiguration,
+            final PeopleSearchIndex searchIndex,
+            final String populationFilter
+    )
+            throws PwmException
+    {
+        final Instant startTime = Instant.now();
+        final ProfileID profileID = peopleSearchConfiguration.getProfileID();
+
+        final Optional<Map<UserIdentity, Map<String, String>>> results = readSearchPopulation(
+                pwmDomain, peopleSearchConfiguration, populationFilter, Collections.singleton( NO_ATTRIBUTES ) );
+
+        if ( results.isPresent() )
+        {
+            final int removedCount = searchIndex.retainAll( results.get().keySet() );
+            lastReconcileTimes.put( profileID, startTime );
+            LOGGER.debug( getSessionLabel(), () -> "completed people search index reconcile for profile " + profileID.stringValue()
+                    + ", removed " + removedCount + " entries no longer in the search population", TimeDuration.fromCurrent( startTime ) );
+        }
+    }
+
+    /**
+     * Read the search population from each ldap profile and search context using the proxy connection.  The count limit
+     * exceeds the ldap paging size for any realistic maximum, so the directory returns the population in pages.
+     * @return the population, or empty if it exceeds the configured maximum index size.
+     */
+    private Optional<Map<UserIdentity, Map<String, String>>> readSearchPopulation(
+            final PwmDomain pwmDomain,
+            final PeopleSearchConfiguration peopleSearchConfiguration,
+            final String searchFilter,
+            final Set<String> returnAttributes
+    )
+            throws PwmUnrecoverableException
+    {
+        final int maxEntries = peopleSearchConfiguration.getSearchIndexMaxEntries();
+        final Map<UserIdentity, Map<String, String>> results = new LinkedHashMap<>();
+
+        for ( final LdapProfile ldapProfile : pwmDomain.getConfig().getLdapProfiles().values() )
+        {
+            final List<String> ldapBase = peopleSearchConfiguration.getLdapBase();
+            final List<String> contexts = ldapBase.isEmpty() || StringUtil.isEmpty( ldapBase.get( 0 ) )
+                    ? ldapProfile.getRootContexts( getSessionLabel(), pwmDomain )
+                    : ldapBase;
+
+            final ChaiProvider chaiProvider = pwmDomain.getProxyChaiProvider( getSessionLabel(), ldapProfile.getId() );
+            for ( final String context : contexts )
+            {
+                final SearchHelper searchHelper = new SearchHelper();
+                searchHelper.setFilter( searchFilter );
+                searchHelper.setAttributes( returnAttributes );
+                searchHelper.setMaxResults( maxEntries + 1 - results.size() );
+                searchHelper.setSearchScope( SearchScope.SUBTREE );
+
+                try
+                {
+                    for ( final Map.Entry<String, Map<String, String>> entry : chaiProvider.search( context, searchHelper ).entrySet() )
+                    {
+                        final UserIdentity userIdentity = UserIdentity.create(
+                                entry.getKey(),
+                                ldapProfile.getId(),
+                                pwmDomain.getDomainID(),
+                                UserIdentity.Flag.PreCanonicalized );
+                        results.put( userIdentity, entry.getValue() );
+                    }
+                }
+                catch ( final ChaiException e )
+                {
+                    throw PwmUnrecoverableException.fromChaiException( e );
+                }
+
+                if ( results.size() > maxEntries )
+                {
+                    return Optional.empty();
+                }
+            }
+        }
+
+        return Optional.of( results );
+    }
 }
@@ -41,7 +41,6 @@ import password.pwm.http.servlet.peoplesearch.bean.OrgChartDataBean;
 import password.pwm.http.servlet.peoplesearch.bean.PeopleSearchClientConfigBean;
 import password.pwm.http.servlet.peoplesearch.bean.SearchResultBean;
 import password.pwm.http.servlet.peoplesearch.bean.UserDetailBean;
-import password.pwm.bean.PhotoDataBean;
 import password.pwm.svc.stats.Statistic;
 import password.pwm.svc.stats.StatisticsClient;
 import password.pwm.util.java.PwmUtil;
@@ -252,7 +251,8 @@ public abstract class PeopleSearchServlet extends ControlledPwmServlet
 
         LOGGER.debug( pwmRequest, () -> "received user photo request to view user " + userIdentity.toString() );
 
-        final Callable<Optional<PhotoDataBean>> callablePhotoReader = () -> peopleSearchDataReader.readPhotoData( userIdentity );
+        final PhotoService.PhotoVariant photoVariant = PhotoDataReader.readPhotoVariantParam( pwmRequest );
+        final Callable<Optional<PhotoService.ServedPhoto>> callablePhotoReader = () -> peopleSearchDataReader.readPhotoData( userIdentity, photoVariant );
 
         PhotoDataReader.servletRespondWithPhoto( pwmRequest, callablePhotoReader );
         return ProcessStatus.Halt;
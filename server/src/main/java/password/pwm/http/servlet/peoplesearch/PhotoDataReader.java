@@ -46,6 +46,7 @@ import password.pwm.svc.httpclient.PwmHttpClientConfiguration;
 import password.pwm.svc.httpclient.PwmHttpClientRequest;
 import password.pwm.svc.httpclient.PwmHttpClientResponse;
 import password.pwm.util.java.CollectionUtil;
+import password.pwm.util.java.EnumUtil;
 import password.pwm.util.java.JavaHelper;
 import password.pwm.util.java.PwmUtil;
 import password.pwm.util.java.StringUtil;
@@ -64,6 +65,8 @@ public class PhotoDataReader
 {
     private static final PwmLogger LOGGER = PwmLogger.forClass( PhotoDataReader.class );
 
+    public static final String PARAM_PHOTO_VARIANT = "variant";
+
     private final Settings settings;
     private final PwmRequest pwmRequest;
     private final UserIdentity userIdentity;
@@ -137,6 +140,12 @@ public class PhotoDataReader
 
     public Optional<String> figurePhotoURL()
             throws PwmUnrecoverableException
+    {
+        return figurePhotoURL( PhotoService.PhotoVariant.original );
+    }
+
+    public Optional<String> figurePhotoURL( final PhotoService.PhotoVariant photoVariant )
+            throws PwmUnrecoverableException
     {
         if ( !verifyViewPhotoPermission() )
         {
@@ -155,6 +164,10 @@ public class PhotoDataReader
                 String returnUrl = pwmRequest.getUrlWithoutQueryString();
                 returnUrl = PwmURL.appendAndEncodeUrlParameters( returnUrl, PwmConstants.PARAM_ACTION_REQUEST, PeopleSearchServlet.PeopleSearchActions.photo.name() );
                 returnUrl = PwmURL.appendAndEncodeUrlParameters( returnUrl, PwmConstants.PARAM_USERKEY,  PeopleSearchServlet.obfuscateUserIdentity( pwmRequest, userIdentity ) );
+                if ( photoVariant != PhotoService.PhotoVariant.original )
+                {
+                    returnUrl = PwmURL.appendAndEncodeUrlParameters( returnUrl, PARAM_PHOTO_VARIANT, photoVariant.name() );
+                }
                 return Optional.of( returnUrl );
 
             default:
@@ -165,7 +178,13 @@ public class PhotoDataReader
         return Optional.empty();
     }
 
-    public Optional<PhotoDataBean> readPhotoData( )
+    public Optional<PhotoService.ServedPhoto> readPhotoData( )
+            throws PwmUnrecoverableException, PwmOperationalException
+    {
+        return readPhotoData( PhotoService.PhotoVariant.original );
+    }
+
+    public Optional<PhotoService.ServedPhoto> readPhotoData( final PhotoService.PhotoVariant photoVariant )
             throws PwmUnrecoverableException, PwmOperationalException
     {
         final Instant startTime = Instant.now();
@@ -177,30 +196,22 @@ public class PhotoDataReader
 
         final PhotoReaderMethod method = figurePhotoDataReaderMethod( );
 
-        Optional<PhotoDataBean> photoDataBean = Optional.empty();
+        Optional<PhotoService.ServedPhoto> photoDataBean = Optional.empty();
         try
         {
-            switch ( method )
-            {
-                case Ldap:
-                    photoDataBean = readPhotoDataFromLdap();
-                    break;
-
-                case ServerHttp:
-                    photoDataBean = readPhotoDataFromHTTP();
-                    break;
-
-                default:
-                    PwmUtil.unhandledSwitchStatement( method );
-            }
+            final PhotoService.PhotoLoader photoLoader = () -> readPhotoDataFromSource( method );
+            final PhotoService photoService = pwmRequest.getPwmDomain().getPhotoService();
+            photoDataBean = photoService == null
+                    ? photoLoader.read().map( PhotoService.ServedPhoto::forPhoto )
+                    : photoService.readPhoto( userIdentity, photoVariant, photoLoader );
         }
         finally
         {
-            final Optional<PhotoDataBean> finalData = photoDataBean;
+            final Optional<PhotoService.ServedPhoto> finalData = photoDataBean;
             if ( finalData.isPresent() )
             {
                 LOGGER.trace( pwmRequest, () -> "user photo data received for " + userIdentity.toDisplayString()
-                        + " " + finalData.get()
+                        + " " + finalData.get().getPhotoDataBean()
                         + " (" + TimeDuration.compactFromCurrent( startTime ) + ")" );
             }
             else
@@ -213,6 +224,24 @@ public class PhotoDataReader
         return photoDataBean;
     }
 
+    private Optional<PhotoDataBean> readPhotoDataFromSource( final PhotoReaderMethod method )
+            throws PwmUnrecoverableException, PwmOperationalException
+    {
+        switch ( method )
+        {
+            case Ldap:
+                return readPhotoDataFromLdap();
+
+            case ServerHttp:
+                return readPhotoDataFromHTTP();
+
+            default:
+                PwmUtil.unhandledSwitchStatement( method );
+        }
+
+        return Optional.empty();
+    }
+
     private Optional<PhotoDataBean> readPhotoDataFromLdap()
             throws PwmUnrecoverableException, PwmOperationalException
     {
@@ -277,9 +306,17 @@ public class PhotoDataReader
         return Optional.empty();
     }
 
+    public static PhotoService.PhotoVariant readPhotoVariantParam( final PwmRequest pwmRequest )
+            throws PwmUnrecoverableException
+    {
+        final String variantParam = pwmRequest.readParameterAsString( PARAM_PHOTO_VARIANT );
+        return EnumUtil.readEnumFromString( PhotoService.PhotoVariant.class, variantParam )
+                .orElse( PhotoService.PhotoVariant.original );
+    }
+
     public static void servletRespondWithPhoto(
             final PwmRequest pwmRequest,
-            final Callable<Optional<PhotoDataBean>> photoReader
+            final Callable<Optional<PhotoService.ServedPhoto>> photoReader
     )
     {
         final long cacheSeconds = JavaHelper.silentParseLong( pwmRequest.getDomainConfig().readAppProperty( AppProperty.PHOTO_CLIENT_CACHE_SECONDS ), 3600 );
@@ -287,18 +324,35 @@ public class PhotoDataReader
         pwmRequest.getPwmResponse().getHttpServletResponse().setDateHeader( HttpHeader.Expires.getHttpName(), System.currentTimeMillis() + ( maxCacheTime.asMillis() ) );
         pwmRequest.getPwmResponse().setHeader( HttpHeader.CacheControl,  "private, max-age=" + maxCacheTime.as( TimeDuration.Unit.SECONDS ) );
 
-        try ( OutputStream outputStream = pwmRequest.getPwmResponse().getOutputStream() )
+        try
         {
-            final Optional<PhotoDataBean> optionalPhotoDataBean = photoReader.call();
-            if ( optionalPhotoDataBean.isPresent() )
+            final Optional<PhotoService.ServedPhoto> optionalServedPhoto = photoReader.call();
+            if ( optionalServedPhoto.isPresent() )
             {
-                final PhotoDataBean photoDataBean = optionalPhotoDataBean.get();
+                final PhotoDataBean photoDataBean = optionalServedPhoto.get().getPhotoDataBean();
                 final HttpServletResponse resp = pwmRequest.getPwmResponse().getHttpServletResponse();
-                resp.setContentType( photoDataBean.getMimeType() );
 
                 if ( photoDataBean.getContents() != null && !photoDataBean.getContents().isEmpty() )
                 {
-                    JavaHelper.copy( photoDataBean.getContents().newByteArrayInputStream(), outputStream );
+                    final String eTagValue = optionalServedPhoto.get().getEtag();
+                    pwmRequest.getPwmResponse().setHeader( HttpHeader.ETag, eTagValue );
+
+                    final String ifNoneMatchValue = pwmRequest.readHeaderValueAsString( HttpHeader.If_None_Match );
+                    if ( ifNoneMatchValue != null && ifNoneMatchValue.equals( eTagValue ) )
+                    {
+                        resp.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+                        return;
+                    }
+
+                    resp.setContentType( photoDataBean.getMimeType() );
+                    try ( OutputStream outputStream = pwmRequest.getPwmResponse().getOutputStream() )
+                    {
+                        JavaHelper.copy( photoDataBean.getContents().newByteArrayInputStream(), outputStream );
+                    }
+                }
+                else
+                {
+                    resp.setContentType( photoDataBean.getMimeType() );
                 }
             }
         }
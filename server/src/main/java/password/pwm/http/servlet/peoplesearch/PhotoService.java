@@ -0,0 +1,470 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.servlet.peoplesearch;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.Builder;
+import lombok.Value;
+import password.pwm.AppProperty;
+import password.pwm.PwmApplication;
+import password.pwm.PwmConstants;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.PhotoDataBean;
+import password.pwm.bean.ProfileID;
+import password.pwm.bean.UserIdentity;
+import password.pwm.config.DomainConfig;
+import password.pwm.config.PwmSetting;
+import password.pwm.config.option.DataStorageMethod;
+import password.pwm.config.profile.LdapProfile;
+import password.pwm.data.ImmutableByteArray;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmOperationalException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.health.HealthRecord;
+import password.pwm.svc.AbstractPwmService;
+import password.pwm.svc.PwmService;
+import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.StringUtil;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.json.JsonFactory;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.localdb.LocalDBException;
+import password.pwm.util.logging.PwmLogger;
+import password.pwm.util.secure.PwmHashAlgorithm;
+import password.pwm.util.secure.SecureEngine;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caches user photos read by {@link PhotoDataReader} and generates resized thumbnail variants.  Decoded photos
+ * are held in a size-bounded memory cache, and entries evicted due to size may optionally spill to the LocalDB
+ * {@link LocalDB.DB#CACHE} db.
+ */
+public class PhotoService extends AbstractPwmService implements PwmService
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( PhotoService.class );
+
+    private static final String LOCALDB_KEY_PREFIX = "photo|";
+
+    private final StatisticCounterBundle<DebugKey> stats = new StatisticCounterBundle<>( DebugKey.class );
+
+    private Settings settings;
+    private Map<ProfileID, String> photoSourceHashes = Collections.emptyMap();
+    private Cache<String, CachedPhoto> memoryCache;
+    private LocalDB localDB;
+
+    public enum PhotoVariant
+    {
+        original,
+        thumbnail,
+    }
+
+    enum DebugKey
+    {
+        memoryHits,
+        localDBHits,
+        misses,
+        localDBSpills,
+        thumbnailsGenerated,
+        thumbnailErrors,
+    }
+
+    public interface PhotoLoader
+    {
+        Optional<PhotoDataBean> read() throws PwmUnrecoverableException, PwmOperationalException;
+    }
+
+    @Value
+    @Builder
+    private static class Settings
+    {
+        private final boolean enabled;
+        private final boolean localDBSpill;
+        private final long maxMemoryBytes;
+        private final TimeDuration maxAge;
+        private final int thumbnailSize;
+
+        static Settings fromConfig( final DomainConfig domainConfig )
+        {
+            return Settings.builder()
+                    .enabled( Boolean.parseBoolean( domainConfig.readAppProperty( AppProperty.PHOTO_CACHE_ENABLE ) ) )
+                    .localDBSpill( Boolean.parseBoolean( domainConfig.readAppProperty( AppProperty.PHOTO_CACHE_LOCALDB_SPILL ) ) )
+                    .maxMemoryBytes( Long.parseLong( domainConfig.readAppProperty( AppProperty.PHOTO_CACHE_MAX_MEMORY_BYTES ) ) )
+                    .maxAge( TimeDuration.of( Long.parseLong( domainConfig.readAppProperty( AppProperty.PHOTO_CACHE_MAX_AGE_SECONDS ) ), TimeDuration.Unit.SECONDS ) )
+                    .thumbnailSize( Integer.parseInt( domainConfig.readAppProperty( AppProperty.PHOTO_THUMBNAIL_SIZE ) ) )
+                    .build();
+        }
+    }
+
+    /**
+     * A photo along with its ETag, which is computed once when the photo is read from its source.
+     */
+    @Value
+    public static class ServedPhoto
+    {
+        private final PhotoDataBean photoDataBean;
+        private final String etag;
+
+        static ServedPhoto forPhoto( final PhotoDataBean photoDataBean )
+        {
+            return new ServedPhoto( photoDataBean, makeETag( photoDataBean ) );
+        }
+    }
+
+    @Value
+    private static class CachedPhoto
+    {
+        private final Instant timestamp;
+
+        // null when the user has no photo
+        private final ServedPhoto servedPhoto;
+
+        int weight()
+        {
+            return servedPhoto == null || servedPhoto.getPhotoDataBean().getContents() == null
+                    ? 1
+                    : servedPhoto.getPhotoDataBean().getContents().size();
+        }
+    }
+
+    @Value
+    private static class StoredPhoto
+    {
+        private final Instant timestamp;
+        private final String mimeType;
+        private final String etag;
+        private final String contents;
+    }
+
+    @Override
+    protected STATUS postAbstractInit( final PwmApplication pwmApplication, final DomainID domainID )
+            throws PwmException
+    {
+        final DomainConfig domainConfig = pwmApplication.getConfig().getDomainConfigs().get( domainID );
+        settings = Settings.fromConfig( domainConfig );
+        if ( !settings.isEnabled() )
+        {
+            return STATUS.CLOSED;
+        }
+
+        photoSourceHashes = makePhotoSourceHashes( domainConfig );
+
+        if ( settings.isLocalDBSpill() && pwmApplication.getLocalDB() != null && pwmApplication.getLocalDB().status() == LocalDB.Status.OPEN )
+        {
+            localDB = pwmApplication.getLocalDB();
+        }
+
+        memoryCache = Caffeine.newBuilder()
+                .maximumWeight( settings.getMaxMemoryBytes() )
+                .weigher( ( final String key, final CachedPhoto value ) -> value.weight() )
+                .expireAfterWrite( Duration.ofMillis( settings.getMaxAge().asMillis() ) )
+                .removalListener( ( final String key, final CachedPhoto value, final RemovalCause cause ) ->
+                {
+                    if ( cause == RemovalCause.SIZE && key != null && value != null )
+                    {
+                        spillToLocalDB( key, value );
+                    }
+                } )
+                .build();
+
+        return STATUS.OPEN;
+    }
+
+    @Override
+    protected void shutdownImpl()
+    {
+        if ( memoryCache != null )
+        {
+            memoryCache.invalidateAll();
+        }
+    }
+
+    @Override
+    protected List<HealthRecord> serviceHealthCheck()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ServiceInfoBean serviceInfo()
+    {
+        final ServiceInfoBean.ServiceInfoBeanBuilder builder = ServiceInfoBean.builder()
+                .debugProperties( stats.debugStats( PwmConstants.DEFAULT_LOCALE ) );
+        if ( memoryCache != null )
+        {
+            builder.debugProperty( "memoryItemCount", String.valueOf( memoryCache.estimatedSize() ) );
+        }
+        if ( localDB != null )
+        {
+            builder.storageMethod( DataStorageMethod.LOCALDB );
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read a photo, using the cache if possible.  Callers are responsible for verifying the requesting user
+     * has permission to view the photo before calling this method.
+     * @param userIdentity user whose photo is being read
+     * @param photoVariant variant of the photo to return
+     * @param photoLoader loader used to read the original photo if it is not cached
+     * @return the photo and its ETag, or an empty optional if the user does not have a photo
+     * @throws PwmUnrecoverableException if the photo loader fails
+     * @throws PwmOperationalException if the photo loader fails
+     */
+    public Optional<ServedPhoto> readPhoto(
+            final UserIdentity userIdentity,
+            final PhotoVariant photoVariant,
+            final PhotoLoader photoLoader
+    )
+            throws PwmUnrecoverableException, PwmOperationalException
+    {
+        if ( status() != STATUS.OPEN )
+        {
+            return loadVariant( userIdentity, photoVariant, photoLoader ).map( ServedPhoto::forPhoto );
+        }
+
+        final String key = makeKey( userIdentity, photoVariant );
+
+        final CachedPhoto memoryValue = memoryCache.getIfPresent( key );
+        if ( memoryValue != null )
+        {
+            stats.increment( DebugKey.memoryHits );
+            return Optional.ofNullable( memoryValue.getServedPhoto() );
+        }
+
+        final Optional<CachedPhoto> localDBValue = readFromLocalDB( key );
+        if ( localDBValue.isPresent() )
+        {
+            stats.increment( DebugKey.localDBHits );
+            memoryCache.put( key, localDBValue.get() );
+            return Optional.ofNullable( localDBValue.get().getServedPhoto() );
+        }
+
+        stats.increment( DebugKey.misses );
+        final Optional<ServedPhoto> servedPhoto = loadVariant( userIdentity, photoVariant, photoLoader ).map( ServedPhoto::forPhoto );
+        memoryCache.put( key, new CachedPhoto( Instant.now(), servedPhoto.orElse( null ) ) );
+        return servedPhoto;
+    }
+
+    private Optional<PhotoDataBean> loadVariant(
+            final UserIdentity userIdentity,
+            final PhotoVariant photoVariant,
+            final PhotoLoader photoLoader
+    )
+            throws PwmUnrecoverableException, PwmOperationalException
+    {
+        if ( photoVariant == PhotoVariant.thumbnail )
+        {
+            final Optional<PhotoDataBean> original = status() == STATUS.OPEN
+                    ? readPhoto( userIdentity, PhotoVariant.original, photoLoader ).map( ServedPhoto::getPhotoDataBean )
+                    : photoLoader.read();
+
+            if ( original.isPresent() )
+            {
+                final int thumbnailSize = settings == null
+                        ? Integer.parseInt( AppProperty.PHOTO_THUMBNAIL_SIZE.getDefaultValue() )
+                        : settings.getThumbnailSize();
+                try
+                {
+                    final PhotoDataBean thumbnail = makeThumbnail( original.get(), thumbnailSize );
+                    stats.increment( DebugKey.thumbnailsGenerated );
+                    return Optional.of( thumbnail );
+                }
+                catch ( final IOException e )
+                {
+                    stats.increment( DebugKey.thumbnailErrors );
+                    LOGGER.debug( getSessionLabel(), () -> "unable to generate photo thumbnail for " + userIdentity.toDisplayString()
+                            + ", will use original: " + e.getMessage() );
+                }
+            }
+            return original;
+        }
+
+        return photoLoader.read();
+    }
+
+    /**
+     * Scale a photo so neither dimension exceeds {@code maxSize}, preserving aspect ratio.  Photos that are already small enough,
+     * or are in a format that can not be decoded, are returned unchanged.
+     */
+    static PhotoDataBean makeThumbnail( final PhotoDataBean original, final int maxSize )
+            throws IOException
+    {
+        final BufferedImage sourceImage;
+        try ( InputStream inputStream = original.getContents().newByteArrayInputStream() )
+        {
+            sourceImage = ImageIO.read( inputStream );
+        }
+
+        if ( sourceImage == null )
+        {
+            return original;
+        }
+
+        final int sourceWidth = sourceImage.getWidth();
+        final int sourceHeight = sourceImage.getHeight();
+        if ( sourceWidth <= maxSize && sourceHeight <= maxSize )
+        {
+            return original;
+        }
+
+        final double scale = Math.min( ( double ) maxSize / sourceWidth, ( double ) maxSize / sourceHeight );
+        final int targetWidth = Math.max( 1, ( int ) Math.round( sourceWidth * scale ) );
+        final int targetHeight = Math.max( 1, ( int ) Math.round( sourceHeight * scale ) );
+        final boolean hasAlpha = sourceImage.getColorModel().hasAlpha();
+
+        final BufferedImage targetImage = new BufferedImage( targetWidth, targetHeight, hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB );
+        final Graphics2D graphics = targetImage.createGraphics();
+        try
+        {
+            graphics.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR );
+            graphics.setRenderingHint( RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY );
+            graphics.drawImage( sourceImage, 0, 0, targetWidth, targetHeight, null );
+        }
+        finally
+        {
+            graphics.dispose();
+        }
+
+        final String formatName = hasAlpha ? "png" : "jpeg";
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        if ( !ImageIO.write( targetImage, formatName, outputStream ) )
+        {
+            return original;
+        }
+
+        return new PhotoDataBean( "image/" + formatName, ImmutableByteArray.of( outputStream.toByteArray() ) );
+    }
+
+    static String makeETag( final PhotoDataBean photoDataBean )
+    {
+        if ( photoDataBean.getContents() == null || photoDataBean.getContents().isEmpty() )
+        {
+            return null;
+        }
+        return '"' + SecureEngine.hash( photoDataBean.getContents().newByteArrayInputStream(), PwmHashAlgorithm.SHA256 ) + '"';
+    }
+
+    /**
+     * Hash of the settings of each ldap profile that determine where photos are read from.  The hash is part of the
+     * cache key so that photos cached (or spilled to the LocalDB) before a configuration change are not served after it.
+     */
+    private static Map<ProfileID, String> makePhotoSourceHashes( final DomainConfig domainConfig )
+    {
+        final String proxyEnabled = domainConfig.readAppProperty( AppProperty.PHOTO_INTERNAL_HTTP_PROXY_ENABLE );
+        final Map<ProfileID, String> hashes = new HashMap<>();
+        for ( final Map.Entry<ProfileID, LdapProfile> entry : domainConfig.getLdapProfiles().entrySet() )
+        {
+            final LdapProfile ldapProfile = entry.getValue();
+            final String sourceSettings = ldapProfile.readSettingAsString( PwmSetting.LDAP_ATTRIBUTE_PHOTO )
+                    + "|" + ldapProfile.readSettingAsString( PwmSetting.LDAP_ATTRIBUTE_PHOTO_URL_OVERRIDE )
+                    + "|" + proxyEnabled;
+            hashes.put( entry.getKey(), SecureEngine.hash( sourceSettings, PwmHashAlgorithm.SHA256 ) );
+        }
+        return Collections.unmodifiableMap( hashes );
+    }
+
+    private String makeKey( final UserIdentity userIdentity, final PhotoVariant photoVariant )
+    {
+        final String sourceHash = photoSourceHashes.getOrDefault( userIdentity.getLdapProfileID(), "" );
+        return SecureEngine.hash( userIdentity.toDelimitedKey() + "|" + photoVariant.name() + "|" + sourceHash, PwmHashAlgorithm.SHA256 );
+    }
+
+    private void spillToLocalDB( final String key, final CachedPhoto cachedPhoto )
+    {
+        final ServedPhoto servedPhoto = cachedPhoto.getServedPhoto();
+        if ( localDB == null || servedPhoto == null || status() != STATUS.OPEN )
+        {
+            return;
+        }
+
+        final PhotoDataBean photoDataBean = servedPhoto.getPhotoDataBean();
+        final StoredPhoto storedPhoto = new StoredPhoto(
+                cachedPhoto.getTimestamp(),
+                photoDataBean.getMimeType(),
+                servedPhoto.getEtag(),
+                StringUtil.base64Encode( photoDataBean.getContents().copyOf() ) );
+        final String jsonValue = JsonFactory.get().serialize( storedPhoto );
+        if ( jsonValue.length() > LocalDB.MAX_VALUE_LENGTH )
+        {
+            return;
+        }
+
+        try
+        {
+            localDB.put( LocalDB.DB.CACHE, LOCALDB_KEY_PREFIX + key, jsonValue );
+            stats.increment( DebugKey.localDBSpills );
+        }
+        catch ( final LocalDBException e )
+        {
+            LOGGER.debug( getSessionLabel(), () -> "error writing photo to LocalDB: " + e.getMessage() );
+        }
+    }
+
+    private Optional<CachedPhoto> readFromLocalDB( final String key )
+    {
+        if ( localDB == null )
+        {
+            return Optional.empty();
+        }
+
+        try
+        {
+            final Optional<String> jsonValue = localDB.get( LocalDB.DB.CACHE, LOCALDB_KEY_PREFIX + key );
+            if ( jsonValue.isPresent() )
+            {
+                final StoredPhoto storedPhoto = JsonFactory.get().deserialize( jsonValue.get(), StoredPhoto.class );
+                localDB.remove( LocalDB.DB.CACHE, LOCALDB_KEY_PREFIX + key );
+                if ( storedPhoto.getTimestamp() != null && TimeDuration.fromCurrent( storedPhoto.getTimestamp() ).isShorterThan( settings.getMaxAge() ) )
+                {
+                    final PhotoDataBean photoDataBean = new PhotoDataBean(
+                            storedPhoto.getMimeType(),
+                            ImmutableByteArray.of( StringUtil.base64Decode( storedPhoto.getContents() ) ) );
+                    final ServedPhoto servedPhoto = storedPhoto.getEtag() == null
+                            ? ServedPhoto.forPhoto( photoDataBean )
+                            : new ServedPhoto( photoDataBean, storedPhoto.getEtag() );
+                    return Optional.of( new CachedPhoto( storedPhoto.getTimestamp(), servedPhoto ) );
+                }
+            }
+        }
+        catch ( final Exception e )
+        {
+            LOGGER.debug( getSessionLabel(), () -> "error reading photo from LocalDB: " + e.getMessage() );
+        }
+
+        return Optional.empty();
+    }
+}
@@ -187,12 +187,15 @@ public class SetupResponsesUtil
 
             if ( challengeSet != null )
             {
-                final ChaiResponseSet responseSet = ChaiCrFactory.newChaiResponseSet(
-                        readResponses,
-                        challengeSet.getLocale(),
-                        challengeSet.getMinRandomRequired(),
-                        provider.getChaiConfiguration(),
-                        challengeSet.getIdentifier() );
+                final ChaiResponseSet responseSet = pwmRequest.getPwmApplication().getSecureService().executeHashOperation(
+                        pwmRequest.getLabel(),
+                        "responseSetup",
+                        () -> ChaiCrFactory.newChaiResponseSet(
+                                readResponses,
+                                challengeSet.getLocale(),
+                                challengeSet.getMinRandomRequired(),
+                                provider.getChaiConfiguration(),
+                                challengeSet.getIdentifier() ) );
 
                 responseSet.meetsChallengeSetRequirements( challengeSet );
 
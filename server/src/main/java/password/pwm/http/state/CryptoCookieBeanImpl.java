@@ -80,7 +80,7 @@ class CryptoCookieBeanImpl implements SessionBeanProvider
         return newBean;
     }
 
-    private boolean validateCookie( final PwmRequest pwmRequest, final String cookieName, final PwmSessionBean cookieBean )
+    static boolean validateCookie( final PwmRequest pwmRequest, final String cookieName, final PwmSessionBean cookieBean )
     {
         if ( cookieBean == null )
         {
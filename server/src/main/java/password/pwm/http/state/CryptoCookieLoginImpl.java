@@ -154,7 +154,7 @@ class CryptoCookieLoginImpl implements SessionLoginProvider
     }
 
 
-    private static void importRemoteCookie(
+    static void importRemoteCookie(
             final PwmRequest pwmRequest,
             final LoginInfoBean remoteLoginCookie
     )
@@ -228,7 +228,7 @@ class CryptoCookieLoginImpl implements SessionLoginProvider
         pwmRequest.getPwmSession().setLoginInfoBean( remoteLoginCookie );
     }
 
-    private static void checkIfRemoteLoginCookieIsValid(
+    static void checkIfRemoteLoginCookieIsValid(
             final PwmRequest pwmRequest,
             final LoginInfoBean loginInfoBean
     )
@@ -279,7 +279,7 @@ class CryptoCookieLoginImpl implements SessionLoginProvider
         }
     }
 
-    private static void checkIfLoginCookieIsForeign( final PwmRequest pwmRequest, final LoginInfoBean remoteLoginInfoBean ) throws PwmUnrecoverableException
+    static void checkIfLoginCookieIsForeign( final PwmRequest pwmRequest, final LoginInfoBean remoteLoginInfoBean ) throws PwmUnrecoverableException
     {
         final String remoteGuid = remoteLoginInfoBean.getGuid();
         final String localGuid = pwmRequest.getPwmSession().getLoginInfoBean().getGuid();
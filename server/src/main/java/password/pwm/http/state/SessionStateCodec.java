@@ -0,0 +1,121 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.state;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary form of a {@link SessionStateRecord}.  The first byte is the format version, the remainder is a
+ * deflated stream of the revision, last write time, and each bean class name followed by its length-prefixed
+ * UTF-8 json value.
+ */
+final class SessionStateCodec
+{
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int MAX_ENTRIES = 1000;
+    private static final int MAX_VALUE_BYTES = 10 * 1024 * 1024;
+
+    private SessionStateCodec()
+    {
+    }
+
+    static byte[] encode( final SessionStateRecord record )
+            throws IOException
+    {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        byteArrayOutputStream.write( FORMAT_VERSION );
+
+        final Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+        try ( DataOutputStream dataOutputStream = new DataOutputStream( new DeflaterOutputStream( byteArrayOutputStream, deflater ) ) )
+        {
+            dataOutputStream.writeLong( record.getRevision() );
+            dataOutputStream.writeLong( record.getLastWrite().toEpochMilli() );
+            dataOutputStream.writeInt( record.getValues().size() );
+            for ( final Map.Entry<String, String> entry : record.getValues().entrySet() )
+            {
+                final byte[] valueBytes = entry.getValue().getBytes( StandardCharsets.UTF_8 );
+                dataOutputStream.writeUTF( entry.getKey() );
+                dataOutputStream.writeInt( valueBytes.length );
+                dataOutputStream.write( valueBytes );
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    static SessionStateRecord decode( final byte[] input )
+            throws IOException
+    {
+        if ( input == null || input.length < 1 )
+        {
+            throw new IOException( "session state value is empty" );
+        }
+
+        if ( input[0] != FORMAT_VERSION )
+        {
+            throw new IOException( "unknown session state format version " + input[0] );
+        }
+
+        final SessionStateRecord.SessionStateRecordBuilder builder = SessionStateRecord.builder();
+        try ( DataInputStream dataInputStream = new DataInputStream(
+                new InflaterInputStream( new ByteArrayInputStream( input, 1, input.length - 1 ) ) ) )
+        {
+            builder.revision( dataInputStream.readLong() );
+            builder.lastWrite( Instant.ofEpochMilli( dataInputStream.readLong() ) );
+
+            final int count = dataInputStream.readInt();
+            if ( count < 0 || count > MAX_ENTRIES )
+            {
+                throw new IOException( "invalid session state entry count " + count );
+            }
+
+            for ( int i = 0; i < count; i++ )
+            {
+                final String key = dataInputStream.readUTF();
+                final int length = dataInputStream.readInt();
+                if ( length < 0 || length > MAX_VALUE_BYTES )
+                {
+                    throw new IOException( "invalid session state value length " + length );
+                }
+                final byte[] valueBytes = new byte[length];
+                dataInputStream.readFully( valueBytes );
+                builder.value( key, new String( valueBytes, StandardCharsets.UTF_8 ) );
+            }
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.state;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Stored state of a single session.  Values are keyed by bean class name and hold the json form of each bean, so
+ * changed beans can be detected by comparing serialized values.
+ */
+@Value
+@Builder( toBuilder = true )
+class SessionStateRecord
+{
+    private final long revision;
+    private final Instant lastWrite;
+
+    @Singular
+    private final Map<String, String> values;
+
+    static SessionStateRecord empty()
+    {
+        return SessionStateRecord.builder()
+                .revision( 0 )
+                .lastWrite( Instant.EPOCH )
+                .build();
+    }
+}
@@ -20,8 +20,11 @@
 
 package password.pwm.http.state;
 
+import password.pwm.AppProperty;
 import password.pwm.PwmApplication;
+import password.pwm.PwmConstants;
 import password.pwm.bean.DomainID;
+import password.pwm.config.AppConfig;
 import password.pwm.config.PwmSetting;
 import password.pwm.config.option.SessionBeanMode;
 import password.pwm.error.PwmError;
@@ -32,7 +35,12 @@ import password.pwm.http.PwmRequest;
 import password.pwm.http.bean.PwmSessionBean;
 import password.pwm.svc.AbstractPwmService;
 import password.pwm.svc.PwmService;
+import password.pwm.svc.db.DatabaseTable;
+import password.pwm.util.DataStore;
+import password.pwm.util.DataStoreFactory;
 import password.pwm.util.java.PwmUtil;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.localdb.LocalDB;
 import password.pwm.util.logging.PwmLogger;
 
 import java.time.Instant;
@@ -41,6 +49,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 public class SessionStateService extends AbstractPwmService implements PwmService
 {
@@ -51,6 +60,9 @@ public class SessionStateService extends AbstractPwmService implements PwmServic
 
     private SessionLoginProvider sessionLoginProvider = new LocalLoginSessionImpl();
 
+    private SessionStateStore sessionStateStore;
+    private TimeDuration touchInterval;
+
     private final Map<Class<? extends PwmSessionBean>, PwmSessionBean> beanInstanceCache = new HashMap<>();
 
     @Override
@@ -63,8 +75,15 @@ public class SessionStateService extends AbstractPwmService implements PwmServic
     public STATUS postAbstractInit( final PwmApplication pwmApplication, final DomainID domainID )
             throws PwmException
     {
+        final SessionBeanMode sessionBeanMode = pwmApplication.getConfig().readSettingAsEnum( PwmSetting.SECURITY_MODULE_SESSION_MODE, SessionBeanMode.class );
+        final SessionBeanMode loginSessionMode = pwmApplication.getConfig().readSettingAsEnum( PwmSetting.SECURITY_LOGIN_SESSION_MODE, SessionBeanMode.class );
+
+        if ( sessionBeanMode == SessionBeanMode.DB || loginSessionMode == SessionBeanMode.DB )
+        {
+            initSessionStateStore( pwmApplication );
+        }
+
         {
-            final SessionBeanMode sessionBeanMode = pwmApplication.getConfig().readSettingAsEnum( PwmSetting.SECURITY_MODULE_SESSION_MODE, SessionBeanMode.class );
             if ( sessionBeanMode != null )
             {
                 switch ( sessionBeanMode )
@@ -81,6 +100,12 @@ public class SessionStateService extends AbstractPwmService implements PwmServic
                         sessionBeanProvider = new CryptoRequestBeanImpl();
                         break;
 
+                    case DB:
+                        sessionBeanProvider = sessionStateStore == null
+                                ? new LocalSessionBeanImpl()
+                                : new StoredSessionBeanImpl( sessionStateStore, touchInterval );
+                        break;
+
                     default:
                         throw new IllegalStateException( "unhandled session bean state: " + sessionBeanMode );
                 }
@@ -88,26 +113,29 @@ public class SessionStateService extends AbstractPwmService implements PwmServic
         }
 
         {
-            final SessionBeanMode loginSessionMode = pwmApplication.getConfig().readSettingAsEnum( PwmSetting.SECURITY_LOGIN_SESSION_MODE, SessionBeanMode.class );
+            if ( loginSessionMode != null )
             {
-                if ( loginSessionMode != null )
+                switch ( loginSessionMode )
                 {
-                    switch ( loginSessionMode )
-                    {
-                        case LOCAL:
-                            sessionLoginProvider = new LocalLoginSessionImpl();
-                            break;
-
-                        case CRYPTCOOKIE:
-                            sessionLoginProvider = new CryptoCookieLoginImpl();
-                            break;
-
-                        default:
-                            PwmUtil.unhandledSwitchStatement( loginSessionMode );
-                    }
+                    case LOCAL:
+                        sessionLoginProvider = new LocalLoginSessionImpl();
+                        break;
+
+                    case CRYPTCOOKIE:
+                        sessionLoginProvider = new CryptoCookieLoginImpl();
+                        break;
+
+                    case DB:
+                        sessionLoginProvider = sessionStateStore == null
+                                ? new LocalLoginSessionImpl()
+                                : new StoredLoginSessionImpl( sessionStateStore, touchInterval );
+                        break;
+
+                    default:
+                        PwmUtil.unhandledSwitchStatement( loginSessionMode );
                 }
-                sessionLoginProvider.init( pwmApplication );
             }
+            sessionLoginProvider.init( pwmApplication );
         }
 
         LOGGER.trace( getSessionLabel(), () -> "initialized " + sessionBeanProvider.getClass().getName() + " provider" );
@@ -115,6 +143,40 @@ public class SessionStateService extends AbstractPwmService implements PwmServic
         return STATUS.OPEN;
     }
 
+    private void initSessionStateStore( final PwmApplication pwmApplication )
+    {
+        final AppConfig appConfig = pwmApplication.getConfig();
+        if ( !appConfig.hasDbConfigured()
+                && ( pwmApplication.getLocalDB() == null || pwmApplication.getLocalDB().status() != LocalDB.Status.OPEN ) )
+        {
+            LOGGER.warn( getSessionLabel(), () -> "no database or localDB available for shared session state, local session state will be used instead" );
+            return;
+        }
+
+        try
+        {
+            final DataStore dataStore = DataStoreFactory.autoDbOrLocalDBstore( pwmApplication, DatabaseTable.SESSION_STATE, LocalDB.DB.SESSION_STATE );
+            touchInterval = appConfig.readDurationAppProperty( AppProperty.SESSION_STATE_TOUCH_INTERVAL_SECONDS );
+            sessionStateStore = new SessionStateStore(
+                    dataStore,
+                    pwmApplication.getSecureService(),
+                    getSessionLabel(),
+                    Integer.parseInt( appConfig.readAppProperty( AppProperty.SESSION_STATE_NEAR_CACHE_MAX_ENTRIES ) ),
+                    appConfig.readDurationAppProperty( AppProperty.SESSION_STATE_NEAR_CACHE_LIFETIME_SECONDS ),
+                    Integer.parseInt( appConfig.readAppProperty( AppProperty.SESSION_STATE_SWEEP_BATCH_SIZE ) ) );
+
+            final TimeDuration sweepInterval = appConfig.readDurationAppProperty( AppProperty.SESSION_STATE_SWEEP_INTERVAL_SECONDS );
+            scheduleFixedRateJob( sessionStateStore::sweepExpired, TimeDuration.MINUTE, sweepInterval );
+
+            LOGGER.debug( getSessionLabel(), () -> "shared session state store enabled using " + dataStore.getDataStorageMethod() );
+        }
+        catch ( final PwmUnrecoverableException e )
+        {
+            sessionStateStore = null;
+            LOGGER.error( getSessionLabel(), () -> "unable to initialize shared session state store, local session state will be used instead: " + e.getMessage() );
+        }
+    }
+
     @Override
     public void shutdownImpl( )
     {
@@ -129,7 +191,17 @@ public class SessionStateService extends AbstractPwmService implements PwmServic
     @Override
     public ServiceInfoBean serviceInfo( )
     {
-        return null;
+        if ( sessionStateStore == null )
+        {
+            return null;
+        }
+
+        final Map<String, String> debugInfo = new TreeMap<>( sessionStateStore.getStats().debugStats( PwmConstants.DEFAULT_LOCALE ) );
+        debugInfo.put( "nearCacheSize", String.valueOf( sessionStateStore.nearCacheSize() ) );
+        return ServiceInfoBean.builder()
+                .storageMethod( sessionStateStore.getDataStore().getDataStorageMethod() )
+                .debugProperties( debugInfo )
+                .build();
     }
 
     public <E extends PwmSessionBean> E getBean( final PwmRequest pwmRequest, final Class<E> theClass ) throws PwmUnrecoverableException
@@ -0,0 +1,310 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.state;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.SessionLabel;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.svc.secure.AbstractSecureService;
+import password.pwm.util.DataStore;
+import password.pwm.util.java.ClosableIterator;
+import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.StringUtil;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.logging.PwmLogger;
+import password.pwm.util.secure.PwmHashAlgorithm;
+import password.pwm.util.secure.SecureEngine;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shared session state storage backed by a {@link DataStore}, either the remote database (shared by all nodes) or
+ * the LocalDB.  Each stored value is the expiration date followed by the encrypted {@link SessionStateCodec} form of
+ * the record.
+ *
+ * <p>Decoded records are kept in a local near-cache.  A near-cache entry is only used when its revision matches the
+ * revision presented by the client and the stored expiration has not passed, so a write made by another node always
+ * causes the data store to be re-read.</p>
+ */
+class SessionStateStore
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( SessionStateStore.class );
+
+    private static final String KEY_DELIMITER = "|";
+    private static final String VALUE_DELIMITER = ".";
+
+    private final DataStore dataStore;
+    private final AbstractSecureService secureService;
+    private final SessionLabel sessionLabel;
+    private final int sweepBatchSize;
+    private final Cache<String, CachedRecord> nearCache;
+
+    private final StatisticCounterBundle<DebugKey> stats = new StatisticCounterBundle<>( DebugKey.class );
+
+    enum DebugKey
+    {
+        nearCacheHits,
+        storeReads,
+        storeMisses,
+        storeWrites,
+        storeWriteBytes,
+        readErrors,
+        writeErrors,
+        removals,
+        sweepRemovals,
+    }
+
+    @Value
+    private static class CachedRecord
+    {
+        private final SessionStateRecord record;
+        private final Instant expirationDate;
+    }
+
+    SessionStateStore(
+            final DataStore dataStore,
+            final AbstractSecureService secureService,
+            final SessionLabel sessionLabel,
+            final int nearCacheMaxEntries,
+            final TimeDuration nearCacheLifetime,
+            final int sweepBatchSize
+    )
+    {
+        this.dataStore = dataStore;
+        this.secureService = secureService;
+        this.sessionLabel = sessionLabel;
+        this.sweepBatchSize = Math.max( 1, sweepBatchSize );
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize( nearCacheMaxEntries )
+                .expireAfterAccess( nearCacheLifetime.asDuration() )
+                .build();
+    }
+
+    /**
+     * Read the record for a session.
+     * @param domainID domain of the session
+     * @param sessionID session identifier as presented by the client
+     * @param expectedRevision revision presented by the client, used to validate the near-cache entry
+     * @return the stored record if present and not expired
+     */
+    Optional<SessionStateRecord> read( final DomainID domainID, final String sessionID, final long expectedRevision )
+    {
+        final String storageKey = makeStorageKey( domainID, sessionID );
+
+        final CachedRecord cachedRecord = nearCache.getIfPresent( storageKey );
+        if ( cachedRecord != null
+                && cachedRecord.getRecord().getRevision() == expectedRevision
+                && cachedRecord.getExpirationDate().isAfter( Instant.now() ) )
+        {
+            stats.increment( DebugKey.nearCacheHits );
+            return Optional.of( cachedRecord.getRecord() );
+        }
+
+        stats.increment( DebugKey.storeReads );
+        try
+        {
+            final Optional<String> storedValue = dataStore.get( storageKey );
+            if ( storedValue.isPresent() )
+            {
+                final Optional<CachedRecord> record = decodeStoredValue( storedValue.get() );
+                if ( record.isPresent() )
+                {
+                    nearCache.put( storageKey, record.get() );
+                    return Optional.of( record.get().getRecord() );
+                }
+            }
+        }
+        catch ( final PwmException | IOException | RuntimeException e )
+        {
+            stats.increment( DebugKey.readErrors );
+            LOGGER.debug( sessionLabel, () -> "error reading session state from " + dataStore.getDataStorageMethod() + ": " + e.getMessage() );
+        }
+
+        nearCache.invalidate( storageKey );
+        stats.increment( DebugKey.storeMisses );
+        return Optional.empty();
+    }
+
+    /**
+     * Write the record for a session.
+     * @return true if the record was written to the data store
+     */
+    boolean write( final DomainID domainID, final String sessionID, final SessionStateRecord record, final Instant expirationDate )
+    {
+        final String storageKey = makeStorageKey( domainID, sessionID );
+        try
+        {
+            final byte[] encryptedBytes = secureService.encryptBytes( SessionStateCodec.encode( record ) );
+            final String storedValue = expirationDate.toEpochMilli() + VALUE_DELIMITER + StringUtil.base64Encode( encryptedBytes );
+            if ( storedValue.length() > LocalDB.MAX_VALUE_LENGTH )
+            {
+                stats.increment( DebugKey.writeErrors );
+                LOGGER.debug( sessionLabel, () -> "session state value too large to store, length=" + storedValue.length() );
+                return false;
+            }
+
+            dataStore.put( storageKey, storedValue );
+            nearCache.put( storageKey, new CachedRecord( record, expirationDate ) );
+            stats.increment( DebugKey.storeWrites );
+            stats.increment( DebugKey.storeWriteBytes, storedValue.length() );
+            return true;
+        }
+        catch ( final PwmException | IOException | RuntimeException e )
+        {
+            nearCache.invalidate( storageKey );
+            stats.increment( DebugKey.writeErrors );
+            LOGGER.debug( sessionLabel, () -> "error writing session state to " + dataStore.getDataStorageMethod() + ": " + e.getMessage() );
+        }
+        return false;
+    }
+
+    void remove( final DomainID domainID, final String sessionID )
+    {
+        final String storageKey = makeStorageKey( domainID, sessionID );
+        nearCache.invalidate( storageKey );
+        try
+        {
+            dataStore.remove( storageKey );
+            stats.increment( DebugKey.removals );
+        }
+        catch ( final PwmException | RuntimeException e )
+        {
+            stats.increment( DebugKey.writeErrors );
+            LOGGER.debug( sessionLabel, () -> "error removing session state from " + dataStore.getDataStorageMethod() + ": " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Remove expired records from the data store.  The data store is iterated once to collect the expired keys,
+     * which are then removed in chunks after the iterator is closed, so the data store is never modified while it
+     * is being iterated.  Only the keys of expired records are held in memory.
+     * @return count of removed records
+     */
+    int sweepExpired()
+    {
+        final Instant startTime = Instant.now();
+
+        final List<String> expiredKeys = new ArrayList<>();
+        try ( ClosableIterator<Map.Entry<String, String>> iterator = dataStore.iterator() )
+        {
+            while ( iterator.hasNext() )
+            {
+                final Map.Entry<String, String> entry = iterator.next();
+                if ( isExpired( entry.getValue(), startTime ) )
+                {
+                    expiredKeys.add( entry.getKey() );
+                }
+            }
+        }
+        catch ( final PwmException | RuntimeException e )
+        {
+            LOGGER.debug( sessionLabel, () -> "error iterating session state values in " + dataStore.getDataStorageMethod() + ": " + e.getMessage() );
+        }
+
+        int removedCount = 0;
+        for ( int chunkStart = 0; chunkStart < expiredKeys.size(); chunkStart += sweepBatchSize )
+        {
+            final List<String> chunk = expiredKeys.subList( chunkStart, Math.min( expiredKeys.size(), chunkStart + sweepBatchSize ) );
+            nearCache.invalidateAll( chunk );
+            for ( final String key : chunk )
+            {
+                try
+                {
+                    dataStore.remove( key );
+                    removedCount++;
+                    stats.increment( DebugKey.sweepRemovals );
+                }
+                catch ( final PwmException | RuntimeException e )
+                {
+                    LOGGER.debug( sessionLabel, () -> "error removing expired session state from " + dataStore.getDataStorageMethod() + ": " + e.getMessage() );
+                }
+            }
+        }
+
+        final int finalRemovedCount = removedCount;
+        LOGGER.debug( sessionLabel, () -> "removed " + finalRemovedCount + " expired session state values from "
+                + dataStore.getDataStorageMethod(), TimeDuration.fromCurrent( startTime ) );
+        return removedCount;
+    }
+
+    long nearCacheSize()
+    {
+        return nearCache.estimatedSize();
+    }
+
+    StatisticCounterBundle<DebugKey> getStats()
+    {
+        return stats;
+    }
+
+    DataStore getDataStore()
+    {
+        return dataStore;
+    }
+
+    private Optional<CachedRecord> decodeStoredValue( final String storedValue )
+            throws IOException, PwmUnrecoverableException
+    {
+        final int delimiterIndex = storedValue.indexOf( VALUE_DELIMITER );
+        if ( delimiterIndex < 1 )
+        {
+            throw new IOException( "malformed session state value" );
+        }
+
+        final Instant expirationDate = Instant.ofEpochMilli( Long.parseLong( storedValue.substring( 0, delimiterIndex ) ) );
+        if ( !expirationDate.isAfter( Instant.now() ) )
+        {
+            return Optional.empty();
+        }
+
+        final byte[] encryptedBytes = StringUtil.base64Decode( storedValue.substring( delimiterIndex + 1 ) );
+        return Optional.of( new CachedRecord( SessionStateCodec.decode( secureService.decryptBytes( encryptedBytes ) ), expirationDate ) );
+    }
+
+    static boolean isExpired( final String storedValue, final Instant now )
+    {
+        try
+        {
+            final int delimiterIndex = storedValue.indexOf( VALUE_DELIMITER );
+            return delimiterIndex < 1
+                    || Long.parseLong( storedValue.substring( 0, delimiterIndex ) ) <= now.toEpochMilli();
+        }
+        catch ( final RuntimeException e )
+        {
+            return true;
+        }
+    }
+
+    private static String makeStorageKey( final DomainID domainID, final String sessionID )
+    {
+        return domainID.stringValue() + KEY_DELIMITER + SecureEngine.hash( sessionID, PwmHashAlgorithm.SHA256 );
+    }
+}
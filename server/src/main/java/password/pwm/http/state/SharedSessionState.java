@@ -0,0 +1,274 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.state;
+
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.http.IdleTimeoutCalculator;
+import password.pwm.http.PwmCookiePath;
+import password.pwm.http.PwmRequest;
+import password.pwm.http.PwmRequestAttribute;
+import password.pwm.util.java.StringUtil;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.json.JsonFactory;
+import password.pwm.util.logging.PwmLogger;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Request scoped view of the shared session state held in a {@link SessionStateStore}.  The client holds only a
+ * cookie containing the session id and the revision of the last write; the state itself stays on the server.
+ *
+ * <p>Values handed out during the request are tracked, and on {@link #flush(PwmRequest)} each tracked value is
+ * re-serialized and compared to the stored value.  The record is only written when a value has changed or when the
+ * touch interval has elapsed and the expiration needs to be extended.</p>
+ */
+class SharedSessionState
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( SharedSessionState.class );
+
+    private static final String COOKIE_NAME = "STATE";
+    private static final PwmCookiePath COOKIE_PATH = PwmCookiePath.Domain;
+    private static final String COOKIE_DELIMITER = ".";
+    private static final int SESSION_ID_LENGTH = 32;
+    private static final Pattern SESSION_ID_PATTERN = Pattern.compile( "^[a-zA-Z0-9]{" + SESSION_ID_LENGTH + "}$" );
+
+    private final SessionStateStore sessionStateStore;
+    private final TimeDuration touchInterval;
+
+    private final Map<String, Object> trackedValues = new HashMap<>();
+    private String sessionID;
+    private SessionStateRecord storedRecord;
+
+    enum FlushAction
+    {
+        none,
+        write,
+        remove,
+    }
+
+    SharedSessionState(
+            final SessionStateStore sessionStateStore,
+            final TimeDuration touchInterval,
+            final String sessionID,
+            final SessionStateRecord storedRecord
+    )
+    {
+        this.sessionStateStore = sessionStateStore;
+        this.touchInterval = touchInterval;
+        this.sessionID = sessionID;
+        this.storedRecord = storedRecord;
+    }
+
+    static SharedSessionState forRequest(
+            final PwmRequest pwmRequest,
+            final SessionStateStore sessionStateStore,
+            final TimeDuration touchInterval
+    )
+    {
+        final Object existingState = pwmRequest.getAttribute( PwmRequestAttribute.SharedSessionState );
+        if ( existingState != null )
+        {
+            return ( SharedSessionState ) existingState;
+        }
+
+        final SharedSessionState sharedSessionState = readFromRequest( pwmRequest, sessionStateStore, touchInterval );
+        pwmRequest.setAttribute( PwmRequestAttribute.SharedSessionState, sharedSessionState );
+        return sharedSessionState;
+    }
+
+    private static SharedSessionState readFromRequest(
+            final PwmRequest pwmRequest,
+            final SessionStateStore sessionStateStore,
+            final TimeDuration touchInterval
+    )
+    {
+        final Optional<String> cookieValue = pwmRequest.readCookie( COOKIE_NAME );
+        if ( cookieValue.isPresent() )
+        {
+            final String value = cookieValue.get();
+            final int delimiterIndex = value.indexOf( COOKIE_DELIMITER );
+            if ( delimiterIndex > 0 )
+            {
+                final String cookieSessionID = value.substring( 0, delimiterIndex );
+                final long cookieRevision = parseRevision( value.substring( delimiterIndex + 1 ) );
+                if ( SESSION_ID_PATTERN.matcher( cookieSessionID ).matches() && cookieRevision > 0 )
+                {
+                    final Optional<SessionStateRecord> record = sessionStateStore.read( pwmRequest.getDomainID(), cookieSessionID, cookieRevision );
+                    if ( record.isPresent() )
+                    {
+                        return new SharedSessionState( sessionStateStore, touchInterval, cookieSessionID, record.get() );
+                    }
+                }
+            }
+            LOGGER.trace( pwmRequest, () -> "ignoring unknown or expired " + COOKIE_NAME + " cookie value" );
+        }
+
+        return new SharedSessionState( sessionStateStore, touchInterval, null, SessionStateRecord.empty() );
+    }
+
+    <T> Optional<T> readValue( final Class<T> theClass )
+    {
+        final String jsonValue = storedRecord.getValues().get( theClass.getName() );
+        if ( StringUtil.isEmpty( jsonValue ) )
+        {
+            return Optional.empty();
+        }
+
+        try
+        {
+            return Optional.ofNullable( JsonFactory.get().deserialize( jsonValue, theClass ) );
+        }
+        catch ( final RuntimeException e )
+        {
+            LOGGER.debug( () -> "ignoring stored session value for " + theClass.getName() + " due to error: " + e.getMessage() );
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Track a value so that any changes made to it during the request are written on flush.
+     */
+    void trackValue( final Class<?> theClass, final Object value )
+    {
+        trackedValues.put( theClass.getName(), value );
+    }
+
+    void removeValue( final Class<?> theClass )
+    {
+        trackedValues.put( theClass.getName(), null );
+    }
+
+    boolean isTouchDue()
+    {
+        return TimeDuration.fromCurrent( storedRecord.getLastWrite() ).isLongerThan( touchInterval );
+    }
+
+    /**
+     * Write the state if any tracked value has changed or the touch interval has elapsed.  If no values remain the
+     * stored record and cookie are removed.
+     */
+    void flush( final PwmRequest pwmRequest )
+    {
+        if ( pwmRequest.getPwmResponse().isCommitted() )
+        {
+            return;
+        }
+
+        final Map<String, String> newValues = mergeTrackedValues();
+        final FlushAction flushAction = flushAction( newValues );
+        if ( flushAction == FlushAction.none )
+        {
+            return;
+        }
+
+        final boolean changed = !Objects.equals( newValues, storedRecord.getValues() );
+
+        try
+        {
+            if ( flushAction == FlushAction.remove )
+            {
+                sessionStateStore.remove( pwmRequest.getDomainID(), sessionID );
+                pwmRequest.getPwmResponse().removeCookie( COOKIE_NAME, COOKIE_PATH );
+                sessionID = null;
+                storedRecord = SessionStateRecord.empty();
+                return;
+            }
+
+            if ( sessionID == null )
+            {
+                sessionID = pwmRequest.getPwmApplication().getSecureService().pwmRandom().alphaNumericString( SESSION_ID_LENGTH );
+            }
+
+            final SessionStateRecord newRecord = SessionStateRecord.builder()
+                    .revision( storedRecord.getRevision() + 1 )
+                    .lastWrite( Instant.now() )
+                    .values( newValues )
+                    .build();
+            final Instant expirationDate = Instant.now().plus( IdleTimeoutCalculator.idleTimeoutForRequest( pwmRequest ).asDuration() );
+
+            if ( sessionStateStore.write( pwmRequest.getDomainID(), sessionID, newRecord, expirationDate ) )
+            {
+                storedRecord = newRecord;
+                final String cookieValue = sessionID + COOKIE_DELIMITER + newRecord.getRevision();
+                pwmRequest.getPwmResponse().writeCookie( COOKIE_NAME, cookieValue, -1, COOKIE_PATH );
+                LOGGER.trace( pwmRequest, () -> "wrote session state revision " + newRecord.getRevision()
+                        + ( changed ? " with changed values" : " to extend expiration" ) );
+            }
+        }
+        catch ( final PwmUnrecoverableException e )
+        {
+            LOGGER.error( pwmRequest, () -> "error writing session state: " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * Merge the current serialized form of each tracked value into the stored values.
+     */
+    Map<String, String> mergeTrackedValues()
+    {
+        final Map<String, String> newValues = new LinkedHashMap<>( storedRecord.getValues() );
+        for ( final Map.Entry<String, Object> entry : trackedValues.entrySet() )
+        {
+            if ( entry.getValue() == null )
+            {
+                newValues.remove( entry.getKey() );
+            }
+            else
+            {
+                newValues.put( entry.getKey(), JsonFactory.get().serialize( entry.getValue() ) );
+            }
+        }
+        return newValues;
+    }
+
+    /**
+     * Determine the store operation needed for the merged values.  Unchanged values are only re-written once the touch
+     * interval has elapsed, to extend the stored expiration.
+     */
+    FlushAction flushAction( final Map<String, String> newValues )
+    {
+        if ( newValues.isEmpty() )
+        {
+            return sessionID == null ? FlushAction.none : FlushAction.remove;
+        }
+
+        final boolean changed = !Objects.equals( newValues, storedRecord.getValues() );
+        return changed || isTouchDue() ? FlushAction.write : FlushAction.none;
+    }
+
+    private static long parseRevision( final String value )
+    {
+        try
+        {
+            return Long.parseLong( value );
+        }
+        catch ( final NumberFormatException e )
+        {
+            return -1;
+        }
+    }
+}
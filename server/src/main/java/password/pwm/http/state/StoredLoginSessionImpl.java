@@ -0,0 +1,138 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.state;
+
+import password.pwm.PwmApplication;
+import password.pwm.bean.LoginInfoBean;
+import password.pwm.error.ErrorInformation;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmOperationalException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.http.PwmRequest;
+import password.pwm.ldap.auth.AuthenticationType;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.logging.PwmLogger;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Login session provider that keeps the {@link LoginInfoBean} of authenticated sessions in the shared
+ * {@link SessionStateStore}.  The stored bean is subject to the same checks as the encrypted login cookie.
+ */
+class StoredLoginSessionImpl implements SessionLoginProvider
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( StoredLoginSessionImpl.class );
+
+    private final SessionStateStore sessionStateStore;
+    private final TimeDuration touchInterval;
+
+    StoredLoginSessionImpl( final SessionStateStore sessionStateStore, final TimeDuration touchInterval )
+    {
+        this.sessionStateStore = sessionStateStore;
+        this.touchInterval = touchInterval;
+    }
+
+    @Override
+    public void init( final PwmApplication pwmApplication ) throws PwmException
+    {
+    }
+
+    @Override
+    public void clearLoginSession( final PwmRequest pwmRequest ) throws PwmUnrecoverableException
+    {
+        final SharedSessionState sharedSessionState = sharedState( pwmRequest );
+        sharedSessionState.removeValue( LoginInfoBean.class );
+        sharedSessionState.flush( pwmRequest );
+    }
+
+    @Override
+    public void saveLoginSessionState( final PwmRequest pwmRequest )
+    {
+        final SharedSessionState sharedSessionState = sharedState( pwmRequest );
+        final LoginInfoBean loginInfoBean = pwmRequest.getPwmSession().getLoginInfoBean();
+
+        if ( loginInfoBean.isAuthenticated() )
+        {
+            // the request time is only refreshed once per touch interval, otherwise every request would be a write
+            if ( loginInfoBean.getReqTime() == null || sharedSessionState.isTouchDue() )
+            {
+                loginInfoBean.setReqTime( Instant.now() );
+            }
+            sharedSessionState.trackValue( LoginInfoBean.class, loginInfoBean );
+        }
+        else
+        {
+            sharedSessionState.removeValue( LoginInfoBean.class );
+        }
+
+        sharedSessionState.flush( pwmRequest );
+    }
+
+    @Override
+    public void readLoginSessionState( final PwmRequest pwmRequest ) throws PwmUnrecoverableException
+    {
+        final Optional<LoginInfoBean> optionalStoredLoginInfoBean = sharedState( pwmRequest ).readValue( LoginInfoBean.class );
+        if ( optionalStoredLoginInfoBean.isEmpty() )
+        {
+            return;
+        }
+
+        final LoginInfoBean storedLoginInfoBean = optionalStoredLoginInfoBean.get();
+        try
+        {
+            try
+            {
+                CryptoCookieLoginImpl.checkIfRemoteLoginCookieIsValid( pwmRequest, storedLoginInfoBean );
+            }
+            catch ( final PwmOperationalException e )
+            {
+                LOGGER.debug( pwmRequest, () -> e.getErrorInformation().toDebugStr() );
+                clearLoginSession( pwmRequest );
+                return;
+            }
+
+            CryptoCookieLoginImpl.checkIfLoginCookieIsForeign( pwmRequest, storedLoginInfoBean );
+
+            if ( storedLoginInfoBean.getType() == AuthenticationType.AUTH_WITHOUT_PASSWORD && storedLoginInfoBean.getUserCurrentPassword() == null )
+            {
+                LOGGER.debug( pwmRequest, () -> "stored session has authType " + AuthenticationType.AUTH_WITHOUT_PASSWORD.name()
+                        + " and does not contain password, thus ignoring authentication so SSO process can repeat" );
+                return;
+            }
+
+            CryptoCookieLoginImpl.importRemoteCookie( pwmRequest, storedLoginInfoBean );
+        }
+        catch ( final Exception e )
+        {
+            final String errorMsg = "unexpected error authenticating using stored session state: " + e.getMessage();
+            final ErrorInformation errorInformation = new ErrorInformation( PwmError.ERROR_INTERNAL, errorMsg );
+            LOGGER.error( pwmRequest, errorInformation );
+            throw new PwmUnrecoverableException( errorInformation );
+        }
+    }
+
+    private SharedSessionState sharedState( final PwmRequest pwmRequest )
+    {
+        return SharedSessionState.forRequest( pwmRequest, sessionStateStore, touchInterval );
+    }
+}
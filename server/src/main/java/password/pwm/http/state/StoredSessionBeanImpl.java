@@ -0,0 +1,90 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.state;
+
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.http.PwmRequest;
+import password.pwm.http.bean.PwmSessionBean;
+import password.pwm.util.java.TimeDuration;
+
+import java.util.Optional;
+
+/**
+ * Session bean provider that keeps beans in the shared {@link SessionStateStore}, so any node can serve a request.
+ */
+class StoredSessionBeanImpl implements SessionBeanProvider
+{
+    private final SessionStateStore sessionStateStore;
+    private final TimeDuration touchInterval;
+
+    StoredSessionBeanImpl( final SessionStateStore sessionStateStore, final TimeDuration touchInterval )
+    {
+        this.sessionStateStore = sessionStateStore;
+        this.touchInterval = touchInterval;
+    }
+
+    @Override
+    public <E extends PwmSessionBean> E getSessionBean( final PwmRequest pwmRequest, final Class<E> theClass )
+            throws PwmUnrecoverableException
+    {
+        final SharedSessionState sharedSessionState = sharedState( pwmRequest );
+
+        final Optional<E> storedBean = sharedSessionState.readValue( theClass );
+        if ( storedBean.isPresent() && CryptoCookieBeanImpl.validateCookie( pwmRequest, theClass.getSimpleName(), storedBean.get() ) )
+        {
+            sharedSessionState.trackValue( theClass, storedBean.get() );
+            return storedBean.get();
+        }
+
+        final String sessionGuid = pwmRequest.getPwmSession().getLoginInfoBean().getGuid();
+        final E newBean = SessionStateService.newBean( sessionGuid, theClass );
+        sharedSessionState.trackValue( theClass, newBean );
+        return newBean;
+    }
+
+    @Override
+    public <E extends PwmSessionBean> void clearSessionBean( final PwmRequest pwmRequest, final Class<E> userBeanClass )
+    {
+        sharedState( pwmRequest ).removeValue( userBeanClass );
+    }
+
+    @Override
+    public void saveSessionBeans( final PwmRequest pwmRequest )
+    {
+        if ( pwmRequest == null || pwmRequest.getPwmResponse() == null )
+        {
+            return;
+        }
+        sharedState( pwmRequest ).flush( pwmRequest );
+    }
+
+    @Override
+    public String getSessionStateInfo( final PwmRequest pwmRequest )
+            throws PwmUnrecoverableException
+    {
+        return null;
+    }
+
+    private SharedSessionState sharedState( final PwmRequest pwmRequest )
+    {
+        return SharedSessionState.forRequest( pwmRequest, sessionStateStore, touchInterval );
+    }
+}
@@ -50,6 +50,8 @@ import password.pwm.svc.intruder.IntruderRecordType;
 import password.pwm.svc.intruder.IntruderServiceClient;
 import password.pwm.svc.stats.AvgStatistic;
 import password.pwm.svc.stats.EpsStatistic;
+import password.pwm.svc.stats.MetricType;
+import password.pwm.svc.stats.MetricsClient;
 import password.pwm.svc.stats.Statistic;
 import password.pwm.svc.stats.StatisticsClient;
 import password.pwm.svc.stats.StatisticsService;
@@ -397,6 +399,7 @@ class LDAPAuthenticationRequest implements AuthenticationRequest
         //try authenticating the user using a normal ldap BIND operation.
         log( PwmLogLevel.TRACE, () -> "attempting authentication using ldap BIND" );
 
+        final Instant bindStartTime = Instant.now();
         boolean bindSucceeded = false;
         try
         {
@@ -439,6 +442,8 @@ class LDAPAuthenticationRequest implements AuthenticationRequest
         }
         finally
         {
+            MetricsClient.record( pwmDomain.getPwmApplication(), MetricType.LDAP, "bind", bindStartTime, bindSucceeded );
+
             if ( !bindSucceeded && userProvider != null )
             {
                 try
@@ -33,6 +33,8 @@ import password.pwm.error.PwmOperationalException;
 import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.svc.PwmService;
 import password.pwm.svc.stats.AvgStatistic;
+import password.pwm.svc.stats.MetricType;
+import password.pwm.svc.stats.MetricsClient;
 import password.pwm.util.java.StringUtil;
 import password.pwm.util.java.TimeDuration;
 import password.pwm.util.logging.PwmLogLevel;
@@ -84,6 +86,7 @@ class UserSearchJob implements Callable<Map<UserIdentity, Map<String, String>>>
 
         final Instant startTime = Instant.now();
         final Map<String, Map<String, String>> results = new LinkedHashMap<>();
+        boolean success = false;
         try
         {
             PwmLogManager.executeWithThreadSessionData( userSearchJobParameters.getSessionLabel(), () ->
@@ -91,6 +94,7 @@ class UserSearchJob implements Callable<Map<UserIdentity, Map<String, String>>>
                 results.putAll( userSearchJobParameters.getChaiProvider().search( userSearchJobParameters.getContext(), searchHelper ) );
                 return null;
             } );
+            success = true;
         }
         catch ( final ChaiUnavailableException e )
         {
@@ -111,6 +115,10 @@ class UserSearchJob implements Callable<Map<UserIdentity, Map<String, String>>>
         {
             throw new PwmInternalException( e );
         }
+        finally
+        {
+            MetricsClient.record( pwmDomain.getPwmApplication(), MetricType.LDAP, "search", startTime, success );
+        }
 
 
         final TimeDuration searchDuration = TimeDuration.fromCurrent( startTime );
@@ -45,6 +45,7 @@ public enum PwmServiceEnum
 {
     LocalDBService( password.pwm.util.localdb.LocalDBService.class, PwmSettingScope.SYSTEM, Flag.StartDuringRuntimeInstance ),
     SystemSecureService( password.pwm.svc.secure.SystemSecureService.class, PwmSettingScope.SYSTEM, Flag.StartDuringRuntimeInstance ),
+    MetricsService( password.pwm.svc.stats.MetricsService.class, PwmSettingScope.SYSTEM, Flag.StartDuringRuntimeInstance ),
     EmailService( EmailService.class, PwmSettingScope.SYSTEM ),
     HttpClientService( password.pwm.svc.httpclient.HttpClientService.class, PwmSettingScope.SYSTEM, Flag.StartDuringRuntimeInstance ),
     DatabaseService( password.pwm.svc.db.DatabaseService.class, PwmSettingScope.SYSTEM, Flag.StartDuringRuntimeInstance ),
@@ -64,6 +65,7 @@ public enum PwmServiceEnum
     TelemetryService( password.pwm.svc.telemetry.TelemetryService.class, PwmSettingScope.SYSTEM ),
     VersionCheckService( VersionCheckService.class, PwmSettingScope.SYSTEM ),
     NodeService( NodeService.class, PwmSettingScope.SYSTEM ),
+    RestBulkService( password.pwm.ws.server.rest.RestBulkService.class, PwmSettingScope.SYSTEM ),
 
     DomainSecureService( password.pwm.svc.secure.DomainSecureService.class, PwmSettingScope.DOMAIN, Flag.StartDuringRuntimeInstance ),
     CacheService( password.pwm.svc.cache.CacheService.class, PwmSettingScope.DOMAIN, Flag.StartDuringRuntimeInstance ),
@@ -75,8 +77,10 @@ public enum PwmServiceEnum
     TokenService( password.pwm.svc.token.TokenService.class, PwmSettingScope.DOMAIN, Flag.StartDuringRuntimeInstance ),
     UserHistoryService( password.pwm.svc.userhistory.UserHistoryService.class, PwmSettingScope.DOMAIN, Flag.StartDuringRuntimeInstance ),
     PeopleSearchService( password.pwm.http.servlet.peoplesearch.PeopleSearchService.class, PwmSettingScope.DOMAIN ),
+    PhotoService( password.pwm.http.servlet.peoplesearch.PhotoService.class, PwmSettingScope.DOMAIN ),
     PwExpiryNotifyService( PwNotifyService.class, PwmSettingScope.DOMAIN ),
     ResourceServletService( password.pwm.http.servlet.resource.ResourceServletService.class, PwmSettingScope.DOMAIN ),
+    RestAuthenticationCacheService( password.pwm.ws.server.RestAuthenticationCacheService.class, PwmSettingScope.DOMAIN ),
     ReportService( password.pwm.svc.report.ReportService.class, PwmSettingScope.DOMAIN  ),;
 
 
@@ -24,15 +24,21 @@ import password.pwm.AppProperty;
 import password.pwm.PwmApplication;
 import password.pwm.PwmConstants;
 import password.pwm.bean.DomainID;
+import password.pwm.config.AppConfig;
 import password.pwm.error.PwmException;
 import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.health.HealthRecord;
 import password.pwm.svc.AbstractPwmService;
 import password.pwm.svc.PwmService;
+import password.pwm.svc.db.DatabaseTable;
+import password.pwm.util.DataStore;
+import password.pwm.util.DataStoreFactory;
 import password.pwm.util.java.ConditionalTaskExecutor;
 import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.StringUtil;
 import password.pwm.util.java.TimeDuration;
 import password.pwm.util.json.JsonFactory;
+import password.pwm.util.localdb.LocalDB;
 import password.pwm.util.logging.PwmLogger;
 
 import java.time.Instant;
@@ -43,6 +49,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 
@@ -51,6 +58,8 @@ public class CacheService extends AbstractPwmService implements PwmService
     private static final PwmLogger LOGGER = PwmLogger.forClass( CacheService.class );
 
     private MemoryCacheStore memoryCacheStore;
+    private DataStoreCacheStore l2CacheStore;
+    private Set<String> l2SourceClasses = Collections.emptySet();
 
     private ConditionalTaskExecutor traceDebugOutputter;
 
@@ -77,12 +86,63 @@ public class CacheService extends AbstractPwmService implements PwmService
                 this::outputTraceInfo,
                 TimeDuration.MINUTE.asDuration() );
 
+        initL2CacheStore( pwmApplication, domainID );
+
         return STATUS.OPEN;
     }
 
+    private void initL2CacheStore( final PwmApplication pwmApplication, final DomainID domainID )
+    {
+        final AppConfig appConfig = pwmApplication.getConfig();
+        if ( !appConfig.readBooleanAppProperty( AppProperty.CACHE_L2_ENABLE ) )
+        {
+            return;
+        }
+
+        if ( !appConfig.hasDbConfigured()
+                && ( pwmApplication.getLocalDB() == null || pwmApplication.getLocalDB().status() != LocalDB.Status.OPEN ) )
+        {
+            LOGGER.debug( getSessionLabel(), () -> "skipping l2 cache store init, no database or localDB available" );
+            return;
+        }
+
+        try
+        {
+            final DataStore dataStore = DataStoreFactory.autoDbOrLocalDBstore( pwmApplication, DatabaseTable.CACHE_STORE, LocalDB.DB.CACHE_STORE );
+            final DataStore expiryIndex = DataStoreFactory.autoDbOrLocalDBstore(
+                    pwmApplication, DatabaseTable.CACHE_STORE_EXPIRY, LocalDB.DB.CACHE_STORE_EXPIRY, true );
+            final int maxPendingWrites = Integer.parseInt( appConfig.readAppProperty( AppProperty.CACHE_L2_MAX_PENDING_WRITES ) );
+            l2CacheStore = new DataStoreCacheStore( dataStore, expiryIndex, domainID, getSessionLabel(), maxPendingWrites );
+            l2SourceClasses = Set.copyOf( StringUtil.splitAndTrim( appConfig.readAppProperty( AppProperty.CACHE_L2_SOURCE_CLASSES ), "," ) );
+
+            final TimeDuration writeInterval = appConfig.readDurationAppProperty( AppProperty.CACHE_L2_WRITE_INTERVAL_MS );
+            scheduleFixedRateJob( l2CacheStore::flushPendingWrites, writeInterval, writeInterval );
+
+            final TimeDuration sweepInterval = appConfig.readDurationAppProperty( AppProperty.CACHE_L2_SWEEP_INTERVAL_SECONDS );
+            scheduleFixedRateJob( l2CacheStore::sweepExpired, TimeDuration.MINUTE, sweepInterval );
+
+            LOGGER.debug( getSessionLabel(), () -> "l2 cache store enabled using " + dataStore.getDataStorageMethod()
+                    + " for source classes " + l2SourceClasses );
+        }
+        catch ( final PwmUnrecoverableException e )
+        {
+            l2CacheStore = null;
+            LOGGER.error( getSessionLabel(), () -> "unable to initialize l2 cache store: " + e.getMessage() );
+        }
+    }
+
+    private boolean isL2Eligible( final CacheKey cacheKey )
+    {
+        return l2CacheStore != null && l2SourceClasses.contains( cacheKey.getSrcClass().getSimpleName() );
+    }
+
     @Override
     public void shutdownImpl( )
     {
+        if ( l2CacheStore != null )
+        {
+            l2CacheStore.flushPendingWrites();
+        }
         setStatus( STATUS.CLOSED );
     }
 
@@ -107,7 +167,17 @@ public class CacheService extends AbstractPwmService implements PwmService
                 JsonFactory.get().serializeMap( memoryCacheStore.getCacheStoreInfo().debugStats( PwmConstants.DEFAULT_LOCALE ) ) ) );
         debugInfo.putAll( JsonFactory.get().deserializeStringMap(
                 JsonFactory.get().serializeMap( memoryCacheStore.storedClassHistogram( "histogram." ) ) ) );
-        return ServiceInfoBean.builder().debugProperties( debugInfo ).build();
+
+        final ServiceInfoBean.ServiceInfoBeanBuilder builder = ServiceInfoBean.builder();
+        if ( l2CacheStore != null )
+        {
+            debugInfo.put( "l2.itemCount", String.valueOf( l2CacheStore.itemCount() ) );
+            debugInfo.put( "l2.pendingWrites", String.valueOf( l2CacheStore.pendingWriteCount() ) );
+            l2CacheStore.getCacheStoreInfo().debugStats( PwmConstants.DEFAULT_LOCALE ).forEach( ( key, value ) -> debugInfo.put( "l2." + key, value ) );
+            l2CacheStore.getWriteInfo().debugStats( PwmConstants.DEFAULT_LOCALE ).forEach( ( key, value ) -> debugInfo.put( "l2." + key, value ) );
+            builder.storageMethod( l2CacheStore.getDataStore().getDataStorageMethod() );
+        }
+        return builder.debugProperties( debugInfo ).build();
     }
 
     public Map<String, Object> debugInfo( )
@@ -134,6 +204,11 @@ public class CacheService extends AbstractPwmService implements PwmService
         final Instant expirationDate = cachePolicy.getExpiration();
         memoryCacheStore.store( cacheKey, expirationDate, payload );
 
+        if ( isL2Eligible( cacheKey ) )
+        {
+            l2CacheStore.store( cacheKey, expirationDate, payload );
+        }
+
         traceDebugOutputter.conditionallyExecuteTask();
     }
 
@@ -153,6 +228,11 @@ public class CacheService extends AbstractPwmService implements PwmService
             payload = memoryCacheStore.read( cacheKey, classOfT );
         }
 
+        if ( payload == null && isL2Eligible( cacheKey ) )
+        {
+            payload = readFromL2( cacheKey, classOfT );
+        }
+
         traceDebugOutputter.conditionallyExecuteTask();
 
         return payload;
@@ -174,7 +254,44 @@ public class CacheService extends AbstractPwmService implements PwmService
         traceDebugOutputter.conditionallyExecuteTask();
 
         final Instant expirationDate = cachePolicy.getExpiration();
-        return memoryCacheStore.readAndStore( cacheKey, expirationDate, classOfT, cacheLoader );
+        if ( !isL2Eligible( cacheKey ) )
+        {
+            return memoryCacheStore.readAndStore( cacheKey, expirationDate, classOfT, cacheLoader );
+        }
+
+        final T memoryPayload = memoryCacheStore.read( cacheKey, classOfT );
+        if ( memoryPayload != null )
+        {
+            return memoryPayload;
+        }
+
+        final T l2Payload = readFromL2( cacheKey, classOfT );
+        if ( l2Payload != null )
+        {
+            return l2Payload;
+        }
+
+        final T data = cacheLoader.read();
+        if ( data != null )
+        {
+            memoryCacheStore.store( cacheKey, expirationDate, data );
+            l2CacheStore.store( cacheKey, expirationDate, data );
+        }
+        return data;
+    }
+
+    /**
+     * Read a value from the l2 store, promoting it to the memory store with the expiration of the l2 value.
+     */
+    private <T> T readFromL2( final CacheKey cacheKey, final Class<T> classOfT )
+    {
+        final Optional<DataStoreCacheStore.StoredValue> storedValue = l2CacheStore.readStoredValue( cacheKey );
+        if ( storedValue.isPresent() )
+        {
+            memoryCacheStore.storeSerialized( cacheKey, storedValue.get().getExpirationDate(), storedValue.get().getPayload() );
+            return JsonFactory.get().deserialize( storedValue.get().getPayload(), classOfT );
+        }
+        return null;
     }
 
     private void outputTraceInfo( )
@@ -0,0 +1,409 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package password.pwm.svc.cache;
+
+import lombok.Value;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.SessionLabel;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.util.DataStore;
+import password.pwm.util.java.ClosableIterator;
+import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.json.JsonFactory;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.logging.PwmLogger;
+import password.pwm.util.secure.PwmHashAlgorithm;
+import password.pwm.util.secure.SecureEngine;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent {@link CacheStore} backed by a {@link DataStore}, either the remote database (shared by all nodes) or
+ * the LocalDB.  Intended to be used as a second level cache behind {@link MemoryCacheStore}.
+ *
+ * <p>Writes are queued and written to the data store by {@link #flushPendingWrites()} so that callers are never
+ * blocked by data store latency.  Each stored value carries its expiration date, expired values are ignored on read
+ * and removed by {@link #sweepExpired()}.</p>
+ *
+ * <p>A second data store holds an expiry index keyed by the expiration time bucket followed by the storage key, so
+ * the sweep reads only index keys and, when the index iterates in key order, stops at the first unexpired entry
+ * instead of reading every stored value of every domain.</p>
+ */
+class DataStoreCacheStore implements CacheStore
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( DataStoreCacheStore.class );
+
+    private static final String KEY_DELIMITER = "|";
+
+    static final TimeDuration EXPIRY_BUCKET_DURATION = TimeDuration.MINUTE;
+
+    private final DataStore dataStore;
+    private final DataStore expiryIndex;
+    private final DomainID domainID;
+    private final SessionLabel sessionLabel;
+    private final int maxPendingWrites;
+    private final String storageKeyPrefix;
+
+    private final Map<String, StoredValue> pendingWrites = new ConcurrentHashMap<>();
+    private final StatisticCounterBundle<DebugKey> cacheStoreInfo = new StatisticCounterBundle<>( DebugKey.class );
+    private final StatisticCounterBundle<WriteDebugKey> writeInfo = new StatisticCounterBundle<>( WriteDebugKey.class );
+
+    private volatile long lastSweepItemCount;
+
+    enum WriteDebugKey
+    {
+        writesQueued,
+        writesFlushed,
+        writesDropped,
+        writeErrors,
+        readErrors,
+        sweepRemovals,
+    }
+
+    DataStoreCacheStore(
+            final DataStore dataStore,
+            final DataStore expiryIndex,
+            final DomainID domainID,
+            final SessionLabel sessionLabel,
+            final int maxPendingWrites
+    )
+    {
+        this.dataStore = dataStore;
+        this.expiryIndex = expiryIndex;
+        this.domainID = domainID;
+        this.sessionLabel = sessionLabel;
+        this.maxPendingWrites = maxPendingWrites;
+        this.storageKeyPrefix = domainID.stringValue() + KEY_DELIMITER;
+    }
+
+    @Override
+    public void store( final CacheKey cacheKey, final Instant expirationDate, final Object data )
+    {
+        storeSerialized( cacheKey, expirationDate, JsonFactory.get().serialize( data ) );
+    }
+
+    void storeSerialized( final CacheKey cacheKey, final Instant expirationDate, final String payload )
+    {
+        cacheStoreInfo.increment( DebugKey.storeCount );
+
+        if ( payload == null || payload.length() > LocalDB.MAX_VALUE_LENGTH )
+        {
+            writeInfo.increment( WriteDebugKey.writesDropped );
+            return;
+        }
+
+        final String storageKey = makeStorageKey( cacheKey );
+        if ( pendingWrites.size() >= maxPendingWrites && !pendingWrites.containsKey( storageKey ) )
+        {
+            writeInfo.increment( WriteDebugKey.writesDropped );
+            return;
+        }
+
+        pendingWrites.put( storageKey, new StoredValue( makeKeyString( cacheKey ), expirationDate, payload ) );
+        writeInfo.increment( WriteDebugKey.writesQueued );
+    }
+
+    @Override
+    public <T> T readAndStore( final CacheKey cacheKey, final Instant expirationDate, final Class<T> classOfT, final CacheLoader<T> cacheLoader )
+            throws PwmUnrecoverableException
+    {
+        final T cachedValue = read( cacheKey, classOfT );
+        if ( cachedValue != null )
+        {
+            return cachedValue;
+        }
+
+        final T data = cacheLoader.read();
+        if ( data != null )
+        {
+            store( cacheKey, expirationDate, data );
+        }
+        return data;
+    }
+
+    @Override
+    public <T> T read( final CacheKey cacheKey, final Class<T> classOfT )
+    {
+        return readStoredValue( cacheKey )
+                .map( storedValue -> JsonFactory.get().deserialize( storedValue.getPayload(), classOfT ) )
+                .orElse( null );
+    }
+
+    /**
+     * Read the stored (serialized) value for a key, including its expiration date.  Pending writes are
+     * consulted before the data store.
+     */
+    Optional<StoredValue> readStoredValue( final CacheKey cacheKey )
+    {
+        cacheStoreInfo.increment( DebugKey.readCount );
+
+        final String storageKey = makeStorageKey( cacheKey );
+        final String keyString = makeKeyString( cacheKey );
+
+        StoredValue storedValue = pendingWrites.get( storageKey );
+        if ( storedValue == null )
+        {
+            try
+            {
+                final Optional<String> jsonValue = dataStore.get( storageKey );
+                if ( jsonValue.isPresent() )
+                {
+                    storedValue = JsonFactory.get().deserialize( jsonValue.get(), StoredValue.class );
+                }
+            }
+            catch ( final PwmException | RuntimeException e )
+            {
+                writeInfo.increment( WriteDebugKey.readErrors );
+                LOGGER.debug( sessionLabel, () -> "error reading cache value from " + dataStore.getDataStorageMethod() + ": " + e.getMessage() );
+            }
+        }
+
+        if ( storedValue != null
+                && keyString.equals( storedValue.getKey() )
+                && storedValue.getExpirationDate() != null
+                && storedValue.getExpirationDate().isAfter( Instant.now() ) )
+        {
+            cacheStoreInfo.increment( DebugKey.hitCount );
+            return Optional.of( storedValue );
+        }
+
+        cacheStoreInfo.increment( DebugKey.missCount );
+        return Optional.empty();
+    }
+
+    /**
+     * Write queued values to the data store.  Values are removed from the queue before they are written, a
+     * value re-queued for the same key while the write is in progress is retained for the next flush.
+     */
+    void flushPendingWrites()
+    {
+        if ( pendingWrites.isEmpty() )
+        {
+            return;
+        }
+
+        final Instant startTime = Instant.now();
+        int flushCount = 0;
+        for ( final Map.Entry<String, StoredValue> entry : new ArrayList<>( pendingWrites.entrySet() ) )
+        {
+            final String storageKey = entry.getKey();
+            final StoredValue storedValue = entry.getValue();
+            try
+            {
+                dataStore.put( storageKey, JsonFactory.get().serialize( storedValue ) );
+                expiryIndex.put( indexKey( storedValue.getExpirationDate(), storageKey ), "" );
+                writeInfo.increment( WriteDebugKey.writesFlushed );
+                flushCount++;
+            }
+            catch ( final PwmException | RuntimeException e )
+            {
+                writeInfo.increment( WriteDebugKey.writeErrors );
+                LOGGER.debug( sessionLabel, () -> "error writing cache value to " + dataStore.getDataStorageMethod() + ": " + e.getMessage() );
+            }
+            pendingWrites.remove( storageKey, storedValue );
+        }
+
+        final int finalFlushCount = flushCount;
+        LOGGER.trace( sessionLabel, () -> "flushed " + finalFlushCount + " cache values to " + dataStore.getDataStorageMethod(),
+                TimeDuration.fromCurrent( startTime ) );
+    }
+
+    /**
+     * Remove expired values for this domain from the data store.  Only expiry index keys are examined; a stored
+     * value is read only when its index entry has expired, and is kept if it has since been re-stored with a later
+     * expiration.  Expired index entries of other domains are skipped and left for their own domain's sweep.
+     */
+    void sweepExpired()
+    {
+        final Instant startTime = Instant.now();
+        final boolean sortedIndex = expiryIndex.isSortedIteration();
+        int removeCount = 0;
+
+        try ( ClosableIterator<Map.Entry<String, String>> iterator = expiryIndex.iterator() )
+        {
+            while ( iterator.hasNext() )
+            {
+                final String indexKey = iterator.next().getKey();
+                final Optional<String> storageKey = expiredStorageKey( indexKey, startTime );
+                if ( storageKey.isEmpty() )
+                {
+                    if ( sortedIndex )
+                    {
+                        break;
+                    }
+                    continue;
+                }
+
+                if ( storageKey.get().startsWith( storageKeyPrefix ) )
+                {
+                    final Optional<String> jsonValue = dataStore.get( storageKey.get() );
+                    if ( jsonValue.isPresent() && isExpired( jsonValue.get(), startTime ) )
+                    {
+                        dataStore.remove( storageKey.get() );
+                        writeInfo.increment( WriteDebugKey.sweepRemovals );
+                        removeCount++;
+                    }
+                    expiryIndex.remove( indexKey );
+                }
+            }
+
+            lastSweepItemCount = dataStore.size();
+        }
+        catch ( final PwmException | RuntimeException e )
+        {
+            LOGGER.debug( sessionLabel, () -> "error sweeping expired cache values in " + dataStore.getDataStorageMethod() + ": " + e.getMessage() );
+            return;
+        }
+
+        final int finalRemoveCount = removeCount;
+        LOGGER.debug( sessionLabel, () -> "removed " + finalRemoveCount + " expired cache values from "
+                + dataStore.getDataStorageMethod(), TimeDuration.fromCurrent( startTime ) );
+    }
+
+    static String indexKey( final Instant expirationDate, final String storageKey )
+    {
+        final long bucket = expirationDate == null ? 0 : Math.max( 0, expirationDate.toEpochMilli() ) / EXPIRY_BUCKET_DURATION.asMillis();
+        return String.format( "%012d", bucket ) + KEY_DELIMITER + storageKey;
+    }
+
+    /**
+     * Parse an expiry index key.
+     * @param indexKey the expiry index key
+     * @param now the current time
+     * @return the storage key if every value in the key's bucket has expired, otherwise empty.
+     */
+    static Optional<String> expiredStorageKey( final String indexKey, final Instant now )
+    {
+        final int delimiterIndex = indexKey.indexOf( KEY_DELIMITER );
+        if ( delimiterIndex < 1 )
+        {
+            return Optional.empty();
+        }
+
+        final long bucket;
+        try
+        {
+            bucket = Long.parseLong( indexKey.substring( 0, delimiterIndex ) );
+        }
+        catch ( final NumberFormatException e )
+        {
+            return Optional.empty();
+        }
+
+        final long bucketEndMs = ( bucket + 1 ) * EXPIRY_BUCKET_DURATION.asMillis();
+        if ( bucketEndMs > now.toEpochMilli() )
+        {
+            return Optional.empty();
+        }
+        return Optional.of( indexKey.substring( delimiterIndex + 1 ) );
+    }
+
+    private static boolean isExpired( final String jsonValue, final Instant now )
+    {
+        try
+        {
+            final StoredValue storedValue = JsonFactory.get().deserialize( jsonValue, StoredValue.class );
+            return storedValue == null
+                    || storedValue.getExpirationDate() == null
+                    || !storedValue.getExpirationDate().isAfter( now );
+        }
+        catch ( final RuntimeException e )
+        {
+            return true;
+        }
+    }
+
+    private String makeStorageKey( final CacheKey cacheKey )
+    {
+        return storageKeyPrefix + SecureEngine.hash( makeKeyString( cacheKey ), PwmHashAlgorithm.SHA256 );
+    }
+
+    private String makeKeyString( final CacheKey cacheKey )
+    {
+        return domainID.stringValue()
+                + KEY_DELIMITER + cacheKey.getSrcClass().getName()
+                + KEY_DELIMITER + ( cacheKey.getUserIdentity() == null ? "" : cacheKey.getUserIdentity().toDelimitedKey() )
+                + KEY_DELIMITER + cacheKey.getValueID();
+    }
+
+    int pendingWriteCount()
+    {
+        return pendingWrites.size();
+    }
+
+    StatisticCounterBundle<WriteDebugKey> getWriteInfo()
+    {
+        return writeInfo;
+    }
+
+    DataStore getDataStore()
+    {
+        return dataStore;
+    }
+
+    @Override
+    public StatisticCounterBundle<DebugKey> getCacheStoreInfo( )
+    {
+        return cacheStoreInfo;
+    }
+
+    /**
+     * Item count of the data store as of the last expiry sweep.  The data store is shared by all domains, so the
+     * count includes values of other domains.
+     */
+    @Override
+    public int itemCount( )
+    {
+        return ( int ) Math.min( Integer.MAX_VALUE, lastSweepItemCount );
+    }
+
+    @Override
+    public List<CacheDebugItem> getCacheDebugItems( )
+    {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Byte count is not tracked, since it would require reading every stored value.
+     */
+    @Override
+    public long byteCount()
+    {
+        return 0;
+    }
+
+    @Value
+    static class StoredValue
+    {
+        private final String key;
+        private final Instant expirationDate;
+        private final String payload;
+    }
+}
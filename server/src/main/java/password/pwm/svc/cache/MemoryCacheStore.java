@@ -59,6 +59,12 @@ class MemoryCacheStore implements CacheStore
         memoryStore.put( cacheKey, new CacheValueWrapper( cacheKey, expirationDate, jsonData ) );
     }
 
+    void storeSerialized( final CacheKey cacheKey, final Instant expirationDate, final String jsonData )
+    {
+        cacheStoreInfo.increment( DebugKey.storeCount );
+        memoryStore.put( cacheKey, new CacheValueWrapper( cacheKey, expirationDate, jsonData ) );
+    }
+
     @Override
     public <T extends Object> T readAndStore( final CacheKey cacheKey, final Instant expirationDate, final Class<T> classOfT, final CacheLoader<T> cacheLoader )
             throws PwmUnrecoverableException
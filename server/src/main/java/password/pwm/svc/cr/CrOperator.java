@@ -22,6 +22,8 @@ package password.pwm.svc.cr;
 
 import com.novell.ldapchai.ChaiUser;
 import com.novell.ldapchai.cr.Answer;
+import com.novell.ldapchai.cr.ChaiCrFactory;
+import com.novell.ldapchai.cr.ChaiResponseSet;
 import com.novell.ldapchai.cr.Challenge;
 import com.novell.ldapchai.cr.ResponseSet;
 import com.novell.ldapchai.cr.bean.ChallengeBean;
@@ -29,6 +31,7 @@ import com.novell.ldapchai.exception.ChaiOperationException;
 import com.novell.ldapchai.exception.ChaiUnavailableException;
 import com.novell.ldapchai.exception.ChaiValidationException;
 import com.novell.ldapchai.impl.edir.NmasResponseSet;
+import password.pwm.PwmApplication;
 import password.pwm.bean.ResponseInfoBean;
 import password.pwm.bean.SessionLabel;
 import password.pwm.bean.UserIdentity;
@@ -102,6 +105,28 @@ public interface CrOperator
     {
         private static final PwmLogger LOGGER = PwmLogger.forClass( CrOperator.class );
 
+        /**
+         * Create a response set from the response info bean.  Answers are hashed as part of creating the response
+         * set, so this is done using the {@link password.pwm.svc.secure.SystemSecureService} hashing executor.
+         */
+        static ChaiResponseSet newResponseSet(
+                final PwmApplication pwmApplication,
+                final SessionLabel sessionLabel,
+                final ChaiUser theUser,
+                final ResponseInfoBean responseInfoBean
+        )
+                throws ChaiValidationException, PwmUnrecoverableException
+        {
+            return pwmApplication.getSecureService().executeHashOperation( sessionLabel, "responseWrite", () -> ChaiCrFactory.newChaiResponseSet(
+                    responseInfoBean.getCrMap(),
+                    responseInfoBean.getHelpdeskCrMap(),
+                    responseInfoBean.getLocale(),
+                    responseInfoBean.getMinRandoms(),
+                    theUser.getChaiProvider().getChaiConfiguration(),
+                    responseInfoBean.getCsIdentifier()
+            ) );
+        }
+
         static ResponseInfoBean convertToNoAnswerInfoBean( final ResponseSet responseSet, final DataStorageMethod dataSource )
                 throws ChaiUnavailableException, ChaiOperationException, ChaiValidationException
         {
@@ -30,6 +30,7 @@ import com.novell.ldapchai.exception.ChaiException;
 import com.novell.ldapchai.exception.ChaiUnavailableException;
 import com.novell.ldapchai.exception.ChaiValidationException;
 import com.novell.ldapchai.impl.edir.NmasCrFactory;
+import com.novell.ldapchai.impl.edir.NmasResponseSet;
 import com.novell.ldapchai.provider.DirectoryVendor;
 import password.pwm.AppProperty;
 import password.pwm.PwmApplication;
@@ -99,8 +100,8 @@ public class CrService extends AbstractPwmService implements PwmService
     {
         this.pwmDomain = pwmApplication.domains().get( domainID );
         operatorMap.put( DataStorageMethod.DB, new DbCrOperator( pwmDomain ) );
-        operatorMap.put( DataStorageMethod.LDAP, new LdapCrOperator( pwmDomain.getConfig() ) );
-        operatorMap.put( DataStorageMethod.LOCALDB, new LocalDbCrOperator( pwmDomain.getPwmApplication().getLocalDB() ) );
+        operatorMap.put( DataStorageMethod.LDAP, new LdapCrOperator( pwmDomain ) );
+        operatorMap.put( DataStorageMethod.LOCALDB, new LocalDbCrOperator( pwmDomain.getPwmApplication() ) );
         operatorMap.put( DataStorageMethod.NMAS, new NMASCrOperator( pwmDomain ) );
         return STATUS.OPEN;
     }
@@ -521,6 +522,32 @@ public class CrService extends AbstractPwmService implements PwmService
         return Optional.empty();
     }
 
+    /**
+     * Test the supplied answers against a stored response set.  Stored answers are typically iterated hashes, so
+     * the comparison is performed using the system hashing executor.  NMAS response sets are checked by the ldap
+     * server and are tested directly.
+     * @param sessionLabel session label of the requesting user
+     * @param responseSet stored response set
+     * @param crMap answers supplied by the user
+     * @return true if the answers satisfy the response set
+     * @throws ChaiUnavailableException if the ldap directory is unavailable
+     * @throws PwmUnrecoverableException if the hashing executor is unable to process the request
+     */
+    public boolean testResponses(
+            final SessionLabel sessionLabel,
+            final ResponseSet responseSet,
+            final Map<Challenge, String> crMap
+    )
+            throws ChaiUnavailableException, PwmUnrecoverableException
+    {
+        if ( responseSet instanceof NMASCrOperator.NMASCRResponseSet || responseSet instanceof NmasResponseSet )
+        {
+            return responseSet.test( crMap );
+        }
+
+        return pwmDomain.getPwmApplication().getSecureService().executeHashOperation( sessionLabel, "responseTest", () -> responseSet.test( crMap ) );
+    }
+
 
     public void writeResponses(
             final SessionLabel sessionLabel,
@@ -21,7 +21,6 @@
 package password.pwm.svc.cr;
 
 import com.novell.ldapchai.ChaiUser;
-import com.novell.ldapchai.cr.ChaiCrFactory;
 import com.novell.ldapchai.cr.ChaiResponseSet;
 import com.novell.ldapchai.cr.ResponseSet;
 import com.novell.ldapchai.exception.ChaiException;
@@ -179,14 +178,7 @@ public class DbCrOperator implements CrOperator
 
         try
         {
-            final ChaiResponseSet responseSet = ChaiCrFactory.newChaiResponseSet(
-                    responseInfoBean.getCrMap(),
-                    responseInfoBean.getHelpdeskCrMap(),
-                    responseInfoBean.getLocale(),
-                    responseInfoBean.getMinRandoms(),
-                    theUser.getChaiProvider().getChaiConfiguration(),
-                    responseInfoBean.getCsIdentifier()
-            );
+            final ChaiResponseSet responseSet = CrOperators.newResponseSet( pwmDomain.getPwmApplication(), sessionLabel, theUser, responseInfoBean );
 
             final DatabaseAccessor databaseAccessor = pwmDomain.getPwmApplication().getDatabaseService().getAccessor();
             databaseAccessor.put( DatabaseTable.PWM_RESPONSES, userGUID, responseSet.stringValue() );
@@ -28,6 +28,7 @@ import com.novell.ldapchai.exception.ChaiError;
 import com.novell.ldapchai.exception.ChaiException;
 import com.novell.ldapchai.exception.ChaiOperationException;
 import com.novell.ldapchai.exception.ChaiUnavailableException;
+import password.pwm.PwmDomain;
 import password.pwm.bean.ResponseInfoBean;
 import password.pwm.bean.SessionLabel;
 import password.pwm.bean.UserIdentity;
@@ -49,11 +50,13 @@ public class LdapCrOperator implements CrOperator
 
     private static final PwmLogger LOGGER = PwmLogger.forClass( LdapCrOperator.class );
 
+    private final PwmDomain pwmDomain;
     private final DomainConfig config;
 
-    public LdapCrOperator( final DomainConfig config )
+    public LdapCrOperator( final PwmDomain pwmDomain )
     {
-        this.config = config;
+        this.pwmDomain = pwmDomain;
+        this.config = pwmDomain.getConfig();
     }
 
     @Override
@@ -157,14 +160,7 @@ public class LdapCrOperator implements CrOperator
         }
         try
         {
-            final ChaiResponseSet responseSet = ChaiCrFactory.newChaiResponseSet(
-                    responseInfoBean.getCrMap(),
-                    responseInfoBean.getHelpdeskCrMap(),
-                    responseInfoBean.getLocale(),
-                    responseInfoBean.getMinRandoms(),
-                    theUser.getChaiProvider().getChaiConfiguration(),
-                    responseInfoBean.getCsIdentifier()
-            );
+            final ChaiResponseSet responseSet = CrOperators.newResponseSet( pwmDomain.getPwmApplication(), sessionLabel, theUser, responseInfoBean );
             ChaiCrFactory.writeChaiResponseSet( responseSet, theUser );
             LOGGER.info( sessionLabel, () -> "saved responses for user to chai-ldap format", TimeDuration.fromCurrent( startTime ) );
         }
@@ -21,10 +21,10 @@
 package password.pwm.svc.cr;
 
 import com.novell.ldapchai.ChaiUser;
-import com.novell.ldapchai.cr.ChaiCrFactory;
 import com.novell.ldapchai.cr.ChaiResponseSet;
 import com.novell.ldapchai.cr.ResponseSet;
 import com.novell.ldapchai.exception.ChaiException;
+import password.pwm.PwmApplication;
 import password.pwm.bean.ResponseInfoBean;
 import password.pwm.bean.SessionLabel;
 import password.pwm.bean.UserIdentity;
@@ -42,11 +42,13 @@ public class LocalDbCrOperator implements CrOperator
 {
     private static final PwmLogger LOGGER = PwmLogger.forClass( LocalDbCrOperator.class );
 
+    private final PwmApplication pwmApplication;
     private final LocalDB localDB;
 
-    public LocalDbCrOperator( final LocalDB localDB )
+    public LocalDbCrOperator( final PwmApplication pwmApplication )
     {
-        this.localDB = localDB;
+        this.pwmApplication = pwmApplication;
+        this.localDB = pwmApplication.getLocalDB();
     }
 
     @Override
@@ -175,14 +177,7 @@ public class LocalDbCrOperator implements CrOperator
 
         try
         {
-            final ChaiResponseSet responseSet = ChaiCrFactory.newChaiResponseSet(
-                    responseInfoBean.getCrMap(),
-                    responseInfoBean.getHelpdeskCrMap(),
-                    responseInfoBean.getLocale(),
-                    responseInfoBean.getMinRandoms(),
-                    theUser.getChaiProvider().getChaiConfiguration(),
-                    responseInfoBean.getCsIdentifier()
-            );
+            final ChaiResponseSet responseSet = CrOperators.newResponseSet( pwmApplication, sessionLabel, theUser, responseInfoBean );
 
             localDB.put( LocalDB.DB.RESPONSE_STORAGE, userGUID, responseSet.stringValue() );
             LOGGER.info( sessionLabel, () -> "saved responses for user in LocalDB" );
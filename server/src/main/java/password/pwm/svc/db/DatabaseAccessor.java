@@ -80,6 +80,13 @@ public interface DatabaseAccessor
     ClosableIterator<Map.Entry<String, String>> iterator( DatabaseTable table )
             throws DatabaseException;
 
+    /**
+     * Iterate the table in ascending key order.  Sorting may be costly on large tables, so this should only
+     * be used when the caller depends on the order.
+     */
+    ClosableIterator<Map.Entry<String, String>> sortedIterator( DatabaseTable table )
+            throws DatabaseException;
+
     @DbOperation
     @DbModifyOperation
     void remove(
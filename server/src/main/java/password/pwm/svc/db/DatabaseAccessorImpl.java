@@ -191,7 +191,14 @@ class DatabaseAccessorImpl implements DatabaseAccessor
     public ClosableIterator<Map.Entry<String, String>> iterator( final DatabaseTable table )
             throws DatabaseException
     {
-        return new DBIterator( table );
+        return new DBIterator( table, false );
+    }
+
+    @Override
+    public ClosableIterator<Map.Entry<String, String>> sortedIterator( final DatabaseTable table )
+            throws DatabaseException
+    {
+        return new DBIterator( table, true );
     }
 
     @Override
@@ -246,16 +253,18 @@ class DatabaseAccessorImpl implements DatabaseAccessor
     public class DBIterator implements ClosableIterator<Map.Entry<String, String>>
     {
         private final DatabaseTable table;
+        private final boolean sorted;
         private ResultSet resultSet;
         private PreparedStatement statement;
         private Map.Entry<String, String> nextValue;
         private boolean finished;
         private final int counter = ITERATOR_COUNTER.next();
 
-        DBIterator( final DatabaseTable table )
+        DBIterator( final DatabaseTable table, final boolean sorted )
                 throws DatabaseException
         {
             this.table = table;
+            this.sorted = sorted;
             init();
             getNextItem();
         }
@@ -267,7 +276,8 @@ class DatabaseAccessorImpl implements DatabaseAccessor
                     "iterator #" + counter + " open", table, null, null );
             traceBegin( debugInfo );
 
-            final String sqlText = "SELECT * FROM " + table.name();
+            final String sqlText = "SELECT * FROM " + table.name()
+                    + ( sorted ? " ORDER BY " + DatabaseService.KEY_COLUMN : "" );
             try ( Connection connection = databaseService.getConnection() )
             {
                 outstandingIterators.add( this );
@@ -410,6 +420,7 @@ class DatabaseAccessorImpl implements DatabaseAccessor
     {
         traceBegin( debugInfo );
 
+        boolean success = false;
         try ( Connection connection = databaseService.getConnection() )
         {
             try
@@ -417,6 +428,7 @@ class DatabaseAccessorImpl implements DatabaseAccessor
                 final T result = sqlFunction.execute( connection );
                 traceResult( debugInfo, result );
                 databaseService.updateStats( DatabaseService.OperationType.WRITE );
+                success = true;
                 return result;
             }
             catch ( final SQLException sqlException )
@@ -433,6 +445,10 @@ class DatabaseAccessorImpl implements DatabaseAccessor
         {
             throw DatabaseUtil.convertSqlException( debugInfo, e );
         }
+        finally
+        {
+            databaseService.recordOperationMetric( debugInfo.getOpName(), debugInfo.getStartTime(), success );
+        }
     }
 
     private boolean containsImpl( final DatabaseTable table, final String key, final Connection connection )
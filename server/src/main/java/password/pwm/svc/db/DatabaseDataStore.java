@@ -33,11 +33,21 @@ public class DatabaseDataStore implements DataStore
 {
     private final DatabaseService databaseService;
     private final DatabaseTable table;
+    private final boolean sortedIteration;
 
     public DatabaseDataStore( final DatabaseService databaseService, final DatabaseTable table )
+    {
+        this( databaseService, table, false );
+    }
+
+    /**
+     * @param sortedIteration if true, {@link #iterator()} returns entries in ascending key order.
+     */
+    public DatabaseDataStore( final DatabaseService databaseService, final DatabaseTable table, final boolean sortedIteration )
     {
         this.databaseService = databaseService;
         this.table = table;
+        this.sortedIteration = sortedIteration;
     }
 
     @Override
@@ -60,7 +70,15 @@ public class DatabaseDataStore implements DataStore
     @Override
     public ClosableIterator<Map.Entry<String, String>> iterator( ) throws PwmDataStoreException, PwmUnrecoverableException
     {
-        return databaseService.getAccessor().iterator( table );
+        return sortedIteration
+                ? databaseService.getAccessor().sortedIterator( table )
+                : databaseService.getAccessor().iterator( table );
+    }
+
+    @Override
+    public boolean isSortedIteration()
+    {
+        return sortedIteration;
     }
 
     @Override
@@ -36,6 +36,8 @@ import password.pwm.health.HealthRecord;
 import password.pwm.svc.AbstractPwmService;
 import password.pwm.svc.PwmService;
 import password.pwm.svc.stats.EpsStatistic;
+import password.pwm.svc.stats.MetricType;
+import password.pwm.svc.stats.MetricsClient;
 import password.pwm.svc.stats.StatisticsClient;
 import password.pwm.util.java.CollectionUtil;
 import password.pwm.util.java.StatisticCounterBundle;
@@ -368,6 +370,11 @@ public class DatabaseService extends AbstractPwmService implements PwmService
         }
     }
 
+    void recordOperationMetric( final String opName, final Instant startTime, final boolean success )
+    {
+        MetricsClient.record( getPwmApplication(), MetricType.DB, opName, startTime, success );
+    }
+
     public Map<DatabaseDebugProperty, String> getConnectionDebugProperties( )
     {
         return makeDebugProperties();
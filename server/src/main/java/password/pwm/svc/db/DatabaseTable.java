@@ -27,7 +27,11 @@ public enum DatabaseTable
     USER_AUDIT,
     INTRUDER,
     TOKENS,
+    TOKEN_EXPIRY,
     OTP,
     PW_NOTIFY,
     CLUSTER_STATE,
+    CACHE_STORE,
+    CACHE_STORE_EXPIRY,
+    SESSION_STATE,
 }
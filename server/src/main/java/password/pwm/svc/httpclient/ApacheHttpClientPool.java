@@ -0,0 +1,132 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.httpclient;
+
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import password.pwm.AppProperty;
+import password.pwm.PwmApplication;
+import password.pwm.config.AppConfig;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.util.logging.PwmLogger;
+
+import javax.net.ssl.TrustManager;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe http client with a pooled connection manager, shared by all {@link ApachePwmHttpClient} instances
+ * having an equal {@link PwmHttpClientConfiguration}.  Connections are kept alive and reused, and the single
+ * {@link javax.net.ssl.SSLContext} per pool allows tls sessions to be resumed for new connections.
+ */
+class ApacheHttpClientPool implements AutoCloseable
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( ApacheHttpClientPool.class );
+
+    private final TrustManager[] trustManagers;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+
+    ApacheHttpClientPool(
+            final PwmApplication pwmApplication,
+            final PwmHttpClientConfiguration pwmHttpClientConfiguration
+    )
+            throws PwmUnrecoverableException
+    {
+        final AppConfig appConfig = pwmApplication.getConfig();
+        final long keepAliveMs = Long.parseLong( appConfig.readAppProperty( AppProperty.HTTP_CLIENT_POOL_KEEP_ALIVE_MS ) );
+        final long idleTimeoutMs = Long.parseLong( appConfig.readAppProperty( AppProperty.HTTP_CLIENT_POOL_IDLE_TIMEOUT_MS ) );
+
+        this.trustManagers = ApachePwmHttpClient.makeTrustManager( appConfig, pwmHttpClientConfiguration );
+
+        final SSLConnectionSocketFactory sslConnectionFactory = ApachePwmHttpClient.makeSslConnectionFactory(
+                appConfig, pwmHttpClientConfiguration, trustManagers );
+
+        this.connectionManager = new PoolingHttpClientConnectionManager( ApachePwmHttpClient.makeSocketFactoryRegistry( sslConnectionFactory ) );
+        connectionManager.setMaxTotal( Integer.parseInt( appConfig.readAppProperty( AppProperty.HTTP_CLIENT_POOL_MAX_TOTAL ) ) );
+        connectionManager.setDefaultMaxPerRoute( Integer.parseInt( appConfig.readAppProperty( AppProperty.HTTP_CLIENT_POOL_MAX_PER_ROUTE ) ) );
+        connectionManager.setValidateAfterInactivity( Integer.parseInt( appConfig.readAppProperty( AppProperty.HTTP_CLIENT_POOL_VALIDATE_AFTER_INACTIVITY_MS ) ) );
+
+        final HttpClientBuilder clientBuilder = ApachePwmHttpClient.makeHttpClientBuilder( appConfig );
+        clientBuilder.setConnectionManager( connectionManager );
+        clientBuilder.setKeepAliveStrategy( makeKeepAliveStrategy( keepAliveMs ) );
+        clientBuilder.evictExpiredConnections();
+        clientBuilder.evictIdleConnections( idleTimeoutMs, TimeUnit.MILLISECONDS );
+        this.httpClient = clientBuilder.build();
+    }
+
+    /**
+     * The certificate reading trust manager records the certificates presented to a single client, so clients
+     * using it must not share a pool.
+     */
+    static boolean isPoolable( final PwmHttpClientConfiguration pwmHttpClientConfiguration )
+    {
+        return pwmHttpClientConfiguration.getTrustManagerType() != PwmHttpClientConfiguration.TrustManagerType.promiscuousCertReader;
+    }
+
+    CloseableHttpClient getHttpClient()
+    {
+        return httpClient;
+    }
+
+    TrustManager[] getTrustManagers()
+    {
+        return trustManagers;
+    }
+
+    PoolStats poolStats()
+    {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            // also shuts down the connection manager and idle connection evictor
+            httpClient.close();
+        }
+        catch ( final IOException e )
+        {
+            LOGGER.debug( () -> "error closing pooled http client: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Honor the server's keep-alive timeout, but never keep a connection longer than the configured maximum.
+     */
+    private static ConnectionKeepAliveStrategy makeKeepAliveStrategy( final long maxKeepAliveMs )
+    {
+        return ( response, context ) ->
+        {
+            final long serverKeepAliveMs = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration( response, context );
+            return serverKeepAliveMs > 0
+                    ? Math.min( serverKeepAliveMs, maxKeepAliveMs )
+                    : maxKeepAliveMs;
+        };
+    }
+}
@@ -97,6 +97,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
 {
@@ -113,7 +115,7 @@ public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
 
     private TrustManager[] trustManagers;
     private CloseableHttpClient httpClient;
-
+    private boolean pooled;
 
     private volatile boolean open = true;
 
@@ -134,8 +136,19 @@ public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
         this.httpClientService = Objects.requireNonNull( httpClientService );
         this.pwmHttpClientConfiguration = pwmHttpClientConfiguration;
 
-        this.trustManagers = makeTrustManager( pwmApplication.getConfig(), pwmHttpClientConfiguration );
-        this.httpClient = makeHttpClient( pwmApplication, pwmHttpClientConfiguration, this.trustManagers );
+        if ( ApacheHttpClientPool.isPoolable( pwmHttpClientConfiguration ) )
+        {
+            final ApacheHttpClientPool pool = httpClientService.getApacheHttpClientPool( pwmHttpClientConfiguration );
+            this.trustManagers = pool.getTrustManagers();
+            this.httpClient = pool.getHttpClient();
+            this.pooled = true;
+        }
+        else
+        {
+            // the certificate reading trust manager collects state for this client, so it can not use a shared pool
+            this.trustManagers = makeTrustManager( pwmApplication.getConfig(), pwmHttpClientConfiguration );
+            this.httpClient = makeHttpClient( pwmApplication, pwmHttpClientConfiguration, this.trustManagers );
+        }
     }
 
     static HostnameVerifier hostnameVerifier( final HttpTrustManagerHelper httpTrustManagerHelper )
@@ -149,13 +162,18 @@ public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
     public void close()
     {
         LOGGER.trace( sessionLabel, () -> "closed client #" + clientID );
-        try
-        {
-            httpClient.close();
-        }
-        catch ( final IOException e )
+
+        // pooled http clients are shared and closed by the HttpClientService
+        if ( !pooled )
         {
-            LOGGER.trace( sessionLabel, () -> "error closing ApacheHttpClient: " + e.getMessage() );
+            try
+            {
+                httpClient.close();
+            }
+            catch ( final IOException e )
+            {
+                LOGGER.trace( sessionLabel, () -> "error closing ApacheHttpClient: " + e.getMessage() );
+            }
         }
         open = false;
     }
@@ -165,7 +183,7 @@ public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
         return open;
     }
 
-    private static TrustManager[] makeTrustManager(
+    static TrustManager[] makeTrustManager(
             final AppConfig appConfig,
             final PwmHttpClientConfiguration pwmHttpClientConfiguration
     )
@@ -182,9 +200,21 @@ public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
     )
             throws PwmUnrecoverableException
     {
-        final AppConfig appConfig = pwmApplication.getConfig();
-        final HttpClientBuilder clientBuilder = HttpClientBuilder.create();
-        clientBuilder.setUserAgent( PwmConstants.PWM_APP_NAME );
+        final SSLConnectionSocketFactory sslConnectionFactory = makeSslConnectionFactory( pwmApplication.getConfig(), pwmHttpClientConfiguration, trustManagers );
+        final HttpClientConnectionManager ccm = new BasicHttpClientConnectionManager( makeSocketFactoryRegistry( sslConnectionFactory ) );
+        final HttpClientBuilder clientBuilder = makeHttpClientBuilder( pwmApplication.getConfig() );
+        clientBuilder.setConnectionManager( ccm );
+        clientBuilder.setConnectionManagerShared( true );
+        return clientBuilder.build();
+    }
+
+    static SSLConnectionSocketFactory makeSslConnectionFactory(
+            final AppConfig appConfig,
+            final PwmHttpClientConfiguration pwmHttpClientConfiguration,
+            final TrustManager[] trustManagers
+    )
+            throws PwmUnrecoverableException
+    {
         final HttpTrustManagerHelper httpTrustManagerHelper = new HttpTrustManagerHelper( appConfig, pwmHttpClientConfiguration );
 
         try
@@ -194,22 +224,30 @@ public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
                     null,
                     trustManagers,
                     new SecureRandom() );
-            final SSLConnectionSocketFactory sslConnectionFactory = new SSLConnectionSocketFactory( sslContext, hostnameVerifier( httpTrustManagerHelper ) );
-            final Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
-                    .register( "https", sslConnectionFactory )
-                    .register( "http", PlainConnectionSocketFactory.INSTANCE )
-                    .build();
-            final HttpClientConnectionManager ccm = new BasicHttpClientConnectionManager( registry );
-            clientBuilder.setSSLHostnameVerifier( hostnameVerifier( httpTrustManagerHelper ) );
-            clientBuilder.setSSLContext( sslContext );
-            clientBuilder.setSSLSocketFactory( sslConnectionFactory );
-            clientBuilder.setConnectionManager( ccm );
-            clientBuilder.setConnectionManagerShared( true );
+            return new SSLConnectionSocketFactory( sslContext, hostnameVerifier( httpTrustManagerHelper ) );
         }
         catch ( final Exception e )
         {
             throw new PwmUnrecoverableException( new ErrorInformation( PwmError.ERROR_INTERNAL, "unexpected error creating promiscuous https client: " + e.getMessage() ) );
         }
+    }
+
+    static Registry<ConnectionSocketFactory> makeSocketFactoryRegistry( final SSLConnectionSocketFactory sslConnectionFactory )
+    {
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register( "https", sslConnectionFactory )
+                .register( "http", PlainConnectionSocketFactory.INSTANCE )
+                .build();
+    }
+
+    /**
+     * Client builder with the user agent, proxy and timeout configuration applied.  The caller is responsible for
+     * setting the connection manager, which carries the tls configuration.
+     */
+    static HttpClientBuilder makeHttpClientBuilder( final AppConfig appConfig )
+    {
+        final HttpClientBuilder clientBuilder = HttpClientBuilder.create();
+        clientBuilder.setUserAgent( PwmConstants.PWM_APP_NAME );
 
         final String proxyUrl = appConfig.readSettingAsString( PwmSetting.HTTP_PROXY_URL );
         if ( proxyUrl != null && proxyUrl.length() > 0 )
@@ -243,7 +281,7 @@ public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
                 .setConnectionRequestTimeout( Integer.parseInt( appConfig.readAppProperty( AppProperty.HTTP_CLIENT_REQUEST_TIMEOUT_MS ) ) )
                 .build() );
 
-        return clientBuilder.build();
+        return clientBuilder;
     }
 
     @Override
@@ -262,6 +300,35 @@ public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
         }
     }
 
+    /**
+     * The apache client uses blocking io, so asynchronous requests are executed on the http client service's
+     * async executor.
+     */
+    @Override
+    public CompletableFuture<PwmHttpClientResponse> makeRequestAsync( final PwmHttpClientRequest clientRequest )
+    {
+        final CompletableFuture<PwmHttpClientResponse> future = new CompletableFuture<>();
+        try
+        {
+            httpClientService.getAsyncExecutor().execute( () ->
+            {
+                try
+                {
+                    future.complete( makeRequest( clientRequest ) );
+                }
+                catch ( final Exception e )
+                {
+                    future.completeExceptionally( e );
+                }
+            } );
+        }
+        catch ( final RejectedExecutionException e )
+        {
+            future.completeExceptionally( new PwmUnrecoverableException( PwmError.ERROR_SERVICE_NOT_AVAILABLE, "http client async executor is not available" ) );
+        }
+        return future;
+    }
+
     private PwmHttpClientResponse makeRequestImpl(
             final PwmHttpClientRequest clientRequest
     )
@@ -416,6 +483,7 @@ public class ApachePwmHttpClient implements AutoCloseable, PwmHttpClientProvider
             final HttpResponse httpResponse = executeRequest( pwmHttpClientRequest );
             if ( httpResponse.getStatusLine().getStatusCode() != HttpStatus.SC_OK )
             {
+                EntityUtils.consumeQuietly( httpResponse.getEntity() );
                 final String errorMsg = "error retrieving stream for url '" + inputUrl + "', remote response: " + httpResponse.getStatusLine().toString();
                 final ErrorInformation errorInformation = new ErrorInformation( PwmError.ERROR_REMOTE_ERROR_VALUE, errorMsg );
                 LOGGER.error( sessionLabel, errorInformation );
@@ -0,0 +1,109 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.httpclient;
+
+import password.pwm.util.java.TimeDuration;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks consecutive failures of calls to a remote endpoint.  Once the failure threshold is reached the breaker
+ * opens and calls are skipped for the cooldown period.  After the cooldown a single trial call is allowed; its
+ * success closes the breaker and its failure re-opens it for another cooldown period.
+ *
+ * <p>Callers must invoke {@link #recordSuccess()} or {@link #recordFailure()} for every call permitted by
+ * {@link #allowRequest()}.</p>
+ */
+public class HttpCircuitBreaker
+{
+    public enum State
+    {
+        closed,
+        open,
+        halfOpen,
+    }
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final TimeDuration cooldown;
+    private final Clock clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInProgress = new AtomicBoolean();
+    private volatile Instant openUntil;
+
+    HttpCircuitBreaker( final String endpoint, final int failureThreshold, final TimeDuration cooldown, final Clock clock )
+    {
+        this.endpoint = endpoint;
+        this.failureThreshold = Math.max( 1, failureThreshold );
+        this.cooldown = cooldown;
+        this.clock = clock;
+    }
+
+    public String getEndpoint()
+    {
+        return endpoint;
+    }
+
+    public State getState()
+    {
+        final Instant until = openUntil;
+        if ( until == null )
+        {
+            return State.closed;
+        }
+        return clock.instant().isBefore( until ) ? State.open : State.halfOpen;
+    }
+
+    public boolean allowRequest()
+    {
+        switch ( getState() )
+        {
+            case closed:
+                return true;
+
+            case halfOpen:
+                return trialInProgress.compareAndSet( false, true );
+
+            default:
+                return false;
+        }
+    }
+
+    public void recordSuccess()
+    {
+        consecutiveFailures.set( 0 );
+        openUntil = null;
+        trialInProgress.set( false );
+    }
+
+    public void recordFailure()
+    {
+        if ( consecutiveFailures.incrementAndGet() >= failureThreshold )
+        {
+            openUntil = clock.instant().plus( cooldown.asDuration() );
+            trialInProgress.set( false );
+        }
+    }
+}
@@ -20,6 +20,7 @@
 
 package password.pwm.svc.httpclient;
 
+import org.apache.http.pool.PoolStats;
 import password.pwm.AppProperty;
 import password.pwm.PwmApplication;
 import password.pwm.PwmConstants;
@@ -32,10 +33,14 @@ import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.health.HealthRecord;
 import password.pwm.svc.AbstractPwmService;
 import password.pwm.svc.PwmService;
+import password.pwm.util.PwmScheduler;
 import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.TimeDuration;
 import password.pwm.util.logging.PwmLogger;
 
 import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.time.Clock;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -43,6 +48,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 public class HttpClientService extends AbstractPwmService implements PwmService
 {
@@ -52,6 +59,11 @@ public class HttpClientService extends AbstractPwmService implements PwmService
 
     private final Set<PwmHttpClient> issuedClients = Collections.synchronizedSet( Collections.newSetFromMap( new WeakHashMap<>() ) );
 
+    private final Map<PwmHttpClientConfiguration, ApacheHttpClientPool> apacheHttpClientPools = new ConcurrentHashMap<>();
+    private final Map<String, HttpCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private ExecutorService asyncExecutor;
+
     private final StatisticCounterBundle<StatsKey> stats = new StatisticCounterBundle<>( StatsKey.class );
 
     enum StatsKey
@@ -60,6 +72,7 @@ public class HttpClientService extends AbstractPwmService implements PwmService
         requestBytes,
         responseBytes,
         createdClients,
+        createdPools,
     }
 
     public HttpClientService()
@@ -89,6 +102,9 @@ public class HttpClientService extends AbstractPwmService implements PwmService
             throw new PwmUnrecoverableException( errorInformation );
         }
 
+        final int asyncThreads = Integer.parseInt( pwmApplication.getConfig().readAppProperty( AppProperty.HTTP_CLIENT_ASYNC_MAX_THREADS ) );
+        this.asyncExecutor = PwmScheduler.makeMultiThreadExecutor( asyncThreads, pwmApplication, getSessionLabel(), HttpClientService.class, "async" );
+
         return STATUS.OPEN;
     }
 
@@ -107,6 +123,14 @@ public class HttpClientService extends AbstractPwmService implements PwmService
             }
         }
         issuedClients.clear();
+
+        for ( final ApacheHttpClientPool pool : apacheHttpClientPools.values() )
+        {
+            pool.close();
+        }
+        apacheHttpClientPools.clear();
+
+        PwmScheduler.closeAndWaitExecutor( asyncExecutor, TimeDuration.SECONDS_10, LOGGER, getSessionLabel() );
     }
 
     public PwmHttpClient getPwmHttpClient( final SessionLabel sessionLabel )
@@ -135,6 +159,7 @@ public class HttpClientService extends AbstractPwmService implements PwmService
             final PwmHttpClientProvider newClient = httpClientClass.getDeclaredConstructor().newInstance();
             newClient.init( getPwmApplication(), this, effectiveConfig, sessionLabel );
             stats.increment( StatsKey.createdClients );
+            issuedClients.add( newClient );
             return newClient;
         }
         catch ( final InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e )
@@ -143,6 +168,66 @@ public class HttpClientService extends AbstractPwmService implements PwmService
         }
     }
 
+    /**
+     * Shared pooled client for the configuration, created on first use and closed when the service shuts down.
+     */
+    synchronized ApacheHttpClientPool getApacheHttpClientPool( final PwmHttpClientConfiguration pwmHttpClientConfiguration )
+            throws PwmUnrecoverableException
+    {
+        if ( status() != STATUS.OPEN )
+        {
+            throw new PwmUnrecoverableException( PwmError.ERROR_SERVICE_NOT_AVAILABLE, "unable to create new http client pool, service is closed" );
+        }
+
+        final ApacheHttpClientPool existingPool = apacheHttpClientPools.get( pwmHttpClientConfiguration );
+        if ( existingPool != null )
+        {
+            return existingPool;
+        }
+
+        final ApacheHttpClientPool newPool = new ApacheHttpClientPool( getPwmApplication(), pwmHttpClientConfiguration );
+        apacheHttpClientPools.put( pwmHttpClientConfiguration, newPool );
+        stats.increment( StatsKey.createdPools );
+        return newPool;
+    }
+
+    /**
+     * Circuit breaker for the endpoint (scheme, host, port and path) of the url.  Breakers are shared by all
+     * callers of the same endpoint.
+     */
+    public HttpCircuitBreaker getCircuitBreaker( final String url )
+    {
+        final String endpoint = endpointForUrl( url );
+        return circuitBreakers.computeIfAbsent( endpoint, k -> new HttpCircuitBreaker(
+                k,
+                Integer.parseInt( getPwmApplication().getConfig().readAppProperty( AppProperty.HTTP_CLIENT_CIRCUIT_BREAKER_FAILURE_THRESHOLD ) ),
+                TimeDuration.of(
+                        Long.parseLong( getPwmApplication().getConfig().readAppProperty( AppProperty.HTTP_CLIENT_CIRCUIT_BREAKER_COOLDOWN_MS ) ),
+                        TimeDuration.Unit.MILLISECONDS ),
+                Clock.systemUTC() ) );
+    }
+
+    /**
+     * Executor for asynchronous requests of http client implementations that do not support non-blocking io.
+     */
+    ExecutorService getAsyncExecutor()
+    {
+        return asyncExecutor;
+    }
+
+    private static String endpointForUrl( final String url )
+    {
+        try
+        {
+            final URI uri = URI.create( url );
+            return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort() + uri.getPath();
+        }
+        catch ( final IllegalArgumentException e )
+        {
+            return url;
+        }
+    }
+
     protected StatisticCounterBundle<StatsKey> getStats()
     {
         return stats;
@@ -160,12 +245,39 @@ public class HttpClientService extends AbstractPwmService implements PwmService
         final Map<String, String> debugMap = new HashMap<>( stats.debugStats( PwmConstants.DEFAULT_LOCALE ) );
         debugMap.put( "issuedClients", Integer.toString( issuedClients.size() ) );
         debugMap.put( "openClients", Long.toString( openClients() ) );
+        debugMap.putAll( poolDebugStats() );
+        debugMap.put( "openCircuitBreakers", Long.toString( circuitBreakers.values().stream()
+                .filter( breaker -> breaker.getState() != HttpCircuitBreaker.State.closed )
+                .count() ) );
         return ServiceInfoBean.builder()
                 .debugProperties( debugMap )
                 .build();
 
     }
 
+    private Map<String, String> poolDebugStats()
+    {
+        int leased = 0;
+        int available = 0;
+        int pending = 0;
+        int max = 0;
+        for ( final ApacheHttpClientPool pool : apacheHttpClientPools.values() )
+        {
+            final PoolStats poolStats = pool.poolStats();
+            leased += poolStats.getLeased();
+            available += poolStats.getAvailable();
+            pending += poolStats.getPending();
+            max += poolStats.getMax();
+        }
+
+        return Map.of(
+                "pools", Integer.toString( apacheHttpClientPools.size() ),
+                "poolLeasedConnections", Integer.toString( leased ),
+                "poolAvailableConnections", Integer.toString( available ),
+                "poolPendingRequests", Integer.toString( pending ),
+                "poolMaxConnections", Integer.toString( max ) );
+    }
+
     private long openClients()
     {
         return new HashSet<>( issuedClients ).stream()
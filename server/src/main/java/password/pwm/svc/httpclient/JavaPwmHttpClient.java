@@ -67,6 +67,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class JavaPwmHttpClient implements PwmHttpClientProvider
 {
@@ -152,41 +154,80 @@ public class JavaPwmHttpClient implements PwmHttpClientProvider
             final Instant startTime = Instant.now();
             final HttpRequest httpRequest = makeJavaHttpRequest( clientRequest );
             final HttpResponse<byte[]> response = httpClient.send( httpRequest, HttpResponse.BodyHandlers.ofByteArray() );
-            final Optional<HttpContentType> httpContentType = contentTypeForResponse( response.headers() );
+            logRequest( clientRequest, sessionLabel );
+            return toPwmHttpClientResponse( clientRequest, response, startTime );
+        }
+        catch ( final IOException | InterruptedException exception )
+        {
+            final ErrorInformation errorInformation = new ErrorInformation( PwmError.ERROR_HTTP_CLIENT, exception.getMessage() );
+            throw new PwmUnrecoverableException( errorInformation );
+        }
+    }
 
+    @Override
+    public CompletableFuture<PwmHttpClientResponse> makeRequestAsync( final PwmHttpClientRequest clientRequest )
+    {
+        final CompletableFuture<PwmHttpClientResponse> future = new CompletableFuture<>();
+        try
+        {
+            final Instant startTime = Instant.now();
             logRequest( clientRequest, sessionLabel );
+            httpClient.sendAsync( makeJavaHttpRequest( clientRequest ), HttpResponse.BodyHandlers.ofByteArray() )
+                    .whenComplete( ( response, throwable ) ->
+                    {
+                        if ( throwable == null )
+                        {
+                            future.complete( toPwmHttpClientResponse( clientRequest, response, startTime ) );
+                        }
+                        else
+                        {
+                            final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                                    ? throwable.getCause()
+                                    : throwable;
+                            final ErrorInformation errorInformation = new ErrorInformation( PwmError.ERROR_HTTP_CLIENT, cause.getMessage() );
+                            future.completeExceptionally( new PwmUnrecoverableException( errorInformation ) );
+                        }
+                    } );
+        }
+        catch ( final PwmUnrecoverableException e )
+        {
+            future.completeExceptionally( e );
+        }
+        return future;
+    }
 
-            final PwmHttpClientResponse.PwmHttpClientResponseBuilder builder = PwmHttpClientResponse.builder()
-                    .statusCode( response.statusCode() )
-                    .requestID( clientRequest.getRequestID() )
-                    .headers( convertResponseHeaders( response.headers() ) );
+    private PwmHttpClientResponse toPwmHttpClientResponse(
+            final PwmHttpClientRequest clientRequest,
+            final HttpResponse<byte[]> response,
+            final Instant startTime
+    )
+    {
+        final Optional<HttpContentType> httpContentType = contentTypeForResponse( response.headers() );
+
+        final PwmHttpClientResponse.PwmHttpClientResponseBuilder builder = PwmHttpClientResponse.builder()
+                .statusCode( response.statusCode() )
+                .requestID( clientRequest.getRequestID() )
+                .headers( convertResponseHeaders( response.headers() ) );
 
-            if ( response.body() != null )
+        if ( response.body() != null )
+        {
+            if ( httpContentType.isPresent() && httpContentType.get().getDataType() == HttpEntityDataType.ByteArray )
             {
-                if ( httpContentType.isPresent() && httpContentType.get().getDataType() == HttpEntityDataType.ByteArray )
-                {
-                    builder.dataType( HttpEntityDataType.ByteArray );
-                    builder.binaryBody( ImmutableByteArray.of( response.body() ) );
-                }
-                else
-                {
-                    builder.dataType( HttpEntityDataType.String );
-                    builder.body( new String( response.body(), PwmConstants.DEFAULT_CHARSET ) );
-                }
+                builder.dataType( HttpEntityDataType.ByteArray );
+                builder.binaryBody( ImmutableByteArray.of( response.body() ) );
             }
+            else
+            {
+                builder.dataType( HttpEntityDataType.String );
+                builder.body( new String( response.body(), PwmConstants.DEFAULT_CHARSET ) );
+            }
+        }
 
-            final PwmHttpClientResponse pwmHttpClientResponse = builder.build();
-
-            logResponse( clientRequest, pwmHttpClientResponse, startTime );
+        final PwmHttpClientResponse pwmHttpClientResponse = builder.build();
 
-            return pwmHttpClientResponse;
+        logResponse( clientRequest, pwmHttpClientResponse, startTime );
 
-        }
-        catch ( final IOException | InterruptedException exception )
-        {
-            final ErrorInformation errorInformation = new ErrorInformation( PwmError.ERROR_HTTP_CLIENT, exception.getMessage() );
-            throw new PwmUnrecoverableException( errorInformation );
-        }
+        return pwmHttpClientResponse;
     }
 
     private void logRequest( final PwmHttpClientRequest clientRequest, final SessionLabel sessionLabel ) throws PwmUnrecoverableException
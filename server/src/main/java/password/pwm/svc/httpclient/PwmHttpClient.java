@@ -30,6 +30,7 @@ import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface PwmHttpClient extends AutoCloseable
 {
@@ -38,6 +39,14 @@ public interface PwmHttpClient extends AutoCloseable
     PwmHttpClientResponse makeRequest( PwmHttpClientRequest clientRequest )
             throws PwmUnrecoverableException;
 
+    /**
+     * Send a request without blocking the calling thread.  The returned future completes exceptionally with a
+     * {@link PwmUnrecoverableException} if the request fails.
+     * @param clientRequest request to send
+     * @return future for the response
+     */
+    CompletableFuture<PwmHttpClientResponse> makeRequestAsync( PwmHttpClientRequest clientRequest );
+
     InputStream streamForUrl( String inputUrl )
             throws IOException, PwmUnrecoverableException;
 
@@ -175,6 +175,7 @@ public class IntruderDomainService extends AbstractPwmService implements PwmServ
     {
         this.recordManagers.clear();
         final IntruderRecordStore recordStore = pwmDomain.getPwmApplication().getIntruderSystemService().getRecordStore();
+        final IntruderRecordCache recordCache = pwmDomain.getPwmApplication().getIntruderSystemService().getRecordCache();
 
         for ( final IntruderRecordType type : IntruderRecordType.values() )
         {
@@ -182,7 +183,7 @@ public class IntruderDomainService extends AbstractPwmService implements PwmServ
             if ( typeSettings.isConfigured() )
             {
                 LOGGER.trace( getSessionLabel(), () -> "starting record manager for type '" + type + "' with settings: " + typeSettings );
-                recordManagers.put( type, new IntruderRecordManagerImpl( pwmDomain, type, recordStore, intruderSettings ) );
+                recordManagers.put( type, new IntruderRecordManagerImpl( pwmDomain, type, recordStore, recordCache, intruderSettings ) );
             }
             else
             {
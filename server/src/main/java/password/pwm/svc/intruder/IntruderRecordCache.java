@@ -0,0 +1,464 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package password.pwm.svc.intruder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.Value;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.SessionLabel;
+import password.pwm.error.PwmException;
+import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.logging.PwmLogger;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory counter tier in front of an {@link IntruderRecordStore}.  Checks and increments update an immutable
+ * per-subject state using compare-and-set, so concurrent attempts against the same subject never block each other
+ * or the data store.  Changed entries are written to the record store by {@link #flush()}, except that an entry
+ * reaching the lockout count is written immediately.
+ *
+ * <p>When writing, the pending local increments are merged with the currently stored record rather than replacing
+ * it, so that nodes sharing a remote database each contribute their attempts to the same record.  When
+ * {@code refreshInterval} is set, entries are also re-read from the store so attempts recorded by other nodes
+ * are seen locally.</p>
+ */
+class IntruderRecordCache
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( IntruderRecordCache.class );
+
+    private final IntruderRecordStore recordStore;
+    private final SessionLabel sessionLabel;
+    private final TimeDuration refreshInterval;
+    private final Cache<String, CacheEntry> entries;
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    private final StatisticCounterBundle<DebugKeys> stats = new StatisticCounterBundle<>( DebugKeys.class );
+
+    enum DebugKeys
+    {
+        hits,
+        loads,
+        refreshes,
+        flushes,
+        flushedRecords,
+        flushErrors,
+        lockoutWrites,
+    }
+
+    IntruderRecordCache(
+            final IntruderRecordStore recordStore,
+            final SessionLabel sessionLabel,
+            final int maxEntries,
+            final TimeDuration refreshInterval
+    )
+    {
+        this.recordStore = recordStore;
+        this.sessionLabel = sessionLabel;
+        this.refreshInterval = refreshInterval;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize( maxEntries )
+                .removalListener( ( String key, CacheEntry entry, RemovalCause cause ) ->
+                {
+                    if ( key != null && entry != null && cause.wasEvicted() && entry.getState().get().isDirty() )
+                    {
+                        writeEntry( key, entry );
+                    }
+                } )
+                .build();
+    }
+
+    Optional<IntruderRecord> read( final String key, final TimeDuration checkDuration )
+    {
+        return readEntry( key, checkDuration ).map( entry -> entry.toRecord( entry.getState().get() ) );
+    }
+
+    boolean check( final String key, final TimeDuration checkDuration, final int checkCount )
+    {
+        final Optional<CacheEntry> entry = readEntry( key, checkDuration );
+        if ( entry.isEmpty() )
+        {
+            return false;
+        }
+
+        final CounterState state = entry.get().getState().get();
+        return !state.isOutdated( checkDuration, Instant.now() ) && state.getAttemptCount() >= checkCount;
+    }
+
+    void mark(
+            final String key,
+            final DomainID domainID,
+            final IntruderRecordType recordType,
+            final String subject,
+            final TimeDuration checkDuration,
+            final int checkCount
+    )
+    {
+        final CacheEntry entry = readEntry( key, checkDuration )
+                .orElseGet( () -> newEntry( key, domainID, recordType, subject, checkDuration ) );
+
+        final Instant now = Instant.now();
+        final CounterState updatedState = entry.getState().updateAndGet( state -> state.increment( checkDuration, now ) );
+        dirtyKeys.add( key );
+
+        if ( updatedState.getAttemptCount() >= checkCount )
+        {
+            // a lockout is written immediately so that it survives a restart and other nodes see it on their next read
+            stats.increment( DebugKeys.lockoutWrites );
+            writeEntry( key, entry );
+        }
+    }
+
+    void clear( final String key, final TimeDuration checkDuration )
+    {
+        final Optional<CacheEntry> entry = readEntry( key, checkDuration );
+        if ( entry.isPresent() && entry.get().getState().get().getAttemptCount() > 0 )
+        {
+            entry.get().getState().updateAndGet( CounterState::clear );
+            dirtyKeys.add( key );
+        }
+    }
+
+    void markAlerted( final String key, final TimeDuration checkDuration )
+    {
+        final Optional<CacheEntry> entry = readEntry( key, checkDuration );
+        if ( entry.isPresent() && !entry.get().getState().get().isAlerted() )
+        {
+            entry.get().getState().updateAndGet( CounterState::alert );
+            dirtyKeys.add( key );
+        }
+    }
+
+    /**
+     * Write all changed entries to the record store.
+     */
+    void flush()
+    {
+        if ( dirtyKeys.isEmpty() )
+        {
+            return;
+        }
+
+        stats.increment( DebugKeys.flushes );
+        final Instant startTime = Instant.now();
+        final List<String> keys = new ArrayList<>( dirtyKeys );
+        int writeCount = 0;
+        for ( final String key : keys )
+        {
+            dirtyKeys.remove( key );
+            final CacheEntry entry = entries.getIfPresent( key );
+            if ( entry != null && writeEntry( key, entry ) )
+            {
+                writeCount++;
+            }
+        }
+
+        final int finalWriteCount = writeCount;
+        LOGGER.trace( sessionLabel, () -> "flushed " + finalWriteCount + " intruder records", TimeDuration.fromCurrent( startTime ) );
+    }
+
+    StatisticCounterBundle<DebugKeys> getStats()
+    {
+        return stats;
+    }
+
+    long size()
+    {
+        return entries.estimatedSize();
+    }
+
+    private CacheEntry newEntry(
+            final String key,
+            final DomainID domainID,
+            final IntruderRecordType recordType,
+            final String subject,
+            final TimeDuration checkDuration
+    )
+    {
+        final CacheEntry newEntry = new CacheEntry( domainID, recordType, subject, checkDuration, CounterState.EMPTY );
+        final CacheEntry existingEntry = entries.asMap().putIfAbsent( key, newEntry );
+        return existingEntry == null ? newEntry : existingEntry;
+    }
+
+    private Optional<CacheEntry> readEntry( final String key, final TimeDuration checkDuration )
+    {
+        final CacheEntry existingEntry = entries.getIfPresent( key );
+        if ( existingEntry != null )
+        {
+            if ( refreshInterval != null && TimeDuration.fromCurrent( existingEntry.getLoadTime() ).isLongerThan( refreshInterval ) )
+            {
+                stats.increment( DebugKeys.refreshes );
+                refreshEntry( key, existingEntry );
+            }
+            else
+            {
+                stats.increment( DebugKeys.hits );
+            }
+            return Optional.of( existingEntry );
+        }
+
+        stats.increment( DebugKeys.loads );
+        final Optional<IntruderRecord> storedRecord = readStoredRecord( key );
+        if ( storedRecord.isEmpty() )
+        {
+            return Optional.empty();
+        }
+
+        final IntruderRecord record = storedRecord.get();
+        final CacheEntry newEntry = new CacheEntry( record.getDomainID(), record.getType(), record.getSubject(), checkDuration, CounterState.fromRecord( record ) );
+        final CacheEntry previousEntry = entries.asMap().putIfAbsent( key, newEntry );
+        return Optional.of( previousEntry == null ? newEntry : previousEntry );
+    }
+
+    private void refreshEntry( final String key, final CacheEntry entry )
+    {
+        entry.setLoadTime( Instant.now() );
+        final Optional<IntruderRecord> storedRecord = readStoredRecord( key );
+        final Instant now = Instant.now();
+        entry.getState().updateAndGet( state -> state.mergeWithStored( storedRecord.orElse( null ), entry.getCheckDuration(), now ) );
+    }
+
+    /**
+     * Merge the pending changes of an entry with the stored record and write the result.  Increments made while the
+     * write is in progress remain pending for the next flush.
+     */
+    private boolean writeEntry( final String key, final CacheEntry entry )
+    {
+        final CounterState snapshot = entry.getState().getAndUpdate( CounterState::markWritten );
+        if ( !snapshot.isDirty() )
+        {
+            return false;
+        }
+
+        try
+        {
+            final Optional<IntruderRecord> storedRecord = readStoredRecord( key );
+            final CounterState written = snapshot.mergeWithStored( storedRecord.orElse( null ), entry.getCheckDuration(), Instant.now() ).markWritten();
+            recordStore.write( key, entry.toRecord( written ) );
+            entry.getState().updateAndGet( state -> state.rebase( written, snapshot ) );
+            entry.setLoadTime( Instant.now() );
+            stats.increment( DebugKeys.flushedRecords );
+            return true;
+        }
+        catch ( final PwmException e )
+        {
+            stats.increment( DebugKeys.flushErrors );
+            entry.getState().updateAndGet( state -> state.restorePending( snapshot ) );
+            dirtyKeys.add( key );
+            LOGGER.warn( sessionLabel, () -> "unable to write intruder record: " + e.getMessage() );
+            return false;
+        }
+    }
+
+    private Optional<IntruderRecord> readStoredRecord( final String key )
+    {
+        try
+        {
+            return recordStore.read( key );
+        }
+        catch ( final PwmException e )
+        {
+            LOGGER.error( sessionLabel, () -> "unable to read intruder record from storage: " + e.getMessage() );
+        }
+        return Optional.empty();
+    }
+
+    private static class CacheEntry
+    {
+        private final DomainID domainID;
+        private final IntruderRecordType recordType;
+        private final String subject;
+        private final TimeDuration checkDuration;
+        private final AtomicReference<CounterState> state;
+        private volatile Instant loadTime = Instant.now();
+
+        CacheEntry(
+                final DomainID domainID,
+                final IntruderRecordType recordType,
+                final String subject,
+                final TimeDuration checkDuration,
+                final CounterState state
+        )
+        {
+            this.domainID = domainID;
+            this.recordType = recordType;
+            this.subject = subject;
+            this.checkDuration = checkDuration;
+            this.state = new AtomicReference<>( state );
+        }
+
+        TimeDuration getCheckDuration()
+        {
+            return checkDuration;
+        }
+
+        AtomicReference<CounterState> getState()
+        {
+            return state;
+        }
+
+        Instant getLoadTime()
+        {
+            return loadTime;
+        }
+
+        void setLoadTime( final Instant loadTime )
+        {
+            this.loadTime = loadTime;
+        }
+
+        IntruderRecord toRecord( final CounterState counterState )
+        {
+            final IntruderRecord record = new IntruderRecord( domainID, recordType, subject );
+            record.setTimeStamp( counterState.getTimeStamp() );
+            record.setAttemptCount( counterState.getAttemptCount() );
+            record.setAlerted( counterState.isAlerted() );
+            return record;
+        }
+    }
+
+    /**
+     * Immutable counter state.  {@code pendingAttempts} is the number of local attempts not yet written, {@code cleared}
+     * and {@code alertPending} indicate local changes that replace rather than merge with the stored record.
+     */
+    @Value
+    static class CounterState
+    {
+        static final CounterState EMPTY = new CounterState( Instant.EPOCH, 0, false, 0, false, false );
+
+        private final Instant timeStamp;
+        private final int attemptCount;
+        private final boolean alerted;
+        private final int pendingAttempts;
+        private final boolean cleared;
+        private final boolean alertPending;
+
+        static CounterState fromRecord( final IntruderRecord record )
+        {
+            return new CounterState( record.getTimeStamp(), record.getAttemptCount(), record.isAlerted(), 0, false, false );
+        }
+
+        boolean isDirty()
+        {
+            return pendingAttempts > 0 || cleared || alertPending;
+        }
+
+        boolean isOutdated( final TimeDuration checkDuration, final Instant now )
+        {
+            return TimeDuration.between( timeStamp, now ).isLongerThan( checkDuration );
+        }
+
+        CounterState increment( final TimeDuration checkDuration, final Instant now )
+        {
+            if ( isOutdated( checkDuration, now ) )
+            {
+                // outdated stored records are ignored when merging, so only this attempt is pending
+                return new CounterState( now, 1, false, 1, cleared, false );
+            }
+            return new CounterState( now, attemptCount + 1, alerted, pendingAttempts + 1, cleared, alertPending );
+        }
+
+        CounterState clear()
+        {
+            return new CounterState( timeStamp, 0, false, 0, true, false );
+        }
+
+        CounterState alert()
+        {
+            return new CounterState( timeStamp, attemptCount, true, pendingAttempts, cleared, true );
+        }
+
+        CounterState markWritten()
+        {
+            return new CounterState( timeStamp, attemptCount, alerted, 0, false, false );
+        }
+
+        /**
+         * Combine pending local changes with a stored record.  A cleared state discards the stored count, otherwise
+         * pending attempts are added to the stored count.  A stored record outside of the check window is ignored.
+         */
+        CounterState mergeWithStored( final IntruderRecord storedRecord, final TimeDuration checkDuration, final Instant now )
+        {
+            if ( storedRecord == null || cleared )
+            {
+                return this;
+            }
+
+            if ( TimeDuration.between( storedRecord.getTimeStamp(), now ).isLongerThan( checkDuration ) )
+            {
+                return this;
+            }
+
+            final Instant mergedTimeStamp = storedRecord.getTimeStamp().isAfter( timeStamp ) ? storedRecord.getTimeStamp() : timeStamp;
+            return new CounterState(
+                    mergedTimeStamp,
+                    storedRecord.getAttemptCount() + pendingAttempts,
+                    storedRecord.isAlerted() || alertPending,
+                    pendingAttempts,
+                    false,
+                    alertPending );
+        }
+
+        /**
+         * Apply a completed write to the current state.  Changes made since {@code snapshot} was taken are kept as pending.
+         */
+        CounterState rebase( final CounterState written, final CounterState snapshot )
+        {
+            if ( cleared )
+            {
+                return this;
+            }
+
+            final int attemptsSinceSnapshot = Math.max( 0, attemptCount - snapshot.getAttemptCount() );
+            final Instant mergedTimeStamp = timeStamp.isAfter( written.getTimeStamp() ) ? timeStamp : written.getTimeStamp();
+            return new CounterState(
+                    mergedTimeStamp,
+                    written.getAttemptCount() + attemptsSinceSnapshot,
+                    written.isAlerted() || alerted,
+                    pendingAttempts,
+                    false,
+                    alertPending );
+        }
+
+        /**
+         * Restore pending changes from {@code snapshot} after a failed write.
+         */
+        CounterState restorePending( final CounterState snapshot )
+        {
+            return new CounterState(
+                    timeStamp,
+                    attemptCount,
+                    alerted,
+                    pendingAttempts + snapshot.getPendingAttempts(),
+                    cleared || snapshot.isCleared(),
+                    alertPending || snapshot.isAlertPending() );
+        }
+    }
+}
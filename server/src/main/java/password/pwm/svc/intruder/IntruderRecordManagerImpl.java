@@ -43,6 +43,7 @@ class IntruderRecordManagerImpl implements IntruderRecordManager
 
     private final IntruderRecordType recordType;
     private final IntruderRecordStore recordStore;
+    private final IntruderRecordCache recordCache;
     private final IntruderSettings.TypeSettings settings;
     private final SecureService secureService;
     private final DomainID domainID;
@@ -52,6 +53,7 @@ class IntruderRecordManagerImpl implements IntruderRecordManager
             final PwmDomain pwmDomain,
             final IntruderRecordType recordType,
             final IntruderRecordStore recordStore,
+            final IntruderRecordCache recordCache,
             final IntruderSettings settings
     )
     {
@@ -59,6 +61,7 @@ class IntruderRecordManagerImpl implements IntruderRecordManager
         this.secureService = pwmDomain.getSecureService();
         this.recordType = recordType;
         this.recordStore = recordStore;
+        this.recordCache = recordCache;
         this.settings = settings.getTargetSettings().get( recordType );
         this.storageHashAlgorithm = settings.getStorageHashAlgorithm();
     }
@@ -71,6 +74,12 @@ class IntruderRecordManagerImpl implements IntruderRecordManager
             throw new IllegalArgumentException( "subject is required value" );
         }
 
+        if ( recordCache != null )
+        {
+            final Optional<String> key = makeCacheKey( subject );
+            return key.isPresent() && recordCache.check( key.get(), settings.getCheckDuration(), settings.getCheckCount() );
+        }
+
         final Optional<IntruderRecord> record = readIntruderRecord( subject );
         if ( record.isEmpty() )
         {
@@ -97,6 +106,12 @@ class IntruderRecordManagerImpl implements IntruderRecordManager
             throw new IllegalArgumentException( "subject is required value" );
         }
 
+        if ( recordCache != null )
+        {
+            makeCacheKey( subject ).ifPresent( key -> recordCache.mark( key, domainID, recordType, subject, settings.getCheckDuration(), settings.getCheckCount() ) );
+            return;
+        }
+
         IntruderRecord record = readIntruderRecord( subject ).orElseGet( () -> new IntruderRecord( domainID, recordType, subject ) );
 
         final TimeDuration age = TimeDuration.fromCurrent( record.getTimeStamp() );
@@ -115,6 +130,12 @@ class IntruderRecordManagerImpl implements IntruderRecordManager
     @Override
     public void clearSubject( final String subject )
     {
+        if ( recordCache != null )
+        {
+            makeCacheKey( subject ).ifPresent( key -> recordCache.clear( key, settings.getCheckDuration() ) );
+            return;
+        }
+
         final Optional<IntruderRecord> record = readIntruderRecord( subject );
         if ( record.isEmpty() )
         {
@@ -140,6 +161,12 @@ class IntruderRecordManagerImpl implements IntruderRecordManager
     @Override
     public void markAlerted( final String subject )
     {
+        if ( recordCache != null )
+        {
+            makeCacheKey( subject ).ifPresent( key -> recordCache.markAlerted( key, settings.getCheckDuration() ) );
+            return;
+        }
+
         final Optional<IntruderRecord> record = readIntruderRecord( subject );
         if ( record.isEmpty() || record.get().isAlerted() )
         {
@@ -152,6 +179,11 @@ class IntruderRecordManagerImpl implements IntruderRecordManager
     @Override
     public Optional<IntruderRecord> readIntruderRecord( final String subject )
     {
+        if ( recordCache != null )
+        {
+            return makeCacheKey( subject ).flatMap( key -> recordCache.read( key, settings.getCheckDuration() ) );
+        }
+
         try
         {
             return Optional.ofNullable( recordStore.read( makeKey( subject ) ).orElse( null ) );
@@ -175,6 +207,19 @@ class IntruderRecordManagerImpl implements IntruderRecordManager
         }
     }
 
+    private Optional<String> makeCacheKey( final String subject )
+    {
+        try
+        {
+            return Optional.of( makeKey( subject ) );
+        }
+        catch ( final PwmOperationalException e )
+        {
+            LOGGER.error( () -> "unable to generate intruder record key: " + e.getMessage() );
+        }
+        return Optional.empty();
+    }
+
     private String makeKey( final String subject ) throws PwmOperationalException
     {
         JavaHelper.requireNonEmpty( subject );
@@ -51,6 +51,7 @@ public class IntruderSystemService extends AbstractPwmService implements PwmServ
     private static final PwmLogger LOGGER = PwmLogger.forClass( IntruderSystemService.class );
 
     private IntruderRecordStore recordStore;
+    private IntruderRecordCache recordCache;
     private DataStorageMethod dataStorageMethod;
 
     @Override
@@ -64,6 +65,7 @@ public class IntruderSystemService extends AbstractPwmService implements PwmServ
 
             recordStore = new IntruderDataStore( this, dataStore, this::status );
 
+            initRecordCache( pwmApplication.getConfig() );
             scheduleCleaner();
         }
         catch ( final Exception e )
@@ -78,9 +80,30 @@ public class IntruderSystemService extends AbstractPwmService implements PwmServ
         return STATUS.OPEN;
     }
 
+    private void initRecordCache( final AppConfig config )
+    {
+        if ( !config.readBooleanAppProperty( AppProperty.INTRUDER_MEMORY_TIER_ENABLE ) )
+        {
+            return;
+        }
+
+        final int maxEntries = Integer.parseInt( config.readAppProperty( AppProperty.INTRUDER_MEMORY_TIER_MAX_ENTRIES ) );
+        final TimeDuration syncInterval = config.readDurationAppProperty( AppProperty.INTRUDER_MEMORY_TIER_SYNC_INTERVAL_MS );
+
+        // records in a remote database may be updated by other nodes, so re-read them periodically
+        final TimeDuration refreshInterval = dataStorageMethod == DataStorageMethod.DB ? syncInterval : null;
+
+        recordCache = new IntruderRecordCache( recordStore, getSessionLabel(), maxEntries, refreshInterval );
+        scheduleFixedRateJob( recordCache::flush, syncInterval, syncInterval );
+    }
+
     @Override
     public void shutdownImpl()
     {
+        if ( recordCache != null )
+        {
+            recordCache.flush();
+        }
         setStatus( STATUS.CLOSED );
     }
 
@@ -93,10 +116,17 @@ public class IntruderSystemService extends AbstractPwmService implements PwmServ
     @Override
     public ServiceInfoBean serviceInfo()
     {
-        return ServiceInfoBean.builder()
+        final ServiceInfoBean.ServiceInfoBeanBuilder builder = ServiceInfoBean.builder()
                 .debugProperties( recordStore.getStats().debugStats( PwmConstants.DEFAULT_LOCALE ) )
-                .storageMethod( dataStorageMethod )
-                .build();
+                .storageMethod( dataStorageMethod );
+
+        if ( recordCache != null )
+        {
+            builder.debugProperty( "memoryTierSize", String.valueOf( recordCache.size() ) );
+            recordCache.getStats().debugStats( PwmConstants.DEFAULT_LOCALE ).forEach( ( key, value ) -> builder.debugProperty( "memoryTier." + key, value ) );
+        }
+
+        return builder.build();
     }
 
     static PublicIntruderRecord.LockStatus lockStatus( final PwmApplication pwmApplication, final IntruderRecord intruderRecord )
@@ -177,4 +207,9 @@ public class IntruderSystemService extends AbstractPwmService implements PwmServ
     {
         return recordStore;
     }
+
+    IntruderRecordCache getRecordCache()
+    {
+        return recordCache;
+    }
 }
@@ -133,7 +133,7 @@ public class OtpService extends AbstractPwmService implements PwmService
         if ( !otpCorrect && allowRecoveryCodes && otpUserRecord.getRecoveryCodes() != null && otpUserRecord.getRecoveryInfo() != null )
         {
             final OTPUserRecord.RecoveryInfo recoveryInfo = otpUserRecord.getRecoveryInfo();
-            final String userHashedInput = doRecoveryHash( userInput, recoveryInfo );
+            final String userHashedInput = doRecoveryHash( sessionLabel, userInput, recoveryInfo );
             for ( final OTPUserRecord.RecoveryCode code : otpUserRecord.getRecoveryCodes() )
             {
                 if ( code.getHashCode().equals( userInput ) || code.getHashCode().equals( userHashedInput ) )
@@ -235,7 +235,7 @@ public class OtpService extends AbstractPwmService implements PwmService
                 final String hashedCode;
                 if ( settings.getOtpStorageFormat().supportsHashedRecoveryCodes() )
                 {
-                    hashedCode = doRecoveryHash( rawCode, recoveryInfo );
+                    hashedCode = doRecoveryHash( sessionLabel, rawCode, recoveryInfo );
                 }
                 else
                 {
@@ -264,10 +264,23 @@ public class OtpService extends AbstractPwmService implements PwmService
     }
 
     public String doRecoveryHash(
+            final SessionLabel sessionLabel,
             final String input,
             final OTPUserRecord.RecoveryInfo recoveryInfo
     )
             throws IllegalStateException, PwmUnrecoverableException
+    {
+        return pwmDomain.getPwmApplication().getSecureService().executeHashOperation(
+                sessionLabel,
+                "otpRecoveryCode",
+                () -> computeRecoveryHash( input, recoveryInfo ) );
+    }
+
+    private String computeRecoveryHash(
+            final String input,
+            final OTPUserRecord.RecoveryInfo recoveryInfo
+    )
+            throws IllegalStateException
     {
         final String algorithm = settings.getRecoveryHashMethod();
         final MessageDigest md;
@@ -21,7 +21,7 @@
 package password.pwm.svc.report;
 
 import password.pwm.PwmConstants;
-import password.pwm.util.java.StringUtil;
+import password.pwm.util.json.JsonArrayWriter;
 import password.pwm.util.json.JsonFactory;
 import password.pwm.util.json.JsonProvider;
 
@@ -29,14 +29,11 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.util.Optional;
 
 class ReportJsonRecordWriter implements ReportRecordWriter
 {
     private final Writer writer;
-    private final JsonProvider jsonFactory = JsonFactory.get();
-
-    private boolean firstRecordWritten = false;
+    private JsonArrayWriter<UserReportRecord> arrayWriter;
 
     ReportJsonRecordWriter( final OutputStream outputStream )
             throws IOException
@@ -53,39 +50,19 @@ class ReportJsonRecordWriter implements ReportRecordWriter
     @Override
     public void outputHeader() throws IOException
     {
-        writer.write( "[\n" );
+        arrayWriter = JsonFactory.get().newArrayWriter( writer, UserReportRecord.class, JsonProvider.Flag.PrettyPrint );
     }
 
     @Override
     public void outputRecord( final UserReportRecord userReportRecord ) throws IOException
     {
-        writer.write( ' ' );
-
-        if ( firstRecordWritten )
-        {
-            writer.write( ',' );
-        }
-
-        final String jsonString = jsonFactory.serialize( userReportRecord, UserReportRecord.class, JsonProvider.Flag.PrettyPrint );
-        final String indentedJson = " " + StringUtil.replaceAllChars( jsonString, character ->
-        {
-            if ( character.equals( '\n' ) )
-            {
-                return Optional.of( "\n  " );
-            }
-            return Optional.empty();
-        } );
-
-        writer.write( indentedJson );
-        writer.write( '\n' );
-
-        firstRecordWritten = true;
+        arrayWriter.write( userReportRecord );
     }
 
     @Override
     public void outputFooter() throws IOException
     {
-        writer.write( ']' );
+        arrayWriter.close();
     }
 
     @Override
@@ -175,6 +175,14 @@ public abstract class AbstractSecureService extends AbstractPwmService implement
         return SecureEngine.encryptToString( value, securityKey, defaultBlockAlgorithm, SecureEngine.Flag.URL_SAFE );
     }
 
+    public byte[] encryptBytes( final byte[] value )
+            throws PwmUnrecoverableException
+    {
+        stats.increment( StatKey.encryptOperations );
+        stats.increment( StatKey.encryptBytes, value.length );
+        return SecureEngine.encryptBytes( value, pwmSecurityKey, defaultBlockAlgorithm );
+    }
+
     @Override
     public String encryptObjectToString( final Object object )
             throws PwmUnrecoverableException
@@ -216,6 +224,14 @@ public abstract class AbstractSecureService extends AbstractPwmService implement
         return SecureEngine.decryptStringValue( value, securityKey, defaultBlockAlgorithm, SecureEngine.Flag.URL_SAFE );
     }
 
+    public byte[] decryptBytes( final byte[] value )
+            throws PwmUnrecoverableException
+    {
+        stats.increment( StatKey.decryptOperations );
+        stats.increment( StatKey.decryptBytes, value.length );
+        return SecureEngine.decryptToBytes( value, pwmSecurityKey, defaultBlockAlgorithm );
+    }
+
     @Override
     public <T> T decryptObject( final String value, final Class<T> returnClass ) throws PwmUnrecoverableException
     {
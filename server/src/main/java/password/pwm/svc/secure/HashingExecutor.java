@@ -0,0 +1,223 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.secure;
+
+import password.pwm.bean.SessionLabel;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.logging.PwmLogManager;
+import password.pwm.util.logging.PwmLogger;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounded executor for CPU intensive iterated hash operations such as response and recovery code verification.
+ * The pool is sized to the available processors and has a bounded queue, so a surge of hashing requests consumes
+ * a predictable amount of CPU instead of occupying every servlet thread.  Requests are rejected immediately when
+ * the queue is full, and abandoned if they are not complete within the maximum wait time.
+ *
+ * <p>Operations invoked from a hashing thread, or after the executor is closed, run on the calling thread.</p>
+ */
+public class HashingExecutor
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( HashingExecutor.class );
+
+    private static final ThreadLocal<Boolean> HASHING_THREAD = ThreadLocal.withInitial( () -> Boolean.FALSE );
+
+    private final ThreadPoolExecutor executor;
+    private final TimeDuration maxWait;
+    private final MetricsRecorder metricsRecorder;
+    private final StatisticCounterBundle<StatKey> stats = new StatisticCounterBundle<>( StatKey.class );
+
+    enum StatKey
+    {
+        hashingOperations,
+        hashingInlineOperations,
+        hashingRejected,
+        hashingTimeouts,
+    }
+
+    /**
+     * A hash computation.  The checked exception type of the operation is propagated to the caller unchanged.
+     * @param <T> result type
+     * @param <E> exception type thrown by the operation
+     */
+    public interface HashOperation<T, E extends Exception>
+    {
+        T call() throws E;
+    }
+
+    interface MetricsRecorder
+    {
+        void record( String operationName, TimeDuration queueWait, TimeDuration computeTime, boolean success );
+    }
+
+    HashingExecutor(
+            final int maxThreads,
+            final int maxQueueSize,
+            final TimeDuration maxWait,
+            final ThreadFactory threadFactory,
+            final MetricsRecorder metricsRecorder
+    )
+    {
+        this.maxWait = maxWait;
+        this.metricsRecorder = metricsRecorder;
+        this.executor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>( maxQueueSize ),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy() );
+        this.executor.allowCoreThreadTimeOut( true );
+    }
+
+    static int defaultThreadCount()
+    {
+        return Math.max( 1, Runtime.getRuntime().availableProcessors() );
+    }
+
+    <T, E extends Exception> T execute(
+            final SessionLabel sessionLabel,
+            final String operationName,
+            final HashOperation<T, E> operation
+    )
+            throws E, PwmUnrecoverableException
+    {
+        if ( HASHING_THREAD.get() || executor.isShutdown() )
+        {
+            stats.increment( StatKey.hashingInlineOperations );
+            return timedCall( operationName, TimeDuration.ZERO, operation );
+        }
+
+        final Instant submitTime = Instant.now();
+        final Future<T> future;
+        try
+        {
+            future = executor.submit( () -> PwmLogManager.executeWithThreadSessionData( sessionLabel, () ->
+            {
+                HASHING_THREAD.set( Boolean.TRUE );
+                try
+                {
+                    return timedCall( operationName, TimeDuration.fromCurrent( submitTime ), operation );
+                }
+                finally
+                {
+                    HASHING_THREAD.remove();
+                }
+            } ) );
+        }
+        catch ( final RejectedExecutionException e )
+        {
+            stats.increment( StatKey.hashingRejected );
+            final String msg = "hashing executor queue is full, rejecting " + operationName + " operation";
+            LOGGER.warn( sessionLabel, () -> msg );
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_SERVICE_NOT_AVAILABLE, msg );
+        }
+
+        try
+        {
+            return future.get( maxWait.asMillis(), TimeUnit.MILLISECONDS );
+        }
+        catch ( final TimeoutException e )
+        {
+            future.cancel( true );
+            stats.increment( StatKey.hashingTimeouts );
+            final String msg = operationName + " hashing operation did not complete within " + maxWait.asCompactString();
+            LOGGER.warn( sessionLabel, () -> msg );
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_TIMEOUT, msg );
+        }
+        catch ( final InterruptedException e )
+        {
+            future.cancel( true );
+            Thread.currentThread().interrupt();
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_INTERNAL, "interrupted waiting for " + operationName + " hashing operation" );
+        }
+        catch ( final ExecutionException e )
+        {
+            throw HashingExecutor.<E>rethrow( e.getCause() );
+        }
+    }
+
+    private <T, E extends Exception> T timedCall(
+            final String operationName,
+            final TimeDuration queueWait,
+            final HashOperation<T, E> operation
+    )
+            throws E
+    {
+        stats.increment( StatKey.hashingOperations );
+        final Instant startTime = Instant.now();
+        boolean success = false;
+        try
+        {
+            final T result = operation.call();
+            success = true;
+            return result;
+        }
+        finally
+        {
+            metricsRecorder.record( operationName, queueWait, TimeDuration.fromCurrent( startTime ), success );
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static <E extends Exception> E rethrow( final Throwable throwable )
+            throws E
+    {
+        if ( throwable instanceof RuntimeException )
+        {
+            throw ( RuntimeException ) throwable;
+        }
+        if ( throwable instanceof Error )
+        {
+            throw ( Error ) throwable;
+        }
+        throw ( E ) throwable;
+    }
+
+    int queueSize()
+    {
+        return executor.getQueue().size();
+    }
+
+    Map<String, String> debugStats( final Locale locale )
+    {
+        return stats.debugStats( locale );
+    }
+
+    void close()
+    {
+        executor.shutdownNow();
+    }
+}
@@ -20,17 +20,98 @@
 
 package password.pwm.svc.secure;
 
+import password.pwm.AppProperty;
 import password.pwm.PwmApplication;
+import password.pwm.PwmConstants;
 import password.pwm.bean.DomainID;
+import password.pwm.bean.SessionLabel;
 import password.pwm.config.AppConfig;
 import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.svc.stats.MetricType;
+import password.pwm.svc.stats.MetricsClient;
+import password.pwm.util.PwmScheduler;
+import password.pwm.util.java.CollectionUtil;
+import password.pwm.util.java.TimeDuration;
+
+import java.util.List;
+import java.util.Map;
 
 public class SystemSecureService extends AbstractSecureService
 {
+    private HashingExecutor hashingExecutor;
+
     @Override
     public void preAbstractSecureInit( final PwmApplication pwmApplication, final DomainID domainID ) throws PwmException
     {
         final AppConfig config = pwmApplication.getConfig();
         this.pwmSecurityKey = config.getSecurityKey();
+
+        final int configuredThreads = Integer.parseInt( config.readAppProperty( AppProperty.SECURITY_HASHING_MAX_THREADS ) );
+        final int maxThreads = configuredThreads > 0 ? configuredThreads : HashingExecutor.defaultThreadCount();
+        final int maxQueueSize = Integer.parseInt( config.readAppProperty( AppProperty.SECURITY_HASHING_MAX_QUEUE_SIZE ) );
+        final TimeDuration maxWait = config.readDurationAppProperty( AppProperty.SECURITY_HASHING_MAX_WAIT_MS );
+
+        this.hashingExecutor = new HashingExecutor(
+                maxThreads,
+                maxQueueSize,
+                maxWait,
+                PwmScheduler.makePwmThreadFactory( PwmScheduler.makeThreadName( getSessionLabel(), pwmApplication, HashingExecutor.class ) + "-" ),
+                ( operationName, queueWait, computeTime, success ) ->
+                {
+                    MetricsClient.record( pwmApplication, MetricType.HASH_QUEUE, operationName, queueWait, true );
+                    MetricsClient.record( pwmApplication, MetricType.HASH, operationName, computeTime, success );
+                } );
+    }
+
+    /**
+     * Execute a CPU intensive hash operation using the bounded hashing executor.
+     * @param sessionLabel session label of the requesting user, used for logging
+     * @param operationName name of the operation, used for metrics
+     * @param operation the hash computation
+     * @param <T> result type
+     * @param <E> checked exception thrown by the operation
+     * @return the result of the operation
+     * @throws E if thrown by the operation
+     * @throws PwmUnrecoverableException if the executor is saturated or the operation times out
+     */
+    public <T, E extends Exception> T executeHashOperation(
+            final SessionLabel sessionLabel,
+            final String operationName,
+            final HashingExecutor.HashOperation<T, E> operation
+    )
+            throws E, PwmUnrecoverableException
+    {
+        if ( hashingExecutor == null )
+        {
+            return operation.call();
+        }
+        return hashingExecutor.execute( sessionLabel, operationName, operation );
+    }
+
+    @Override
+    public void shutdownImpl()
+    {
+        if ( hashingExecutor != null )
+        {
+            hashingExecutor.close();
+        }
+    }
+
+    @Override
+    public ServiceInfoBean serviceInfo()
+    {
+        final ServiceInfoBean serviceInfoBean = super.serviceInfo();
+        if ( hashingExecutor == null )
+        {
+            return serviceInfoBean;
+        }
+
+        return ServiceInfoBean.builder()
+                .debugProperties( CollectionUtil.combineOrderedMaps( List.of(
+                        serviceInfoBean.getDebugProperties(),
+                        hashingExecutor.debugStats( PwmConstants.DEFAULT_LOCALE ),
+                        Map.of( "hashingQueueSize", Integer.toString( hashingExecutor.queueSize() ) ) ) ) )
+                .build();
     }
 }
@@ -27,6 +27,10 @@ import password.pwm.util.java.TimeDuration;
 
 import java.util.Locale;
 
+/**
+ * Stored {@link StatisticsBundle} values are encoded in ordinal order, so new constants may only be appended
+ * at the end of this enum.  Reordering or removing constants would misread previously stored average statistics.
+ */
 public enum AvgStatistic
 {
     AVG_PASSWORD_SYNC_TIME( "AvgPasswordSyncTime", "ms" ),
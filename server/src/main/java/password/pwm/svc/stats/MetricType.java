@@ -0,0 +1,61 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.stats;
+
+/**
+ * Categories of operations timed by {@link MetricsService}.  Each type is exported as an OpenMetrics histogram
+ * family with a single label identifying the servlet, endpoint or operation.
+ */
+public enum MetricType
+{
+    SERVLET( "pwm_servlet_request", "servlet", "servlet request processing time" ),
+    REST( "pwm_rest_request", "endpoint", "rest web service request processing time" ),
+    LDAP( "pwm_ldap_operation", "operation", "ldap operation time" ),
+    DB( "pwm_db_operation", "operation", "remote database operation time" ),
+    HASH( "pwm_hash_operation", "operation", "hashing operation compute time" ),
+    HASH_QUEUE( "pwm_hash_queue", "operation", "hashing operation queue wait time" ),;
+
+    private final String metricName;
+    private final String labelName;
+    private final String description;
+
+    MetricType( final String metricName, final String labelName, final String description )
+    {
+        this.metricName = metricName;
+        this.labelName = labelName;
+        this.description = description;
+    }
+
+    public String getMetricName()
+    {
+        return metricName;
+    }
+
+    public String getLabelName()
+    {
+        return labelName;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+}
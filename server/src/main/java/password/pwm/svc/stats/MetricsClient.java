@@ -0,0 +1,59 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.stats;
+
+import password.pwm.PwmApplication;
+import password.pwm.svc.PwmService;
+import password.pwm.util.java.TimeDuration;
+
+import java.time.Instant;
+
+public class MetricsClient
+{
+    public static void record(
+            final PwmApplication pwmApplication,
+            final MetricType type,
+            final String name,
+            final Instant startTime,
+            final boolean success
+    )
+    {
+        record( pwmApplication, type, name, TimeDuration.fromCurrent( startTime ), success );
+    }
+
+    public static void record(
+            final PwmApplication pwmApplication,
+            final MetricType type,
+            final String name,
+            final TimeDuration duration,
+            final boolean success
+    )
+    {
+        if ( pwmApplication != null )
+        {
+            final MetricsService metricsService = pwmApplication.getMetricsService();
+            if ( metricsService != null && metricsService.status() == PwmService.STATUS.OPEN )
+            {
+                metricsService.record( type, name, duration, success );
+            }
+        }
+    }
+}
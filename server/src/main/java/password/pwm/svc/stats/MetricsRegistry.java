@@ -0,0 +1,187 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.stats;
+
+import lombok.Value;
+import password.pwm.util.LatencyHistogram;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Latency histograms and error counters keyed by {@link MetricType} and name.  The number of distinct series is
+ * bounded; once the limit is reached, samples for new names are dropped rather than growing the registry.
+ */
+class MetricsRegistry
+{
+    /**
+     * Histogram bucket boundaries, in milliseconds, written to the OpenMetrics output.  Bucket counts are derived
+     * from {@link LatencyHistogram#countAtOrBelow(long)} so they may undercount by the histogram's bucket resolution.
+     */
+    static final long[] BUCKET_BOUNDARIES_MS = {
+            1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000,
+    };
+
+    private static final Comparator<MetricKey> KEY_ORDER = Comparator.comparing( MetricKey::getType )
+            .thenComparing( MetricKey::getName );
+
+    private final Map<MetricKey, Metric> metrics = new ConcurrentHashMap<>();
+    private final LongAdder droppedSamples = new LongAdder();
+    private final int maxSeries;
+
+    MetricsRegistry( final int maxSeries )
+    {
+        this.maxSeries = maxSeries;
+    }
+
+    @Value
+    private static class MetricKey
+    {
+        private final MetricType type;
+        private final String name;
+    }
+
+    private static class Metric
+    {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    void record( final MetricType type, final String name, final long durationMs, final boolean success )
+    {
+        final MetricKey key = new MetricKey( type, name );
+        Metric metric = metrics.get( key );
+        if ( metric == null )
+        {
+            if ( metrics.size() >= maxSeries )
+            {
+                droppedSamples.increment();
+                return;
+            }
+            metric = metrics.computeIfAbsent( key, k -> new Metric() );
+        }
+
+        metric.histogram.record( durationMs );
+        if ( !success )
+        {
+            metric.errors.increment();
+        }
+    }
+
+    int seriesCount()
+    {
+        return metrics.size();
+    }
+
+    long droppedSamples()
+    {
+        return droppedSamples.sum();
+    }
+
+    /**
+     * Write all metrics using the OpenMetrics text exposition format.  Durations are exported in seconds.
+     * @return metrics text, terminated by the required {@code # EOF} line.
+     */
+    String toOpenMetrics()
+    {
+        final Map<MetricType, List<MetricKey>> keysByType = metrics.keySet().stream()
+                .sorted( KEY_ORDER )
+                .collect( Collectors.groupingBy( MetricKey::getType, Collectors.toList() ) );
+
+        final StringBuilder output = new StringBuilder();
+        for ( final MetricType type : MetricType.values() )
+        {
+            final List<MetricKey> keys = keysByType.get( type );
+            if ( keys != null )
+            {
+                writeHistogramFamily( output, type, keys );
+                writeErrorFamily( output, type, keys );
+            }
+        }
+        output.append( "# EOF\n" );
+        return output.toString();
+    }
+
+    private void writeHistogramFamily( final StringBuilder output, final MetricType type, final List<MetricKey> keys )
+    {
+        final String familyName = type.getMetricName() + "_duration_seconds";
+        output.append( "# TYPE " ).append( familyName ).append( " histogram\n" );
+        output.append( "# UNIT " ).append( familyName ).append( " seconds\n" );
+        output.append( "# HELP " ).append( familyName ).append( ' ' ).append( type.getDescription() ).append( '\n' );
+
+        for ( final MetricKey key : keys )
+        {
+            final LatencyHistogram histogram = metrics.get( key ).histogram;
+            final String label = type.getLabelName() + "=\"" + escapeLabelValue( key.getName() ) + "\"";
+
+            // bucket counts are read before the total so the cumulative counts never exceed the total
+            final long[] bucketCounts = new long[BUCKET_BOUNDARIES_MS.length];
+            for ( int i = 0; i < BUCKET_BOUNDARIES_MS.length; i++ )
+            {
+                bucketCounts[i] = histogram.countAtOrBelow( BUCKET_BOUNDARIES_MS[i] );
+            }
+            final long count = histogram.count();
+            final long sum = histogram.sum();
+
+            for ( int i = 0; i < BUCKET_BOUNDARIES_MS.length; i++ )
+            {
+                output.append( familyName ).append( "_bucket{" ).append( label )
+                        .append( ",le=\"" ).append( millisToSeconds( BUCKET_BOUNDARIES_MS[i] ) ).append( "\"} " )
+                        .append( Math.min( bucketCounts[i], count ) ).append( '\n' );
+            }
+            output.append( familyName ).append( "_bucket{" ).append( label ).append( ",le=\"+Inf\"} " ).append( count ).append( '\n' );
+            output.append( familyName ).append( "_count{" ).append( label ).append( "} " ).append( count ).append( '\n' );
+            output.append( familyName ).append( "_sum{" ).append( label ).append( "} " ).append( millisToSeconds( sum ) ).append( '\n' );
+        }
+    }
+
+    private void writeErrorFamily( final StringBuilder output, final MetricType type, final List<MetricKey> keys )
+    {
+        final String familyName = type.getMetricName() + "_errors";
+        output.append( "# TYPE " ).append( familyName ).append( " counter\n" );
+        output.append( "# HELP " ).append( familyName ).append( ' ' ).append( type.getDescription() ).append( " failure count\n" );
+
+        for ( final MetricKey key : keys )
+        {
+            final String label = type.getLabelName() + "=\"" + escapeLabelValue( key.getName() ) + "\"";
+            output.append( familyName ).append( "_total{" ).append( label ).append( "} " )
+                    .append( metrics.get( key ).errors.sum() ).append( '\n' );
+        }
+    }
+
+    static String millisToSeconds( final long millis )
+    {
+        return BigDecimal.valueOf( millis ).movePointLeft( 3 ).stripTrailingZeros().toPlainString();
+    }
+
+    static String escapeLabelValue( final String value )
+    {
+        return value
+                .replace( "\\", "\\\\" )
+                .replace( "\"", "\\\"" )
+                .replace( "\n", "\\n" );
+    }
+}
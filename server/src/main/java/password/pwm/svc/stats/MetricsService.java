@@ -0,0 +1,96 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.stats;
+
+import password.pwm.AppProperty;
+import password.pwm.PwmApplication;
+import password.pwm.bean.DomainID;
+import password.pwm.error.PwmException;
+import password.pwm.health.HealthRecord;
+import password.pwm.svc.AbstractPwmService;
+import password.pwm.svc.PwmService;
+import password.pwm.util.java.TimeDuration;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Holds per-servlet, per-rest endpoint, ldap and database operation latency histograms.  Metrics are kept in memory
+ * only and are exposed in OpenMetrics text format by {@link password.pwm.ws.server.rest.RestMetricsServer}.
+ * Callers should generally use {@link MetricsClient} rather than this service directly.
+ */
+public class MetricsService extends AbstractPwmService implements PwmService
+{
+    private MetricsRegistry registry;
+
+    @Override
+    protected STATUS postAbstractInit( final PwmApplication pwmApplication, final DomainID domainID )
+            throws PwmException
+    {
+        if ( !pwmApplication.getConfig().readBooleanAppProperty( AppProperty.METRICS_ENABLE ) )
+        {
+            return STATUS.CLOSED;
+        }
+
+        registry = new MetricsRegistry( Integer.parseInt( pwmApplication.getConfig().readAppProperty( AppProperty.METRICS_MAX_SERIES ) ) );
+        return STATUS.OPEN;
+    }
+
+    @Override
+    protected void shutdownImpl()
+    {
+    }
+
+    @Override
+    protected List<HealthRecord> serviceHealthCheck()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ServiceInfoBean serviceInfo()
+    {
+        final ServiceInfoBean.ServiceInfoBeanBuilder builder = ServiceInfoBean.builder();
+        if ( registry != null )
+        {
+            builder.debugProperty( "seriesCount", String.valueOf( registry.seriesCount() ) );
+            builder.debugProperty( "droppedSamples", String.valueOf( registry.droppedSamples() ) );
+        }
+        return builder.build();
+    }
+
+    public void record( final MetricType type, final String name, final TimeDuration duration, final boolean success )
+    {
+        if ( status() == STATUS.OPEN )
+        {
+            registry.record( type, name, duration.asMillis(), success );
+        }
+    }
+
+    public String toOpenMetricsText()
+    {
+        if ( status() != STATUS.OPEN )
+        {
+            return "# EOF\n";
+        }
+        return registry.toOpenMetrics();
+    }
+}
@@ -38,6 +38,10 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+/**
+ * Stored {@link StatisticsBundle} values are encoded in ordinal order, so new constants may only be appended
+ * at the end of this enum.  Reordering or removing constants would misread previously stored statistics.
+ */
 public enum Statistic
 {
     AUDIT_EVENTS( "AuditEvents", null ),
@@ -117,7 +121,9 @@ public enum Statistic
     INTRUDER_ATTEMPTS( "IntruderAttempts", null ),
     FOREIGN_SESSIONS_ACCEPTED( "ForeignSessionsAccepted", null ),
     OBSOLETE_URL_REQUESTS( "ObsoleteUrlRequests", null ),
-    SYSLOG_MESSAGES_SENT( "SyslogMessagesSent", null ),;
+    SYSLOG_MESSAGES_SENT( "SyslogMessagesSent", null ),
+    REST_AUTH_CACHE_HITS( "RestAuthCacheHits", null ),
+    REST_AUTH_CACHE_MISSES( "RestAuthCacheMisses", null ),;
 
     private static final Set<Statistic> STATISTICS_SET = Collections.unmodifiableSet( EnumSet.allOf( Statistic.class ) );
 
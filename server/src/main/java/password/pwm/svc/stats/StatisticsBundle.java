@@ -26,18 +26,36 @@ import password.pwm.util.java.StringUtil;
 import password.pwm.util.json.JsonFactory;
 import password.pwm.util.logging.PwmLogger;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.EnumMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.LongAccumulator;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Counters and averages for a statistics period.  Stored bundles use a fixed binary layout indexed by the
+ * {@link Statistic} and {@link AvgStatistic} ordinals, so enum values must only ever be appended.  The layout is:
+ *
+ * <pre>
+ * byte   format version
+ * short  statistic count (s)
+ * short  average statistic count (a)
+ * long   statistic value, repeated s times
+ * long   average total, long average count, repeated a times
+ * </pre>
+ *
+ * <p>Bundles stored by older versions as json are still readable.</p>
+ */
 public class StatisticsBundle
 {
     private static final PwmLogger LOGGER = PwmLogger.forClass( StatisticsBundle.class );
 
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = Byte.BYTES + Short.BYTES + Short.BYTES;
+
     private final Map<Statistic, LongAccumulator> incrementerMap = new EnumMap<>( Statistic.class );
     private final Map<AvgStatistic, AverageBean> avgMap = new EnumMap<>( AvgStatistic.class );
 
@@ -55,29 +73,84 @@ public class StatisticsBundle
 
     public String output( )
     {
-        final Map<String, String> outputMap = new LinkedHashMap<>();
+        final Statistic[] statistics = Statistic.values();
+        final AvgStatistic[] avgStatistics = AvgStatistic.values();
+        final ByteBuffer byteBuffer = ByteBuffer.allocate( HEADER_LENGTH
+                + ( statistics.length * Long.BYTES )
+                + ( avgStatistics.length * Long.BYTES * 2 ) );
 
-        for ( final Statistic statistic : Statistic.values() )
+        byteBuffer.put( FORMAT_VERSION );
+        byteBuffer.putShort( ( short ) statistics.length );
+        byteBuffer.putShort( ( short ) avgStatistics.length );
+
+        for ( final Statistic statistic : statistics )
         {
-            final long currentValue = incrementerMap.get( statistic ).longValue();
-            if ( currentValue > 0 )
-            {
-                outputMap.put( statistic.name(), Long.toString( currentValue ) );
-            }
+            byteBuffer.putLong( incrementerMap.get( statistic ).longValue() );
+        }
+        for ( final AvgStatistic avgStatistic : avgStatistics )
+        {
+            final AverageBean averageBean = avgMap.get( avgStatistic );
+            byteBuffer.putLong( averageBean.total.sum() );
+            byteBuffer.putLong( averageBean.count.sum() );
+        }
+
+        return StringUtil.base64Encode( byteBuffer.array() );
+    }
+
+    public static StatisticsBundle input( final String inputString )
+    {
+        if ( StringUtil.isEmpty( inputString ) )
+        {
+            return new StatisticsBundle();
+        }
+
+        if ( inputString.trim().startsWith( "{" ) )
+        {
+            return inputLegacyJson( inputString );
         }
-        for ( final AvgStatistic epsStatistic : AvgStatistic.values() )
+
+        final StatisticsBundle bundle = new StatisticsBundle();
+        try
         {
-            final AverageBean averageBean = avgMap.get( epsStatistic );
-            if ( !averageBean.isZero() )
+            final ByteBuffer byteBuffer = ByteBuffer.wrap( StringUtil.base64Decode( inputString ) );
+            final byte version = byteBuffer.get();
+            if ( version != FORMAT_VERSION )
+            {
+                throw new IOException( "unknown format version " + version );
+            }
+
+            final int statCount = byteBuffer.getShort();
+            final int avgCount = byteBuffer.getShort();
+            final Statistic[] statistics = Statistic.values();
+            final AvgStatistic[] avgStatistics = AvgStatistic.values();
+
+            for ( int i = 0; i < statCount; i++ )
+            {
+                final long value = byteBuffer.getLong();
+                if ( i < statistics.length )
+                {
+                    bundle.incrementerMap.get( statistics[i] ).accumulate( value );
+                }
+            }
+            for ( int i = 0; i < avgCount; i++ )
             {
-                outputMap.put( epsStatistic.name(), JsonFactory.get().serialize( averageBean ) );
+                final long total = byteBuffer.getLong();
+                final long count = byteBuffer.getLong();
+                if ( i < avgStatistics.length )
+                {
+                    bundle.avgMap.get( avgStatistics[i] ).add( total, count );
+                }
             }
         }
+        catch ( final IOException | IllegalArgumentException | BufferUnderflowException e )
+        {
+            LOGGER.error( SessionLabel.SYSTEM_LABEL, () -> "error reading stored stat bundle: " + e.getMessage() );
+        }
 
-        return JsonFactory.get().serializeMap( outputMap );
+        return bundle;
     }
 
-    public static StatisticsBundle input( final String inputString )
+    private static StatisticsBundle inputLegacyJson( final String inputString )
     {
         final Map<String, String> loadedMap = JsonFactory.get().deserializeStringMap( inputString );
         final StatisticsBundle bundle = new StatisticsBundle();
@@ -87,10 +160,7 @@ public class StatisticsBundle
             final String value = loadedMap.get( loopStat.name() );
             if ( StringUtil.notEmpty( value ) )
             {
-                final long longValue = JavaHelper.silentParseLong( value, 0 );
-                final LongAccumulator longAdder = JavaHelper.newAbsLongAccumulator();
-                longAdder.accumulate( longValue );
-                bundle.incrementerMap.put( loopStat, longAdder );
+                bundle.incrementerMap.get( loopStat ).accumulate( JavaHelper.silentParseLong( value, 0 ) );
             }
         }
 
@@ -101,8 +171,8 @@ public class StatisticsBundle
             {
                 try
                 {
-                    final AverageBean avgBean = JsonFactory.get().deserialize( value, AverageBean.class );
-                    bundle.avgMap.put( loopStat, avgBean );
+                    final LegacyAverageBean legacyBean = JsonFactory.get().deserialize( value, LegacyAverageBean.class );
+                    bundle.avgMap.get( loopStat ).add( legacyBean.total.longValue(), legacyBean.count.longValue() );
                 }
                 catch ( final Exception e )
                 {
@@ -123,7 +193,23 @@ public class StatisticsBundle
 
     void updateAverageValue( final AvgStatistic statistic, final long timeDuration )
     {
-        avgMap.get( statistic ).appendValue( timeDuration );
+        avgMap.get( statistic ).add( timeDuration, 1 );
+    }
+
+    /**
+     * Add the values of another bundle to this bundle, used to build rollups of daily bundles.
+     */
+    void addAll( final StatisticsBundle other )
+    {
+        for ( final Statistic statistic : Statistic.values() )
+        {
+            incrementerMap.get( statistic ).accumulate( other.incrementerMap.get( statistic ).longValue() );
+        }
+        for ( final AvgStatistic avgStatistic : AvgStatistic.values() )
+        {
+            final AverageBean otherBean = other.avgMap.get( avgStatistic );
+            avgMap.get( avgStatistic ).add( otherBean.total.sum(), otherBean.count.sum() );
+        }
     }
 
     public String getStatistic( final Statistic statistic )
@@ -133,63 +219,34 @@ public class StatisticsBundle
 
     public String getAvgStatistic( final AvgStatistic statistic )
     {
-        return avgMap.get( statistic ).getAverage().toString();
+        return Long.toString( avgMap.get( statistic ).getAverage() );
     }
 
+    /**
+     * Lock-free running average.  Readers may observe a total and count from slightly different moments,
+     * which is acceptable for statistics display.
+     */
     private static class AverageBean
     {
-        private BigInteger total = BigInteger.ZERO;
-        private BigInteger count = BigInteger.ZERO;
-
-        private final transient Lock lock = new ReentrantLock();
-
-        AverageBean( )
-        {
-        }
-
-        BigInteger getAverage( )
-        {
-            lock.lock();
-            try
-            {
-                if ( BigInteger.ZERO.equals( count ) )
-                {
-                    return BigInteger.ZERO;
-                }
-                return total.divide( count );
-            }
-            finally
-            {
-                lock.unlock();
-            }
-        }
+        private final LongAdder total = new LongAdder();
+        private final LongAdder count = new LongAdder();
 
-        void appendValue( final long value )
+        long getAverage( )
         {
-            lock.lock();
-            try
-            {
-                count = count.add( BigInteger.ONE );
-                total = total.add( BigInteger.valueOf( value ) );
-            }
-            finally
-            {
-                lock.unlock();
-            }
+            final long countValue = count.sum();
+            return countValue == 0 ? 0 : total.sum() / countValue;
         }
 
-        boolean isZero()
+        void add( final long totalValue, final long countValue )
         {
-            lock.lock();
-            try
-            {
-                return total.equals( BigInteger.ZERO );
-            }
-            finally
-            {
-                lock.unlock();
-            }
+            total.add( totalValue );
+            count.add( countValue );
         }
     }
 
+    private static class LegacyAverageBean
+    {
+        private BigInteger total = BigInteger.ZERO;
+        private BigInteger count = BigInteger.ZERO;
+    }
 }
@@ -192,11 +192,12 @@ public class StatisticsBundleKey implements Comparable<StatisticsBundleKey>
 
     public static StatisticsBundleKey forToday()
     {
-        final LocalDate localDate = LocalDate.now();
-        final int year = localDate.getYear();
-        final int day = localDate.getDayOfYear();
+        return forDate( LocalDate.now() );
+    }
 
-        return new StatisticsBundleKey( KeyType.DAILY, year, day );
+    public static StatisticsBundleKey forDate( final LocalDate localDate )
+    {
+        return new StatisticsBundleKey( KeyType.DAILY, localDate.getYear(), localDate.getDayOfYear() );
     }
 
     public StatisticsBundleKey previous( )
@@ -20,6 +20,9 @@
 
 package password.pwm.svc.stats;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import password.pwm.AppProperty;
 import password.pwm.PwmApplication;
 import password.pwm.PwmConstants;
 import password.pwm.bean.DomainID;
@@ -40,6 +43,8 @@ import password.pwm.util.logging.PwmLogger;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -48,6 +53,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class StatisticsService extends AbstractPwmService implements PwmService
@@ -61,8 +67,9 @@ public class StatisticsService extends AbstractPwmService implements PwmService
     private static final String DB_KEY_CUMULATIVE = "CUMULATIVE";
     private static final String DB_KEY_INITIAL_DAILY_KEY = "INITIAL_DAILY_KEY";
     private static final String DB_KEY_TEMP = "TEMP_KEY";
+    private static final String DB_KEY_PREFIX_MONTHLY = "MONTHLY_";
 
-    private static final String DB_VALUE_VERSION = "1";
+    private static final String DB_VALUE_VERSION = "2";
 
     private LocalDB localDB;
 
@@ -74,6 +81,17 @@ public class StatisticsService extends AbstractPwmService implements PwmService
     private StatisticsBundle statsDaily = new StatisticsBundle();
     private StatisticsBundle statsCumulative = new StatisticsBundle();
 
+    /**
+     * Decoded daily bundles for days before the current day.  These bundles are no longer modified, so
+     * cached values never become stale.  Past days without a stored bundle are cached as empty; days after
+     * the current day are never cached, since they may still be written once they become the current day.
+     */
+    private Cache<StatisticsBundleKey, Optional<StatisticsBundle>> dailyBundleCache = Caffeine.newBuilder().maximumSize( 0 ).build();
+
+    /**
+     * Rollups of completed months, also persisted to LocalDB so each month is only summed once.
+     */
+    private final Map<YearMonth, StatisticsBundle> monthlyBundleCache = new ConcurrentHashMap<>();
 
     public StatisticsService( )
     {
@@ -118,6 +136,87 @@ public class StatisticsService extends AbstractPwmService implements PwmService
         return returnMap;
     }
 
+    public Map<YearMonth, String> getMonthlyStatHistory( final Statistic statistic, final int months )
+    {
+        final Map<YearMonth, String> returnMap = new LinkedHashMap<>();
+        YearMonth loopMonth = YearMonth.from( currentDailyKey.localDate() );
+        for ( int counter = months; counter > 0; counter-- )
+        {
+            final YearMonth finalMonth = loopMonth;
+            getMonthlyStatBundle( loopMonth ).ifPresent( bundle -> returnMap.put( finalMonth, bundle.getStatistic( statistic ) ) );
+            loopMonth = loopMonth.minusMonths( 1 );
+        }
+        return returnMap;
+    }
+
+    /**
+     * Sum of the daily bundles of a month.  The current month is summed on each call (from cached daily bundles),
+     * completed months are read from their stored rollup.
+     */
+    public Optional<StatisticsBundle> getMonthlyStatBundle( final YearMonth month )
+    {
+        Objects.requireNonNull( month );
+
+        final YearMonth currentMonth = YearMonth.from( currentDailyKey.localDate() );
+        if ( month.isAfter( currentMonth ) || month.isBefore( YearMonth.from( initialDailyKey.localDate() ) ) )
+        {
+            return Optional.empty();
+        }
+
+        if ( month.equals( currentMonth ) )
+        {
+            return Optional.of( sumDailyBundles( month ) );
+        }
+
+        if ( localDB == null )
+        {
+            return Optional.empty();
+        }
+
+        return Optional.of( monthlyBundleCache.computeIfAbsent( month, this::readOrBuildMonthlyBundle ) );
+    }
+
+    private StatisticsBundle readOrBuildMonthlyBundle( final YearMonth month )
+    {
+        final String dbKey = DB_KEY_PREFIX_MONTHLY + month.getYear() + "_" + month.getMonthValue();
+        try
+        {
+            final Optional<String> storedValue = localDB.get( LocalDB.DB.PWM_STATS, dbKey );
+            if ( storedValue.isPresent() )
+            {
+                return StatisticsBundle.input( storedValue.get() );
+            }
+        }
+        catch ( final LocalDBException e )
+        {
+            LOGGER.error( () -> "error retrieving stored monthly stat for " + dbKey + ": " + e.getMessage() );
+        }
+
+        final StatisticsBundle monthlyBundle = sumDailyBundles( month );
+        try
+        {
+            localDB.put( LocalDB.DB.PWM_STATS, dbKey, monthlyBundle.output() );
+            LOGGER.debug( () -> "stored monthly statistics rollup for " + month );
+        }
+        catch ( final LocalDBException e )
+        {
+            LOGGER.error( () -> "error writing monthly stat for " + dbKey + ": " + e.getMessage() );
+        }
+        return monthlyBundle;
+    }
+
+    private StatisticsBundle sumDailyBundles( final YearMonth month )
+    {
+        final StatisticsBundle monthlyBundle = new StatisticsBundle();
+        final LocalDate currentDay = currentDailyKey.localDate();
+        final LocalDate lastDay = month.atEndOfMonth().isAfter( currentDay ) ? currentDay : month.atEndOfMonth();
+        for ( LocalDate loopDay = month.atDay( 1 ); !loopDay.isAfter( lastDay ); loopDay = loopDay.plusDays( 1 ) )
+        {
+            getStatBundleForKey( StatisticsBundleKey.forDate( loopDay ) ).ifPresent( monthlyBundle::addAll );
+        }
+        return monthlyBundle;
+    }
+
     public StatisticsBundle getCumulativeBundle()
     {
         return getStatBundleForKey( StatisticsBundleKey.CUMULATIVE ).orElseThrow();
@@ -147,11 +246,16 @@ public class StatisticsService extends AbstractPwmService implements PwmService
             return Optional.of( statsDaily );
         }
 
-        if ( localDB == null )
+        if ( localDB == null || key.compareTo( currentDailyKey ) > 0 )
         {
             return Optional.empty();
         }
 
+        return dailyBundleCache.get( key, this::readStoredBundle );
+    }
+
+    private Optional<StatisticsBundle> readStoredBundle( final StatisticsBundleKey key )
+    {
         try
         {
             final Optional<String> storedStat = localDB.get( LocalDB.DB.PWM_STATS, key.toString() );
@@ -204,14 +308,48 @@ public class StatisticsService extends AbstractPwmService implements PwmService
     public STATUS postAbstractInit( final PwmApplication pwmApplication, final DomainID domainID )
             throws PwmException
     {
-        this.localDB = pwmApplication.getLocalDB();
-
+        final LocalDB localDB = pwmApplication.getLocalDB();
         if ( localDB == null )
         {
             LOGGER.debug( () -> "LocalDB is not available, will remain closed" );
             return STATUS.CLOSED;
         }
 
+        final int cacheSize = Integer.parseInt( pwmApplication.getConfig().readAppProperty( AppProperty.STATISTICS_BUNDLE_CACHE_MAX_SIZE ) );
+        openLocalDB( localDB, cacheSize, StatisticsBundleKey.forToday() );
+
+        try
+        {
+            localDB.put( LocalDB.DB.PWM_STATS, DB_KEY_TEMP, StringUtil.toIsoDate( Instant.now() ) );
+        }
+        catch ( final IllegalStateException e )
+        {
+            LOGGER.error( () -> "unable to write to localDB, will remain closed, error: " + e.getMessage() );
+            return STATUS.CLOSED;
+        }
+
+        localDB.put( LocalDB.DB.PWM_STATS, DB_KEY_VERSION, DB_VALUE_VERSION );
+        localDB.put( LocalDB.DB.PWM_STATS, DB_KEY_INITIAL_DAILY_KEY, initialDailyKey.toString() );
+
+        {
+            // setup a timer to roll over at 0 Zulu and one to write current stats regularly
+            scheduleDailyZuluZeroStartJob( new DailySummaryJob( pwmApplication ), TimeDuration.ZERO );
+            scheduleFixedRateJob( new FlushTask(), DB_WRITE_FREQUENCY, DB_WRITE_FREQUENCY );
+            scheduleDailyZuluZeroStartJob( new NightlyTask(), TimeDuration.ZERO );
+        }
+
+        return STATUS.OPEN;
+    }
+
+    /**
+     * Load the stored cumulative, initial and current day values from LocalDB.
+     */
+    void openLocalDB( final LocalDB localDB, final int bundleCacheSize, final StatisticsBundleKey todayKey )
+            throws LocalDBException
+    {
+        this.localDB = localDB;
+        dailyBundleCache = Caffeine.newBuilder().maximumSize( bundleCacheSize ).build();
+
         {
             final Optional<String> storedCumulativeBundleSir = localDB.get( LocalDB.DB.PWM_STATS, DB_KEY_CUMULATIVE );
             if ( storedCumulativeBundleSir.isPresent() )
@@ -229,36 +367,14 @@ public class StatisticsService extends AbstractPwmService implements PwmService
 
         {
             final Optional<String> storedInitialString = localDB.get( LocalDB.DB.PWM_STATS, DB_KEY_INITIAL_DAILY_KEY );
-            storedInitialString.ifPresent( s -> initialDailyKey = StatisticsBundleKey.fromString( s ) );
+            initialDailyKey = storedInitialString.map( StatisticsBundleKey::fromString ).orElse( todayKey );
         }
 
         {
-            currentDailyKey = StatisticsBundleKey.forToday();
+            currentDailyKey = todayKey;
             final Optional<String> storedDailyStr = localDB.get( LocalDB.DB.PWM_STATS, currentDailyKey.toString() );
             storedDailyStr.ifPresent( s -> statsDaily = StatisticsBundle.input( s ) );
         }
-
-        try
-        {
-            localDB.put( LocalDB.DB.PWM_STATS, DB_KEY_TEMP, StringUtil.toIsoDate( Instant.now() ) );
-        }
-        catch ( final IllegalStateException e )
-        {
-            LOGGER.error( () -> "unable to write to localDB, will remain closed, error: " + e.getMessage() );
-            return STATUS.CLOSED;
-        }
-
-        localDB.put( LocalDB.DB.PWM_STATS, DB_KEY_VERSION, DB_VALUE_VERSION );
-        localDB.put( LocalDB.DB.PWM_STATS, DB_KEY_INITIAL_DAILY_KEY, initialDailyKey.toString() );
-
-        {
-            // setup a timer to roll over at 0 Zulu and one to write current stats regularly
-            scheduleDailyZuluZeroStartJob( new DailySummaryJob( pwmApplication ), TimeDuration.ZERO );
-            scheduleFixedRateJob( new FlushTask(), DB_WRITE_FREQUENCY, DB_WRITE_FREQUENCY );
-            scheduleDailyZuluZeroStartJob( new NightlyTask(), TimeDuration.ZERO );
-        }
-
-        return STATUS.OPEN;
     }
 
     private void writeDbValues( )
@@ -287,11 +403,18 @@ public class StatisticsService extends AbstractPwmService implements PwmService
                         statistic -> statsDaily.getStatistic( statistic ) ) );
     }
 
-    private void resetDailyStats( )
+    void resetDailyStats( final StatisticsBundleKey newDailyKey )
     {
-        currentDailyKey = StatisticsBundleKey.forToday();
+        final YearMonth previousMonth = YearMonth.from( currentDailyKey.localDate() );
+        currentDailyKey = newDailyKey;
         statsDaily = new StatisticsBundle();
         LOGGER.debug( () -> "reset daily statistics" );
+
+        if ( !previousMonth.equals( YearMonth.from( currentDailyKey.localDate() ) ) )
+        {
+            // build the rollup for the completed month now rather than on the next dashboard view
+            getMonthlyStatBundle( previousMonth );
+        }
     }
 
     @Override
@@ -321,7 +444,7 @@ public class StatisticsService extends AbstractPwmService implements PwmService
         public void run( )
         {
             writeDbValues();
-            resetDailyStats();
+            resetDailyStats( StatisticsBundleKey.forToday() );
         }
     }
 
@@ -352,9 +475,17 @@ public class StatisticsService extends AbstractPwmService implements PwmService
     @Override
     public ServiceInfoBean serviceInfo( )
     {
-        return status() == STATUS.OPEN
-                ? ServiceInfoBean.builder().storageMethod( DataStorageMethod.LOCALDB ).build()
-                : ServiceInfoBean.builder().build();
+        if ( status() != STATUS.OPEN )
+        {
+            return ServiceInfoBean.builder().build();
+        }
+
+        return ServiceInfoBean.builder()
+                .storageMethod( DataStorageMethod.LOCALDB )
+                .debugProperties( Map.of(
+                        "cachedDailyBundles", Long.toString( dailyBundleCache.estimatedSize() ),
+                        "cachedMonthlyBundles", Integer.toString( monthlyBundleCache.size() ) ) )
+                .build();
     }
 
 }
@@ -36,24 +36,40 @@ import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Stores encrypted tokens in a {@link DataStore}.  A second data store holds an expiry index, keyed by the
+ * expiration time bucket followed by the stored token hash, so expired tokens can be purged without reading
+ * and decrypting every stored token.  Tokens are only decrypted when they are retrieved for redemption.
+ */
 public class DataStoreTokenMachine implements TokenMachine
 {
     private static final PwmLogger LOGGER = PwmLogger.forClass( DataStoreTokenMachine.class );
+
+    static final TimeDuration EXPIRY_BUCKET_DURATION = TimeDuration.MINUTE;
+
+    private static final char INDEX_KEY_SEPARATOR = '_';
+    private static final String INDEX_VERSION_KEY = "!indexVersion";
+    private static final String INDEX_VERSION = "1";
+
     private final TokenService tokenService;
 
     private final DataStore dataStore;
 
+    private final DataStore expiryIndex;
+
     private final PwmDomain pwmDomain;
 
     DataStoreTokenMachine(
             final PwmDomain pwmDomain,
             final TokenService tokenService,
-            final DataStore dataStore
+            final DataStore dataStore,
+            final DataStore expiryIndex
     )
     {
         this.pwmDomain = pwmDomain;
         this.tokenService = tokenService;
         this.dataStore = dataStore;
+        this.expiryIndex = expiryIndex;
     }
 
     @Override
@@ -87,15 +103,16 @@ public class DataStoreTokenMachine implements TokenMachine
             final long finalSize = size();
             LOGGER.trace( () -> "beginning purge cycle; database size = " + finalSize );
         }
-        try ( ClosableIterator<Map.Entry<String, String>> keyIterator = dataStore.iterator() )
+
+        try
         {
-            while ( tokenService.status() == PwmService.STATUS.OPEN && keyIterator.hasNext() )
+            if ( !INDEX_VERSION.equals( expiryIndex.get( INDEX_VERSION_KEY ).orElse( null ) ) )
             {
-                final String storedHash = keyIterator.next().getKey();
-                final TokenKey loopKey = keyFromStoredHash( storedHash );
-
-                // retrieving token tests validity and causes purging
-                retrieveToken( null, loopKey );
+                purgeAndIndexUnindexedTokens();
+            }
+            else
+            {
+                purgeExpiredIndexEntries();
             }
         }
         catch ( final Exception e )
@@ -110,6 +127,117 @@ public class DataStoreTokenMachine implements TokenMachine
                         + finalSize, TimeDuration.fromCurrent( startTime ) );
     }
 
+    /**
+     * Remove the tokens referenced by expired expiry index entries.  Only the index keys are examined, stored
+     * tokens are not read.  Index entries left behind by stored tokens that could not be decrypted when removed
+     * are discarded as well.
+     * When the index iterates in key order, the expired entries are a leading range of the index and the purge
+     * stops at the first entry that has not yet expired.
+     */
+    private void purgeExpiredIndexEntries( )
+            throws PwmUnrecoverableException, PwmOperationalException
+    {
+        final Instant now = Instant.now();
+        final boolean sortedIndex = expiryIndex.isSortedIteration();
+        try ( ClosableIterator<Map.Entry<String, String>> indexIterator = expiryIndex.iterator() )
+        {
+            while ( tokenService.status() == PwmService.STATUS.OPEN && indexIterator.hasNext() )
+            {
+                final String indexKey = indexIterator.next().getKey();
+                if ( !isBucketKey( indexKey ) )
+                {
+                    continue;
+                }
+
+                final Optional<String> storedHash = expiredStoredHash( indexKey, now );
+                if ( storedHash.isPresent() )
+                {
+                    if ( dataStore.contains( storedHash.get() ) )
+                    {
+                        tokenService.getStats().increment( TokenService.StatsKey.tokensRemoved );
+                        dataStore.remove( storedHash.get() );
+                    }
+                    expiryIndex.remove( indexKey );
+                }
+                else if ( sortedIndex )
+                {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tokens stored before the expiry index existed are checked by decrypting them as before.  Tokens that are
+     * still valid are added to the index, after which the index is used for all later purge cycles.
+     */
+    private void purgeAndIndexUnindexedTokens( )
+            throws PwmUnrecoverableException, PwmOperationalException
+    {
+        LOGGER.debug( tokenService.getSessionLabel(), () -> "token expiry index is not present, scanning all stored tokens" );
+        try ( ClosableIterator<Map.Entry<String, String>> keyIterator = dataStore.iterator() )
+        {
+            while ( tokenService.status() == PwmService.STATUS.OPEN && keyIterator.hasNext() )
+            {
+                final String storedHash = keyIterator.next().getKey();
+                final TokenKey loopKey = keyFromStoredHash( storedHash );
+
+                // retrieving token tests validity and causes purging
+                final Optional<TokenPayload> tokenPayload = retrieveToken( null, loopKey );
+                if ( tokenPayload.isPresent() )
+                {
+                    expiryIndex.put( indexKey( tokenPayload.get().getExpiration(), storedHash ), expirationValue( tokenPayload.get() ) );
+                }
+            }
+        }
+
+        if ( tokenService.status() == PwmService.STATUS.OPEN )
+        {
+            expiryIndex.put( INDEX_VERSION_KEY, INDEX_VERSION );
+        }
+    }
+
+    static String indexKey( final Instant expiration, final String storedHash )
+    {
+        // tokens without an expiration are indexed in the first bucket, so they are purged on the next cycle
+        final long bucket = expiration == null ? 0 : Math.max( 0, expiration.toEpochMilli() ) / EXPIRY_BUCKET_DURATION.asMillis();
+        return String.format( "%012d", bucket ) + INDEX_KEY_SEPARATOR + storedHash;
+    }
+
+    /**
+     * Parse an expiry index key.
+     * @param indexKey the expiry index key
+     * @param now the current time
+     * @return the stored token hash if every token in the key's bucket has expired, otherwise empty.
+     */
+    static Optional<String> expiredStoredHash( final String indexKey, final Instant now )
+    {
+        if ( !isBucketKey( indexKey ) )
+        {
+            return Optional.empty();
+        }
+
+        final int separatorIndex = indexKey.indexOf( INDEX_KEY_SEPARATOR );
+
+        final long bucket = Long.parseLong( indexKey.substring( 0, separatorIndex ) );
+        final long bucketEndMs = ( bucket + 1 ) * EXPIRY_BUCKET_DURATION.asMillis();
+        if ( bucketEndMs > now.toEpochMilli() )
+        {
+            return Optional.empty();
+        }
+        return Optional.of( indexKey.substring( separatorIndex + 1 ) );
+    }
+
+    private static boolean isBucketKey( final String indexKey )
+    {
+        return indexKey.indexOf( INDEX_KEY_SEPARATOR ) > 0 && Character.isDigit( indexKey.charAt( 0 ) );
+    }
+
+    private static String expirationValue( final TokenPayload tokenPayload )
+    {
+        return tokenPayload.getExpiration() == null ? "" : tokenPayload.getExpiration().toString();
+    }
+
     private boolean testIfTokenNeedsPurging( final TokenPayload theToken )
     {
         if ( theToken == null )
@@ -158,14 +286,14 @@ public class DataStoreTokenMachine implements TokenMachine
             {
                 LOGGER.trace( sessionLabel, () -> "error while trying to decrypted stored token payload for key '" + storedHash
                         + "', will purge record, error: " + e.getMessage() );
-                removeToken( tokenKey );
+                removeStoredToken( storedHash, null );
                 return Optional.empty();
             }
 
             if ( testIfTokenNeedsPurging( tokenPayload ) )
             {
                 LOGGER.trace( sessionLabel, () -> "stored token key '" + storedHash + "', has an outdated issue/expire date and will be purged" );
-                removeToken( tokenKey );
+                removeStoredToken( storedHash, tokenPayload );
             }
             else
             {
@@ -182,14 +310,42 @@ public class DataStoreTokenMachine implements TokenMachine
         final String rawValue = tokenService.toEncryptedString( tokenPayload );
         final String storedHash = tokenKey.getStoredHash();
         dataStore.put( storedHash, rawValue );
+        expiryIndex.put( indexKey( tokenPayload.getExpiration(), storedHash ), expirationValue( tokenPayload ) );
     }
 
+    /**
+     * Remove a stored token and its expiry index entry.  The stored token is decrypted to locate the index entry;
+     * if it can not be decrypted the index entry is left in place and discarded once its bucket expires.
+     */
     @Override
     public void removeToken( final TokenKey tokenKey )
             throws PwmOperationalException, PwmUnrecoverableException
     {
-        tokenService.getStats().increment( TokenService.StatsKey.tokensRemoved );
         final String storedHash = tokenKey.getStoredHash();
+        TokenPayload tokenPayload = null;
+        final Optional<String> storedRawValue = dataStore.get( storedHash );
+        if ( storedRawValue.isPresent() )
+        {
+            try
+            {
+                tokenPayload = tokenService.fromEncryptedString( storedRawValue.get() );
+            }
+            catch ( final PwmException e )
+            {
+                LOGGER.trace( () -> "unable to decrypt stored token '" + storedHash + "' while removing, expiry index entry will be purged later" );
+            }
+        }
+        removeStoredToken( storedHash, tokenPayload );
+    }
+
+    private void removeStoredToken( final String storedHash, final TokenPayload tokenPayload )
+            throws PwmUnrecoverableException, PwmOperationalException
+    {
+        tokenService.getStats().increment( TokenService.StatsKey.tokensRemoved );
+        if ( tokenPayload != null )
+        {
+            expiryIndex.remove( indexKey( tokenPayload.getExpiration(), storedHash ) );
+        }
         dataStore.remove( storedHash );
     }
 
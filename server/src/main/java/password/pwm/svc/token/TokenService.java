@@ -174,7 +174,8 @@ public class TokenService extends AbstractPwmService implements PwmService
                 case STORE_LOCALDB:
                 {
                     final DataStore dataStore = new LocalDBDataStore( pwmApplication.getLocalDB(), LocalDB.DB.TOKENS );
-                    tokenMachine = new DataStoreTokenMachine( pwmDomain, this, dataStore );
+                    final DataStore expiryIndex = new LocalDBDataStore( pwmApplication.getLocalDB(), LocalDB.DB.TOKEN_EXPIRY );
+                    tokenMachine = new DataStoreTokenMachine( pwmDomain, this, dataStore, expiryIndex );
                     usedStorageMethod = DataStorageMethod.LOCALDB;
                     break;
                 }
@@ -182,7 +183,8 @@ public class TokenService extends AbstractPwmService implements PwmService
                 case STORE_DB:
                 {
                     final DataStore dataStore = new DatabaseDataStore( pwmDomain.getPwmApplication().getDatabaseService(), DatabaseTable.TOKENS );
-                    tokenMachine = new DataStoreTokenMachine( pwmDomain, this, dataStore );
+                    final DataStore expiryIndex = new DatabaseDataStore( pwmDomain.getPwmApplication().getDatabaseService(), DatabaseTable.TOKEN_EXPIRY, true );
+                    tokenMachine = new DataStoreTokenMachine( pwmDomain, this, dataStore, expiryIndex );
                     usedStorageMethod = DataStorageMethod.DB;
                     break;
                 }
@@ -45,8 +45,10 @@ import password.pwm.util.logging.PwmLogger;
 import java.io.InputStream;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -186,6 +188,70 @@ abstract class AbstractWordlist extends AbstractPwmService implements Wordlist,
         return result;
     }
 
+    /**
+     * Range query over the stored hashes of a hash type, allowing a client to test a hash without disclosing it.
+     * @param wordType hash type of the stored values
+     * @param hexPrefix leading hex characters of the hash, shorter than a full hash value
+     * @param maxResults maximum number of suffixes to return
+     * @return suffixes of the matching stored hashes, in order.
+     * @throws PwmUnrecoverableException if the wordlist is not readable
+     */
+    WordlistHashRange hashRange( final WordType wordType, final String hexPrefix, final int maxResults )
+            throws PwmUnrecoverableException
+    {
+        if ( wordType == WordType.RAW || hexPrefix.length() >= wordType.getHexValueLength() )
+        {
+            throw new IllegalArgumentException( "prefix must be shorter than a " + wordType + " hash value" );
+        }
+
+        final String normalizedPrefix = hexPrefix.toLowerCase( PwmConstants.DEFAULT_LOCALE );
+
+        final int digestLength = wordType.getHexValueLength() / 2;
+        final int evenLength = normalizedPrefix.length() - normalizedPrefix.length() % 2;
+        final byte[] bytePrefix = HexFormat.of().parseHex( normalizedPrefix.substring( 0, evenLength ) );
+
+        // digests are keyed by raw bytes, so an odd trailing hex character is expanded into its sixteen byte prefixes, read in order
+        final List<byte[]> bytePrefixes = new ArrayList<>();
+        if ( evenLength == normalizedPrefix.length() )
+        {
+            bytePrefixes.add( bytePrefix );
+        }
+        else
+        {
+            final int highNibble = HexFormat.fromHexDigit( normalizedPrefix.charAt( evenLength ) ) << 4;
+            for ( int lowNibble = 0; lowNibble < 16; lowNibble++ )
+            {
+                final byte[] expandedPrefix = Arrays.copyOf( bytePrefix, bytePrefix.length + 1 );
+                expandedPrefix[bytePrefix.length] = ( byte ) ( highNibble | lowNibble );
+                bytePrefixes.add( expandedPrefix );
+            }
+        }
+
+        final List<byte[]> hashes = new ArrayList<>();
+        for ( final byte[] prefix : bytePrefixes )
+        {
+            if ( hashes.size() > maxResults )
+            {
+                break;
+            }
+            hashes.addAll( getWordlistBucket().hashesWithPrefix( prefix, digestLength, maxResults + 1 - hashes.size() ) );
+        }
+
+        final List<String> suffixes = hashes.stream()
+                .limit( maxResults )
+                .map( hash -> HexFormat.of().formatHex( hash ).substring( normalizedPrefix.length() ) )
+                .toList();
+
+        getStatistics().getCounterStats().increment( WordlistStatistics.CounterStat.hashRangeQueries );
+
+        return WordlistHashRange.builder()
+                .wordType( wordType )
+                .prefix( normalizedPrefix )
+                .suffixes( suffixes )
+                .truncated( hashes.size() > maxResults )
+                .build();
+    }
+
     private boolean checkHashWords( final WordType wordType, final String word )
             throws PwmUnrecoverableException
     {
@@ -374,6 +440,23 @@ abstract class AbstractWordlist extends AbstractPwmService implements Wordlist,
         wordlistBucket.writeWordlistStatus( wordlistStatus );
     }
 
+    /**
+     * Run a bucket write that stores an updated wordlist status along with other values, such as added words together
+     * with the new value count.  As with {@link #writeWordlistStatus(WordlistStatus)}, nothing is written once the
+     * service is closed and the cached word types are cleared.
+     */
+    void writeWordlistStatus( final PwmCallable statusWrite )
+            throws PwmUnrecoverableException
+    {
+        if ( status() == STATUS.CLOSED )
+        {
+            return;
+        }
+
+        wordTypesCache = null;
+        statusWrite.call();
+    }
+
     @Override
     public void clear( ) throws PwmUnrecoverableException
     {
@@ -425,6 +508,7 @@ abstract class AbstractWordlist extends AbstractPwmService implements Wordlist,
             setAutoImportError( null );
             final WordlistZipReader wordlistZipReader = new WordlistZipReader( inputStream );
             final WordlistImporter wordlistImporter = new WordlistImporter(
+                    getPwmApplication(),
                     null,
                     wordlistZipReader,
                     WordlistSourceType.User,
@@ -83,13 +83,15 @@ public abstract class AbstractWordlistBucket implements WordlistBucket
     {
         final WordlistStatus initialStatus = abstractWordlist.readWordlistStatus();
         final LongIncrementer valueIncrementer = new LongIncrementer( initialStatus.getValueCount() );
-        this.putValues( getWriteTxnForValue( words, valueIncrementer ) );
+        final Map<String, String> values = getWriteTxnForValue( words, valueIncrementer );
 
-        if ( initialStatus.getValueCount() != valueIncrementer.get() )
+        if ( values.isEmpty() )
         {
-            final WordlistStatus incrementedStatus = initialStatus.toBuilder().valueCount( valueIncrementer.get() ).build();
-            abstractWordlist.writeWordlistStatus( incrementedStatus );
+            return;
         }
+
+        final WordlistStatus incrementedStatus = initialStatus.toBuilder().valueCount( valueIncrementer.get() ).build();
+        abstractWordlist.writeWordlistStatus( () -> this.putValues( values, incrementedStatus ) );
     }
 
     @Override
@@ -123,7 +125,11 @@ public abstract class AbstractWordlistBucket implements WordlistBucket
         return containsKey( word );
     }
 
-    abstract void putValues( Map<String, String> values )
+    /**
+     * Store values and the updated wordlist status.  Implementations should store both atomically.  Called only through
+     * {@link AbstractWordlist#writeWordlistStatus(password.pwm.util.java.PwmCallable)}.
+     */
+    abstract void putValues( Map<String, String> values, WordlistStatus updatedStatus )
             throws PwmUnrecoverableException;
 
     abstract boolean containsKey( String key )
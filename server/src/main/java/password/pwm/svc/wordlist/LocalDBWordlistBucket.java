@@ -25,14 +25,22 @@ import password.pwm.PwmApplication;
 import password.pwm.error.PwmError;
 import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.util.java.FileSystemUtility;
+import password.pwm.util.json.JsonFactory;
 import password.pwm.util.localdb.LocalDB;
 import password.pwm.util.localdb.LocalDBException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 class LocalDBWordlistBucket extends AbstractWordlistBucket implements WordlistBucket
 {
+    private static final byte[] EMPTY_VALUE = new byte[0];
+
     private final LocalDB.DB db;
+    private final LocalDB.DB hashDb;
     private final LocalDB localDB;
 
     LocalDBWordlistBucket(
@@ -44,15 +52,44 @@ class LocalDBWordlistBucket extends AbstractWordlistBucket implements WordlistBu
         super( pwmApplication, wordlistConfiguration, type );
         this.localDB = pwmApplication.getLocalDB();
         this.db = wordlistConfiguration.getDb();
+        this.hashDb = wordlistConfiguration.getHashDb();
     }
 
     @Override
-    void putValues( final Map<String, String> values )
+    void putValues( final Map<String, String> values, final WordlistStatus updatedStatus )
             throws PwmUnrecoverableException
     {
+        // hashed words are stored as raw digest bytes, roughly half the size of the hex stored value
+        final Map<String, String> rawValues = new HashMap<>( values.size() );
+        final List<byte[]> hashValues = new ArrayList<>();
+        for ( final Map.Entry<String, String> entry : values.entrySet() )
+        {
+            final Optional<byte[]> hashBytes = WordType.storedHashBytes( entry.getKey() );
+            if ( hashBytes.isPresent() )
+            {
+                hashValues.add( hashBytes.get() );
+            }
+            else
+            {
+                rawValues.put( entry.getKey(), entry.getValue() );
+            }
+        }
+
         try
         {
-            localDB.putAll( db, values );
+            // words and the value count are committed together so the stored status matches the stored words
+            final String statusKey = wordlistConfiguration.getMetaDataAppAttribute().getKey();
+            final String statusValue = JsonFactory.get().serialize( updatedStatus );
+            localDB.transact( transaction ->
+            {
+                transaction.putAll( db, rawValues );
+                for ( final byte[] hashValue : hashValues )
+                {
+                    transaction.putBytes( hashDb, hashValue, EMPTY_VALUE );
+                }
+                transaction.put( LocalDB.DB.PWM_META, statusKey, statusValue );
+                return null;
+            } );
         }
         catch ( final LocalDBException e )
         {
@@ -80,7 +117,26 @@ class LocalDBWordlistBucket extends AbstractWordlistBucket implements WordlistBu
     {
         try
         {
-            return pwmApplication.getLocalDB().contains( db, key );
+            final Optional<byte[]> hashBytes = WordType.storedHashBytes( key );
+            if ( hashBytes.isPresent() )
+            {
+                return localDB.containsBytes( hashDb, hashBytes.get() );
+            }
+            return localDB.contains( db, key );
+        }
+        catch ( final LocalDBException e )
+        {
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_LOCALDB_UNAVAILABLE, e.getMessage() );
+        }
+    }
+
+    @Override
+    public List<byte[]> hashesWithPrefix( final byte[] prefix, final int digestLength, final int maxResults )
+            throws PwmUnrecoverableException
+    {
+        try
+        {
+            return localDB.keysByPrefixBytes( hashDb, prefix, digestLength, maxResults );
         }
         catch ( final LocalDBException e )
         {
@@ -93,7 +149,7 @@ class LocalDBWordlistBucket extends AbstractWordlistBucket implements WordlistBu
     {
         try
         {
-            return localDB.size( db );
+            return localDB.size( db ) + localDB.size( hashDb );
         }
         catch ( final LocalDBException e )
         {
@@ -108,6 +164,7 @@ class LocalDBWordlistBucket extends AbstractWordlistBucket implements WordlistBu
         try
         {
             localDB.truncate( db );
+            localDB.truncate( hashDb );
         }
         catch ( final LocalDBException e )
         {
@@ -23,6 +23,9 @@ package password.pwm.svc.wordlist;
 import password.pwm.PwmApplication;
 import password.pwm.error.PwmUnrecoverableException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -37,10 +40,11 @@ public class MemoryWordlistBucket extends AbstractWordlistBucket
     }
 
     @Override
-    void putValues( final Map<String, String> values )
+    void putValues( final Map<String, String> values, final WordlistStatus updatedStatus )
             throws PwmUnrecoverableException
     {
         map.putAll( values );
+        writeWordlistStatus( updatedStatus );
     }
 
     @Override
@@ -50,6 +54,20 @@ public class MemoryWordlistBucket extends AbstractWordlistBucket
         return map.containsKey( key );
     }
 
+    @Override
+    public List<byte[]> hashesWithPrefix( final byte[] prefix, final int digestLength, final int maxResults )
+    {
+        final List<byte[]> hashes = new ArrayList<>();
+        for ( final String key : map.keySet() )
+        {
+            WordType.storedHashBytes( key )
+                    .filter( hashBytes -> hashBytes.length == digestLength && Arrays.equals( hashBytes, 0, prefix.length, prefix, 0, prefix.length ) )
+                    .ifPresent( hashes::add );
+        }
+        hashes.sort( Arrays::compareUnsigned );
+        return hashes.size() > maxResults ? hashes.subList( 0, maxResults ) : hashes;
+    }
+
     @Override
     String getValue( final String key )
             throws PwmUnrecoverableException
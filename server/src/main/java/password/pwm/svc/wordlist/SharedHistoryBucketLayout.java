@@ -0,0 +1,103 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.wordlist;
+
+import password.pwm.util.java.TimeDuration;
+
+import java.time.Instant;
+
+/**
+ * Maps shared history timestamps onto a fixed ring of storage buckets.  Time is divided into consecutive periods
+ * of {@link #getBucketDuration()}, and each period is stored in slot {@code periodNumber % slotCount}.  The bucket
+ * duration is chosen so that a slot is only reused once every entry it holds is older than the maximum age, which
+ * allows expired entries to be removed by truncating whole buckets.
+ */
+class SharedHistoryBucketLayout
+{
+    static final long NO_BUCKET = -1;
+
+    private final int slotCount;
+    private final long bucketDurationMs;
+
+    SharedHistoryBucketLayout( final int slotCount, final long bucketDurationMs )
+    {
+        if ( slotCount < 2 )
+        {
+            throw new IllegalArgumentException( "at least two bucket slots are required" );
+        }
+        if ( bucketDurationMs < 1 )
+        {
+            throw new IllegalArgumentException( "bucket duration must be positive" );
+        }
+        this.slotCount = slotCount;
+        this.bucketDurationMs = bucketDurationMs;
+    }
+
+    static SharedHistoryBucketLayout forMaxAge( final int slotCount, final TimeDuration maxAge )
+    {
+        final long periods = slotCount - 1;
+        final long bucketDurationMs = Math.max( 1, ( maxAge.asMillis() + periods - 1 ) / periods );
+        return new SharedHistoryBucketLayout( slotCount, bucketDurationMs );
+    }
+
+    TimeDuration getBucketDuration()
+    {
+        return TimeDuration.of( bucketDurationMs, TimeDuration.Unit.MILLISECONDS );
+    }
+
+    /**
+     * Indicates if this layout retains entries for at least the specified maximum age.
+     * @param maxAge the maximum entry age
+     * @return true if every entry younger than {@code maxAge} is guaranteed to be in a live bucket.
+     */
+    boolean supportsMaxAge( final TimeDuration maxAge )
+    {
+        return bucketDurationMs * ( slotCount - 1 ) >= maxAge.asMillis();
+    }
+
+    long bucketNumber( final Instant timestamp )
+    {
+        return Math.max( 0, timestamp.toEpochMilli() ) / bucketDurationMs;
+    }
+
+    int slot( final long bucketNumber )
+    {
+        return ( int ) ( bucketNumber % slotCount );
+    }
+
+    Instant bucketStart( final long bucketNumber )
+    {
+        return Instant.ofEpochMilli( bucketNumber * bucketDurationMs );
+    }
+
+    /**
+     * Indicates if all entries in a bucket are older than the maximum age.
+     * @param bucketNumber the bucket to test
+     * @param now the current time
+     * @param maxAge the maximum entry age
+     * @return true if the bucket can be discarded.
+     */
+    boolean isExpired( final long bucketNumber, final Instant now, final TimeDuration maxAge )
+    {
+        final long bucketEndMs = ( bucketNumber + 1 ) * bucketDurationMs;
+        return now.toEpochMilli() - bucketEndMs >= maxAge.asMillis();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.wordlist;
+
+import password.pwm.PwmConstants;
+import password.pwm.util.java.JavaHelper;
+import password.pwm.util.secure.HmacAlgorithm;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * Computes the stored hash of shared history words.  Digest and mac instances are cached per thread, so repeated
+ * checks do not pay for provider lookup and initialization.
+ */
+class SharedHistoryHasher
+{
+    enum HashMode
+    {
+        /**
+         * Salted digest iterated the configured number of times.
+         */
+        iterated,
+
+        /**
+         * Single pass keyed hash using the salt as key.  Cheaper per check, but offers less protection
+         * should the LocalDB contents be disclosed.
+         */
+        hmac,
+    }
+
+    private static final HmacAlgorithm HMAC_ALGORITHM = HmacAlgorithm.HMAC_SHA_512;
+
+    private final String salt;
+    private final String hashName;
+    private final int hashIterations;
+    private final HashMode hashMode;
+
+    private final ThreadLocal<MessageDigest> threadDigest;
+    private final ThreadLocal<Mac> threadMac;
+
+    SharedHistoryHasher( final String salt, final String hashName, final int hashIterations, final HashMode hashMode )
+    {
+        this.salt = salt;
+        this.hashName = hashName;
+        this.hashIterations = hashIterations;
+        this.hashMode = hashMode;
+        this.threadDigest = ThreadLocal.withInitial( this::newDigest );
+        this.threadMac = ThreadLocal.withInitial( this::newMac );
+    }
+
+    String hash( final String word )
+    {
+        final byte[] hashedWord = hashMode == HashMode.hmac
+                ? hmacHash( word )
+                : iteratedHash( word );
+
+        return JavaHelper.binaryArrayToHex( hashedWord );
+    }
+
+    private byte[] iteratedHash( final String word )
+    {
+        final MessageDigest md = threadDigest.get();
+        md.reset();
+
+        byte[] hashedAnswer = md.digest( ( salt + word ).getBytes( PwmConstants.DEFAULT_CHARSET ) );
+        for ( int i = 0; i < hashIterations; i++ )
+        {
+            hashedAnswer = md.digest( hashedAnswer );
+        }
+        return hashedAnswer;
+    }
+
+    private byte[] hmacHash( final String word )
+    {
+        final Mac mac = threadMac.get();
+        mac.reset();
+        return mac.doFinal( word.getBytes( PwmConstants.DEFAULT_CHARSET ) );
+    }
+
+    private MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( hashName );
+        }
+        catch ( final GeneralSecurityException e )
+        {
+            throw new IllegalStateException( "unable to load " + hashName + " message digest algorithm: " + e.getMessage() );
+        }
+    }
+
+    private Mac newMac()
+    {
+        try
+        {
+            final Mac mac = Mac.getInstance( HMAC_ALGORITHM.getAlgorithmName() );
+            mac.init( new SecretKeySpec( salt.getBytes( PwmConstants.DEFAULT_CHARSET ), HMAC_ALGORITHM.getAlgorithmName() ) );
+            return mac;
+        }
+        catch ( final GeneralSecurityException e )
+        {
+            throw new IllegalStateException( "unable to initialize " + HMAC_ALGORITHM.getAlgorithmName() + " mac: " + e.getMessage() );
+        }
+    }
+}
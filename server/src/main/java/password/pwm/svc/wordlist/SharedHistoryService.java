@@ -25,7 +25,6 @@ import lombok.Value;
 import password.pwm.AppProperty;
 import password.pwm.PwmApplication;
 import password.pwm.PwmApplicationMode;
-import password.pwm.PwmConstants;
 import password.pwm.bean.DomainID;
 import password.pwm.bean.SessionLabel;
 import password.pwm.config.AppConfig;
@@ -35,6 +34,7 @@ import password.pwm.error.PwmException;
 import password.pwm.health.HealthRecord;
 import password.pwm.svc.AbstractPwmService;
 import password.pwm.svc.PwmService;
+import password.pwm.util.java.EnumUtil;
 import password.pwm.util.java.JavaHelper;
 import password.pwm.util.java.TimeDuration;
 import password.pwm.util.localdb.LocalDB;
@@ -42,18 +42,23 @@ import password.pwm.util.localdb.LocalDBException;
 import password.pwm.util.logging.PwmLogger;
 import password.pwm.util.secure.PwmRandom;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TimerTask;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
-
+/**
+ * Stores hashes of previously used passwords for the shared password history rule.  Words are stored in a ring
+ * of LocalDB buckets laid out by {@link SharedHistoryBucketLayout}, so expiring old entries only requires
+ * truncating the buckets that have aged out rather than examining every stored word.  A word added again in a later
+ * period is written to the current bucket only, so until the older bucket expires the word may be held in both.
+ */
 public class SharedHistoryService extends AbstractPwmService implements PwmService
 {
     private static final PwmLogger LOGGER = PwmLogger.forClass( SharedHistoryService.class );
@@ -61,8 +66,14 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
     private static final String KEY_OLDEST_ENTRY = "oldest_entry";
     private static final String KEY_VERSION = "version";
     private static final String KEY_SALT = "salt";
+    private static final String KEY_BUCKET_DURATION = "bucket_duration";
+    private static final String KEY_BUCKET_PREFIX = "bucket_";
+
+    private static final String DATA_FORMAT_VERSION = "3";
 
-    private static final String DATA_FORMAT_VERSION = "2";
+    // single table format in use before bucketed storage, migrated in place on upgrade
+    private static final String LEGACY_DATA_FORMAT_VERSION = "2";
+    private static final int MIGRATION_BATCH_SIZE = 1000;
 
     // 1 hour
     private static final TimeDuration MIN_CLEANER_FREQUENCY = TimeDuration.HOUR;
@@ -71,17 +82,27 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
     private static final TimeDuration MAX_CLEANER_FREQUENCY = TimeDuration.DAY;
 
     private static final LocalDB.DB META_DB = LocalDB.DB.SHAREDHISTORY_META;
-    private static final LocalDB.DB WORDS_DB = LocalDB.DB.SHAREDHISTORY_WORDS;
+
+    static final List<LocalDB.DB> BUCKET_DBS = List.of(
+            LocalDB.DB.SHAREDHISTORY_WORDS,
+            LocalDB.DB.SHAREDHISTORY_WORDS_1,
+            LocalDB.DB.SHAREDHISTORY_WORDS_2,
+            LocalDB.DB.SHAREDHISTORY_WORDS_3 );
 
     private LocalDB localDB;
-    private String salt;
-    private Instant oldestEntry;
+    private SharedHistoryHasher hasher;
+    private SharedHistoryBucketLayout bucketLayout;
+    private volatile boolean bucketsLoaded;
 
     private Settings settings = Settings.builder().build();
-    private final Lock addWordLock = new ReentrantLock();
+
+    // guarded by bucketLock
+    private final long[] slotBucketNumbers = new long[BUCKET_DBS.size()];
+    private final Lock bucketLock = new ReentrantLock();
 
     public SharedHistoryService( )
     {
+        Arrays.fill( slotBucketNumbers, SharedHistoryBucketLayout.NO_BUCKET );
     }
 
     @Override
@@ -93,7 +114,7 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
 
     public boolean containsWord( final String word )
     {
-        if ( status() != STATUS.OPEN )
+        if ( status() != STATUS.OPEN || !bucketsLoaded )
         {
             return false;
         }
@@ -105,36 +126,66 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
             return false;
         }
 
-        //final long startTime = System.currentTimeMillis();
-        boolean result = false;
-
         try
         {
-            final String hashedWord = hashWord( testWord );
-            final Optional<String> storedValue = localDB.get( WORDS_DB, hashedWord );
-            if ( storedValue.isPresent() )
+            final String hashedWord = getPwmApplication().getSecureService().executeHashOperation(
+                    getSessionLabel(),
+                    "sharedHistory",
+                    () -> hasher.hash( testWord ) );
+
+            final Instant now = Instant.now();
+            for ( final LocalDB.DB bucketDB : BUCKET_DBS )
             {
-                final Instant timeStamp = Instant.ofEpochMilli( Long.parseLong(  storedValue.get() ) );
-                final TimeDuration entryAge = TimeDuration.between( Instant.now(), timeStamp );
-                if ( entryAge.isLongerThan( settings.getMaxAge( ) ) )
+                final Optional<String> storedValue = localDB.get( bucketDB, hashedWord );
+                if ( storedValue.isPresent() )
                 {
-                    result = true;
+                    final Instant timeStamp = Instant.ofEpochMilli( Long.parseLong( storedValue.get() ) );
+                    final TimeDuration entryAge = TimeDuration.between( now, timeStamp );
+                    if ( settings.getMaxAge().isLongerThan( entryAge ) )
+                    {
+                        return true;
+                    }
                 }
             }
-
         }
         catch ( final Exception e )
         {
             LOGGER.warn( getSessionLabel(), () -> "error checking global history list: " + e.getMessage() );
         }
 
-        //LOGGER.trace(pwmSession, "successfully checked word, result=" + result + ", duration=" + new TimeDuration(System.currentTimeMillis(), startTime).asCompactString());
-        return result;
+        return false;
     }
 
+    /**
+     * Approximate time of the oldest entry.  Entries are tracked by bucket, so this is the start time of the oldest
+     * bucket that still holds entries.
+     * @return the oldest entry time, or null if the history is empty.
+     */
     public Instant getOldestEntryTime( )
     {
-       return oldestEntry;
+        if ( !bucketsLoaded )
+        {
+            return null;
+        }
+
+        bucketLock.lock();
+        try
+        {
+            long oldestBucket = SharedHistoryBucketLayout.NO_BUCKET;
+            for ( final long bucketNumber : slotBucketNumbers )
+            {
+                if ( bucketNumber != SharedHistoryBucketLayout.NO_BUCKET
+                        && ( oldestBucket == SharedHistoryBucketLayout.NO_BUCKET || bucketNumber < oldestBucket ) )
+                {
+                    oldestBucket = bucketNumber;
+                }
+            }
+            return oldestBucket == SharedHistoryBucketLayout.NO_BUCKET ? null : bucketLayout.bucketStart( oldestBucket );
+        }
+        finally
+        {
+            bucketLock.unlock();
+        }
     }
 
     public long size( )
@@ -143,7 +194,12 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
         {
             try
             {
-                return localDB.size( WORDS_DB );
+                long size = 0;
+                for ( final LocalDB.DB bucketDB : BUCKET_DBS )
+                {
+                    size += localDB.size( bucketDB );
+                }
+                return size;
             }
             catch ( final Exception e )
             {
@@ -157,7 +213,11 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
         }
     }
 
-    private void checkDbVersion( )
+    /**
+     * Check the stored data format version, clearing the history if it is not compatible with the current settings.
+     * @return true if the history is stored in the legacy single table format and should be migrated into buckets.
+     */
+    private boolean checkDbVersion( )
             throws Exception
     {
         LOGGER.trace( getSessionLabel(), () -> "checking version number stored in LocalDB" );
@@ -168,8 +228,15 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
 
         if ( !result )
         {
+            final Optional<String> legacyVersion = settings.getLegacyVersion();
+            if ( legacyVersion.isPresent() && ( "version=" + legacyVersion.get() ).equals( versionInDB ) )
+            {
+                LOGGER.info( getSessionLabel(), () -> "existing db version is legacy format db=(" + versionInDB + "), will migrate to current db version" );
+                return true;
+            }
+
             LOGGER.info( getSessionLabel(), () -> "existing db version does not match current db version db=(" + versionInDB + ")  current=(" + currentVersion + "), clearing db" );
-            localDB.truncate( WORDS_DB );
+            clearBuckets();
             localDB.put( META_DB, KEY_VERSION, currentVersion );
             localDB.remove( META_DB, KEY_OLDEST_ENTRY );
         }
@@ -177,70 +244,222 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
         {
             LOGGER.trace( getSessionLabel(), () -> "existing db version matches current db version db=(" + versionInDB + ")  current=(" + currentVersion + ")" );
         }
+        return false;
     }
 
-    private void initImpl( final PwmApplication pwmApplication, final TimeDuration maxAge )
+    private void migrateLegacyHistory( )
+            throws LocalDBException
     {
         final Instant startTime = Instant.now();
 
+        bucketLock.lock();
         try
         {
-            checkDbVersion();
+            final int migratedWords = migrateLegacyWords( localDB, bucketLayout, slotBucketNumbers, startTime, settings.getMaxAge() );
+            LOGGER.info( getSessionLabel(), () -> "migrated " + migratedWords + " words from legacy format", TimeDuration.fromCurrent( startTime ) );
         }
-        catch ( final Exception e )
+        finally
         {
-            LOGGER.error( getSessionLabel(), () -> "error checking db version", e );
-            setStatus( STATUS.CLOSED );
-            return;
+            bucketLock.unlock();
+        }
+
+        localDB.put( META_DB, KEY_VERSION, "version=" + settings.getVersion() );
+        localDB.remove( META_DB, KEY_OLDEST_ENTRY );
+    }
+
+    /**
+     * Move words stored in the legacy single table format into buckets.  The legacy table is the first bucket, so
+     * words belonging to that slot stay in place, expired words are removed and all others are moved to the bucket
+     * for their timestamp.  The migration can be re-run if interrupted.
+     * @return the number of unexpired words retained.
+     */
+    static int migrateLegacyWords(
+            final LocalDB localDB,
+            final SharedHistoryBucketLayout bucketLayout,
+            final long[] slotBucketNumbers,
+            final Instant now,
+            final TimeDuration maxAge
+    )
+            throws LocalDBException
+    {
+        final LocalDB.DB legacyDB = BUCKET_DBS.get( 0 );
+        final long currentBucket = bucketLayout.bucketNumber( now );
+        final Map<Integer, Map<String, String>> pendingMoves = new HashMap<>();
+        final List<String> pendingRemovals = new ArrayList<>();
+        int retainedWords = 0;
+
+        try ( LocalDB.LocalDBIterator iterator = localDB.iterator( legacyDB ) )
+        {
+            while ( iterator.hasNext() )
+            {
+                final Map.Entry<String, String> entry = iterator.next();
+                final Optional<Instant> timestamp = parseTimestamp( entry.getValue() );
+                if ( timestamp.isEmpty() || now.toEpochMilli() - timestamp.get().toEpochMilli() >= maxAge.asMillis() )
+                {
+                    pendingRemovals.add( entry.getKey() );
+                }
+                else
+                {
+                    final long bucketNumber = Math.min( currentBucket, bucketLayout.bucketNumber( timestamp.get() ) );
+                    final int slot = bucketLayout.slot( bucketNumber );
+                    if ( slotBucketNumbers[slot] == SharedHistoryBucketLayout.NO_BUCKET )
+                    {
+                        slotBucketNumbers[slot] = bucketNumber;
+                        localDB.put( META_DB, KEY_BUCKET_PREFIX + slot, Long.toString( bucketNumber ) );
+                    }
+
+                    if ( slotBucketNumbers[slot] != bucketNumber )
+                    {
+                        pendingRemovals.add( entry.getKey() );
+                    }
+                    else
+                    {
+                        retainedWords++;
+                        if ( slot != 0 )
+                        {
+                            pendingMoves.computeIfAbsent( slot, k -> new HashMap<>() ).put( entry.getKey(), entry.getValue() );
+                            pendingRemovals.add( entry.getKey() );
+                        }
+                    }
+                }
+
+                if ( pendingRemovals.size() >= MIGRATION_BATCH_SIZE )
+                {
+                    flushMigrationBatch( localDB, pendingMoves, pendingRemovals );
+                }
+            }
         }
 
+        flushMigrationBatch( localDB, pendingMoves, pendingRemovals );
+        return retainedWords;
+    }
+
+    private static void flushMigrationBatch(
+            final LocalDB localDB,
+            final Map<Integer, Map<String, String>> pendingMoves,
+            final List<String> pendingRemovals
+    )
+            throws LocalDBException
+    {
+        // moved words are written to their new bucket before being removed from the legacy table
+        for ( final Map.Entry<Integer, Map<String, String>> entry : pendingMoves.entrySet() )
+        {
+            localDB.putAll( BUCKET_DBS.get( entry.getKey() ), entry.getValue() );
+        }
+        localDB.removeAll( BUCKET_DBS.get( 0 ), pendingRemovals );
+        pendingMoves.clear();
+        pendingRemovals.clear();
+    }
 
+    private static Optional<Instant> parseTimestamp( final String value )
+    {
         try
         {
-            final Optional<String> oldestEntryStr = localDB.get( META_DB, KEY_OLDEST_ENTRY );
-            if ( oldestEntryStr.isPresent() )
+            return Optional.of( Instant.ofEpochMilli( Long.parseLong( value ) ) );
+        }
+        catch ( final NumberFormatException e )
+        {
+            return Optional.empty();
+        }
+    }
+
+    private void clearBuckets( )
+            throws LocalDBException
+    {
+        for ( int slot = 0; slot < BUCKET_DBS.size(); slot++ )
+        {
+            localDB.truncate( BUCKET_DBS.get( slot ) );
+            localDB.remove( META_DB, KEY_BUCKET_PREFIX + slot );
+        }
+        localDB.remove( META_DB, KEY_BUCKET_DURATION );
+    }
+
+    /**
+     * Load the bucket layout and the bucket number held by each slot.  The stored layout is kept if it still
+     * covers the configured maximum age, otherwise the history is cleared and a new layout is used.
+     */
+    private void loadBuckets( )
+            throws LocalDBException
+    {
+        final TimeDuration maxAge = settings.getMaxAge();
+        final Optional<String> storedDuration = localDB.get( META_DB, KEY_BUCKET_DURATION );
+        if ( storedDuration.isPresent() )
+        {
+            final SharedHistoryBucketLayout storedLayout = new SharedHistoryBucketLayout( BUCKET_DBS.size(), Long.parseLong( storedDuration.get() ) );
+            if ( storedLayout.supportsMaxAge( maxAge ) )
             {
-                oldestEntry = Instant.ofEpochMilli( Long.parseLong( oldestEntryStr.get() ) );
-                LOGGER.trace( getSessionLabel(), () -> "oldest timestamp loaded from localDB, age is " + TimeDuration.fromCurrent( oldestEntry ).asCompactString() );
+                bucketLayout = storedLayout;
             }
             else
             {
-                oldestEntry = Instant.now();
-                LOGGER.trace( getSessionLabel(), () -> "no oldestEntry timestamp stored, will rescan" );
-                }
+                LOGGER.info( getSessionLabel(), () -> "stored bucket duration " + storedLayout.getBucketDuration().asCompactString()
+                        + " does not cover max age " + maxAge.asCompactString() + ", clearing db" );
+                clearBuckets();
+            }
         }
-        catch ( final LocalDBException e )
+
+        if ( bucketLayout == null )
         {
-            LOGGER.error( getSessionLabel(), () -> "unexpected error loading oldest-entry meta record, will remain closed: " + e.getMessage(), e );
-            setStatus( STATUS.CLOSED );
-            return;
+            bucketLayout = SharedHistoryBucketLayout.forMaxAge( BUCKET_DBS.size(), maxAge );
+            localDB.put( META_DB, KEY_BUCKET_DURATION, Long.toString( bucketLayout.getBucketDuration().asMillis() ) );
         }
 
+        bucketLock.lock();
         try
         {
-            final long size = localDB.size( WORDS_DB );
-            LOGGER.debug( getSessionLabel(), () -> "open with " + size + " words"
-                    + ", maxAgeMs=" + maxAge.asCompactString()
-                    + ", oldestEntry=" + TimeDuration.fromCurrent( oldestEntry ).asCompactString(),
-                    TimeDuration.fromCurrent( startTime ) );
+            for ( int slot = 0; slot < BUCKET_DBS.size(); slot++ )
+            {
+                slotBucketNumbers[slot] = localDB.get( META_DB, KEY_BUCKET_PREFIX + slot )
+                        .map( Long::parseLong )
+                        .orElse( SharedHistoryBucketLayout.NO_BUCKET );
+            }
         }
-        catch ( final LocalDBException e )
+        finally
+        {
+            bucketLock.unlock();
+        }
+
+        bucketsLoaded = true;
+    }
+
+    private void initImpl( final PwmApplication pwmApplication, final TimeDuration maxAge )
+    {
+        final Instant startTime = Instant.now();
+
+        try
+        {
+            final boolean migrateLegacy = checkDbVersion();
+            loadBuckets();
+            if ( migrateLegacy )
+            {
+                migrateLegacyHistory();
+            }
+        }
+        catch ( final Exception e )
         {
-            LOGGER.error( getSessionLabel(), () -> "unexpected error examining size of DB, will remain closed: " + e.getMessage(), e );
+            LOGGER.error( getSessionLabel(), () -> "error checking db version", e );
             setStatus( STATUS.CLOSED );
             return;
         }
 
+        {
+            final long size = size();
+            LOGGER.debug( getSessionLabel(), () -> "open with " + size + " words"
+                    + ", maxAgeMs=" + maxAge.asCompactString()
+                    + ", bucketDuration=" + bucketLayout.getBucketDuration().asCompactString(),
+                    TimeDuration.fromCurrent( startTime ) );
+        }
+
         setStatus( STATUS.OPEN );
-        //populateFromWordlist();  //only used for debugging!!!
 
         if ( pwmApplication.getApplicationMode() == PwmApplicationMode.RUNNING || pwmApplication.getApplicationMode() == PwmApplicationMode.CONFIGURATION )
         {
-            final long frequencyMs = JavaHelper.rangeCheck( MIN_CLEANER_FREQUENCY.asMillis(), MAX_CLEANER_FREQUENCY.asMillis(), maxAge.asMillis() );
+            final long frequencyMs = JavaHelper.rangeCheck( MIN_CLEANER_FREQUENCY.asMillis(), MAX_CLEANER_FREQUENCY.asMillis(),
+                    bucketLayout.getBucketDuration().asMillis() );
             final TimeDuration frequency = TimeDuration.of( frequencyMs, TimeDuration.Unit.MILLISECONDS );
 
             LOGGER.debug( () -> "scheduling cleaner task to run once every " + frequency.asCompactString() );
-            scheduleFixedRateJob( new CleanerTask(), TimeDuration.ZERO, frequency );
+            scheduleFixedRateJob( this::expireBuckets, TimeDuration.ZERO, frequency );
         }
     }
 
@@ -266,7 +485,7 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
             final String word
     )
     {
-        if ( status() != STATUS.OPEN )
+        if ( status() != STATUS.OPEN || !bucketsLoaded )
         {
             return;
         }
@@ -280,134 +499,85 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
 
         final Instant startTime = Instant.now();
 
-        addWordLock.lock();
         try
         {
-            final String hashedWord = hashWord( addWord );
+            final String hashedWord = getPwmApplication().getSecureService().executeHashOperation(
+                    sessionLabel,
+                    "sharedHistory",
+                    () -> hasher.hash( addWord ) );
 
-            final boolean preExisting = localDB.contains( WORDS_DB, hashedWord );
-            localDB.put( WORDS_DB, hashedWord, Long.toString( System.currentTimeMillis() ) );
+            final Instant now = Instant.now();
+            final long bucketNumber = bucketLayout.bucketNumber( now );
+            final int currentSlot = bucketLayout.slot( bucketNumber );
 
-            LOGGER.trace( () -> ( preExisting ? "updated" : "added" ) + " word"
-                    + " (" + TimeDuration.compactFromCurrent( startTime ) + ")"
-                    + " (" + this.size() + " total words)" );
+            bucketLock.lock();
+            try
+            {
+                if ( slotBucketNumbers[currentSlot] != bucketNumber )
+                {
+                    // the slot holds a bucket that is at least one full ring old; every entry in it has expired
+                    localDB.truncate( BUCKET_DBS.get( currentSlot ) );
+                    localDB.put( META_DB, KEY_BUCKET_PREFIX + currentSlot, Long.toString( bucketNumber ) );
+                    slotBucketNumbers[currentSlot] = bucketNumber;
+                }
+
+                final boolean preExisting = localDB.put( BUCKET_DBS.get( currentSlot ), hashedWord, Long.toString( now.toEpochMilli() ) );
+
+                LOGGER.trace( () -> ( preExisting ? "updated" : "added" ) + " word"
+                        + " (" + TimeDuration.compactFromCurrent( startTime ) + ")" );
+            }
+            finally
+            {
+                bucketLock.unlock();
+            }
         }
         catch ( final Exception e )
         {
             LOGGER.warn( sessionLabel, () -> "error adding word to global history list: " + e.getMessage() );
         }
-        finally
-        {
-            addWordLock.unlock();
-        }
     }
 
-    private String hashWord( final String word ) throws NoSuchAlgorithmException
+    /**
+     * Truncate each bucket whose entries are all older than the maximum age.
+     */
+    private void expireBuckets( )
     {
-        final MessageDigest md = MessageDigest.getInstance( settings.hashName );
-        final String wordWithSalt = salt + word;
-        final int hashLoopCount = settings.hashIterations;
-        byte[] hashedAnswer = md.digest( ( wordWithSalt ).getBytes( PwmConstants.DEFAULT_CHARSET ) );
-
-        for ( int i = 0; i < hashLoopCount; i++ )
+        if ( localDB == null || localDB.status() != LocalDB.Status.OPEN || !bucketsLoaded )
         {
-            hashedAnswer = md.digest( hashedAnswer );
-        }
-
-        return JavaHelper.binaryArrayToHex( hashedAnswer );
-    }
-
-    private class CleanerTask extends TimerTask
-    {
-        private CleanerTask( )
-        {
-        }
-
-        @Override
-        public void run( )
-        {
-            try
-            {
-                reduceWordDB();
-            }
-            catch ( final LocalDBException e )
-            {
-                LOGGER.error( getSessionLabel(), () -> "error during old record purge: " + e.getMessage() );
-            }
+            return;
         }
 
+        final Instant startTime = Instant.now();
+        int expiredBuckets = 0;
 
-        private void reduceWordDB( )
-                throws LocalDBException
+        bucketLock.lock();
+        try
         {
-
-            if ( localDB == null || localDB.status() != LocalDB.Status.OPEN )
+            for ( int slot = 0; slot < BUCKET_DBS.size(); slot++ )
             {
-                return;
-            }
-
-            final TimeDuration oldestEntryAge = TimeDuration.fromCurrent( oldestEntry );
-            if ( settings.getMaxAge().isLongerThan( oldestEntryAge ) )
-
+                final long bucketNumber = slotBucketNumbers[slot];
+                if ( bucketNumber != SharedHistoryBucketLayout.NO_BUCKET && bucketLayout.isExpired( bucketNumber, startTime, settings.getMaxAge() ) )
                 {
-                LOGGER.debug( getSessionLabel(), () -> "skipping wordDB reduce operation, eldestEntry="
-                        + oldestEntryAge.asCompactString()
-                        + ", maxAge="
-                        + settings.getMaxAge().asCompactString() );
-                return;
-            }
-
-            final Instant startTime = Instant.now();
-            final long initialSize = size();
-            int removeCount = 0;
-            Instant localOldestEntry = Instant.now();
-
-            LOGGER.debug( getSessionLabel(), () -> "beginning wordDB reduce operation, examining " + initialSize
-                    + " words for entries older than " + settings.getMaxAge().asCompactString() );
-
-
-            try ( LocalDB.LocalDBIterator dbIterator = localDB.iterator( WORDS_DB ) )
-            {
-                while ( status() == STATUS.OPEN && dbIterator.hasNext() )
-                {
-                    final Map.Entry<String, String> entry = dbIterator.next();
-                    final String key = entry.getKey();
-                    final String value = entry.getValue();
-                    final Instant entryTimestamp = Instant.ofEpochMilli( Long.parseLong( value ) );
-
-                    if ( settings.getMaxAge().isLongerThan( TimeDuration.fromCurrent( entryTimestamp ) ) )
-                    {
-                        localDB.remove( WORDS_DB, key );
-                        removeCount++;
-
-                        if ( removeCount % 1000 == 0 )
-                        {
-                            final int finalRemove = removeCount;
-                            LOGGER.trace( getSessionLabel(), () -> "wordDB reduce operation in progress, removed=" + finalRemove + ", total=" + ( initialSize - finalRemove ) );
-                        }
-                    }
-                    else
-                    {
-                        localOldestEntry = localOldestEntry.isBefore( entryTimestamp ) ? entryTimestamp : localOldestEntry;
-                    }
+                    localDB.truncate( BUCKET_DBS.get( slot ) );
+                    localDB.remove( META_DB, KEY_BUCKET_PREFIX + slot );
+                    slotBucketNumbers[slot] = SharedHistoryBucketLayout.NO_BUCKET;
+                    expiredBuckets++;
                 }
             }
-
-            //update the oldest entry
-            if ( status() == STATUS.OPEN )
-            {
-                oldestEntry = localOldestEntry;
-                localDB.put( META_DB, KEY_OLDEST_ENTRY, Long.toString( oldestEntry.getEpochSecond() ) );
-            }
-
-            {
-                final int finalRemove = removeCount;
-                LOGGER.debug( getSessionLabel(), () -> "completed wordDB reduce operation" + ", removed=" + finalRemove
-                        + ", totalRemaining=" + size()
-                        + ", oldestEntry=" + oldestEntry
-                        + " in ", TimeDuration.fromCurrent( startTime ) );
-            }
         }
+        catch ( final LocalDBException e )
+        {
+            LOGGER.error( getSessionLabel(), () -> "error during old record purge: " + e.getMessage() );
+        }
+        finally
+        {
+            bucketLock.unlock();
+        }
+
+        final int finalExpiredBuckets = expiredBuckets;
+        LOGGER.debug( getSessionLabel(), () -> "completed wordDB expire operation, expiredBuckets=" + finalExpiredBuckets
+                + ", totalRemaining=" + size()
+                + ", oldestEntry=" + getOldestEntryTime(), TimeDuration.fromCurrent( startTime ) );
     }
 
     @Override
@@ -439,23 +609,30 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
             needsClearing = true;
         }
 
+        final String salt;
         {
-            this.salt = localDB.get( META_DB, KEY_SALT ).orElse( null );
-            if ( salt == null || salt.length() < saltLength )
+            final String storedSalt = localDB.get( META_DB, KEY_SALT ).orElse( null );
+            if ( storedSalt == null || storedSalt.length() < saltLength )
             {
                 LOGGER.warn( getSessionLabel(), () -> "stored global salt value is not present, creating new salt" );
-                this.salt = PwmRandom.getInstance().alphaNumericString( saltLength );
-                localDB.put( META_DB, KEY_SALT, this.salt );
+                salt = PwmRandom.getInstance().alphaNumericString( saltLength );
+                localDB.put( META_DB, KEY_SALT, salt );
                 needsClearing = true;
             }
+            else
+            {
+                salt = storedSalt;
+            }
         }
 
+        this.hasher = new SharedHistoryHasher( salt, settings.getHashName(), settings.getHashIterations(), settings.getHashMode() );
+
         if ( needsClearing )
         {
             LOGGER.trace( getSessionLabel(), () -> "clearing wordlist" );
             try
             {
-                localDB.truncate( WORDS_DB );
+                clearBuckets();
             }
             catch ( final Exception e )
             {
@@ -480,12 +657,23 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
     {
         private final String hashName;
         private final int hashIterations;
+        private final SharedHistoryHasher.HashMode hashMode;
         private final TimeDuration maxAge;
         private final boolean caseInsensitive;
 
         public String getVersion()
         {
-            return DATA_FORMAT_VERSION + "_" + hashName + "_" + hashIterations + "_" + caseInsensitive;
+            return DATA_FORMAT_VERSION + "_" + hashName + "_" + hashIterations + "_" + hashMode + "_" + caseInsensitive;
+        }
+
+        /**
+         * Version of a legacy single table history whose stored hashes are still valid with these settings.
+         */
+        public Optional<String> getLegacyVersion()
+        {
+            return hashMode == SharedHistoryHasher.HashMode.iterated
+                    ? Optional.of( LEGACY_DATA_FORMAT_VERSION + "_" + hashName + "_" + hashIterations + "_" + caseInsensitive )
+                    : Optional.empty();
         }
 
         static Settings fromConfiguration( final PwmApplication pwmApplication )
@@ -499,6 +687,8 @@ public class SharedHistoryService extends AbstractPwmService implements PwmServi
                     .caseInsensitive( Boolean.parseBoolean( config.readAppProperty( AppProperty.SECURITY_SHAREDHISTORY_CASE_INSENSITIVE ) ) )
                     .hashName( config.readAppProperty( AppProperty.SECURITY_SHAREDHISTORY_HASH_NAME ) )
                     .hashIterations( Integer.parseInt( config.readAppProperty( AppProperty.SECURITY_SHAREDHISTORY_HASH_ITERATIONS ) ) )
+                    .hashMode( EnumUtil.readEnumFromString( SharedHistoryHasher.HashMode.class, config.readAppProperty( AppProperty.SECURITY_SHAREDHISTORY_HASH_MODE ) )
+                            .orElse( SharedHistoryHasher.HashMode.iterated ) )
                     .build();
         }
     }
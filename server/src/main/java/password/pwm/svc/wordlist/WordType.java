@@ -26,8 +26,10 @@ import password.pwm.util.secure.PwmHashAlgorithm;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 public enum WordType
@@ -94,12 +96,69 @@ public enum WordType
         return makeHashedStoredValue( hashedValue );
     }
 
+    /**
+     * @return length of the hex encoded hash value, or zero for {@link #RAW}.
+     */
+    public int getHexValueLength()
+    {
+        return hashAlgorithm == null ? 0 : hashAlgorithm.getHexValueLength();
+    }
+
     private String makeHashedStoredValue( final String hash )
     {
         // stored hash first to improve sorting/storage efficiency
         return hash.toLowerCase() + DELIMITER + name();
     }
 
+    /**
+     * Digest bytes of a hashed stored value, as produced by {@link #convertInputFromWordlist(WordlistConfiguration, String)}.
+     * @param storedValue stored value in the form {@code <hex>:<TYPE>}
+     * @return digest bytes, or empty if the value is not a hashed stored value.
+     */
+    public static Optional<byte[]> storedHashBytes( final String storedValue )
+    {
+        final int delimiterIndex = storedValue.lastIndexOf( DELIMITER );
+        if ( delimiterIndex < 0 )
+        {
+            return Optional.empty();
+        }
+
+        final String typeName = storedValue.substring( delimiterIndex + DELIMITER.length() );
+        final String hexValue = storedValue.substring( 0, delimiterIndex );
+        for ( final WordType wordType : NonRawTypeSingleton.NON_RAW_TYPES )
+        {
+            if ( wordType.name().equals( typeName ) && hexValue.length() == wordType.hashAlgorithm.getHexValueLength() )
+            {
+                try
+                {
+                    return Optional.of( HexFormat.of().parseHex( hexValue ) );
+                }
+                catch ( final IllegalArgumentException e )
+                {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Inverse of {@link #storedHashBytes(String)}.  The hash type is determined by the digest length.
+     * @param hashBytes digest bytes
+     * @return stored value in the form {@code <hex>:<TYPE>}, or empty if no hash type has a matching digest length.
+     */
+    public static Optional<String> storedValueForHashBytes( final byte[] hashBytes )
+    {
+        for ( final WordType wordType : NonRawTypeSingleton.NON_RAW_TYPES )
+        {
+            if ( hashBytes.length * 2 == wordType.hashAlgorithm.getHexValueLength() )
+            {
+                return Optional.of( wordType.makeHashedStoredValue( HexFormat.of().formatHex( hashBytes ) ) );
+            }
+        }
+        return Optional.empty();
+    }
+
     public static WordType determineWordType( final String input )
     {
         Objects.requireNonNull( input );
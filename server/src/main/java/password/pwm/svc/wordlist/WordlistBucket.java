@@ -23,12 +23,19 @@ package password.pwm.svc.wordlist;
 import password.pwm.error.PwmUnrecoverableException;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface WordlistBucket
 {
     boolean containsWord( String hashWord )
             throws PwmUnrecoverableException;
 
+    /**
+     * Read stored hash digests of the given length beginning with a prefix, in unsigned byte order.
+     */
+    List<byte[]> hashesWithPrefix( byte[] prefix, int digestLength, int maxResults )
+            throws PwmUnrecoverableException;
+
     String randomSeed() throws PwmUnrecoverableException;
 
     void addWords( Collection<String> words, AbstractWordlist abstractWordlist )
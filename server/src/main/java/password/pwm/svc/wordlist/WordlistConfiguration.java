@@ -57,6 +57,7 @@ public class WordlistConfiguration
     private final AppAttribute metaDataAppAttribute;
     private final AppProperty builtInWordlistLocationProperty;
     private final LocalDB.DB db;
+    private final LocalDB.DB hashDb;
     private final PwmSetting wordlistFilenameSetting;
     private final boolean testMode;
     private final int warmupLookups;
@@ -71,6 +72,7 @@ public class WordlistConfiguration
     private final TimeDuration importPauseDuration;
     private final TimeDuration importPauseFrequency;
 
+    private final int importThreads;
     private final int importMinTransactions;
     private final int importMaxTransactions;
     private final long importMaxChars;
@@ -94,6 +96,7 @@ public class WordlistConfiguration
                         .metaDataAppAttribute( AppAttribute.WORDLIST_METADATA )
                         .builtInWordlistLocationProperty( AppProperty.WORDLIST_BUILTIN_PATH )
                         .db( LocalDB.DB.WORDLIST_WORDS )
+                        .hashDb( LocalDB.DB.WORDLIST_HASHES )
                         .wordlistFilenameSetting( PwmSetting.WORDLIST_FILENAME )
                         .build();
             }
@@ -118,6 +121,7 @@ public class WordlistConfiguration
                 .bucketCheckLogWarningTimeout( appConfig.readDurationAppProperty( AppProperty.WORDLIST_BUCKET_CHECK_WARNING_TIMEOUT_MS ) )
                 .autoImportRecheckDuration( appConfig.readDurationAppProperty( AppProperty.WORDLIST_IMPORT_AUTO_IMPORT_RECHECK_SECONDS ) )
                 .importDurationGoal( appConfig.readDurationAppProperty( AppProperty.WORDLIST_IMPORT_DURATION_GOAL_MS ) )
+                .importThreads( Integer.parseInt( appConfig.readAppProperty( AppProperty.WORDLIST_IMPORT_THREADS ) ) )
                 .importMinTransactions( Integer.parseInt( appConfig.readAppProperty( AppProperty.WORDLIST_IMPORT_MIN_TRANSACTIONS ) ) )
                 .importMaxTransactions( Integer.parseInt( appConfig.readAppProperty( AppProperty.WORDLIST_IMPORT_MAX_TRANSACTIONS ) ) )
                 .importMaxChars( JavaHelper.silentParseLong( appConfig.readAppProperty( AppProperty.WORDLIST_IMPORT_MAX_CHARS_TRANSACTIONS ), 10_1024_1024 ) )
@@ -20,10 +20,13 @@
 
 package password.pwm.svc.wordlist;
 
+import lombok.Value;
+import password.pwm.PwmApplication;
 import password.pwm.PwmConstants;
 import password.pwm.error.ErrorInformation;
 import password.pwm.error.PwmError;
 import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.util.PwmScheduler;
 import password.pwm.util.TransactionSizeCalculator;
 import password.pwm.util.java.ConditionalTaskExecutor;
 import password.pwm.util.java.JavaHelper;
@@ -37,14 +40,26 @@ import password.pwm.util.json.JsonFactory;
 import password.pwm.util.logging.PwmLogger;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BooleanSupplier;
 
@@ -53,8 +68,12 @@ import java.util.function.BooleanSupplier;
  */
 class WordlistImporter implements Runnable
 {
+    private static final int PAGE_MAX_LINES = 5_000;
+    private static final int PAGES_IN_FLIGHT_PER_THREAD = 4;
+
     private final WordlistZipReader zipFileReader;
     private final WordlistSourceType sourceType;
+    private final PwmApplication pwmApplication;
     private final AbstractWordlist rootWordlist;
 
     private final TransactionSizeCalculator transactionCalculator;
@@ -65,7 +84,12 @@ class WordlistImporter implements Runnable
     private final StatisticAverageBundle<StatKey> importStatistics = new StatisticAverageBundle<>( StatKey.class );
     private final ConditionalTaskExecutor pauseTimer;
 
+    private final int threadCount;
+    private final AtomicReference<Throwable> pipelineError = new AtomicReference<>();
+
     private long charsInBuffer;
+    private long bufferedBytePosition;
+    private long committedBytePosition;
     private ErrorInformation exitError;
     private Instant startTime = Instant.now();
     private long bytesSkipped;
@@ -114,9 +138,41 @@ class WordlistImporter implements Runnable
         CharsPerTxn,
         ChunksPerWord,
         AvgWordLength,
+        ReadLinesPerSecond,
+        NormalizeLinesPerSecond,
+        WriteWordsPerSecond,
+    }
+
+    /**
+     * Lines handed from the read stage to the normalize stage.
+     */
+    @Value
+    private static class LinePage
+    {
+        private final long sequence;
+        private final List<String> lines;
+
+        /**
+         * Reader byte position after the last line of the page, used as the resume checkpoint once the page is committed.
+         */
+        private final long byteCount;
+    }
+
+    /**
+     * Normalized (and for hash types, converted) values handed from the normalize stage to the write stage.
+     */
+    @Value
+    private static class WordPage
+    {
+        private final long sequence;
+        private final Collection<String> words;
+        private final long chars;
+        private final long byteCount;
+        private final Map<WordType, Long> wordTypes;
     }
 
     WordlistImporter(
+            final PwmApplication pwmApplication,
             final WordlistSourceInfo wordlistSourceInfo,
             final WordlistZipReader wordlistZipReader,
             final WordlistSourceType sourceType,
@@ -124,6 +180,7 @@ class WordlistImporter implements Runnable
             final BooleanSupplier cancelFlag
     )
     {
+        this.pwmApplication = pwmApplication;
         this.wordlistSourceInfo = wordlistSourceInfo;
         this.sourceType = sourceType;
         this.zipFileReader = wordlistZipReader;
@@ -147,6 +204,10 @@ class WordlistImporter implements Runnable
                     pauseDuration::pause,
                     wordlistConfiguration.getImportPauseFrequency().asDuration() );
         }
+
+        this.threadCount = wordlistConfiguration.getImportThreads() > 0
+                ? wordlistConfiguration.getImportThreads()
+                : Math.max( 1, Runtime.getRuntime().availableProcessors() - 1 );
     }
 
     @Override
@@ -224,14 +285,15 @@ class WordlistImporter implements Runnable
     {
         rootWordlist.setActivity( Wordlist.Activity.Importing );
 
-        final ConditionalTaskExecutor metaUpdater = ConditionalTaskExecutor.forPeriodicTask(
-                this::writeCurrentWordlistStatus,
-                TimeDuration.SECONDS_10.asDuration() );
-
         final ConditionalTaskExecutor debugOutputter = ConditionalTaskExecutor.forPeriodicTask(
                 () -> getLogger().debug( rootWordlist.getSessionLabel(), this::makeStatString ),
                 AbstractWordlist.DEBUG_OUTPUT_FREQUENCY.asDuration() );
 
+        final ExecutorService readExecutor = PwmScheduler.makeMultiThreadExecutor(
+                1, pwmApplication, rootWordlist.getSessionLabel(), WordlistImporter.class, "read" );
+        final ExecutorService normalizeExecutor = PwmScheduler.makeMultiThreadExecutor(
+                threadCount, pwmApplication, rootWordlist.getSessionLabel(), WordlistImporter.class, "normalize" );
+
         try
         {
             debugOutputter.conditionallyExecuteTask();
@@ -239,51 +301,228 @@ class WordlistImporter implements Runnable
             initImportProcess();
 
             startTime = Instant.now();
+            committedBytePosition = zipFileReader.getByteCount();
+            bufferedBytePosition = committedBytePosition;
+
+            getLogger().debug( rootWordlist.getSessionLabel(), () -> "beginning import using " + threadCount + " normalize threads: "
+                    + JsonFactory.get().serialize( rootWordlist.readWordlistStatus() ) );
 
-            getLogger().debug( rootWordlist.getSessionLabel(), () -> "beginning import: " + JsonFactory.get().serialize( rootWordlist.readWordlistStatus() ) );
-            Instant lastTxnInstant = Instant.now();
+            // bounds the pages held between the read and write stages, including pages waiting to be written in order
+            final Semaphore pagePermits = new Semaphore( threadCount * PAGES_IN_FLIGHT_PER_THREAD );
+            final BlockingQueue<WordPage> normalizedPages = new LinkedBlockingQueue<>();
 
-            final long importMaxChars = rootWordlist.getConfiguration().getImportMaxChars();
+            final Future<Long> readerFuture = readExecutor.submit( () -> readPages( normalizeExecutor, pagePermits, normalizedPages ) );
+            writePages( readerFuture, pagePermits, normalizedPages, debugOutputter );
 
-            String line;
-            do
+            cancelCheck();
+            populationComplete();
+        }
+        finally
+        {
+            // the read stage is stopped before the reader it uses is closed
+            PwmScheduler.closeAndWaitExecutor( readExecutor, TimeDuration.SECONDS_10, getLogger(), rootWordlist.getSessionLabel() );
+            normalizeExecutor.shutdownNow();
+            JavaHelper.closeQuietly( zipFileReader );
+        }
+    }
+
+    /**
+     * Read stage.  Reads lines into pages and hands each page to the normalize stage.
+     * @return total number of pages read
+     */
+    private long readPages(
+            final ExecutorService normalizeExecutor,
+            final Semaphore pagePermits,
+            final BlockingQueue<WordPage> normalizedPages
+    )
+            throws PwmUnrecoverableException, InterruptedException
+    {
+        long sequence = 0;
+        List<String> lines = new ArrayList<>( PAGE_MAX_LINES );
+
+        String line = zipFileReader.nextLine();
+        while ( line != null )
+        {
+            lines.add( line );
+            if ( lines.size() >= PAGE_MAX_LINES )
             {
-                line = zipFileReader.nextLine();
-                if ( line != null )
-                {
-                    addLine( line );
+                submitPage( new LinePage( sequence++, lines, zipFileReader.getByteCount() ), normalizeExecutor, pagePermits, normalizedPages );
+                lines = new ArrayList<>( PAGE_MAX_LINES );
+            }
+            line = zipFileReader.nextLine();
+        }
 
-                    debugOutputter.conditionallyExecuteTask();
+        if ( !lines.isEmpty() )
+        {
+            submitPage( new LinePage( sequence++, lines, zipFileReader.getByteCount() ), normalizeExecutor, pagePermits, normalizedPages );
+        }
 
-                    if (
-                            bufferedWords.size() > transactionCalculator.getTransactionSize()
-                                    || charsInBuffer > importMaxChars
-                    )
-                    {
-                        flushBuffer();
-                        metaUpdater.conditionallyExecuteTask();
-                        checkWordlistSpaceRemaining();
+        return sequence;
+    }
 
-                        importStatistics.update( StatKey.msPerTransaction, TimeDuration.fromCurrent( lastTxnInstant ).asMillis() );
-                        pauseTimer.conditionallyExecuteTask();
-                        lastTxnInstant = Instant.now();
-                    }
+    private void submitPage(
+            final LinePage linePage,
+            final ExecutorService normalizeExecutor,
+            final Semaphore pagePermits,
+            final BlockingQueue<WordPage> normalizedPages
+    )
+            throws InterruptedException
+    {
+        while ( !pagePermits.tryAcquire( 1, TimeUnit.SECONDS ) )
+        {
+            cancelCheck();
+        }
 
-                    cancelCheck();
-                }
+        rootWordlist.getStatistics().markImportEvents( WordlistStatistics.ImportStage.read, linePage.getLines().size() );
+
+        normalizeExecutor.execute( () ->
+        {
+            try
+            {
+                normalizedPages.add( normalizePage( linePage ) );
+            }
+            catch ( final Throwable t )
+            {
+                pipelineError.compareAndSet( null, t );
             }
-            while ( line != null );
+        } );
+    }
+
+    /**
+     * Normalize stage.  Runs concurrently for different pages.
+     */
+    private WordPage normalizePage( final LinePage linePage )
+    {
+        final Collection<String> words = new HashSet<>();
+        final Map<WordType, Long> wordTypes = new EnumMap<>( WordType.class );
+        for ( final String line : linePage.getLines() )
+        {
+            addLine( line, words, wordTypes );
+        }
 
+        long chars = 0;
+        for ( final String word : words )
+        {
+            chars += word.length();
+        }
+
+        rootWordlist.getStatistics().markImportEvents( WordlistStatistics.ImportStage.normalize, linePage.getLines().size() );
+        return new WordPage( linePage.getSequence(), words, chars, linePage.getByteCount(), wordTypes );
+    }
+
+    /**
+     * Write stage.  Merges normalized pages in read order into sorted batches and commits them, so the committed byte
+     * position is always a valid resume point.
+     */
+    private void writePages(
+            final Future<Long> readerFuture,
+            final Semaphore pagePermits,
+            final BlockingQueue<WordPage> normalizedPages,
+            final ConditionalTaskExecutor debugOutputter
+    )
+            throws PwmUnrecoverableException
+    {
+        final ConditionalTaskExecutor metaUpdater = ConditionalTaskExecutor.forPeriodicTask(
+                this::writeCurrentWordlistStatus,
+                TimeDuration.SECONDS_10.asDuration() );
+
+        final long importMaxChars = rootWordlist.getConfiguration().getImportMaxChars();
+        final Map<Long, WordPage> pendingPages = new HashMap<>();
+        long nextSequence = 0;
+        Instant lastTxnInstant = Instant.now();
+
+        while ( true )
+        {
             cancelCheck();
-            populationComplete();
+            checkPipelineError();
+
+            final WordPage polledPage;
+            try
+            {
+                polledPage = normalizedPages.poll( 1, TimeUnit.SECONDS );
+            }
+            catch ( final InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+
+            if ( polledPage != null )
+            {
+                pendingPages.put( polledPage.getSequence(), polledPage );
+            }
+
+            WordPage nextPage = pendingPages.remove( nextSequence );
+            while ( nextPage != null )
+            {
+                nextSequence++;
+                pagePermits.release();
+
+                bufferedWords.addAll( nextPage.getWords() );
+                charsInBuffer += nextPage.getChars();
+                bufferedBytePosition = nextPage.getByteCount();
+                nextPage.getWordTypes().forEach( ( wordType, count ) -> seenWordTypes.computeIfAbsent( wordType, t -> new LongAdder() ).add( count ) );
+
+                if ( bufferedWords.size() > transactionCalculator.getTransactionSize() || charsInBuffer > importMaxChars )
+                {
+                    flushBuffer();
+                    metaUpdater.conditionallyExecuteTask();
+                    checkWordlistSpaceRemaining();
+
+                    importStatistics.update( StatKey.msPerTransaction, TimeDuration.fromCurrent( lastTxnInstant ).asMillis() );
+                    pauseTimer.conditionallyExecuteTask();
+                    lastTxnInstant = Instant.now();
+                }
+
+                debugOutputter.conditionallyExecuteTask();
+                nextPage = pendingPages.remove( nextSequence );
+            }
+
+            if ( readerFuture.isDone() && nextSequence == readPageCount( readerFuture ) )
+            {
+                return;
+            }
         }
-        finally
+    }
+
+    private long readPageCount( final Future<Long> readerFuture )
+            throws PwmUnrecoverableException
+    {
+        try
         {
-            JavaHelper.closeQuietly( zipFileReader );
+            return readerFuture.get();
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+        catch ( final ExecutionException e )
+        {
+            final Throwable cause = e.getCause();
+            if ( cause instanceof PwmUnrecoverableException )
+            {
+                throw ( PwmUnrecoverableException ) cause;
+            }
+            if ( cause instanceof CancellationException )
+            {
+                throw ( CancellationException ) cause;
+            }
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_WORDLIST_IMPORT_ERROR, "error reading wordlist: " + cause.getMessage() );
+        }
+    }
+
+    private void checkPipelineError()
+            throws PwmUnrecoverableException
+    {
+        final Throwable error = pipelineError.get();
+        if ( error != null )
+        {
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_WORDLIST_IMPORT_ERROR, "error normalizing wordlist words: " + error.getMessage() );
         }
     }
 
-    private void addLine( final String input )
+    private void addLine( final String input, final Collection<String> words, final Map<WordType, Long> wordTypes )
     {
         if ( StringUtil.isEmpty( input ) )
         {
@@ -296,35 +535,25 @@ class WordlistImporter implements Runnable
         }
 
         final WordType wordType = WordType.determineWordType( input );
-        seenWordTypes.computeIfAbsent( wordType, t -> new LongAdder() ).increment();
+        wordTypes.merge( wordType, 1L, Long::sum );
 
         if ( wordType == WordType.RAW )
         {
             WordlistUtil.normalizeWordLength( input, rootWordlist.getConfiguration() ).ifPresent( word ->
             {
                 final String normalizedWord = wordType.convertInputFromWordlist( this.rootWordlist.getConfiguration(), word );
-                final Set<String> words = WordlistUtil.chunkWord( normalizedWord, rootWordlist.getConfiguration().getCheckSize() );
+                final Set<String> chunks = WordlistUtil.chunkWord( normalizedWord, rootWordlist.getConfiguration().getCheckSize() );
                 importStatistics.update( StatKey.averageWordLength, normalizedWord.length() );
-                importStatistics.update( StatKey.chunksPerWord, words.size() );
-                incrementCharBufferCounter( words );
-                bufferedWords.addAll( words );
+                importStatistics.update( StatKey.chunksPerWord, chunks.size() );
+                words.addAll( chunks );
             } );
         }
         else
         {
             final String normalizedWord = wordType.convertInputFromWordlist( this.rootWordlist.getConfiguration(), input );
-            incrementCharBufferCounter( Collections.singleton( normalizedWord ) );
             importStatistics.update( StatKey.averageWordLength, normalizedWord.length() );
             importStatistics.update( StatKey.chunksPerWord, 1 );
-            bufferedWords.add( normalizedWord );
-        }
-    }
-
-    private void incrementCharBufferCounter( final Collection<String> words )
-    {
-        for ( final String word : words )
-        {
-            charsInBuffer += word.length();
+            words.add( normalizedWord );
         }
     }
 
@@ -357,6 +586,8 @@ class WordlistImporter implements Runnable
 
         importStatistics.update( StatKey.wordsPerTransaction, bufferedWords.size() );
         importStatistics.update( StatKey.charsPerTransaction, charsInBuffer );
+        rootWordlist.getStatistics().markImportEvents( WordlistStatistics.ImportStage.write, bufferedWords.size() );
+        committedBytePosition = bufferedBytePosition;
 
         //clear the buffers.
         bufferedWords.clear();
@@ -488,6 +719,11 @@ class WordlistImporter implements Runnable
         Arrays.stream( StatKey.values() )
                 .forEach( statKey -> stats.put( statKey.getDebugKey(), importStatistics.getFormattedAverage( statKey ) ) );
 
+        final WordlistStatistics wordlistStatistics = rootWordlist.getStatistics();
+        stats.put( DebugKey.ReadLinesPerSecond, wordlistStatistics.importRate( WordlistStatistics.ImportStage.read ) );
+        stats.put( DebugKey.NormalizeLinesPerSecond, wordlistStatistics.importRate( WordlistStatistics.ImportStage.normalize ) );
+        stats.put( DebugKey.WriteWordsPerSecond, wordlistStatistics.importRate( WordlistStatistics.ImportStage.write ) );
+
         return Collections.unmodifiableMap( stats );
     }
 
@@ -505,7 +741,7 @@ class WordlistImporter implements Runnable
                 .sourceType( sourceType )
                 .completed( completed )
                 .wordTypes( outputWordTypeMap )
-                .bytes( zipFileReader.getByteCount() )
+                .bytes( committedBytePosition )
                 .importMs( getImportDuration().asMillis() )
                 .build() );
     }
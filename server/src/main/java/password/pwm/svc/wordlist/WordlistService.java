@@ -51,4 +51,11 @@ public class WordlistService extends AbstractWordlist implements Wordlist
     {
         return super.containsWord( this.getWordTypesCache(), word );
     }
+
+    @Override
+    public WordlistHashRange hashRange( final WordType wordType, final String hexPrefix, final int maxResults )
+            throws PwmUnrecoverableException
+    {
+        return super.hashRange( wordType, hexPrefix, maxResults );
+    }
 }
@@ -22,9 +22,11 @@ package password.pwm.svc.wordlist;
 
 import lombok.Value;
 import password.pwm.PwmConstants;
+import password.pwm.util.EventRateMeter;
 import password.pwm.util.java.EnumUtil;
 import password.pwm.util.java.StatisticAverageBundle;
 import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.TimeDuration;
 
 import java.util.Collections;
 import java.util.EnumMap;
@@ -38,6 +40,7 @@ class WordlistStatistics
     private final Map<WordType, LongAdder> wordTypeHits = new EnumMap<>( WordType.class );
     private final StatisticCounterBundle<CounterStat> counterStats = new StatisticCounterBundle<>( CounterStat.class );
     private final StatisticAverageBundle<AverageStat> averageStats = new StatisticAverageBundle<>( AverageStat.class );
+    private final Map<ImportStage, EventRateMeter> importStageRates = new EnumMap<>( ImportStage.class );
 
     enum CounterStat
     {
@@ -47,6 +50,7 @@ class WordlistStatistics
         chunkChecks,
         chunkHits,
         chunkMisses,
+        hashRangeQueries,
     }
 
     enum AverageStat
@@ -57,9 +61,30 @@ class WordlistStatistics
         chunksPerWordCheck,
     }
 
+    /**
+     * Stages of the wordlist import pipeline.  Read and normalize rates count lines, the write rate counts stored values.
+     */
+    enum ImportStage
+    {
+        read,
+        normalize,
+        write,
+    }
+
     WordlistStatistics()
     {
         EnumUtil.enumStream( WordType.class ).forEach( wordType -> wordTypeHits.put( wordType, new LongAdder() ) );
+        EnumUtil.enumStream( ImportStage.class ).forEach( stage -> importStageRates.put( stage, new EventRateMeter( TimeDuration.MINUTE.asDuration() ) ) );
+    }
+
+    void markImportEvents( final ImportStage stage, final int count )
+    {
+        importStageRates.get( stage ).markEvents( count );
+    }
+
+    String importRate( final ImportStage stage )
+    {
+        return importStageRates.get( stage ).prettyEps( PwmConstants.DEFAULT_LOCALE );
     }
 
     Map<String, String> asDebugMap()
@@ -71,6 +96,10 @@ class WordlistStatistics
         }
         outputMap.putAll( counterStats.debugStats( PwmConstants.DEFAULT_LOCALE ) );
         outputMap.putAll( averageStats.debugStats() );
+        for ( final ImportStage stage : ImportStage.values() )
+        {
+            outputMap.put( "ImportRate-" + stage.name(), importRate( stage ) );
+        }
         return Collections.unmodifiableMap( outputMap );
     }
 }
@@ -51,11 +51,12 @@ class WordlistZipReader implements AutoCloseable, Closeable
     private final EventRateMeter eventRateMeter;
     private final MessageDigest messageDigest;
 
-    private long byteCounter = 0;
-    private long lineCounter = 0;
+    // written only by the reading thread, volatile so import statistics can be read from other threads
+    private volatile long byteCounter = 0;
+    private volatile long lineCounter = 0;
 
     private BufferedReader reader;
-    private ZipEntry zipEntry;
+    private volatile ZipEntry zipEntry;
 
     WordlistZipReader( final InputStream inputStream ) throws PwmUnrecoverableException
     {
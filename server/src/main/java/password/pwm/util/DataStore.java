@@ -62,4 +62,10 @@ public interface DataStore
             throws PwmDataStoreException, PwmUnrecoverableException;
 
     DataStorageMethod getDataStorageMethod();
+
+    /**
+     * Indicates if {@link #iterator()} returns entries in ascending key order.
+     * @return true if iteration is ordered by key.
+     */
+    boolean isSortedIteration();
 }
@@ -31,10 +31,25 @@ public abstract class DataStoreFactory
 {
     public static DataStore autoDbOrLocalDBstore( final PwmApplication pwmApplication, final DatabaseTable table, final LocalDB.DB db )
             throws PwmUnrecoverableException
+    {
+        return autoDbOrLocalDBstore( pwmApplication, table, db, false );
+    }
+
+    /**
+     * @param sortedIteration request key ordered iteration from the database store.  LocalDB stores iterate
+     *     in key order only if the LocalDB provider does, see {@link DataStore#isSortedIteration()}.
+     */
+    public static DataStore autoDbOrLocalDBstore(
+            final PwmApplication pwmApplication,
+            final DatabaseTable table,
+            final LocalDB.DB db,
+            final boolean sortedIteration
+    )
+            throws PwmUnrecoverableException
     {
         if ( pwmApplication.getConfig().hasDbConfigured() )
         {
-            return new DatabaseDataStore( pwmApplication.getDatabaseService(), table );
+            return new DatabaseDataStore( pwmApplication.getDatabaseService(), table, sortedIteration );
         }
 
         return new LocalDBDataStore( pwmApplication.getLocalDB(), db );
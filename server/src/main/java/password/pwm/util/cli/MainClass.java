@@ -44,6 +44,7 @@ import password.pwm.util.cli.commands.ExportAuditCommand;
 import password.pwm.util.cli.commands.ExportHttpsKeyStoreCommand;
 import password.pwm.util.cli.commands.ExportHttpsTomcatConfigCommand;
 import password.pwm.util.cli.commands.ExportLocalDBCommand;
+import password.pwm.util.cli.commands.ExportLocalDBSegmentsCommand;
 import password.pwm.util.cli.commands.ExportLogsCommand;
 import password.pwm.util.cli.commands.ExportResponsesCommand;
 import password.pwm.util.cli.commands.ExportStatsCommand;
@@ -51,9 +52,11 @@ import password.pwm.util.cli.commands.ExportWordlistCommand;
 import password.pwm.util.cli.commands.HelpCommand;
 import password.pwm.util.cli.commands.ImportHttpsKeyStoreCommand;
 import password.pwm.util.cli.commands.ImportLocalDBCommand;
+import password.pwm.util.cli.commands.ImportLocalDBSegmentsCommand;
 import password.pwm.util.cli.commands.ImportPropertyConfigCommand;
 import password.pwm.util.cli.commands.ImportResponsesCommand;
 import password.pwm.util.cli.commands.LdapSchemaExtendCommand;
+import password.pwm.util.cli.commands.LocalDBBenchmarkCommand;
 import password.pwm.util.cli.commands.LocalDBInfoCommand;
 import password.pwm.util.cli.commands.ResetInstanceIDCommand;
 import password.pwm.util.cli.commands.ResponseStatsCommand;
@@ -96,10 +99,13 @@ public class MainClass
     public static final Map<String, CliCommand> COMMANDS = Map.copyOf(
             new TreeMap<>( Stream.of(
                     new LocalDBInfoCommand(),
+                    new LocalDBBenchmarkCommand(),
                     new ExportLogsCommand(),
                     new UserReportCommand(),
                     new ExportLocalDBCommand(),
+                    new ExportLocalDBSegmentsCommand(),
                     new ImportLocalDBCommand(),
+                    new ImportLocalDBSegmentsCommand(),
                     new ExportAuditCommand(),
                     new ConfigUnlockCommand(),
                     new ConfigLockCommand(),
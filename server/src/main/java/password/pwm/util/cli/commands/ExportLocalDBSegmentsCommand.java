@@ -0,0 +1,67 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.cli.commands;
+
+import password.pwm.error.PwmOperationalException;
+import password.pwm.util.cli.CliParameters;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.localdb.LocalDBUtility;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+
+public class ExportLocalDBSegmentsCommand extends AbstractCliCommand
+{
+    static final String DIRECTORY_OPTIONNAME = "directory";
+
+    @Override
+    void doCommand( )
+            throws IOException
+    {
+        final LocalDB localDB = cliEnvironment.getLocalDB();
+        final Path outputDirectory = Path.of( ( String ) cliEnvironment.getOptions().get( DIRECTORY_OPTIONNAME ) );
+
+        final LocalDBUtility localDBUtility = new LocalDBUtility( localDB );
+        try
+        {
+            localDBUtility.exportLocalDBSegments( outputDirectory, System.out );
+        }
+        catch ( final PwmOperationalException e )
+        {
+            out( "error during export: " + e.getMessage() );
+        }
+    }
+
+    @Override
+    public CliParameters getCliParameters( )
+    {
+        final CliParameters cliParameters = new CliParameters();
+        cliParameters.commandName = "ExportLocalDBSegments";
+        cliParameters.description = "Export the entire LocalDB contents to a directory of backup segments, resuming an interrupted export to the same directory";
+        cliParameters.options = Collections.singletonList( CliParameters.newRequiredStringOption( DIRECTORY_OPTIONNAME ) );
+
+        cliParameters.needsLocalDB = true;
+        cliParameters.readOnly = true;
+
+        return cliParameters;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.cli.commands;
+
+import password.pwm.error.PwmOperationalException;
+import password.pwm.util.cli.CliParameters;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.localdb.LocalDBException;
+import password.pwm.util.localdb.LocalDBUtility;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+public class ImportLocalDBSegmentsCommand extends AbstractCliCommand
+{
+    @Override
+    void doCommand( )
+            throws IOException
+    {
+        final LocalDB localDB = cliEnvironment.getLocalDB();
+        final Path inputDirectory = Path.of( ( String ) cliEnvironment.getOptions().get( ExportLocalDBSegmentsCommand.DIRECTORY_OPTIONNAME ) );
+        if ( !Files.isDirectory( inputDirectory ) )
+        {
+            out( "directory for ImportLocalDBSegments does not exist" );
+            return;
+        }
+
+        final LocalDBUtility localDBUtility = new LocalDBUtility( localDB );
+        final boolean resume;
+        try
+        {
+            resume = localDBUtility.readSegmentedImportInprogressFlag();
+        }
+        catch ( final LocalDBException e )
+        {
+            out( "error reading segmented import status: " + e.getMessage() );
+            return;
+        }
+
+        final String msg = resume
+                ? "A previous segmented import did not complete, proceeding will resume the import if it used the same export."
+                : "Proceeding with this operation will clear ALL data from the LocalDB." + "\n"
+                + "Please consider backing up the LocalDB before proceeding. " + "\n"
+                + "\n"
+                + "The application must be stopped for this operation to succeed.";
+        if ( !promptForContinue( msg ) )
+        {
+            out( "exiting..." );
+            return;
+        }
+
+        try
+        {
+            localDBUtility.importLocalDBSegments( inputDirectory, System.out );
+        }
+        catch ( final PwmOperationalException e )
+        {
+            out( "error during import: " + e.getMessage() );
+        }
+    }
+
+    @Override
+    public CliParameters getCliParameters( )
+    {
+        final CliParameters cliParameters = new CliParameters();
+        cliParameters.commandName = "ImportLocalDBSegments";
+        cliParameters.description = "Import the entire LocalDB contents from a directory of backup segments, resuming an interrupted import";
+        cliParameters.options = Collections.singletonList( CliParameters.newRequiredStringOption( ExportLocalDBSegmentsCommand.DIRECTORY_OPTIONNAME ) );
+
+        cliParameters.needsLocalDB = true;
+        cliParameters.readOnly = false;
+
+        return cliParameters;
+    }
+}
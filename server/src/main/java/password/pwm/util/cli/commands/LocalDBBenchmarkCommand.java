@@ -0,0 +1,248 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.cli.commands;
+
+import password.pwm.AppProperty;
+import password.pwm.util.LatencyHistogram;
+import password.pwm.util.cli.CliException;
+import password.pwm.util.cli.CliParameters;
+import password.pwm.util.java.JavaHelper;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.json.JsonFactory;
+import password.pwm.util.json.JsonProvider;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.localdb.LocalDBException;
+import password.pwm.util.secure.PwmRandom;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures iterate, get and put throughput and latency for each {@link LocalDB.DB} using the existing LocalDB data.
+ * Iteration and reads use the stored records directly.  Puts replay a random sample of each db's records into
+ * {@link LocalDB.DB#TEMP} so that stored data is not modified; the TEMP db is cleared when the benchmark completes.
+ */
+public class LocalDBBenchmarkCommand extends AbstractCliCommand
+{
+    private static final String SAMPLE_SIZE_OPTIONNAME = "sampleSize";
+    private static final int DEFAULT_SAMPLE_SIZE = 10_000;
+
+    /**
+     * Iteration stops after this many multiples of the sample size, so very large dbs finish in reasonable time.
+     */
+    private static final int MAX_ITERATE_SAMPLE_MULTIPLE = 100;
+
+    private static final String BENCHMARK_KEY_PREFIX = "benchmark-";
+
+    @Override
+    void doCommand( )
+            throws IOException, CliException
+    {
+        final int sampleSize = readSampleSize();
+        final LocalDB localDB = cliEnvironment.getLocalDB();
+        final String tuningProfile = cliEnvironment.getConfig() == null
+                ? AppProperty.LOCALDB_TUNING_PROFILE.getDefaultValue()
+                : cliEnvironment.getConfig().readAppProperty( AppProperty.LOCALDB_TUNING_PROFILE );
+
+        out( "beginning LocalDB benchmark with sampleSize=" + sampleSize + ", tuningProfile=" + tuningProfile );
+        final Instant startTime = Instant.now();
+        try
+        {
+            for ( final LocalDB.DB db : LocalDB.DB.values() )
+            {
+                if ( db != LocalDB.DB.TEMP )
+                {
+                    out( "---" + db + "---" );
+                    final Map<String, Object> results = benchmarkDb( localDB, db, sampleSize );
+                    out( JsonFactory.get().serializeMap( results, JsonProvider.Flag.PrettyPrint ) );
+                }
+            }
+        }
+        catch ( final LocalDBException e )
+        {
+            out( "error during benchmark: " + e.getMessage() );
+        }
+        finally
+        {
+            try
+            {
+                localDB.truncate( LocalDB.DB.TEMP );
+            }
+            catch ( final LocalDBException e )
+            {
+                out( "error clearing benchmark records from " + LocalDB.DB.TEMP + ": " + e.getMessage() );
+            }
+        }
+        out( "completed LocalDB benchmark in " + TimeDuration.fromCurrent( startTime ).asCompactString() );
+    }
+
+    private int readSampleSize( )
+            throws CliException
+    {
+        final String value = ( String ) cliEnvironment.getOptions().get( SAMPLE_SIZE_OPTIONNAME );
+        if ( value == null )
+        {
+            return DEFAULT_SAMPLE_SIZE;
+        }
+
+        final int sampleSize = JavaHelper.silentParseInt( value, -1 );
+        if ( sampleSize <= 0 )
+        {
+            throw new CliException( "option '" + SAMPLE_SIZE_OPTIONNAME + "' must be a positive integer" );
+        }
+        return sampleSize;
+    }
+
+    private static Map<String, Object> benchmarkDb( final LocalDB localDB, final LocalDB.DB db, final int sampleSize )
+            throws LocalDBException
+    {
+        final Map<String, Object> results = new LinkedHashMap<>();
+        results.put( "records", localDB.size( db ) );
+
+        final List<Map.Entry<String, String>> sample = new ArrayList<>( sampleSize );
+        final long maxIterations = ( long ) sampleSize * MAX_ITERATE_SAMPLE_MULTIPLE;
+        final PwmRandom random = PwmRandom.getInstance();
+        long iterations = 0;
+        long iteratedBytes = 0;
+        final long iterateStart = System.nanoTime();
+        try ( LocalDB.LocalDBIterator iterator = localDB.iterator( db ) )
+        {
+            while ( iterator.hasNext() && iterations < maxIterations )
+            {
+                final Map.Entry<String, String> entry = iterator.next();
+                iteratedBytes += entry.getKey().length() + ( entry.getValue() == null ? 0 : entry.getValue().length() );
+
+                // reservoir sample so read keys are spread across the iterated range
+                if ( sample.size() < sampleSize )
+                {
+                    sample.add( entry );
+                }
+                else
+                {
+                    final long index = random.nextLong( iterations + 1 );
+                    if ( index < sampleSize )
+                    {
+                        sample.set( ( int ) index, entry );
+                    }
+                }
+                iterations++;
+            }
+        }
+        final long iterateNanos = System.nanoTime() - iterateStart;
+        results.put( "iterateRecords", iterations );
+        results.put( "iterateChars", iteratedBytes );
+        results.put( "iterateRecordsPerSecond", perSecond( iterations, iterateNanos ) );
+
+        if ( sample.isEmpty() )
+        {
+            return results;
+        }
+
+        Collections.shuffle( sample, random );
+
+        final LatencyHistogram getLatency = new LatencyHistogram();
+        final long getStart = System.nanoTime();
+        for ( final Map.Entry<String, String> entry : sample )
+        {
+            final long operationStart = System.nanoTime();
+            localDB.get( db, entry.getKey() );
+            getLatency.record( nanosToMicros( System.nanoTime() - operationStart ) );
+        }
+        results.put( "getPerSecond", perSecond( sample.size(), System.nanoTime() - getStart ) );
+        results.putAll( latencyResults( "get", getLatency ) );
+
+        final LatencyHistogram putLatency = new LatencyHistogram();
+        final long putStart = System.nanoTime();
+        int putCounter = 0;
+        for ( final Map.Entry<String, String> entry : sample )
+        {
+            final String key = BENCHMARK_KEY_PREFIX + putCounter++;
+            final String value = entry.getValue() == null ? "" : entry.getValue();
+            final long operationStart = System.nanoTime();
+            localDB.put( LocalDB.DB.TEMP, key, value );
+            putLatency.record( nanosToMicros( System.nanoTime() - operationStart ) );
+        }
+        results.put( "putPerSecond", perSecond( sample.size(), System.nanoTime() - putStart ) );
+        results.putAll( latencyResults( "put", putLatency ) );
+
+        localDB.truncate( LocalDB.DB.TEMP );
+        return results;
+    }
+
+    private static Map<String, Object> latencyResults( final String operation, final LatencyHistogram histogram )
+    {
+        final Map<String, Object> results = new LinkedHashMap<>();
+        results.put( operation + "AvgMicros", Math.round( histogram.average() ) );
+        results.put( operation + "P50Micros", histogram.valueAtQuantile( 0.5 ) );
+        results.put( operation + "P99Micros", histogram.valueAtQuantile( 0.99 ) );
+        results.put( operation + "MaxMicros", histogram.max() );
+        return results;
+    }
+
+    private static long perSecond( final long count, final long nanos )
+    {
+        return nanos <= 0 ? count : count * 1_000_000_000L / nanos;
+    }
+
+    private static long nanosToMicros( final long nanos )
+    {
+        return nanos / 1_000;
+    }
+
+    @Override
+    public CliParameters getCliParameters( )
+    {
+        final CliParameters.Option sampleSizeOption = new CliParameters.Option()
+        {
+            @Override
+            public boolean isOptional( )
+            {
+                return true;
+            }
+
+            @Override
+            public Type getType( )
+            {
+                return Type.STRING;
+            }
+
+            @Override
+            public String getName( )
+            {
+                return SAMPLE_SIZE_OPTIONNAME;
+            }
+        };
+
+        final CliParameters cliParameters = new CliParameters();
+        cliParameters.commandName = "LocalDBBenchmark";
+        cliParameters.description = "Measure LocalDB iterate, get and put throughput and latency for each db";
+        cliParameters.options = Collections.singletonList( sampleSizeOption );
+        cliParameters.needsLocalDB = true;
+        cliParameters.readOnly = false;
+
+        return cliParameters;
+    }
+}
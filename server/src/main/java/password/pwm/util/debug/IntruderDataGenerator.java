@@ -26,10 +26,14 @@ import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.svc.intruder.IntruderSystemService;
 import password.pwm.svc.intruder.PublicIntruderRecord;
 import password.pwm.util.java.ClosableIterator;
+import password.pwm.util.json.JsonArrayWriter;
 import password.pwm.util.json.JsonFactory;
+import password.pwm.util.json.JsonProvider;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 final class IntruderDataGenerator implements AppItemGenerator
 {
@@ -46,11 +50,15 @@ final class IntruderDataGenerator implements AppItemGenerator
         final PwmApplication pwmApplication = debugItemInput.pwmApplication();
         final IntruderSystemService service = pwmApplication.getIntruderSystemService();
 
-        try ( ClosableIterator<PublicIntruderRecord> record = service.allRecordIterator() )
+        final Writer writer = new OutputStreamWriter( outputStream, PwmConstants.DEFAULT_CHARSET );
+        try (
+                ClosableIterator<PublicIntruderRecord> record = service.allRecordIterator();
+                JsonArrayWriter<PublicIntruderRecord> arrayWriter = JsonFactory.get().newArrayWriter( writer, PublicIntruderRecord.class, JsonProvider.Flag.PrettyPrint )
+        )
         {
             while ( record.hasNext() )
             {
-                outputStream.write( JsonFactory.get().serialize( record.next() ).getBytes( PwmConstants.DEFAULT_CHARSET ) );
+                arrayWriter.write( record.next() );
             }
         }
     }
@@ -26,12 +26,14 @@ import password.pwm.bean.UserIdentity;
 import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.http.servlet.admin.domain.UserDebugDataBean;
 import password.pwm.http.servlet.admin.domain.UserDebugDataReader;
+import password.pwm.util.json.JsonArrayWriter;
 import password.pwm.util.json.JsonFactory;
 import password.pwm.util.json.JsonProvider;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.ArrayList;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.List;
 import java.util.Objects;
 
@@ -49,22 +51,23 @@ final class LdapRecentUserDebugGenerator implements DomainItemGenerator
     {
         final PwmDomain pwmDomain = debugItemInput.pwmDomain();
         final List<UserIdentity> recentUsers = pwmDomain.getPwmApplication().getSessionTrackService().getRecentLogins();
-        final List<UserDebugDataBean> recentDebugBeans = new ArrayList<>();
 
-        for ( final UserIdentity userIdentity : recentUsers )
+        final Writer writer = new OutputStreamWriter( outputStream, PwmConstants.DEFAULT_CHARSET );
+        try ( JsonArrayWriter<UserDebugDataBean> arrayWriter = JsonFactory.get().newArrayWriter( writer, UserDebugDataBean.class, JsonProvider.Flag.PrettyPrint ) )
         {
-            if ( Objects.equals( userIdentity.getDomainID(), pwmDomain.getDomainID() ) )
+            for ( final UserIdentity userIdentity : recentUsers )
             {
-                final UserDebugDataBean dataBean = UserDebugDataReader.readUserDebugData(
-                        pwmDomain,
-                        debugItemInput.locale(),
-                        debugItemInput.sessionLabel(),
-                        userIdentity
-                );
-                recentDebugBeans.add( dataBean );
+                if ( Objects.equals( userIdentity.getDomainID(), pwmDomain.getDomainID() ) )
+                {
+                    final UserDebugDataBean dataBean = UserDebugDataReader.readUserDebugData(
+                            pwmDomain,
+                            debugItemInput.locale(),
+                            debugItemInput.sessionLabel(),
+                            userIdentity
+                    );
+                    arrayWriter.write( dataBean );
+                }
             }
         }
-
-        outputStream.write( JsonFactory.get().serializeCollection( recentDebugBeans, JsonProvider.Flag.PrettyPrint ).getBytes( PwmConstants.DEFAULT_CHARSET ) );
     }
 }
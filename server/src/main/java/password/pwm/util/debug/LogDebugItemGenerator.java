@@ -33,14 +33,20 @@ import password.pwm.util.logging.PwmLogLevel;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.function.Function;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 final class LogDebugItemGenerator implements AppItemGenerator
 {
+    interface LogEventWriter
+    {
+        void write( PwmLogEvent event, Writer writer ) throws IOException;
+    }
+
     static void outputLogs(
             final PwmApplication pwmApplication,
             final OutputStream outputStream,
-            final Function<PwmLogEvent, String> logEventFormatter
+            final LogEventWriter logEventWriter
     )
             throws IOException
     {
@@ -55,13 +61,15 @@ final class LogDebugItemGenerator implements AppItemGenerator
         final LocalDBSearchResults searchResults = pwmApplication.getLocalDBLogger().readStoredEvents( searchParameters );
         final CountingOutputStream countingOutputStream = new CountingOutputStream( outputStream );
 
+        // events are written directly to the output; the byte count may trail the writer's buffer by a few kilobytes
+        final Writer writer = new OutputStreamWriter( countingOutputStream, PwmConstants.DEFAULT_CHARSET );
         while ( searchResults.hasNext() && countingOutputStream.getByteCount() < maxByteCount )
         {
             final PwmLogEvent event = searchResults.next();
-            final String output = logEventFormatter.apply( event );
-            outputStream.write( output.getBytes( PwmConstants.DEFAULT_CHARSET ) );
-            outputStream.write( output.getBytes( PwmConstants.DEFAULT_CHARSET ) );
+            logEventWriter.write( event, writer );
+            writer.write( '\n' );
         }
+        writer.flush();
     }
 
     @Override
@@ -74,8 +82,6 @@ final class LogDebugItemGenerator implements AppItemGenerator
     public void outputItem( final AppDebugItemRequest debugItemInput, final OutputStream outputStream )
             throws IOException
     {
-        final Function<PwmLogEvent, String> logEventFormatter = PwmLogEvent::toLogString;
-
-        outputLogs( debugItemInput.pwmApplication(), outputStream, logEventFormatter );
+        outputLogs( debugItemInput.pwmApplication(), outputStream, ( event, writer ) -> writer.write( event.toLogString() ) );
     }
 }
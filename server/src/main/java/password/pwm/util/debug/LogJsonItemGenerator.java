@@ -29,7 +29,6 @@ import password.pwm.util.logging.PwmLogger;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.time.Instant;
-import java.util.function.Function;
 
 final class LogJsonItemGenerator implements AppItemGenerator
 {
@@ -47,9 +46,11 @@ final class LogJsonItemGenerator implements AppItemGenerator
     {
         final Instant startTime = Instant.now();
         final JsonProvider jsonFactory = JsonFactory.get();
-        final Function<PwmLogEvent, String> logEventFormatter = pwmLogEvent -> jsonFactory.serialize( pwmLogEvent ) + "\n";
 
-        LogDebugItemGenerator.outputLogs( debugItemInput.pwmApplication(), outputStream, logEventFormatter );
+        LogDebugItemGenerator.outputLogs(
+                debugItemInput.pwmApplication(),
+                outputStream,
+                ( event, writer ) -> jsonFactory.serialize( event, PwmLogEvent.class, writer ) );
         LOGGER.trace( () -> "debug json output completed in ", TimeDuration.fromCurrent( startTime ) );
     }
 }
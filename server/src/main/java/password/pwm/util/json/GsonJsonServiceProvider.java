@@ -22,10 +22,15 @@ package password.pwm.util.json;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 import password.pwm.util.java.CollectionUtil;
 import password.pwm.util.java.EnumUtil;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.List;
@@ -37,21 +42,19 @@ class GsonJsonServiceProvider implements JsonProvider
             .disableHtmlEscaping()
             .create();
 
+    // gson instances cache their type adapters, so the pretty print instance is shared rather than rebuilt per call
+    private static final Gson PRETTY_GSON = GsonJsonAdaptors.registerTypeAdapters( new GsonBuilder() )
+            .setPrettyPrinting()
+            .create();
+
     private static Gson getGson( final Flag... flags )
     {
-        if ( flags == null || flags.length == 0 )
-        {
-            return GENERIC_GSON;
-        }
-
-        final GsonBuilder gsonBuilder = GsonJsonAdaptors.registerTypeAdapters( new GsonBuilder() );
-
         if ( EnumUtil.enumArrayContainsValue( flags, JsonProvider.Flag.PrettyPrint ) )
         {
-            gsonBuilder.setPrettyPrinting();
+            return PRETTY_GSON;
         }
 
-        return gsonBuilder.create();
+        return GENERIC_GSON;
     }
 
     @Override
@@ -105,7 +108,7 @@ class GsonJsonServiceProvider implements JsonProvider
     @Override
     public <T> String serialize( final T srcObject, final Flag... flags )
     {
-        return getGson( flags ).toJson( srcObject, MoshiJsonServiceProvider.unknownClassResolver( srcObject ) );
+        return getGson( flags ).toJson( srcObject, JsonProviderUtil.unknownClassResolver( srcObject ) );
     }
 
     @Override
@@ -154,4 +157,101 @@ class GsonJsonServiceProvider implements JsonProvider
 
         return getGson( flags ).toJson( srcObject, type );
     }
+
+    @Override
+    public <T> void serialize( final T srcObject, final Writer writer, final Flag... flags )
+            throws IOException
+    {
+        serialize( srcObject, JsonProviderUtil.unknownClassResolver( srcObject ), writer, flags );
+    }
+
+    @Override
+    public <T> void serialize( final T srcObject, final Type type, final Writer writer, final Flag... flags )
+            throws IOException
+    {
+        final Gson gson = getGson( flags );
+        final JsonWriter jsonWriter = gson.newJsonWriter( writer );
+        try
+        {
+            gson.toJson( srcObject, type, jsonWriter );
+        }
+        catch ( final JsonIOException e )
+        {
+            throw unwrapIOException( e );
+        }
+    }
+
+    @Override
+    public <T> T deserialize( final Reader reader, final Type type )
+            throws IOException
+    {
+        try
+        {
+            return getGson().fromJson( reader, type );
+        }
+        catch ( final JsonIOException e )
+        {
+            throw unwrapIOException( e );
+        }
+    }
+
+    @Override
+    public <T> JsonArrayWriter<T> newArrayWriter( final Writer writer, final Type elementType, final Flag... flags )
+            throws IOException
+    {
+        return new GsonArrayWriter<>( getGson( flags ), writer, elementType );
+    }
+
+    private static IOException unwrapIOException( final JsonIOException e )
+    {
+        return e.getCause() instanceof IOException
+                ? ( IOException ) e.getCause()
+                : new IOException( e.getMessage(), e );
+    }
+
+    private static class GsonArrayWriter<T> implements JsonArrayWriter<T>
+    {
+        private final Gson gson;
+        private final JsonWriter jsonWriter;
+        private final Type elementType;
+        private int count;
+
+        GsonArrayWriter( final Gson gson, final Writer writer, final Type elementType )
+                throws IOException
+        {
+            this.gson = gson;
+            this.jsonWriter = gson.newJsonWriter( writer );
+            this.elementType = elementType;
+            jsonWriter.beginArray();
+        }
+
+        @Override
+        public void write( final T element )
+                throws IOException
+        {
+            try
+            {
+                gson.toJson( element, elementType, jsonWriter );
+            }
+            catch ( final JsonIOException e )
+            {
+                throw unwrapIOException( e );
+            }
+            count++;
+        }
+
+        @Override
+        public int count()
+        {
+            return count;
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            jsonWriter.endArray();
+            jsonWriter.flush();
+        }
+    }
 }
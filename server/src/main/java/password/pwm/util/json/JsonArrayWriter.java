@@ -0,0 +1,42 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Incrementally writes a json array, one element at a time, so that large outputs do not need to be held in memory.
+ * Obtain instances using {@link JsonProvider#newArrayWriter(java.io.Writer, java.lang.reflect.Type, JsonProvider.Flag...)}.
+ *
+ * <p>{@link #close()} ends the array and flushes the output, but does not close the underlying writer.</p>
+ *
+ * @param <T> array element type.
+ */
+public interface JsonArrayWriter<T> extends Closeable
+{
+    void write( T element ) throws IOException;
+
+    /**
+     * @return number of elements written so far.
+     */
+    int count();
+}
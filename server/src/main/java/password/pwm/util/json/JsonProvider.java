@@ -20,6 +20,9 @@
 
 package password.pwm.util.json;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collection;
@@ -59,6 +62,27 @@ public interface JsonProvider
 
     String serializeStringMap( Map<String, String> srcObject, Flag... flags );
 
+    /**
+     * Serialize directly to a writer.  The writer is neither flushed nor closed, so callers writing many values
+     * to the same writer flush once when done.
+     */
+    <T> void serialize( T srcObject, Writer writer, Flag... flags ) throws IOException;
+
+    /**
+     * Serialize directly to a writer using the supplied (possibly parameterized) type.  The writer is neither flushed nor closed.
+     */
+    <T> void serialize( T srcObject, Type type, Writer writer, Flag... flags ) throws IOException;
+
+    /**
+     * Deserialize directly from a reader.  The reader is not closed.
+     */
+    <T> T deserialize( Reader reader, Type type ) throws IOException;
+
+    /**
+     * Begin writing a json array to the writer.  Each element is serialized and written as it is supplied.
+     */
+    <T> JsonArrayWriter<T> newArrayWriter( Writer writer, Type elementType, Flag... flags ) throws IOException;
+
     default <T> T cloneUsingJson( final T srcObject, final Class<T> classOfT )
     {
         final String json = serialize( srcObject, classOfT );
@@ -0,0 +1,63 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.json;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+final class JsonProviderUtil
+{
+    private JsonProviderUtil()
+    {
+    }
+
+    /**
+     * Resolve the type to serialize an object as when the caller does not supply one, so that collection
+     * implementations are serialized by their collection interface.
+     */
+    static Class<?> unknownClassResolver( final Object srcObject )
+    {
+        if ( srcObject instanceof List )
+        {
+            return List.class;
+        }
+        else if ( srcObject instanceof SortedSet )
+        {
+            return SortedSet.class;
+        }
+        else if ( srcObject instanceof Set )
+        {
+            return Set.class;
+        }
+        else if ( srcObject instanceof SortedMap )
+        {
+            return SortedMap.class;
+        }
+        else if ( srcObject instanceof Map )
+        {
+            return Map.class;
+        }
+        return srcObject.getClass();
+    }
+}
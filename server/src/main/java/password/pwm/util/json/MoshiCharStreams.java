@@ -0,0 +1,200 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.json;
+
+import okio.Buffer;
+import okio.Sink;
+import okio.Source;
+import okio.Timeout;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Adapts character streams to the okio byte streams used by moshi.  Characters are converted to and from UTF-8
+ * incrementally, so memory use is bounded by the okio segment size rather than the size of the json document.
+ */
+final class MoshiCharStreams
+{
+    private static final int MAX_CHARS_PER_READ = 2048;
+
+    private MoshiCharStreams()
+    {
+    }
+
+    /**
+     * Sink that decodes UTF-8 bytes and writes the characters to a {@link Writer}.  Closing the sink writes any
+     * remaining characters, but neither flushes nor closes the writer.
+     */
+    static class WriterSink implements Sink
+    {
+        private final Writer writer;
+        private final Buffer pending = new Buffer();
+
+        WriterSink( final Writer writer )
+        {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write( final Buffer source, final long byteCount )
+                throws IOException
+        {
+            pending.write( source, byteCount );
+            final long completeLength = completeUtf8Length( pending );
+            if ( completeLength > 0 )
+            {
+                writer.write( pending.readUtf8( completeLength ) );
+            }
+        }
+
+        @Override
+        public void flush()
+                throws IOException
+        {
+            writer.flush();
+        }
+
+        @Override
+        public Timeout timeout()
+        {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if ( pending.size() > 0 )
+            {
+                writer.write( pending.readUtf8() );
+            }
+        }
+    }
+
+    /**
+     * Source that reads characters from a {@link Reader} and supplies them as UTF-8 bytes.  Closing the source
+     * does not close the reader.
+     */
+    static class ReaderSource implements Source
+    {
+        private final Reader reader;
+        private final char[] chars = new char[MAX_CHARS_PER_READ];
+        private boolean hasPendingHighSurrogate;
+        private char pendingHighSurrogate;
+
+        ReaderSource( final Reader reader )
+        {
+            this.reader = reader;
+        }
+
+        @Override
+        public long read( final Buffer sink, final long byteCount )
+                throws IOException
+        {
+            // a char encodes to at most three UTF-8 bytes (a surrogate pair encodes to four bytes for two chars)
+            final int maxChars = ( int ) Math.max( 2, Math.min( MAX_CHARS_PER_READ, byteCount / 3 ) );
+
+            int length = 0;
+            while ( length == 0 )
+            {
+                int start = 0;
+                if ( hasPendingHighSurrogate )
+                {
+                    chars[0] = pendingHighSurrogate;
+                    hasPendingHighSurrogate = false;
+                    start = 1;
+                }
+
+                final int readCount = reader.read( chars, start, maxChars - start );
+                if ( readCount < 0 )
+                {
+                    if ( start == 0 )
+                    {
+                        return -1;
+                    }
+                    length = start;
+                }
+                else
+                {
+                    length = start + readCount;
+                    if ( length > 0 && Character.isHighSurrogate( chars[length - 1] ) )
+                    {
+                        // hold back a high surrogate until its low surrogate has been read
+                        pendingHighSurrogate = chars[length - 1];
+                        hasPendingHighSurrogate = true;
+                        length--;
+                    }
+                }
+            }
+
+            final long initialSize = sink.size();
+            sink.writeUtf8( new String( chars, 0, length ) );
+            return sink.size() - initialSize;
+        }
+
+        @Override
+        public Timeout timeout()
+        {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+
+    /**
+     * Length of the longest prefix of the buffer that does not end with a partial UTF-8 sequence.
+     */
+    static long completeUtf8Length( final Buffer buffer )
+    {
+        final long size = buffer.size();
+        for ( int i = 1; i <= 4 && i <= size; i++ )
+        {
+            final int value = buffer.getByte( size - i ) & 0xFF;
+            if ( ( value & 0xC0 ) != 0x80 )
+            {
+                final int sequenceLength;
+                if ( value < 0x80 )
+                {
+                    sequenceLength = 1;
+                }
+                else if ( value >= 0xF0 )
+                {
+                    sequenceLength = 4;
+                }
+                else if ( value >= 0xE0 )
+                {
+                    sequenceLength = 3;
+                }
+                else
+                {
+                    sequenceLength = 2;
+                }
+                return sequenceLength <= i ? size : size - i;
+            }
+        }
+        return size;
+    }
+}
@@ -21,19 +21,22 @@
 package password.pwm.util.json;
 
 import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
 import com.squareup.moshi.Moshi;
 import com.squareup.moshi.Types;
+import okio.Okio;
 import password.pwm.util.java.CollectionUtil;
+import password.pwm.util.java.EnumUtil;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.SortedMap;
-import java.util.SortedSet;
 
 class MoshiJsonServiceProvider implements JsonProvider
 {
@@ -110,7 +113,7 @@ class MoshiJsonServiceProvider implements JsonProvider
     @Override
     public <T> String serialize( final T srcObject, final Flag... flags )
     {
-        return serializeImpl( srcObject, unknownClassResolver( srcObject ), flags );
+        return serializeImpl( srcObject, JsonProviderUtil.unknownClassResolver( srcObject ), flags );
     }
 
     @Override
@@ -128,7 +131,7 @@ class MoshiJsonServiceProvider implements JsonProvider
     @Override
     public <V> String serializeCollection( final Collection<V> srcObject, final Flag... flags )
     {
-        return serializeImpl( srcObject, unknownClassResolver( srcObject ), flags );
+        return serializeImpl( srcObject, JsonProviderUtil.unknownClassResolver( srcObject ), flags );
     }
 
     @Override
@@ -138,50 +141,104 @@ class MoshiJsonServiceProvider implements JsonProvider
         return serializeImpl( srcObject, moshiType, flags );
     }
 
-    private <T> T deserializeImpl( final String jsonString, final Type type )
+    @Override
+    public <T> void serialize( final T srcObject, final Writer writer, final Flag... flags )
+            throws IOException
     {
-        final Moshi moshi = getMoshi();
-        final JsonAdapter<T> adapter = moshi.adapter( type );
+        serialize( srcObject, JsonProviderUtil.unknownClassResolver( srcObject ), writer, flags );
+    }
 
-        try
+    @Override
+    public <T> void serialize( final T srcObject, final Type type, final Writer writer, final Flag... flags )
+            throws IOException
+    {
+        final JsonAdapter<T> jsonAdapter = MoshiJsonAdaptors.applyFlagsToAdapter( getMoshi().adapter( type ), flags );
+        try ( JsonWriter jsonWriter = JsonWriter.of( Okio.buffer( new MoshiCharStreams.WriterSink( writer ) ) ) )
         {
-            return adapter.fromJson( jsonString );
+            jsonAdapter.toJson( jsonWriter, srcObject );
         }
-        catch ( final IOException e )
+    }
+
+    @Override
+    public <T> T deserialize( final Reader reader, final Type type )
+            throws IOException
+    {
+        final JsonAdapter<T> jsonAdapter = getMoshi().adapter( type );
+        try ( JsonReader jsonReader = JsonReader.of( Okio.buffer( new MoshiCharStreams.ReaderSource( reader ) ) ) )
         {
-            throw new IllegalStateException( e.getMessage(), e );
+            return jsonAdapter.fromJson( jsonReader );
         }
     }
 
-    private <T> String serializeImpl( final T object, final Type type, final Flag... flags )
+    @Override
+    public <T> JsonArrayWriter<T> newArrayWriter( final Writer writer, final Type elementType, final Flag... flags )
+            throws IOException
     {
-        final Moshi moshi = getMoshi();
-        final JsonAdapter<T> jsonAdapter = MoshiJsonAdaptors.applyFlagsToAdapter( moshi.adapter( type ), flags );
-        return jsonAdapter.toJson( object );
+        final JsonWriter jsonWriter = JsonWriter.of( Okio.buffer( new MoshiCharStreams.WriterSink( writer ) ) );
+        if ( EnumUtil.enumArrayContainsValue( flags, Flag.PrettyPrint ) )
+        {
+            jsonWriter.setIndent( "  " );
+        }
+        return new MoshiArrayWriter<>( jsonWriter, getMoshi().adapter( elementType ) );
     }
 
-    static Class<?> unknownClassResolver( final Object srcObject )
+    private static class MoshiArrayWriter<T> implements JsonArrayWriter<T>
     {
-        if ( srcObject instanceof List )
+        private final JsonWriter jsonWriter;
+        private final JsonAdapter<T> jsonAdapter;
+        private int count;
+
+        MoshiArrayWriter( final JsonWriter jsonWriter, final JsonAdapter<T> jsonAdapter )
+                throws IOException
         {
-            return List.class;
+            this.jsonWriter = jsonWriter;
+            this.jsonAdapter = jsonAdapter;
+            jsonWriter.beginArray();
         }
-        else if ( srcObject instanceof SortedSet )
+
+        @Override
+        public void write( final T element )
+                throws IOException
         {
-            return SortedSet.class;
+            jsonAdapter.toJson( jsonWriter, element );
+            count++;
         }
-        else if ( srcObject instanceof Set )
+
+        @Override
+        public int count()
         {
-            return Set.class;
+            return count;
         }
-        else if ( srcObject instanceof SortedMap )
+
+        @Override
+        public void close()
+                throws IOException
         {
-            return SortedMap.class;
+            jsonWriter.endArray();
+            jsonWriter.flush();
+            jsonWriter.close();
         }
-        else if ( srcObject instanceof Map )
+    }
+
+    private <T> T deserializeImpl( final String jsonString, final Type type )
+    {
+        final Moshi moshi = getMoshi();
+        final JsonAdapter<T> adapter = moshi.adapter( type );
+
+        try
         {
-            return Map.class;
+            return adapter.fromJson( jsonString );
         }
-        return srcObject.getClass();
+        catch ( final IOException e )
+        {
+            throw new IllegalStateException( e.getMessage(), e );
+        }
+    }
+
+    private <T> String serializeImpl( final T object, final Type type, final Flag... flags )
+    {
+        final Moshi moshi = getMoshi();
+        final JsonAdapter<T> jsonAdapter = MoshiJsonAdaptors.applyFlagsToAdapter( moshi.adapter( type ), flags );
+        return jsonAdapter.toJson( object );
     }
 }
@@ -322,19 +322,35 @@ public abstract class AbstractJDBCLocalDB implements LocalDBProvider
             throws LocalDBException
     {
         preCheck( true );
-        PreparedStatement insertStatement = null;
-        PreparedStatement removeStatement = null;
+        try
+        {
+            lock.writeLock().lock();
+            writeAll( db, keyValueMap );
+            dbConnection.commit();
+        }
+        catch ( final SQLException ex )
+        {
+            throw new LocalDBException( new ErrorInformation( PwmError.ERROR_LOCALDB_UNAVAILABLE, ex.getMessage() ) );
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
 
+    /**
+     * Write values without committing.  Caller must hold the write lock.
+     */
+    private void writeAll( final LocalDB.DB db, final Map<String, String> keyValueMap )
+            throws SQLException
+    {
         final String removeSqlString = "DELETE FROM " + db.toString() + " WHERE " + KEY_COLUMN + "=?";
         final String insertSqlString = "INSERT INTO " + db + "(" + KEY_COLUMN + ", " + VALUE_COLUMN + ") VALUES(?,?)";
 
-        try
+        // just in case anyone was unclear: sql does indeed suck.
+        try ( PreparedStatement removeStatement = dbConnection.prepareStatement( removeSqlString );
+              PreparedStatement insertStatement = dbConnection.prepareStatement( insertSqlString ) )
         {
-            lock.writeLock().lock();
-            // just in case anyone was unclear: sql does indeed suck.
-            removeStatement = dbConnection.prepareStatement( removeSqlString );
-            insertStatement = dbConnection.prepareStatement( insertSqlString );
-
             for ( final Map.Entry<String, String> entry : keyValueMap.entrySet() )
             {
                 final String loopKey = entry.getKey();
@@ -350,17 +366,6 @@ public abstract class AbstractJDBCLocalDB implements LocalDBProvider
 
             removeStatement.executeBatch();
             insertStatement.executeBatch();
-            dbConnection.commit();
-        }
-        catch ( final SQLException ex )
-        {
-            throw new LocalDBException( new ErrorInformation( PwmError.ERROR_LOCALDB_UNAVAILABLE, ex.getMessage() ) );
-        }
-        finally
-        {
-            close( removeStatement );
-            close( insertStatement );
-            lock.writeLock().unlock();
         }
     }
 
@@ -568,36 +573,134 @@ public abstract class AbstractJDBCLocalDB implements LocalDBProvider
             throws LocalDBException
     {
         preCheck( true );
-        final String sqlString = "DELETE FROM " + db.toString() + " WHERE " + KEY_COLUMN + "=?";
-        PreparedStatement statement = null;
         try
         {
             lock.writeLock().lock();
-            try
+            deleteAll( db, keys );
+            dbConnection.commit();
+        }
+        catch ( final SQLException ex )
+        {
+            throw new LocalDBException( new ErrorInformation( PwmError.ERROR_LOCALDB_UNAVAILABLE, ex.getMessage() ) );
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Delete values without committing.  Caller must hold the write lock.
+     */
+    private void deleteAll( final LocalDB.DB db, final Collection<String> keys )
+            throws SQLException
+    {
+        final String sqlString = "DELETE FROM " + db.toString() + " WHERE " + KEY_COLUMN + "=?";
+        try ( PreparedStatement statement = dbConnection.prepareStatement( sqlString ) )
+        {
+            for ( final String loopKey : keys )
             {
-                statement = dbConnection.prepareStatement( sqlString );
+                statement.clearParameters();
+                statement.setString( 1, loopKey );
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
 
-                for ( final String loopKey : keys )
-                {
-                    statement.clearParameters();
-                    statement.setString( 1, loopKey );
-                    statement.addBatch();
-                }
-                statement.executeBatch();
-                dbConnection.commit();
+    @Override
+    public <T> T transact( final LocalDB.TransactionFunction<T> function )
+            throws LocalDBException
+    {
+        preCheck( true );
+        lock.writeLock().lock();
+        try
+        {
+            final T result = function.apply( new JdbcTransaction() );
+            dbConnection.commit();
+            return result;
+        }
+        catch ( final SQLException ex )
+        {
+            rollback();
+            throw new LocalDBException( new ErrorInformation( PwmError.ERROR_LOCALDB_UNAVAILABLE, ex.getMessage() ) );
+        }
+        catch ( final LocalDBException | RuntimeException e )
+        {
+            rollback();
+            throw e;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rollback( )
+    {
+        try
+        {
+            dbConnection.rollback();
+        }
+        catch ( final SQLException e )
+        {
+            LOGGER.error( () -> "unexpected error during transaction rollback: " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * Transaction operations share the connection, and therefore the uncommitted state, of the enclosing
+     * {@link #transact(LocalDB.TransactionFunction)} call, which holds the write lock.
+     */
+    private class JdbcTransaction implements LocalDB.LocalDBTransaction
+    {
+        @Override
+        public Optional<String> get( final LocalDB.DB db, final String key )
+                throws LocalDBException
+        {
+            return AbstractJDBCLocalDB.this.get( db, key );
+        }
+
+        @Override
+        public void put( final LocalDB.DB db, final String key, final String value )
+                throws LocalDBException
+        {
+            putAll( db, Collections.singletonMap( key, value ) );
+        }
+
+        @Override
+        public void putAll( final LocalDB.DB db, final Map<String, String> keyValueMap )
+                throws LocalDBException
+        {
+            try
+            {
+                writeAll( db, keyValueMap );
             }
             catch ( final SQLException ex )
             {
                 throw new LocalDBException( new ErrorInformation( PwmError.ERROR_LOCALDB_UNAVAILABLE, ex.getMessage() ) );
             }
-            finally
-            {
-                close( statement );
-            }
         }
-        finally
+
+        @Override
+        public void remove( final LocalDB.DB db, final String key )
+                throws LocalDBException
         {
-            lock.writeLock().unlock();
+            removeAll( db, Collections.singletonList( key ) );
+        }
+
+        @Override
+        public void removeAll( final LocalDB.DB db, final Collection<String> keys )
+                throws LocalDBException
+        {
+            try
+            {
+                deleteAll( db, keys );
+            }
+            catch ( final SQLException ex )
+            {
+                throw new LocalDBException( new ErrorInformation( PwmError.ERROR_LOCALDB_UNAVAILABLE, ex.getMessage() ) );
+            }
         }
     }
 
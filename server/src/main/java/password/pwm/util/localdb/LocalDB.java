@@ -27,8 +27,10 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * <p>A lightweight interface for DB interaction.  Implementations may be backed by an embedded database, an RDBMS or
@@ -38,6 +40,10 @@ import java.util.Optional;
  * must block until any outstanding write or read methods are completed.  That is, concurrency is allowed for reads, but
  * writes are guaranteed to be single threaded.</p>
  *
+ * <p>DBs flagged as {@link DB#isBinary()} hold {@code byte[]} keys and values, accessed using the {@code *Bytes} methods.
+ * String based operations on a binary DB, including iteration, use base64 encoded keys and values, so export and import
+ * of binary DBs work the same as for other DBs.</p>
+ *
  * @author Jason D. Rivard
  */
 public interface LocalDB
@@ -45,6 +51,10 @@ public interface LocalDB
     int MAX_KEY_LENGTH = 256;
     int MAX_VALUE_LENGTH = 1024 * 100;
 
+    // binary keys and values must also fit within the limits when base64 encoded
+    int MAX_BINARY_KEY_LENGTH = MAX_KEY_LENGTH / 4 * 3;
+    int MAX_BINARY_VALUE_LENGTH = MAX_VALUE_LENGTH / 4 * 3;
+
     enum Status
     {
         NEW, OPEN, CLOSED
@@ -62,6 +72,31 @@ public interface LocalDB
     Optional<String> get( DB db, String key )
             throws LocalDBException;
 
+    @ReadOperation
+    boolean containsBytes( DB db, byte[] key )
+            throws LocalDBException;
+
+    @ReadOperation
+    Optional<byte[]> getBytes( DB db, byte[] key )
+            throws LocalDBException;
+
+    @WriteOperation
+    boolean putBytes( DB db, byte[] key, byte[] value )
+            throws LocalDBException;
+
+    /**
+     * Read the keys of a binary DB that begin with the given prefix, in unsigned byte order.
+     * @param db binary database to read
+     * @param prefix key prefix, may be empty
+     * @param keyLength only keys of exactly this length are returned, or zero to return keys of any length
+     * @param maxKeys maximum number of keys to return
+     * @return matching keys, at most {@code maxKeys} in size.
+     * @throws LocalDBException if the operation fails.
+     */
+    @ReadOperation
+    List<byte[]> keysByPrefixBytes( DB db, byte[] prefix, int keyLength, int maxKeys )
+            throws LocalDBException;
+
     LocalDBIterator iterator( DB db )
             throws LocalDBException;
 
@@ -108,8 +143,26 @@ public interface LocalDB
     void truncate( DB db )
             throws LocalDBException;
 
+    /**
+     * Execute several read and write operations, possibly spanning multiple DBs, as a single transaction.  Either
+     * all writes made using the supplied {@link LocalDBTransaction} are committed, or none are.
+     *
+     * <p>Implementations may invoke the function more than once if a transaction must be retried, so the function
+     * should not have side effects other than its operations on the transaction.</p>
+     *
+     * @param function operations to perform using the transaction
+     * @param <T> type of the function result
+     * @return the value returned by the function
+     * @throws LocalDBException if there is an error reading or writing the store, in which case no writes are committed
+     */
+    @WriteOperation
+    <T> T transact( TransactionFunction<T> function )
+            throws LocalDBException;
+
     Path getFileLocation( );
 
+    Set<LocalDBProvider.Flag> flags( );
+
     Map<String, Object> debugInfo( );
 
     enum DB
@@ -120,7 +173,11 @@ public interface LocalDB
         PWM_META( Flag.Backup ),
         SHAREDHISTORY_META( Flag.Backup ),
         SHAREDHISTORY_WORDS( Flag.Backup ),
+        SHAREDHISTORY_WORDS_1( Flag.Backup ),
+        SHAREDHISTORY_WORDS_2( Flag.Backup ),
+        SHAREDHISTORY_WORDS_3( Flag.Backup ),
         WORDLIST_WORDS( Flag.Backup ),
+        WORDLIST_HASHES( Flag.Backup, Flag.Binary ),
         SEEDLIST_WORDS( Flag.Backup ),
         PWM_STATS( Flag.Backup ),
         EVENTLOG_EVENTS( Flag.Backup ),
@@ -129,6 +186,7 @@ public interface LocalDB
         RESPONSE_STORAGE( Flag.Backup ),
         OTP_SECRET( Flag.Backup ),
         TOKENS( Flag.Backup ),
+        TOKEN_EXPIRY( Flag.Backup ),
         INTRUDER( Flag.Backup ),
         AUDIT_QUEUE( Flag.Backup ),
         AUDIT_EVENTS( Flag.Backup ),
@@ -136,6 +194,9 @@ public interface LocalDB
 
         TEMP( Flag.Purge ),
         CACHE( Flag.Purge ),
+        CACHE_STORE,
+        CACHE_STORE_EXPIRY,
+        SESSION_STATE,
 
         @Deprecated
         WORDLIST_META( Flag.Purge ),
@@ -151,17 +212,20 @@ public interface LocalDB
 
         private final boolean backup;
         private final boolean purge;
+        private final boolean binary;
 
         private enum Flag
         {
             Backup,
             Purge,
+            Binary,
         }
 
         DB( final Flag... flag )
         {
             this.backup = EnumUtil.enumArrayContainsValue( flag, Flag.Backup );
             this.purge = EnumUtil.enumArrayContainsValue( flag, Flag.Purge );
+            this.binary = EnumUtil.enumArrayContainsValue( flag, Flag.Binary );
         }
 
         public boolean isBackup( )
@@ -173,6 +237,11 @@ public interface LocalDB
         {
             return purge;
         }
+
+        public boolean isBinary()
+        {
+            return binary;
+        }
     }
 
 
@@ -192,4 +261,39 @@ public interface LocalDB
     interface LocalDBIterator extends ClosableIterator<Map.Entry<String, String>>
     {
     }
+
+    /**
+     * Operations available within {@link #transact(TransactionFunction)}.  Reads observe writes previously made
+     * within the same transaction.  A transaction is only valid during the invocation of the function.
+     */
+    interface LocalDBTransaction
+    {
+        Optional<String> get( DB db, String key )
+                throws LocalDBException;
+
+        void put( DB db, String key, String value )
+                throws LocalDBException;
+
+        default void putBytes( final DB db, final byte[] key, final byte[] value )
+                throws LocalDBException
+        {
+            put( db, LocalDBUtility.encodeBinary( key ), LocalDBUtility.encodeBinary( value ) );
+        }
+
+        void putAll( DB db, Map<String, String> keyValueMap )
+                throws LocalDBException;
+
+        void remove( DB db, String key )
+                throws LocalDBException;
+
+        void removeAll( DB db, Collection<String> keys )
+                throws LocalDBException;
+    }
+
+    @FunctionalInterface
+    interface TransactionFunction<T>
+    {
+        T apply( LocalDBTransaction transaction )
+                throws LocalDBException;
+    }
 }
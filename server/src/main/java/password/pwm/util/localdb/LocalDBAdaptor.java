@@ -29,9 +29,11 @@ import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 public class LocalDBAdaptor implements LocalDB
 {
@@ -56,6 +58,12 @@ public class LocalDBAdaptor implements LocalDB
         return innerDB.getFileLocation();
     }
 
+    @Override
+    public Set<LocalDBProvider.Flag> flags( )
+    {
+        return innerDB.flags();
+    }
+
     @Override
     @WriteOperation
     public void close( ) throws LocalDBException
@@ -86,6 +94,60 @@ public class LocalDBAdaptor implements LocalDB
         return value;
     }
 
+    @Override
+    public boolean containsBytes( final DB db, final byte[] key ) throws LocalDBException
+    {
+        ParameterValidator.validateBinaryDBValue( db );
+        ParameterValidator.validateBinaryKeyValue( key );
+
+        final boolean value = innerDB.containsBytes( db, key );
+        markRead();
+        return value;
+    }
+
+    @Override
+    public Optional<byte[]> getBytes( final DB db, final byte[] key ) throws LocalDBException
+    {
+        ParameterValidator.validateBinaryDBValue( db );
+        ParameterValidator.validateBinaryKeyValue( key );
+
+        final Optional<byte[]> value = innerDB.getBytes( db, key );
+        markRead();
+        return value;
+    }
+
+    @Override
+    @WriteOperation
+    public boolean putBytes( final DB db, final byte[] key, final byte[] value ) throws LocalDBException
+    {
+        ParameterValidator.validateBinaryDBValue( db );
+        ParameterValidator.validateBinaryKeyValue( key );
+        ParameterValidator.validateBinaryValueValue( value );
+
+        final boolean preExisting = innerDB.putBytes( db, key, value );
+        markWrite( 1 );
+        return preExisting;
+    }
+
+    @Override
+    public List<byte[]> keysByPrefixBytes( final DB db, final byte[] prefix, final int keyLength, final int maxKeys ) throws LocalDBException
+    {
+        ParameterValidator.validateBinaryDBValue( db );
+        Objects.requireNonNull( prefix, "prefix cannot be null" );
+        if ( keyLength < 0 )
+        {
+            throw new IllegalArgumentException( "keyLength cannot be negative" );
+        }
+        if ( maxKeys < 1 )
+        {
+            throw new IllegalArgumentException( "maxKeys must be greater than zero" );
+        }
+
+        final List<byte[]> keys = innerDB.keysByPrefixBytes( db, prefix, keyLength, maxKeys );
+        markRead();
+        return keys;
+    }
+
     @WriteOperation
     public void init( final Path dbDirectory, final Map<String, String> initParameters, final Map<LocalDBProvider.Parameter, String> parameters )
             throws LocalDBException
@@ -218,12 +280,100 @@ public class LocalDBAdaptor implements LocalDB
         innerDB.truncate( db );
     }
 
+    @Override
+    @WriteOperation
+    public <T> T transact( final TransactionFunction<T> function ) throws LocalDBException
+    {
+        Objects.requireNonNull( function );
+        return innerDB.transact( transaction -> function.apply( new ValidatingTransaction( transaction ) ) );
+    }
+
     @Override
     public Status status( )
     {
         return innerDB.getStatus();
     }
 
+    private class ValidatingTransaction implements LocalDBTransaction
+    {
+        private final LocalDBTransaction innerTransaction;
+
+        ValidatingTransaction( final LocalDBTransaction innerTransaction )
+        {
+            this.innerTransaction = innerTransaction;
+        }
+
+        @Override
+        public Optional<String> get( final DB db, final String key ) throws LocalDBException
+        {
+            ParameterValidator.validateDBValue( db );
+            ParameterValidator.validateKeyValue( key );
+
+            final Optional<String> value = innerTransaction.get( db, key );
+            markRead();
+            return value;
+        }
+
+        @Override
+        public void put( final DB db, final String key, final String value ) throws LocalDBException
+        {
+            ParameterValidator.validateDBValue( db );
+            ParameterValidator.validateKeyValue( key );
+            ParameterValidator.validateValueValue( value );
+
+            innerTransaction.put( db, key, value );
+            markWrite( 1 );
+        }
+
+        @Override
+        public void putBytes( final DB db, final byte[] key, final byte[] value ) throws LocalDBException
+        {
+            ParameterValidator.validateBinaryDBValue( db );
+            ParameterValidator.validateBinaryKeyValue( key );
+            ParameterValidator.validateBinaryValueValue( value );
+
+            innerTransaction.putBytes( db, key, value );
+            markWrite( 1 );
+        }
+
+        @Override
+        public void putAll( final DB db, final Map<String, String> keyValueMap ) throws LocalDBException
+        {
+            ParameterValidator.validateDBValue( db );
+            for ( final Map.Entry<String, String> entry : keyValueMap.entrySet() )
+            {
+                ParameterValidator.validateKeyValue( entry.getKey() );
+                ParameterValidator.validateValueValue( entry.getValue() );
+            }
+
+            innerTransaction.putAll( db, keyValueMap );
+            markWrite( keyValueMap.size() );
+        }
+
+        @Override
+        public void remove( final DB db, final String key ) throws LocalDBException
+        {
+            ParameterValidator.validateDBValue( db );
+            ParameterValidator.validateKeyValue( key );
+
+            innerTransaction.remove( db, key );
+            markWrite( 1 );
+        }
+
+        @Override
+        public void removeAll( final DB db, final Collection<String> keys ) throws LocalDBException
+        {
+            ParameterValidator.validateDBValue( db );
+            for ( final String key : keys )
+            {
+                ParameterValidator.validateKeyValue( key );
+            }
+
+            innerTransaction.removeAll( db, keys );
+            markWrite( keys.size() );
+        }
+    }
+
     private static class ParameterValidator
     {
         private static void validateDBValue( final LocalDB.DB db )
@@ -234,6 +384,47 @@ public class LocalDBAdaptor implements LocalDB
             }
         }
 
+        private static void validateBinaryDBValue( final LocalDB.DB db )
+        {
+            validateDBValue( db );
+            if ( !db.isBinary() )
+            {
+                throw new IllegalArgumentException( "db " + db + " does not support binary values" );
+            }
+        }
+
+        private static void validateBinaryKeyValue( final byte[] key ) throws LocalDBException
+        {
+            if ( key == null )
+            {
+                throw new NullPointerException( "key cannot be null" );
+            }
+
+            if ( key.length <= 0 )
+            {
+                throw new LocalDBException( new ErrorInformation( PwmError.ERROR_INTERNAL, "key length cannot be zero length" ) );
+            }
+
+            if ( key.length > LocalDB.MAX_BINARY_KEY_LENGTH )
+            {
+                throw new LocalDBException( new ErrorInformation( PwmError.ERROR_INTERNAL, "key length " + key.length + " is greater than max " + LocalDB.MAX_BINARY_KEY_LENGTH ) );
+            }
+        }
+
+        private static void validateBinaryValueValue( final byte[] value ) throws LocalDBException
+        {
+            if ( value == null )
+            {
+                throw new NullPointerException( "value cannot be null" );
+            }
+
+            if ( value.length > LocalDB.MAX_BINARY_VALUE_LENGTH )
+            {
+                final String errorMsg = "value length " + value.length + " is greater than max " + LocalDB.MAX_BINARY_VALUE_LENGTH;
+                throw new LocalDBException( new ErrorInformation( PwmError.ERROR_INTERNAL, errorMsg ) );
+            }
+        }
+
         private static void validateKeyValue( final String key ) throws LocalDBException
         {
             if ( key == null )
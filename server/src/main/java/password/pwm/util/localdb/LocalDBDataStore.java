@@ -68,6 +68,12 @@ public class LocalDBDataStore implements DataStore
         localDB.putAll( db, keyValueMap );
     }
 
+    @Override
+    public boolean isSortedIteration()
+    {
+        return localDB.flags().contains( LocalDBProvider.Flag.SortedIteration );
+    }
+
     @Override
     public Status status( )
     {
@@ -108,6 +108,10 @@ public class LocalDBFactory
                     LOGGER.error( () -> "previous database import process did not complete successfully, clearing all data" );
                     localDBUtility.cancelImportProcess();
                 }
+                else if ( localDBUtility.readSegmentedImportInprogressFlag() )
+                {
+                    LOGGER.error( () -> "segmented database import process has not completed, LocalDB content is partial until the import is resumed" );
+                }
             }
 
             logInstanceCreation( dbDirectory, readonly, startTime, localDB );
@@ -207,6 +211,7 @@ public class LocalDBFactory
         {
             parameters.put( LocalDBProvider.Parameter.aggressiveCompact, Boolean.TRUE.toString() );
         }
+        parameters.put( LocalDBProvider.Parameter.tuningProfile, appConfig.readAppProperty( AppProperty.LOCALDB_TUNING_PROFILE ) );
         return Collections.unmodifiableMap( parameters );
     }
 }
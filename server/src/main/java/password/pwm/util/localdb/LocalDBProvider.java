@@ -21,7 +21,10 @@
 package password.pwm.util.localdb;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -32,12 +35,16 @@ public interface LocalDBProvider
     enum Flag
     {
         SlowSizeOperations,
+
+        /** Iterators return entries in ascending key order. */
+        SortedIteration,
     }
 
     enum Parameter
     {
         readOnly,
         aggressiveCompact,
+        tuningProfile,
     }
 
     @LocalDB.WriteOperation
@@ -52,6 +59,53 @@ public interface LocalDBProvider
     Optional<String> get( LocalDB.DB db, String key )
             throws LocalDBException;
 
+    /**
+     * Providers without native binary storage keep binary DB values as base64 encoded strings.
+     */
+    @LocalDB.ReadOperation
+    default boolean containsBytes( final LocalDB.DB db, final byte[] key )
+            throws LocalDBException
+    {
+        return contains( db, LocalDBUtility.encodeBinary( key ) );
+    }
+
+    @LocalDB.ReadOperation
+    default Optional<byte[]> getBytes( final LocalDB.DB db, final byte[] key )
+            throws LocalDBException
+    {
+        return get( db, LocalDBUtility.encodeBinary( key ) ).map( LocalDBUtility::decodeBinary );
+    }
+
+    @LocalDB.WriteOperation
+    default boolean putBytes( final LocalDB.DB db, final byte[] key, final byte[] value )
+            throws LocalDBException
+    {
+        return put( db, LocalDBUtility.encodeBinary( key ), LocalDBUtility.encodeBinary( value ) );
+    }
+
+    /**
+     * Base64 encoding does not preserve key order, so providers without native binary storage scan the entire DB.
+     */
+    @LocalDB.ReadOperation
+    default List<byte[]> keysByPrefixBytes( final LocalDB.DB db, final byte[] prefix, final int keyLength, final int maxKeys )
+            throws LocalDBException
+    {
+        final List<byte[]> keys = new ArrayList<>();
+        try ( LocalDB.LocalDBIterator iterator = iterator( db ) )
+        {
+            while ( iterator.hasNext() )
+            {
+                final byte[] key = LocalDBUtility.decodeBinary( iterator.next().getKey() );
+                if ( LocalDBUtility.startsWith( key, prefix ) && ( keyLength == 0 || key.length == keyLength ) )
+                {
+                    keys.add( key );
+                }
+            }
+        }
+        keys.sort( Arrays::compareUnsigned );
+        return keys.size() > maxKeys ? keys.subList( 0, maxKeys ) : keys;
+    }
+
     @LocalDB.WriteOperation
     void init( Path dbDirectory, Map<String, String> initParameters, Map<Parameter, String> parameters )
             throws LocalDBException;
@@ -87,6 +141,10 @@ public interface LocalDBProvider
     void truncate( LocalDB.DB db )
             throws LocalDBException;
 
+    @LocalDB.WriteOperation
+    <T> T transact( LocalDB.TransactionFunction<T> function )
+            throws LocalDBException;
+
     Path getFileLocation( );
 
     LocalDB.Status getStatus( );
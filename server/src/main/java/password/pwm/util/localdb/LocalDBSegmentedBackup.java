@@ -0,0 +1,601 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.localdb;
+
+import lombok.Builder;
+import lombok.Value;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import password.pwm.AppAttribute;
+import password.pwm.PwmConstants;
+import password.pwm.bean.SessionLabel;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmOperationalException;
+import password.pwm.util.EventRateMeter;
+import password.pwm.util.ProgressInfoCalculator;
+import password.pwm.util.PwmScheduler;
+import password.pwm.util.java.ConditionalTaskExecutor;
+import password.pwm.util.java.PwmTimeUtil;
+import password.pwm.util.java.PwmUtil;
+import password.pwm.util.java.StringUtil;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.json.JsonFactory;
+import password.pwm.util.json.JsonProvider;
+import password.pwm.util.logging.PwmLogger;
+import password.pwm.util.secure.PwmHashAlgorithm;
+import password.pwm.util.secure.PwmRandom;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Chunked LocalDB backup format.  Each backup db is written as a sequence of gzip csv segment files of bounded size,
+ * described by a json manifest holding each segment's record count, key range and SHA-256 checksum.
+ *
+ * <p>Export iterates each db on its own thread and compresses segments in parallel.  An interrupted export is resumed
+ * by re-running it against the same directory; verified segments are kept and iteration skips the records they
+ * contain, which relies on the LocalDB being unmodified (closed to the application) between runs.</p>
+ *
+ * <p>Import verifies and loads segments in parallel.  Each segment is committed together with a completion marker in
+ * a single LocalDB transaction, so an interrupted import resumes from the committed segments rather than from zero.</p>
+ */
+class LocalDBSegmentedBackup
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( LocalDBSegmentedBackup.class );
+
+    static final int FORMAT_VERSION = 1;
+    static final String MANIFEST_FILENAME = "manifest.json";
+    static final String IMPORT_STATUS_PREFIX = "segmented-in-progress:";
+
+    private static final String MANIFEST_TEMP_FILENAME = MANIFEST_FILENAME + ".tmp";
+    private static final String SEGMENT_FILE_SUFFIX = ".csv.gz";
+    private static final String IMPORT_SEGMENT_KEY_PREFIX = "localDBImportSegment.";
+    private static final PwmHashAlgorithm CHECKSUM_ALGORITHM = PwmHashAlgorithm.SHA256;
+
+    private static final int SEGMENT_MAX_RECORDS = 100_000;
+    private static final long SEGMENT_MAX_CHARS = 50_000_000;
+    private static final int MAX_PENDING_SEGMENTS_PER_DB = 2;
+    private static final int GZIP_BUFFER_SIZE = 256 * 1024;
+    private static final TimeDuration PROGRESS_OUTPUT_INTERVAL = TimeDuration.of( 30, TimeDuration.Unit.SECONDS );
+
+    private final LocalDB localDB;
+    private final Path directory;
+    private final Appendable debugOutput;
+    private final int threadCount;
+
+    private final Instant startTime = Instant.now();
+    private final LongAdder recordCounter = new LongAdder();
+    private final LongAdder segmentCounter = new LongAdder();
+    private final EventRateMeter eventRateMeter = new EventRateMeter( TimeDuration.MINUTE.asDuration() );
+
+    LocalDBSegmentedBackup( final LocalDB localDB, final Path directory, final Appendable debugOutput )
+    {
+        this.localDB = localDB;
+        this.directory = directory;
+        this.debugOutput = debugOutput;
+        this.threadCount = Math.max( 2, Math.min( 8, Runtime.getRuntime().availableProcessors() ) );
+    }
+
+    @Value
+    @Builder( toBuilder = true )
+    static class Manifest
+    {
+        private int version;
+        private String exportId;
+        private String applicationVersion;
+        private Instant createTime;
+        private boolean complete;
+        private List<Segment> segments;
+    }
+
+    @Value
+    @Builder
+    static class Segment
+    {
+        private LocalDB.DB db;
+        private int index;
+        private String fileName;
+        private long records;
+        private String firstKey;
+        private String lastKey;
+        private long bytes;
+        private String checksum;
+    }
+
+    void exportSegments( )
+            throws PwmOperationalException, IOException
+    {
+        Files.createDirectories( directory );
+
+        final Optional<Manifest> existingManifest = readManifest( directory );
+        if ( existingManifest.isPresent() && existingManifest.get().isComplete() )
+        {
+            throw new PwmOperationalException( PwmError.ERROR_INTERNAL, "directory '" + directory + "' already contains a completed LocalDB export" );
+        }
+
+        final List<Segment> existingSegments = existingManifest.isPresent()
+                ? verifiedSegmentPrefixes( existingManifest.get().getSegments() )
+                : Collections.emptyList();
+        final String exportId = existingManifest.map( Manifest::getExportId )
+                .orElseGet( () -> PwmRandom.getInstance().alphaNumericString( 16 ) );
+
+        final ManifestWriter manifestWriter = new ManifestWriter( Manifest.builder()
+                .version( FORMAT_VERSION )
+                .exportId( exportId )
+                .applicationVersion( PwmConstants.SERVLET_VERSION )
+                .createTime( existingManifest.map( Manifest::getCreateTime ).orElseGet( Instant::now ) )
+                .segments( existingSegments )
+                .build() );
+        manifestWriter.write();
+
+        long totalRecords = 0;
+        for ( final LocalDB.DB db : LocalDB.DB.values() )
+        {
+            if ( db.isBackup() )
+            {
+                totalRecords += localDB.size( db );
+            }
+        }
+        final long resumedRecords = existingSegments.stream().mapToLong( Segment::getRecords ).sum();
+        recordCounter.add( resumedRecords );
+        segmentCounter.add( existingSegments.size() );
+
+        writeStringToOut( "LocalDB segmented export " + exportId + " beginning of " + totalRecords + " records to " + directory
+                + ( existingSegments.isEmpty() ? "" : ", resuming after " + existingSegments.size() + " verified segments (" + resumedRecords + " records)" ) );
+
+        final ConditionalTaskExecutor progressOutputter = makeProgressOutputter( "export", totalRecords );
+        final ExecutorService dbExecutor = PwmScheduler.makeMultiThreadExecutor( threadCount, "-", SessionLabel.SYSTEM_LABEL, LocalDBSegmentedBackup.class, "export" );
+        final ExecutorService segmentExecutor = PwmScheduler.makeMultiThreadExecutor( threadCount, "-", SessionLabel.SYSTEM_LABEL, LocalDBSegmentedBackup.class, "segment" );
+        try
+        {
+            final List<Future<?>> dbFutures = new ArrayList<>();
+            for ( final LocalDB.DB db : LocalDB.DB.values() )
+            {
+                if ( db.isBackup() )
+                {
+                    final List<Segment> dbSegments = existingSegments.stream().filter( segment -> segment.getDb() == db ).toList();
+                    dbFutures.add( dbExecutor.submit( () ->
+                    {
+                        exportDb( db, dbSegments, segmentExecutor, manifestWriter, progressOutputter );
+                        return null;
+                    } ) );
+                }
+            }
+            awaitAll( dbFutures );
+        }
+        finally
+        {
+            dbExecutor.shutdownNow();
+            segmentExecutor.shutdownNow();
+        }
+
+        manifestWriter.markComplete();
+        writeStringToOut( "export complete, exported " + recordCounter.sum() + " records in " + segmentCounter.sum() + " segments in "
+                + PwmTimeUtil.asLongString( TimeDuration.fromCurrent( startTime ) ) );
+    }
+
+    private void exportDb(
+            final LocalDB.DB db,
+            final List<Segment> existingSegments,
+            final ExecutorService segmentExecutor,
+            final ManifestWriter manifestWriter,
+            final ConditionalTaskExecutor progressOutputter
+    )
+            throws LocalDBException, IOException
+    {
+        long skipRecords = existingSegments.stream().mapToLong( Segment::getRecords ).sum();
+        int segmentIndex = existingSegments.size();
+        final Deque<Future<?>> pendingSegments = new ArrayDeque<>();
+
+        List<Map.Entry<String, String>> batch = new ArrayList<>();
+        long batchChars = 0;
+        try ( LocalDB.LocalDBIterator iterator = localDB.iterator( db ) )
+        {
+            while ( iterator.hasNext() )
+            {
+                final Map.Entry<String, String> entry = iterator.next();
+                if ( skipRecords > 0 )
+                {
+                    skipRecords--;
+                    continue;
+                }
+
+                batch.add( entry );
+                batchChars += entry.getKey().length() + entry.getValue().length();
+                if ( batch.size() >= SEGMENT_MAX_RECORDS || batchChars >= SEGMENT_MAX_CHARS )
+                {
+                    submitSegment( db, segmentIndex++, batch, segmentExecutor, pendingSegments, manifestWriter, progressOutputter );
+                    batch = new ArrayList<>();
+                    batchChars = 0;
+                }
+            }
+        }
+
+        if ( !batch.isEmpty() )
+        {
+            submitSegment( db, segmentIndex, batch, segmentExecutor, pendingSegments, manifestWriter, progressOutputter );
+        }
+        awaitAll( pendingSegments );
+    }
+
+    private void submitSegment(
+            final LocalDB.DB db,
+            final int segmentIndex,
+            final List<Map.Entry<String, String>> records,
+            final ExecutorService segmentExecutor,
+            final Deque<Future<?>> pendingSegments,
+            final ManifestWriter manifestWriter,
+            final ConditionalTaskExecutor progressOutputter
+    )
+            throws IOException
+    {
+        // bound the number of segments held in memory while they are compressed
+        while ( pendingSegments.size() >= MAX_PENDING_SEGMENTS_PER_DB )
+        {
+            awaitAll( List.of( pendingSegments.removeFirst() ) );
+        }
+
+        pendingSegments.addLast( segmentExecutor.submit( () ->
+        {
+            final Segment segment = writeSegment( db, segmentIndex, records );
+            manifestWriter.addSegment( segment );
+            recordCounter.add( segment.getRecords() );
+            segmentCounter.increment();
+            eventRateMeter.markEvents( records.size() );
+            progressOutputter.conditionallyExecuteTask();
+            return null;
+        } ) );
+    }
+
+    private Segment writeSegment( final LocalDB.DB db, final int segmentIndex, final List<Map.Entry<String, String>> records )
+            throws IOException
+    {
+        final String fileName = db.name() + "-" + String.format( "%06d", segmentIndex ) + SEGMENT_FILE_SUFFIX;
+        final Path segmentFile = directory.resolve( fileName );
+        final MessageDigest messageDigest = CHECKSUM_ALGORITHM.newMessageDigest();
+
+        try ( OutputStream fileOutputStream = new DigestOutputStream( new BufferedOutputStream( Files.newOutputStream( segmentFile ) ), messageDigest );
+              CSVPrinter csvPrinter = PwmUtil.makeCsvPrinter( new GZIPOutputStream( fileOutputStream, GZIP_BUFFER_SIZE ) ) )
+        {
+            for ( final Map.Entry<String, String> entry : records )
+            {
+                csvPrinter.printRecord( entry.getKey(), entry.getValue() );
+            }
+        }
+
+        return Segment.builder()
+                .db( db )
+                .index( segmentIndex )
+                .fileName( fileName )
+                .records( records.size() )
+                .firstKey( records.get( 0 ).getKey() )
+                .lastKey( records.get( records.size() - 1 ).getKey() )
+                .bytes( Files.size( segmentFile ) )
+                .checksum( HexFormat.of().formatHex( messageDigest.digest() ) )
+                .build();
+    }
+
+    /**
+     * Segments of an interrupted export that can be kept.  For each db only the leading run of consecutive,
+     * verified segments is kept, because the export resumes by skipping the records those segments contain.
+     */
+    private List<Segment> verifiedSegmentPrefixes( final List<Segment> segments )
+    {
+        final List<Segment> sortedSegments = new ArrayList<>( segments == null ? Collections.emptyList() : segments );
+        sortedSegments.sort( Comparator.comparing( Segment::getDb ).thenComparing( Segment::getIndex ) );
+
+        final List<Segment> returnList = new ArrayList<>();
+        final Map<LocalDB.DB, Integer> nextIndexes = new HashMap<>();
+        for ( final Segment segment : sortedSegments )
+        {
+            final int expectedIndex = nextIndexes.getOrDefault( segment.getDb(), 0 );
+            if ( segment.getIndex() == expectedIndex && verifyChecksum( segment ) )
+            {
+                returnList.add( segment );
+                nextIndexes.put( segment.getDb(), expectedIndex + 1 );
+            }
+            else
+            {
+                // a gap or bad segment ends the usable run for this db
+                nextIndexes.put( segment.getDb(), -1 );
+            }
+        }
+        return returnList;
+    }
+
+    private boolean verifyChecksum( final Segment segment )
+    {
+        final MessageDigest messageDigest = CHECKSUM_ALGORITHM.newMessageDigest();
+        try ( InputStream inputStream = new DigestInputStream( Files.newInputStream( directory.resolve( segment.getFileName() ) ), messageDigest ) )
+        {
+            inputStream.transferTo( OutputStream.nullOutputStream() );
+            return segment.getChecksum().equals( HexFormat.of().formatHex( messageDigest.digest() ) );
+        }
+        catch ( final IOException e )
+        {
+            LOGGER.debug( () -> "discarding unreadable export segment " + segment.getFileName() + ": " + e.getMessage() );
+            return false;
+        }
+    }
+
+    void importSegments( )
+            throws PwmOperationalException, IOException
+    {
+        final Manifest manifest = readManifest( directory ).orElseThrow( () -> new PwmOperationalException( PwmError.ERROR_INTERNAL,
+                "directory '" + directory + "' does not contain a LocalDB export manifest" ) );
+
+        if ( manifest.getVersion() != FORMAT_VERSION )
+        {
+            throw new PwmOperationalException( PwmError.ERROR_INTERNAL, "unsupported LocalDB export format version " + manifest.getVersion() );
+        }
+
+        if ( !manifest.isComplete() )
+        {
+            throw new PwmOperationalException( PwmError.ERROR_INTERNAL, "LocalDB export in '" + directory + "' is not complete, re-run the export to finish it" );
+        }
+
+        final String importStatusValue = IMPORT_STATUS_PREFIX + manifest.getExportId();
+        final Optional<String> existingStatus = localDB.get( LocalDB.DB.PWM_META, AppAttribute.LOCALDB_IMPORT_STATUS.getKey() );
+        final Set<String> completedSegments = new HashSet<>();
+        if ( existingStatus.isPresent() && importStatusValue.equals( existingStatus.get() ) )
+        {
+            completedSegments.addAll( readCompletedSegmentKeys() );
+        }
+        else
+        {
+            LocalDBUtility.prepareForImport( localDB, importStatusValue );
+        }
+
+        final List<Segment> pendingSegments = manifest.getSegments().stream()
+                .filter( segment -> !completedSegments.contains( segmentKey( segment ) ) )
+                .toList();
+        final long totalRecords = manifest.getSegments().stream().mapToLong( Segment::getRecords ).sum();
+        final long pendingRecords = pendingSegments.stream().mapToLong( Segment::getRecords ).sum();
+        recordCounter.add( totalRecords - pendingRecords );
+        segmentCounter.add( manifest.getSegments().size() - pendingSegments.size() );
+
+        writeStringToOut( "LocalDB segmented import of export " + manifest.getExportId() + " beginning, " + pendingSegments.size() + " of "
+                + manifest.getSegments().size() + " segments (" + pendingRecords + " of " + totalRecords + " records) remaining" );
+
+        final ConditionalTaskExecutor progressOutputter = makeProgressOutputter( "import", totalRecords );
+        final ExecutorService executor = PwmScheduler.makeMultiThreadExecutor( threadCount, "-", SessionLabel.SYSTEM_LABEL, LocalDBSegmentedBackup.class, "import" );
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            for ( final Segment segment : pendingSegments )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    importSegment( segment );
+                    recordCounter.add( segment.getRecords() );
+                    segmentCounter.increment();
+                    eventRateMeter.markEvents( ( int ) segment.getRecords() );
+                    progressOutputter.conditionallyExecuteTask();
+                    return null;
+                } ) );
+            }
+            awaitAll( futures );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        localDB.removeAll( LocalDB.DB.PWM_META, readCompletedSegmentKeys() );
+        LocalDBUtility.markImportComplete( localDB );
+
+        final String completeMsg = "import process completed, imported " + recordCounter.sum() + " records in " + segmentCounter.sum() + " segments in "
+                + PwmTimeUtil.asLongString( TimeDuration.fromCurrent( startTime ) );
+        LOGGER.info( () -> completeMsg );
+        writeStringToOut( completeMsg );
+    }
+
+    private void importSegment( final Segment segment )
+            throws IOException, LocalDBException
+    {
+        final Map<String, String> records = new HashMap<>( ( int ) Math.min( segment.getRecords() * 2, SEGMENT_MAX_RECORDS * 2L ) );
+        final MessageDigest messageDigest = CHECKSUM_ALGORITHM.newMessageDigest();
+        try ( InputStream inputStream = new DigestInputStream( Files.newInputStream( directory.resolve( segment.getFileName() ) ), messageDigest ) )
+        {
+            final Reader csvReader = new InputStreamReader( new GZIPInputStream( inputStream, GZIP_BUFFER_SIZE ), PwmConstants.DEFAULT_CHARSET );
+            for ( final CSVRecord record : PwmConstants.DEFAULT_CSV_FORMAT.parse( csvReader ) )
+            {
+                records.put( record.get( 0 ), record.get( 1 ) );
+            }
+
+            // include any bytes not consumed by the gzip stream in the checksum
+            inputStream.transferTo( OutputStream.nullOutputStream() );
+        }
+
+        final String checksum = HexFormat.of().formatHex( messageDigest.digest() );
+        if ( !segment.getChecksum().equals( checksum ) )
+        {
+            throw new IOException( "checksum mismatch for LocalDB export segment " + segment.getFileName() );
+        }
+        if ( records.size() != segment.getRecords() )
+        {
+            throw new IOException( "LocalDB export segment " + segment.getFileName() + " contains " + records.size()
+                    + " records, manifest expects " + segment.getRecords() );
+        }
+
+        if ( segment.getDb() == LocalDB.DB.PWM_META )
+        {
+            // the import status of the LocalDB being loaded is never taken from the export
+            records.remove( AppAttribute.LOCALDB_IMPORT_STATUS.getKey() );
+        }
+
+        localDB.transact( transaction ->
+        {
+            transaction.putAll( segment.getDb(), records );
+            transaction.put( LocalDB.DB.PWM_META, segmentKey( segment ), segment.getChecksum() );
+            return null;
+        } );
+    }
+
+    private Set<String> readCompletedSegmentKeys( )
+            throws LocalDBException
+    {
+        final Set<String> returnSet = new HashSet<>();
+        try ( LocalDB.LocalDBIterator iterator = localDB.iterator( LocalDB.DB.PWM_META ) )
+        {
+            while ( iterator.hasNext() )
+            {
+                final String key = iterator.next().getKey();
+                if ( key.startsWith( IMPORT_SEGMENT_KEY_PREFIX ) )
+                {
+                    returnSet.add( key );
+                }
+            }
+        }
+        return returnSet;
+    }
+
+    private static String segmentKey( final Segment segment )
+    {
+        return IMPORT_SEGMENT_KEY_PREFIX + segment.getFileName();
+    }
+
+    private ConditionalTaskExecutor makeProgressOutputter( final String operation, final long totalRecords )
+    {
+        return ConditionalTaskExecutor.forPeriodicTask( () ->
+        {
+            final Map<String, String> stats = new LinkedHashMap<>();
+            stats.put( "progress", ProgressInfoCalculator.createProgressInfo( startTime, totalRecords, recordCounter.sum() ).debugOutput() );
+            stats.put( "records", Long.toString( recordCounter.sum() ) );
+            stats.put( "segments", Long.toString( segmentCounter.sum() ) );
+            stats.put( "recordsPerSecond", PwmUtil.forDefaultLocale().format( eventRateMeter.rawEps().longValue() ) );
+            stats.put( "threads", Integer.toString( threadCount ) );
+            writeStringToOut( operation + " stats: " + StringUtil.mapToString( stats ) );
+        }, PROGRESS_OUTPUT_INTERVAL.asDuration() );
+    }
+
+    private static void awaitAll( final Iterable<? extends Future<?>> futures )
+            throws IOException
+    {
+        for ( final Future<?> future : futures )
+        {
+            try
+            {
+                future.get();
+            }
+            catch ( final InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( "interrupted while waiting for LocalDB backup task" );
+            }
+            catch ( final ExecutionException e )
+            {
+                final Throwable cause = e.getCause();
+                if ( cause instanceof IOException )
+                {
+                    throw ( IOException ) cause;
+                }
+                throw new IOException( "error during LocalDB backup task: " + cause.getMessage(), cause );
+            }
+        }
+    }
+
+    private void writeStringToOut( final String message )
+    {
+        LocalDBUtility.writeStringToOut( debugOutput, message );
+    }
+
+    static Optional<Manifest> readManifest( final Path directory )
+            throws IOException
+    {
+        final Path manifestFile = directory.resolve( MANIFEST_FILENAME );
+        if ( !Files.exists( manifestFile ) )
+        {
+            return Optional.empty();
+        }
+        final String json = Files.readString( manifestFile, PwmConstants.DEFAULT_CHARSET );
+        return Optional.of( JsonFactory.get().deserialize( json, Manifest.class ) );
+    }
+
+    /**
+     * Holds the manifest being built by an export and rewrites it as each segment completes, replacing the manifest
+     * file atomically so an interrupted export always leaves a readable manifest behind.
+     */
+    private class ManifestWriter
+    {
+        private Manifest manifest;
+
+        ManifestWriter( final Manifest manifest )
+        {
+            this.manifest = manifest;
+        }
+
+        synchronized void addSegment( final Segment segment )
+                throws IOException
+        {
+            final List<Segment> segments = new ArrayList<>( manifest.getSegments() );
+            segments.add( segment );
+            segments.sort( Comparator.comparing( Segment::getDb ).thenComparing( Segment::getIndex ) );
+            manifest = manifest.toBuilder().segments( segments ).build();
+            write();
+        }
+
+        synchronized void markComplete()
+                throws IOException
+        {
+            manifest = manifest.toBuilder().complete( true ).build();
+            write();
+        }
+
+        synchronized void write()
+                throws IOException
+        {
+            final Path tempFile = directory.resolve( MANIFEST_TEMP_FILENAME );
+            Files.writeString( tempFile, JsonFactory.get().serialize( manifest, JsonProvider.Flag.PrettyPrint ), PwmConstants.DEFAULT_CHARSET );
+            Files.move( tempFile, directory.resolve( MANIFEST_FILENAME ), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        }
+    }
+}
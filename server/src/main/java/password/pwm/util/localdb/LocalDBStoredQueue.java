@@ -856,37 +856,40 @@ public class LocalDBStoredQueue implements Queue<String>, Deque<String>
                     return Collections.emptyList();
                 }
 
-                final List<String> removalKeys = new ArrayList<>( removalCount );
-                final List<String> removedValues = new ArrayList<>( removalCount );
+                final List<String> removedValues = new ArrayList<>( returnValues ? removalCount : 0 );
 
-                Position loopPosition = currentPositionForDirection( direction );
-
-                int removedPositions = 0;
-                while ( removedPositions < removalCount )
+                // value reads, removals and the position update are committed together
+                final Position finalPosition = localDB.transact( transaction ->
                 {
-                    removalKeys.add( loopPosition.key() );
-                    if ( returnValues )
+                    removedValues.clear();
+                    Position loopPosition = currentPositionForDirection( direction );
+
+                    int removedPositions = 0;
+                    while ( removedPositions < removalCount )
                     {
-                        final Optional<String> loopValue = localDB.get( db, loopPosition.key() );
-                        loopValue.ifPresent( removedValues::add );
-                    }
+                        if ( returnValues )
+                        {
+                            transaction.get( db, loopPosition.key() ).ifPresent( removedValues::add );
+                        }
+                        transaction.remove( db, loopPosition.key() );
 
-                    loopPosition = switch ( direction )
-                            {
-                                case FORWARD -> loopPosition.equals( tailPosition.get() ) ? loopPosition : loopPosition.previous();
-                                case REVERSE -> loopPosition.equals( headPosition.get() ) ? loopPosition : loopPosition.next();
-                            };
+                        loopPosition = switch ( direction )
+                                {
+                                    case FORWARD -> loopPosition.equals( tailPosition.get() ) ? loopPosition : loopPosition.previous();
+                                    case REVERSE -> loopPosition.equals( headPosition.get() ) ? loopPosition : loopPosition.next();
+                                };
 
-                    removedPositions++;
-                }
+                        removedPositions++;
+                    }
 
-                localDB.removeAll( db, removalKeys );
-                localDB.put( db, direction == Direction.FORWARD ? KEY_HEAD_POSITION : KEY_TAIL_POSITION, loopPosition.key() );
+                    transaction.put( db, direction == Direction.FORWARD ? KEY_HEAD_POSITION : KEY_TAIL_POSITION, loopPosition.key() );
+                    return loopPosition;
+                } );
 
                 switch ( direction )
                 {
-                    case FORWARD -> headPosition.set( loopPosition );
-                    case REVERSE -> tailPosition.set( loopPosition );
+                    case FORWARD -> headPosition.set( finalPosition );
+                    case REVERSE -> tailPosition.set( finalPosition );
                     default -> throw new IllegalStateException();
                 }
 
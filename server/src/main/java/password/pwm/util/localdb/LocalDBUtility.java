@@ -27,6 +27,7 @@ import password.pwm.AppAttribute;
 import password.pwm.PwmConstants;
 import password.pwm.error.PwmError;
 import password.pwm.error.PwmOperationalException;
+import password.pwm.svc.wordlist.WordType;
 import password.pwm.util.EventRateMeter;
 import password.pwm.util.Percent;
 import password.pwm.util.ProgressInfoCalculator;
@@ -50,6 +51,8 @@ import java.math.RoundingMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.LinkedHashMap;
@@ -151,7 +154,7 @@ public class LocalDBUtility
     {
         Objects.requireNonNull( outputStream );
 
-        final long totalLines = localDB.size( LocalDB.DB.WORDLIST_WORDS );
+        final long totalLines = localDB.size( LocalDB.DB.WORDLIST_WORDS ) + localDB.size( LocalDB.DB.WORDLIST_HASHES );
 
         final LongAdder exportLineCounter = new LongAdder();
 
@@ -180,6 +183,22 @@ public class LocalDBUtility
                     debugOutputter.conditionallyExecuteTask();
                 }
             }
+            try ( LocalDB.LocalDBIterator localDBIterator = localDB.iterator( LocalDB.DB.WORDLIST_HASHES ) )
+            {
+                while ( localDBIterator.hasNext() )
+                {
+                    final Map.Entry<String, String> entry = localDBIterator.next();
+                    final Optional<String> storedValue = WordType.storedValueForHashBytes( decodeBinary( entry.getKey() ) );
+                    if ( storedValue.isPresent() )
+                    {
+                        zipOutputStream.write( storedValue.get().getBytes( PwmConstants.DEFAULT_CHARSET ) );
+                        zipOutputStream.write( '\n' );
+                    }
+                    exportLineCounter.increment();
+                    eventRateMeter.markEvent();
+                    debugOutputter.conditionallyExecuteTask();
+                }
+            }
         }
         catch ( final IOException e )
         {
@@ -209,7 +228,7 @@ public class LocalDBUtility
         writeStringToOut( debugOutput, msg );
     }
 
-    private static void writeStringToOut( final Appendable out, final String string )
+    static void writeStringToOut( final Appendable out, final String string )
     {
         if ( out == null )
         {
@@ -228,6 +247,32 @@ public class LocalDBUtility
         }
     }
 
+    /**
+     * Export all backup dbs to a directory of checksummed, compressed segments using parallel threads.  If the directory
+     * holds an interrupted export of this LocalDB, the export resumes after the last verified segment.
+     * @param outputDirectory directory to write the manifest and segment files to.
+     * @param debugOutput progress output
+     */
+    public void exportLocalDBSegments( final Path outputDirectory, final Appendable debugOutput )
+            throws PwmOperationalException, IOException
+    {
+        Objects.requireNonNull( outputDirectory );
+        new LocalDBSegmentedBackup( localDB, outputDirectory, debugOutput ).exportSegments();
+    }
+
+    /**
+     * Import a directory written by {@link #exportLocalDBSegments(Path, Appendable)}, replacing all LocalDB content.  If a
+     * previous import of the same export was interrupted, only the segments not yet committed are imported.
+     * @param inputDirectory directory containing the manifest and segment files.
+     * @param debugOutput progress output
+     */
+    public void importLocalDBSegments( final Path inputDirectory, final Appendable debugOutput )
+            throws PwmOperationalException, IOException
+    {
+        Objects.requireNonNull( inputDirectory );
+        new LocalDBSegmentedBackup( localDB, inputDirectory, debugOutput ).importSegments();
+    }
+
     public void importLocalDB( final Path inputFile, final PrintStream out )
             throws PwmOperationalException, IOException
     {
@@ -384,26 +429,13 @@ public class LocalDBUtility
         private void prepareForImport( )
                 throws LocalDBException
         {
-            LOGGER.info( () -> "preparing LocalDB for import procedure" );
-            localDB.put( LocalDB.DB.PWM_META, AppAttribute.LOCALDB_IMPORT_STATUS.getKey(), IN_PROGRESS_STATUS_VALUE );
-            for ( final LocalDB.DB loopDB : LocalDB.DB.values() )
-            {
-                if ( loopDB != LocalDB.DB.PWM_META )
-                {
-                    localDB.truncate( loopDB );
-                }
-            }
-
-            // save meta for last so flag is cleared last.
-            localDB.truncate( LocalDB.DB.PWM_META );
-            localDB.put( LocalDB.DB.PWM_META, AppAttribute.LOCALDB_IMPORT_STATUS.getKey(), IN_PROGRESS_STATUS_VALUE  );
+            LocalDBUtility.prepareForImport( localDB, IN_PROGRESS_STATUS_VALUE );
         }
 
         private void markImportComplete()
                 throws LocalDBException
         {
-            LOGGER.info( () -> "marking LocalDB import procedure completed" );
-            localDB.remove( LocalDB.DB.PWM_META, AppAttribute.LOCALDB_IMPORT_STATUS.getKey() );
+            LocalDBUtility.markImportComplete( localDB );
         }
 
         private String debugStatsString()
@@ -426,6 +458,31 @@ public class LocalDBUtility
         }
     }
 
+    static void prepareForImport( final LocalDB localDB, final String importStatusValue )
+            throws LocalDBException
+    {
+        LOGGER.info( () -> "preparing LocalDB for import procedure" );
+        localDB.put( LocalDB.DB.PWM_META, AppAttribute.LOCALDB_IMPORT_STATUS.getKey(), importStatusValue );
+        for ( final LocalDB.DB loopDB : LocalDB.DB.values() )
+        {
+            if ( loopDB != LocalDB.DB.PWM_META )
+            {
+                localDB.truncate( loopDB );
+            }
+        }
+
+        // save meta for last so flag is cleared last.
+        localDB.truncate( LocalDB.DB.PWM_META );
+        localDB.put( LocalDB.DB.PWM_META, AppAttribute.LOCALDB_IMPORT_STATUS.getKey(), importStatusValue );
+    }
+
+    static void markImportComplete( final LocalDB localDB )
+            throws LocalDBException
+    {
+        LOGGER.info( () -> "marking LocalDB import procedure completed" );
+        localDB.remove( LocalDB.DB.PWM_META, AppAttribute.LOCALDB_IMPORT_STATUS.getKey() );
+    }
+
     public static Map<StatsKey, Object> dbStats(
             final LocalDB localDB,
             final LocalDB.DB db
@@ -475,6 +532,35 @@ public class LocalDBUtility
         return storedImportValue.isPresent() && IN_PROGRESS_STATUS_VALUE.equals( storedImportValue.get() );
     }
 
+    /**
+     * A segmented import that did not complete is left in place so that it can be resumed.
+     * @return true if a segmented import has been started but not completed.
+     */
+    public boolean readSegmentedImportInprogressFlag( )
+            throws LocalDBException
+    {
+        final Optional<String> storedImportValue = localDB.get( LocalDB.DB.PWM_META, AppAttribute.LOCALDB_IMPORT_STATUS.getKey() );
+        return storedImportValue.isPresent() && storedImportValue.get().startsWith( LocalDBSegmentedBackup.IMPORT_STATUS_PREFIX );
+    }
+
+    /**
+     * String form of binary DB keys and values, see {@link LocalDB}.
+     */
+    static String encodeBinary( final byte[] value )
+    {
+        return Base64.getEncoder().encodeToString( value );
+    }
+
+    static byte[] decodeBinary( final String value )
+    {
+        return Base64.getDecoder().decode( value );
+    }
+
+    static boolean startsWith( final byte[] value, final byte[] prefix )
+    {
+        return value.length >= prefix.length && Arrays.equals( value, 0, prefix.length, prefix, 0, prefix.length );
+    }
+
     static boolean hasBooleanParameter( final LocalDBProvider.Parameter parameter, final Map<LocalDBProvider.Parameter, String> parameters )
     {
         return parameters != null && parameters.containsKey( parameter ) && Boolean.parseBoolean( parameters.get( parameter ) );
@@ -25,7 +25,9 @@ import password.pwm.util.java.CollectionUtil;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -86,7 +88,7 @@ public class MemoryLocalDB implements LocalDBProvider
     {
         operationPreCheck();
         final Map<String, String> map = maps.get( db );
-        return Optional.of( map.get( key ) );
+        return Optional.ofNullable( map.get( key ) );
     }
 
     @Override
@@ -200,6 +202,89 @@ public class MemoryLocalDB implements LocalDBProvider
         maps.get( db ).keySet().removeAll( keys );
     }
 
+    @Override
+    @LocalDB.WriteOperation
+    public synchronized <T> T transact( final LocalDB.TransactionFunction<T> function )
+            throws LocalDBException
+    {
+        operationPreCheck();
+
+        final MemoryTransaction transaction = new MemoryTransaction();
+        final T result = function.apply( transaction );
+        transaction.commit();
+        return result;
+    }
+
+    /**
+     * Writes are staged and only applied to the maps once the transaction function completes without error.
+     */
+    private class MemoryTransaction implements LocalDB.LocalDBTransaction
+    {
+        private final Map<LocalDB.DB, Map<String, Optional<String>>> pendingWrites = new EnumMap<>( LocalDB.DB.class );
+
+        @Override
+        public Optional<String> get( final LocalDB.DB db, final String key )
+        {
+            final Map<String, Optional<String>> pendingDbWrites = pendingWrites.get( db );
+            if ( pendingDbWrites != null && pendingDbWrites.containsKey( key ) )
+            {
+                return pendingDbWrites.get( key );
+            }
+            return Optional.ofNullable( maps.get( db ).get( key ) );
+        }
+
+        @Override
+        public void put( final LocalDB.DB db, final String key, final String value )
+        {
+            Objects.requireNonNull( key );
+            Objects.requireNonNull( value );
+            pendingWrites.computeIfAbsent( db, k -> new LinkedHashMap<>() ).put( key, Optional.of( value ) );
+        }
+
+        @Override
+        public void putAll( final LocalDB.DB db, final Map<String, String> keyValueMap )
+        {
+            for ( final Map.Entry<String, String> entry : keyValueMap.entrySet() )
+            {
+                put( db, entry.getKey(), entry.getValue() );
+            }
+        }
+
+        @Override
+        public void remove( final LocalDB.DB db, final String key )
+        {
+            pendingWrites.computeIfAbsent( db, k -> new LinkedHashMap<>() ).put( key, Optional.empty() );
+        }
+
+        @Override
+        public void removeAll( final LocalDB.DB db, final Collection<String> keys )
+        {
+            for ( final String key : keys )
+            {
+                remove( db, key );
+            }
+        }
+
+        private void commit( )
+        {
+            for ( final Map.Entry<LocalDB.DB, Map<String, Optional<String>>> dbEntry : pendingWrites.entrySet() )
+            {
+                final Map<String, String> map = maps.get( dbEntry.getKey() );
+                for ( final Map.Entry<String, Optional<String>> entry : dbEntry.getValue().entrySet() )
+                {
+                    if ( entry.getValue().isPresent() )
+                    {
+                        map.put( entry.getKey(), entry.getValue().get() );
+                    }
+                    else
+                    {
+                        map.remove( entry.getKey() );
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public LocalDB.Status getStatus( )
     {
@@ -50,10 +50,13 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
@@ -71,7 +74,6 @@ public class XodusLocalDB implements LocalDBProvider
 
     private static final String FILE_SUB_PATH = "xodus";
     private static final String README_FILENAME = "README.TXT";
-    private static final int DEFAULT_MEMORY_USAGE = 50 * 1024 * 1024;
 
     private Environment environment;
     private Path fileLocation;
@@ -121,7 +123,8 @@ public class XodusLocalDB implements LocalDBProvider
         LOGGER.trace( () -> "begin environment open" );
         final Instant startTime = Instant.now();
 
-        final EnvironmentConfig environmentConfig = makeEnvironmentConfig( initParameters );
+        final XodusTuningProfile tuningProfile = XodusTuningProfile.forName( parameters.get( Parameter.tuningProfile ) );
+        final EnvironmentConfig environmentConfig = makeEnvironmentConfig( tuningProfile, initParameters );
 
         if ( Files.exists( getDirtyFile() ) )
         {
@@ -208,12 +211,13 @@ public class XodusLocalDB implements LocalDBProvider
         LOGGER.debug( () -> "closed (" + TimeDuration.compactFromCurrent( startTime ) + ")" );
     }
 
-    private EnvironmentConfig makeEnvironmentConfig( final Map<String, String> initParameters )
+    private EnvironmentConfig makeEnvironmentConfig( final XodusTuningProfile tuningProfile, final Map<String, String> initParameters )
     {
         final EnvironmentConfig environmentConfig = new EnvironmentConfig();
         environmentConfig.setEnvCloseForcedly( true );
-        environmentConfig.setMemoryUsage( DEFAULT_MEMORY_USAGE );
         environmentConfig.setEnvGatherStatistics( true );
+        tuningProfile.apply( environmentConfig );
+        LOGGER.trace( () -> "applied tuning profile " + tuningProfile );
 
         for ( final Map.Entry<String, String> entry : initParameters.entrySet() )
         {
@@ -258,15 +262,76 @@ public class XodusLocalDB implements LocalDBProvider
         return environment.computeInReadonlyTransaction( transaction ->
         {
             final Store store = getStore( db );
-            final ByteIterable returnValue = store.get( transaction, bindMachine.keyToEntry( key ) );
+            final ByteIterable returnValue = store.get( transaction, bindMachine.keyToEntry( db, key ) );
             if ( returnValue != null )
             {
-                return Optional.of( bindMachine.entryToValue( returnValue ) );
+                return Optional.of( bindMachine.entryToValue( db, returnValue ) );
             }
             return Optional.empty();
         } );
     }
 
+    @Override
+    public boolean containsBytes( final LocalDB.DB db, final byte[] key ) throws LocalDBException
+    {
+        checkStatus( false );
+        return environment.computeInReadonlyTransaction( transaction ->
+                getStore( db ).get( transaction, new ArrayByteIterable( key ) ) != null );
+    }
+
+    @Override
+    public Optional<byte[]> getBytes( final LocalDB.DB db, final byte[] key ) throws LocalDBException
+    {
+        checkStatus( false );
+        return environment.computeInReadonlyTransaction( transaction ->
+        {
+            final ByteIterable returnValue = getStore( db ).get( transaction, new ArrayByteIterable( key ) );
+            return Optional.ofNullable( returnValue ).map( BindMachine::entryToBytes );
+        } );
+    }
+
+    @Override
+    public boolean putBytes( final LocalDB.DB db, final byte[] key, final byte[] value ) throws LocalDBException
+    {
+        checkStatus( true );
+        return environment.computeInTransaction( transaction ->
+                getStore( db ).put( transaction, new ArrayByteIterable( key ), new ArrayByteIterable( value ) ) );
+    }
+
+    @Override
+    public List<byte[]> keysByPrefixBytes( final LocalDB.DB db, final byte[] prefix, final int keyLength, final int maxKeys ) throws LocalDBException
+    {
+        checkStatus( false );
+        return environment.computeInReadonlyTransaction( transaction ->
+        {
+            // binary keys are stored raw, so keys sharing a prefix are adjacent and the scan stops at the first non-match
+            final List<byte[]> keys = new ArrayList<>();
+            final Cursor cursor = getStore( db ).openCursor( transaction );
+            try
+            {
+                boolean hasEntry = cursor.getSearchKeyRange( new ArrayByteIterable( prefix ) ) != null;
+                while ( hasEntry && keys.size() < maxKeys )
+                {
+                    final byte[] key = BindMachine.entryToBytes( cursor.getKey() );
+                    if ( !LocalDBUtility.startsWith( key, prefix ) )
+                    {
+                        break;
+                    }
+                    if ( keyLength == 0 || key.length == keyLength )
+                    {
+                        keys.add( key );
+                    }
+                    hasEntry = cursor.getNext();
+                }
+            }
+            finally
+            {
+                cursor.close();
+            }
+            return keys;
+        } );
+    }
+
     @Override
     public LocalDB.LocalDBIterator iterator( final LocalDB.DB db )  throws LocalDBException
     {
@@ -275,6 +340,7 @@ public class XodusLocalDB implements LocalDBProvider
 
     public class InnerIterator implements LocalDB.LocalDBIterator
     {
+        private final LocalDB.DB db;
         private final Transaction transaction;
         private final Cursor cursor;
 
@@ -283,6 +349,7 @@ public class XodusLocalDB implements LocalDBProvider
 
         InnerIterator( final LocalDB.DB db )
         {
+            this.db = db;
             this.transaction = environment.beginReadonlyTransaction();
             this.cursor = getStore( db ).openCursor( transaction );
             doNext();
@@ -316,14 +383,14 @@ public class XodusLocalDB implements LocalDBProvider
                     close();
                     return;
                 }
-                final String decodedKey = bindMachine.entryToKey( nextCursor );
+                final String decodedKey = bindMachine.entryToKey( db, nextCursor );
                 if ( decodedKey == null )
                 {
                     close();
                     return;
                 }
                 final ByteIterable nextValueIterable = cursor.getValue();
-                final String nextStringValue = nextValueIterable == null ? null : bindMachine.entryToValue( nextValueIterable );
+                final String nextStringValue = nextValueIterable == null ? null : bindMachine.entryToValue( db, nextValueIterable );
 
                 nextValue = new AbstractMap.SimpleImmutableEntry<>( decodedKey, nextStringValue );
             }
@@ -380,8 +447,8 @@ public class XodusLocalDB implements LocalDBProvider
             final Store store = getStore( db );
             for ( final Map.Entry<String, String> entry : keyValueMap.entrySet() )
             {
-                final ByteIterable k = bindMachine.keyToEntry( entry.getKey() );
-                final ByteIterable v = bindMachine.valueToEntry( entry.getValue() );
+                final ByteIterable k = bindMachine.keyToEntry( db, entry.getKey() );
+                final ByteIterable v = bindMachine.valueToEntry( db, entry.getValue() );
                 store.put( transaction, k, v );
             }
         } );
@@ -395,8 +462,8 @@ public class XodusLocalDB implements LocalDBProvider
         checkStatus( true );
         return environment.computeInTransaction( transaction ->
         {
-            final ByteIterable k = bindMachine.keyToEntry( key );
-            final ByteIterable v = bindMachine.valueToEntry( value );
+            final ByteIterable k = bindMachine.keyToEntry( db, key );
+            final ByteIterable v = bindMachine.valueToEntry( db, value );
             final Store store = getStore( db );
             return store.put( transaction, k, v );
         } );
@@ -409,8 +476,8 @@ public class XodusLocalDB implements LocalDBProvider
         checkStatus( true );
         return environment.computeInTransaction( transaction ->
         {
-            final ByteIterable k = bindMachine.keyToEntry( key );
-            final ByteIterable v = bindMachine.valueToEntry( value );
+            final ByteIterable k = bindMachine.keyToEntry( db, key );
+            final ByteIterable v = bindMachine.valueToEntry( db, value );
             final Store store = getStore( db );
             final ByteIterable existingValue = store.get( transaction, k );
             if ( existingValue != null )
@@ -428,7 +495,7 @@ public class XodusLocalDB implements LocalDBProvider
         return environment.computeInTransaction( transaction ->
         {
             final Store store = getStore( db );
-            return store.delete( transaction, bindMachine.keyToEntry( key ) );
+            return store.delete( transaction, bindMachine.keyToEntry( db, key ) );
         } );
     }
 
@@ -441,7 +508,7 @@ public class XodusLocalDB implements LocalDBProvider
             final Store store = getStore( db );
             for ( final String key : keys )
             {
-                store.delete( transaction, bindMachine.keyToEntry( key ) );
+                store.delete( transaction, bindMachine.keyToEntry( db, key ) );
             }
         } );
     }
@@ -472,6 +539,91 @@ public class XodusLocalDB implements LocalDBProvider
         }
     }
 
+    @Override
+    public <T> T transact( final LocalDB.TransactionFunction<T> function ) throws LocalDBException
+    {
+        checkStatus( true );
+
+        // same commit and retry sequence as Environment.computeInTransaction(), which does not allow checked exceptions
+        final Transaction transaction = environment.beginTransaction();
+        try
+        {
+            while ( true )
+            {
+                final T result = function.apply( new XodusTransaction( transaction ) );
+                if ( transaction.flush() )
+                {
+                    return result;
+                }
+                transaction.revert();
+            }
+        }
+        finally
+        {
+            if ( !transaction.isFinished() )
+            {
+                transaction.abort();
+            }
+        }
+    }
+
+    private class XodusTransaction implements LocalDB.LocalDBTransaction
+    {
+        private final Transaction transaction;
+
+        XodusTransaction( final Transaction transaction )
+        {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public Optional<String> get( final LocalDB.DB db, final String key )
+        {
+            final ByteIterable returnValue = getStore( db ).get( transaction, bindMachine.keyToEntry( db, key ) );
+            return returnValue == null
+                    ? Optional.empty()
+                    : Optional.of( bindMachine.entryToValue( db, returnValue ) );
+        }
+
+        @Override
+        public void put( final LocalDB.DB db, final String key, final String value )
+        {
+            getStore( db ).put( transaction, bindMachine.keyToEntry( db, key ), bindMachine.valueToEntry( db, value ) );
+        }
+
+        @Override
+        public void putBytes( final LocalDB.DB db, final byte[] key, final byte[] value )
+        {
+            getStore( db ).put( transaction, new ArrayByteIterable( key ), new ArrayByteIterable( value ) );
+        }
+
+        @Override
+        public void putAll( final LocalDB.DB db, final Map<String, String> keyValueMap )
+        {
+            final Store store = getStore( db );
+            for ( final Map.Entry<String, String> entry : keyValueMap.entrySet() )
+            {
+                store.put( transaction, bindMachine.keyToEntry( db, entry.getKey() ), bindMachine.valueToEntry( db, entry.getValue() ) );
+            }
+        }
+
+        @Override
+        public void remove( final LocalDB.DB db, final String key )
+        {
+            getStore( db ).delete( transaction, bindMachine.keyToEntry( db, key ) );
+        }
+
+        @Override
+        public void removeAll( final LocalDB.DB db, final Collection<String> keys )
+        {
+            final Store store = getStore( db );
+            for ( final String key : keys )
+            {
+                store.delete( transaction, bindMachine.keyToEntry( db, key ) );
+            }
+        }
+    }
+
     @Override
     public Path getFileLocation( )
     {
@@ -564,18 +716,31 @@ public class XodusLocalDB implements LocalDBProvider
             this.minCompressionLength = minCompressionLength;
         }
 
-        ByteIterable keyToEntry( final String key )
+        ByteIterable keyToEntry( final LocalDB.DB db, final String key )
         {
+            if ( db.isBinary() )
+            {
+                return new ArrayByteIterable( LocalDBUtility.decodeBinary( key ) );
+            }
             return StringBinding.stringToEntry( key );
         }
 
-        String entryToKey( final ByteIterable entry )
+        String entryToKey( final LocalDB.DB db, final ByteIterable entry )
         {
+            if ( db.isBinary() )
+            {
+                return LocalDBUtility.encodeBinary( entryToBytes( entry ) );
+            }
             return StringBinding.entryToString( entry );
         }
 
-        ByteIterable valueToEntry( final String value )
+        ByteIterable valueToEntry( final LocalDB.DB db, final String value )
         {
+            if ( db.isBinary() )
+            {
+                return new ArrayByteIterable( LocalDBUtility.decodeBinary( value ) );
+            }
+
             if ( !enableCompression || value.length() < minCompressionLength )
             {
                 final ByteIterable byteIterable = StringBinding.stringToEntry( value );
@@ -596,23 +761,37 @@ public class XodusLocalDB implements LocalDBProvider
             }
         }
 
-        String entryToValue( final ByteIterable value )
+        String entryToValue( final LocalDB.DB db, final ByteIterable value )
         {
+            if ( db.isBinary() )
+            {
+                return LocalDBUtility.encodeBinary( entryToBytes( value ) );
+            }
+
+            // the prefix byte is skipped in place rather than copying the remaining value
             final byte[] rawValue = value.getBytesUnsafe();
-            final byte[] strippedArray = new byte[ rawValue.length - 1 ];
-            System.arraycopy( rawValue, 1, strippedArray, 0, rawValue.length - 1 );
+            final int length = value.getLength();
             if ( rawValue[ 0 ] == UNCOMPRESSED_PREFIX )
             {
-                return StringBinding.entryToString( new ArrayByteIterable( strippedArray ) );
+                return StringBinding.entryToString( value.subIterable( 1, length - 1 ) );
             }
             else if ( rawValue[ 0 ] == COMPRESSED_PREFIX )
             {
-                final byte[] decompressedValue = decompressData( strippedArray );
+                final byte[] decompressedValue = decompressData( rawValue, 1, length - 1 );
                 return StringBinding.entryToString( new ArrayByteIterable( decompressedValue ) );
             }
             throw new IllegalStateException( "unknown value prefix " + Byte.toString( rawValue[ 0 ] ) );
         }
 
+        /**
+         * Bytes of an entry.  Always a copy, since the entry's backing array may be shared with the store and
+         * the result is handed to callers of the public byte[] api.
+         */
+        static byte[] entryToBytes( final ByteIterable entry )
+        {
+            return Arrays.copyOf( entry.getBytesUnsafe(), entry.getLength() );
+        }
+
         static byte[] compressData( final byte[] data )
         {
             final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
@@ -629,13 +808,13 @@ public class XodusLocalDB implements LocalDBProvider
             return byteArrayOutputStream.toByteArray();
         }
 
-        static byte[] decompressData( final byte[] data )
+        static byte[] decompressData( final byte[] data, final int offset, final int length )
         {
             final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
             final InflaterOutputStream inflaterOutputStream = new InflaterOutputStream( byteArrayOutputStream, new Inflater() );
             try
             {
-                inflaterOutputStream.write( data );
+                inflaterOutputStream.write( data, offset, length );
                 inflaterOutputStream.close();
             }
             catch ( final IOException e )
@@ -649,7 +828,8 @@ public class XodusLocalDB implements LocalDBProvider
     @Override
     public Set<Flag> flags( )
     {
-        return Collections.emptySet();
+        // string keys are stored as utf8 bytes, which xodus orders the same as the key strings
+        return Collections.singleton( Flag.SortedIteration );
     }
 
     private static void outputReadme( final Path xodusPath )
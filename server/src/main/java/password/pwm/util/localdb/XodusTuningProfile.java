@@ -0,0 +1,103 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.localdb;
+
+import jetbrains.exodus.env.EnvironmentConfig;
+import password.pwm.util.java.EnumUtil;
+
+import java.util.function.Consumer;
+
+/**
+ * Named sets of Xodus {@link EnvironmentConfig} settings, selected using the {@code localdb.tuningProfile} app property.
+ * Settings supplied explicitly in {@code localdb.initParameters} are applied afterwards and take precedence.
+ */
+enum XodusTuningProfile
+{
+    /**
+     * Fixed 50MB cache with Xodus defaults for all other settings.
+     */
+    standard( XodusTuningProfile::applyStandard ),
+
+    /**
+     * Large heap-relative cache, store-get cache and wide tree pages for lookup dominated nodes such as wordlist
+     * checks.  Writes are rare, so they are synced to disk on every commit.
+     */
+    readHeavy( XodusTuningProfile::applyReadHeavy ),
+
+    /**
+     * Larger log files, narrower tree pages and a lower GC utilization target to reduce write amplification on
+     * audit and queue heavy nodes.
+     */
+    writeHeavy( XodusTuningProfile::applyWriteHeavy ),
+
+    /**
+     * Small private cache and no store-get cache for constrained hosts.
+     */
+    lowMemory( XodusTuningProfile::applyLowMemory ),;
+
+    private final Consumer<EnvironmentConfig> configurer;
+
+    XodusTuningProfile( final Consumer<EnvironmentConfig> configurer )
+    {
+        this.configurer = configurer;
+    }
+
+    void apply( final EnvironmentConfig environmentConfig )
+    {
+        configurer.accept( environmentConfig );
+    }
+
+    static XodusTuningProfile forName( final String name )
+    {
+        return EnumUtil.readEnumFromString( XodusTuningProfile.class, name ).orElse( standard );
+    }
+
+    private static void applyStandard( final EnvironmentConfig environmentConfig )
+    {
+        environmentConfig.setMemoryUsage( 50L * 1024 * 1024 );
+    }
+
+    private static void applyReadHeavy( final EnvironmentConfig environmentConfig )
+    {
+        environmentConfig.setMemoryUsagePercentage( 30 );
+        environmentConfig.setEnvStoreGetCacheSize( 16 * 1024 );
+        environmentConfig.setTreeMaxPageSize( 256 );
+        environmentConfig.setLogDurableWrite( true );
+    }
+
+    private static void applyWriteHeavy( final EnvironmentConfig environmentConfig )
+    {
+        environmentConfig.setMemoryUsage( 100L * 1024 * 1024 );
+        environmentConfig.setLogFileSize( 32 * 1024 );
+        environmentConfig.setTreeMaxPageSize( 64 );
+        environmentConfig.setGcMinUtilization( 40 );
+        environmentConfig.setGcFileMinAge( 4 );
+        environmentConfig.setLogDurableWrite( false );
+    }
+
+    private static void applyLowMemory( final EnvironmentConfig environmentConfig )
+    {
+        environmentConfig.setMemoryUsage( 16L * 1024 * 1024 );
+        environmentConfig.setLogCacheShared( false );
+        environmentConfig.setEnvStoreGetCacheSize( 0 );
+        environmentConfig.setLogFileSize( 4 * 1024 );
+    }
+}
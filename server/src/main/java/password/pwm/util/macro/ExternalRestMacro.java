@@ -31,12 +31,16 @@ import password.pwm.util.json.JsonFactory;
 import password.pwm.util.logging.PwmLogger;
 import password.pwm.ws.client.rest.RestClientHelper;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * External macro @External1:&gt;value&lt;@ where 1 is incremental configuration item.
+ * External macro @External1:&gt;value&lt;@ where 1 is incremental configuration item.  Instances are created for
+ * each macro expansion, so prefetched calls are not shared between expansions.
  */
 class ExternalRestMacro extends AbstractMacro
 {
@@ -45,6 +49,9 @@ class ExternalRestMacro extends AbstractMacro
     private final Pattern pattern;
     private final String url;
 
+    private final Map<String, CompletableFuture<String>> prefetchedCalls = new HashMap<>();
+    private Instant prefetchDeadline;
+
     ExternalRestMacro(
             final int iteration,
             final String url
@@ -60,47 +67,52 @@ class ExternalRestMacro extends AbstractMacro
         return pattern;
     }
 
+    /**
+     * Start the rest calls for all matches of this macro in the input, so that calls for multiple external macros
+     * run in parallel rather than one after another during replacement.  The calls share a single deadline.
+     */
+    void prefetch( final String input, final MacroRequest macroRequestInfo )
+    {
+        if ( macroRequestInfo.getUserInfo() == null )
+        {
+            return;
+        }
+
+        final Matcher matcher = pattern.matcher( input );
+        while ( matcher.find() )
+        {
+            final String matchValue = matcher.group();
+            if ( !prefetchedCalls.containsKey( matchValue ) )
+            {
+                try
+                {
+                    if ( prefetchDeadline == null )
+                    {
+                        prefetchDeadline = RestClientHelper.deadline( pwmDomain( macroRequestInfo ) );
+                    }
+                    prefetchedCalls.put( matchValue, startCall( matchValue, macroRequestInfo ) );
+                }
+                catch ( final PwmException e )
+                {
+                    // the call is retried and the error reported when the macro is replaced
+                    LOGGER.trace( macroRequestInfo.getSessionLabel(), () -> "unable to prefetch external macro '" + matchValue + "', error: " + e.getMessage() );
+                }
+            }
+        }
+    }
+
     @Override
     public String replaceValue(
             final String matchValue,
             final MacroRequest macroRequestInfo
     )
     {
-        final PwmApplication pwmApplication = macroRequestInfo.getPwmApplication();
-        final UserInfo userInfoBean = macroRequestInfo.getUserInfo();
-
-        final String inputString = matchValue.substring( 11, matchValue.length() - 1 );
-        final Map<String, Object> sendData = new HashMap<>();
-
         try
         {
-            final PwmDomain pwmDomain = pwmApplication.domains().get( userInfoBean.getUserIdentity().getDomainID() );
-
-            if ( userInfoBean != null )
-            {
-                final MacroRequest macroRequest = MacroRequest.forUser(
-                        pwmApplication,
-                        macroRequestInfo.getUserLocale(),
-                        macroRequestInfo.getSessionLabel(),
-                        userInfoBean.getUserIdentity() );
-
-                final PublicUserInfoBean publicUserInfoBean = UserInfoBean.toPublicUserInfoBean(
-                        userInfoBean,
-                        pwmDomain.getConfig(),
-                        PwmConstants.DEFAULT_LOCALE,
-                        macroRequest
-                );
-
-                sendData.put( "userInfo", publicUserInfoBean );
-            }
-            sendData.put( "input", inputString );
-
-            final String requestBody = JsonFactory.get().serializeMap( sendData );
-            final String responseBody = RestClientHelper.makeOutboundRestWSCall( pwmDomain,
-                    macroRequestInfo.getSessionLabel(),
-                    PwmConstants.DEFAULT_LOCALE,
-                    url,
-                    requestBody );
+            final CompletableFuture<String> call = prefetchedCalls.remove( matchValue );
+            final String responseBody = call == null
+                    ? RestClientHelper.awaitResult( startCall( matchValue, macroRequestInfo ), RestClientHelper.deadline( pwmDomain( macroRequestInfo ) ) )
+                    : RestClientHelper.awaitResult( call, prefetchDeadline );
 
             final Map<String, Object> responseMap = JsonFactory.get().deserializeMap( responseBody, String.class, Object.class );
             if ( responseMap.containsKey( "output" ) )
@@ -120,6 +132,52 @@ class ExternalRestMacro extends AbstractMacro
         }
     }
 
+    private CompletableFuture<String> startCall(
+            final String matchValue,
+            final MacroRequest macroRequestInfo
+    )
+            throws PwmException
+    {
+        final PwmApplication pwmApplication = macroRequestInfo.getPwmApplication();
+        final UserInfo userInfoBean = macroRequestInfo.getUserInfo();
+
+        final String inputString = matchValue.substring( 11, matchValue.length() - 1 );
+        final Map<String, Object> sendData = new HashMap<>();
+
+        final PwmDomain pwmDomain = pwmDomain( macroRequestInfo );
+
+        if ( userInfoBean != null )
+        {
+            final MacroRequest macroRequest = MacroRequest.forUser(
+                    pwmApplication,
+                    macroRequestInfo.getUserLocale(),
+                    macroRequestInfo.getSessionLabel(),
+                    userInfoBean.getUserIdentity() );
+
+            final PublicUserInfoBean publicUserInfoBean = UserInfoBean.toPublicUserInfoBean(
+                    userInfoBean,
+                    pwmDomain.getConfig(),
+                    PwmConstants.DEFAULT_LOCALE,
+                    macroRequest
+            );
+
+            sendData.put( "userInfo", publicUserInfoBean );
+        }
+        sendData.put( "input", inputString );
+
+        final String requestBody = JsonFactory.get().serializeMap( sendData );
+        return RestClientHelper.makeOutboundRestWSCallAsync( pwmDomain,
+                macroRequestInfo.getSessionLabel(),
+                PwmConstants.DEFAULT_LOCALE,
+                url,
+                requestBody );
+    }
+
+    private static PwmDomain pwmDomain( final MacroRequest macroRequestInfo )
+    {
+        return macroRequestInfo.getPwmApplication().domains().get( macroRequestInfo.getUserInfo().getUserIdentity().getDomainID() );
+    }
+
     @Override
     public Scope getScope()
     {
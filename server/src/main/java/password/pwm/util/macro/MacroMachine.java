@@ -132,7 +132,12 @@ public class MacroMachine
             {
                 final DomainID domainID = macroRequest.getUserInfo().getUserIdentity().getDomainID();
                 final PwmDomain pwmDomain = macroRequest.getPwmApplication().domains().get( domainID );
-                macroImplementations.putAll( makeExternalImplementations( pwmDomain ) );
+                final Map<Pattern, Macro> externalImplementations = makeExternalImplementations( pwmDomain );
+                for ( final Macro externalMacro : externalImplementations.values() )
+                {
+                    ( ( ExternalRestMacro ) externalMacro ).prefetch( input, macroRequest );
+                }
+                macroImplementations.putAll( externalImplementations );
             }
         }
 
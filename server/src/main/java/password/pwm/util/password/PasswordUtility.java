@@ -96,6 +96,7 @@ import password.pwm.util.json.JsonFactory;
 import password.pwm.util.logging.PwmLogger;
 import password.pwm.util.macro.MacroRequest;
 import password.pwm.util.operations.ActionExecutor;
+import password.pwm.ws.server.RestAuthenticationCacheService;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -513,6 +514,13 @@ public class PasswordUtility
             throw PwmUnrecoverableException.fromChaiException( e );
         }
 
+        // discard rest authentications cached with the previous password
+        final RestAuthenticationCacheService restAuthenticationCacheService = pwmDomain.getRestAuthenticationCacheService();
+        if ( restAuthenticationCacheService != null )
+        {
+            restAuthenticationCacheService.invalidate( userIdentity );
+        }
+
         // add the old password to the global history list (if the old password is known)
         if ( oldPassword != null && pwmDomain.getConfig().readSettingAsBoolean( PwmSetting.PASSWORD_SHAREDHISTORY_ENABLE ) )
         {
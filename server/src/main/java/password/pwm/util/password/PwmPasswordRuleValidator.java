@@ -24,6 +24,7 @@ import com.novell.ldapchai.ChaiUser;
 import com.novell.ldapchai.exception.ChaiError;
 import com.novell.ldapchai.exception.ChaiPasswordPolicyException;
 import com.novell.ldapchai.exception.ChaiUnavailableException;
+import lombok.Value;
 import password.pwm.AppProperty;
 import password.pwm.PwmConstants;
 import password.pwm.PwmDomain;
@@ -49,6 +50,7 @@ import password.pwm.util.logging.PwmLogger;
 import password.pwm.util.macro.MacroRequest;
 import password.pwm.ws.client.rest.RestClientHelper;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -56,6 +58,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class PwmPasswordRuleValidator
 {
@@ -175,16 +179,12 @@ public class PwmPasswordRuleValidator
     )
             throws PwmUnrecoverableException
     {
+        // the external rule call is started first so it runs while the internal rules are evaluated
+        final Optional<ExternalRuleCall> externalCall = startExternalRuleCall( pwmDomain.getConfig(), policy, password, userInfo );
         final List<ErrorInformation> internalResults = internalPwmPolicyValidator( password, oldPassword, userInfo );
-        if ( pwmDomain != null )
+        if ( externalCall.isPresent() )
         {
-            final List<ErrorInformation> externalResults = invokeExternalRuleMethods(
-                    pwmDomain.getConfig(),
-                    policy,
-                    password,
-                    userInfo
-            );
-            internalResults.addAll( externalResults );
+            internalResults.addAll( readExternalRuleResult( pwmDomain.getConfig(), externalCall.get() ) );
         }
         return internalResults;
     }
@@ -223,15 +223,36 @@ public class PwmPasswordRuleValidator
     )
             throws PwmUnrecoverableException
     {
-        final List<ErrorInformation> returnedErrors = new ArrayList<>();
+        final Optional<ExternalRuleCall> externalCall = startExternalRuleCall( config, pwmPasswordPolicy, password, userInfo );
+        return externalCall.isPresent()
+                ? readExternalRuleResult( config, externalCall.get() )
+                : Collections.emptyList();
+    }
+
+    /**
+     * An in-flight external rule call, with the deadline fixed when the call was started.
+     */
+    @Value
+    private static class ExternalRuleCall
+    {
+        private CompletableFuture<String> future;
+        private Instant deadline;
+    }
+
+    private Optional<ExternalRuleCall> startExternalRuleCall(
+            final DomainConfig config,
+            final PwmPasswordPolicy pwmPasswordPolicy,
+            final PasswordData password,
+            final UserInfo userInfo
+    )
+            throws PwmUnrecoverableException
+    {
         final String restURL = config.readSettingAsString( PwmSetting.EXTERNAL_PWCHECK_REST_URLS );
-        final boolean haltOnError = Boolean.parseBoolean( config.readAppProperty( AppProperty.WS_REST_CLIENT_PWRULE_HALTONERROR ) );
         final Map<String, Object> sendData = new LinkedHashMap<>();
 
-
         if ( restURL == null || restURL.isEmpty() )
         {
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
         {
@@ -261,9 +282,22 @@ public class PwmPasswordRuleValidator
         }
 
         final String jsonRequestBody = JsonFactory.get().serializeMap( sendData );
+        final Instant deadline = RestClientHelper.deadline( pwmDomain );
+        final CompletableFuture<String> future = RestClientHelper.makeOutboundRestWSCallAsync( pwmDomain, sessionLabel, locale, restURL, jsonRequestBody );
+        return Optional.of( new ExternalRuleCall( future, deadline ) );
+    }
+
+    private List<ErrorInformation> readExternalRuleResult(
+            final DomainConfig config,
+            final ExternalRuleCall externalCall
+    )
+            throws PwmUnrecoverableException
+    {
+        final List<ErrorInformation> returnedErrors = new ArrayList<>();
+        final boolean haltOnError = Boolean.parseBoolean( config.readAppProperty( AppProperty.WS_REST_CLIENT_PWRULE_HALTONERROR ) );
         try
         {
-            final String responseBody = RestClientHelper.makeOutboundRestWSCall( pwmDomain, sessionLabel, locale, restURL, jsonRequestBody );
+            final String responseBody = RestClientHelper.awaitResult( externalCall.getFuture(), externalCall.getDeadline() );
             final Map<String, Object> responseMap = JsonFactory.get().deserializeMap( responseBody,
                     String.class,
                     Object.class );
@@ -301,4 +335,3 @@ public class PwmPasswordRuleValidator
         return returnedErrors;
     }
 }
-
@@ -107,6 +107,17 @@ public class SecureEngine
             final PwmBlockAlgorithm blockAlgorithm
     )
             throws PwmUnrecoverableException
+    {
+        Objects.requireNonNull( value );
+        return encryptBytes( value.getBytes( PwmConstants.DEFAULT_CHARSET ), key, blockAlgorithm );
+    }
+
+    public static byte[] encryptBytes(
+            final byte[] value,
+            final PwmSecurityKey key,
+            final PwmBlockAlgorithm blockAlgorithm
+    )
+            throws PwmUnrecoverableException
     {
         try
         {
@@ -130,7 +141,7 @@ public class SecureEngine
                 cipher.init( Cipher.ENCRYPT_MODE, aesKey, cipher.getParameters() );
                 nonce = null;
             }
-            final byte[] encryptedBytes = cipher.doFinal( value.getBytes( PwmConstants.DEFAULT_CHARSET ) );
+            final byte[] encryptedBytes = cipher.doFinal( value );
 
             final byte[] output;
             if ( blockAlgorithm.getHmacAlgorithm() != null )
@@ -198,6 +209,17 @@ public class SecureEngine
             final PwmBlockAlgorithm blockAlgorithm
     )
             throws PwmUnrecoverableException
+    {
+        final byte[] decrypted = decryptToBytes( value, key, blockAlgorithm );
+        return decrypted == null ? null : new String( decrypted, PwmConstants.DEFAULT_CHARSET );
+    }
+
+    public static byte[] decryptToBytes(
+            final byte[] value,
+            final PwmSecurityKey key,
+            final PwmBlockAlgorithm blockAlgorithm
+    )
+            throws PwmUnrecoverableException
     {
         try
         {
@@ -248,8 +270,7 @@ public class SecureEngine
                 cipher = Cipher.getInstance( blockAlgorithm.getAlgName() );
                 cipher.init( Cipher.DECRYPT_MODE, aesKey );
             }
-            final byte[] decrypted = cipher.doFinal( workingValue );
-            return new String( decrypted, PwmConstants.DEFAULT_CHARSET );
+            return cipher.doFinal( workingValue );
         }
         catch ( final GeneralSecurityException e )
         {
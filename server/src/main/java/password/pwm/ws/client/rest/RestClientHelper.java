@@ -20,6 +20,7 @@
 
 package password.pwm.ws.client.rest;
 
+import password.pwm.AppProperty;
 import password.pwm.PwmDomain;
 import password.pwm.PwmConstants;
 import password.pwm.bean.SessionLabel;
@@ -30,16 +31,23 @@ import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.http.HttpContentType;
 import password.pwm.http.HttpHeader;
 import password.pwm.http.HttpMethod;
+import password.pwm.svc.httpclient.HttpCircuitBreaker;
 import password.pwm.svc.httpclient.PwmHttpClient;
 import password.pwm.svc.httpclient.PwmHttpClientConfiguration;
 import password.pwm.svc.httpclient.PwmHttpClientRequest;
-import password.pwm.svc.httpclient.PwmHttpClientResponse;
 import password.pwm.util.i18n.LocaleHelper;
 import password.pwm.util.logging.PwmLogger;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class RestClientHelper
 {
@@ -53,6 +61,23 @@ public class RestClientHelper
             final String jsonRequestBody
     )
             throws PwmOperationalException, PwmUnrecoverableException
+    {
+        return awaitResult( makeOutboundRestWSCallAsync( pwmDomain, sessionLabel, locale, url, jsonRequestBody ), deadline( pwmDomain ) );
+    }
+
+    /**
+     * Start an outbound rest call without blocking.  Calls to an endpoint whose {@link HttpCircuitBreaker} is
+     * open fail immediately.
+     * @return future for the response body, which completes exceptionally with a {@link PwmOperationalException} on failure.
+     */
+    public static CompletableFuture<String> makeOutboundRestWSCallAsync(
+            final PwmDomain pwmDomain,
+            final SessionLabel sessionLabel,
+            final Locale locale,
+            final String url,
+            final String jsonRequestBody
+    )
+            throws PwmUnrecoverableException
     {
         final PwmHttpClientConfiguration clientConfig = PwmHttpClientConfiguration.builder()
                 .trustManagerType( PwmHttpClientConfiguration.TrustManagerType.promiscuous )
@@ -75,26 +100,95 @@ public class RestClientHelper
                 .body( jsonRequestBody )
                 .build();
 
-        final PwmHttpClientResponse httpResponse;
-        try
+        final HttpCircuitBreaker circuitBreaker = pwmDomain.getHttpClientService().getCircuitBreaker( url );
+        if ( !circuitBreaker.allowRequest() )
         {
-            LOGGER.debug( () -> "beginning external rest call to: " + url + ", body: " + jsonRequestBody );
-            httpResponse = pwmHttpClient.makeRequest( pwmHttpClientRequest );
-            final String responseBody = httpResponse.getBody();
-            LOGGER.trace( () -> "external rest call returned: " + httpResponse.getStatusPhrase()  );
-            if ( httpResponse.getStatusCode() != 200 )
+            final String errorMsg = "skipping external rest call to " + circuitBreaker.getEndpoint() + ", endpoint is failing and in cool down period";
+            LOGGER.debug( sessionLabel, () -> errorMsg );
+            return CompletableFuture.failedFuture( new PwmOperationalException( new ErrorInformation( PwmError.ERROR_SERVICE_UNREACHABLE, errorMsg ) ) );
+        }
+
+        LOGGER.debug( () -> "beginning external rest call to: " + url + ", body: " + jsonRequestBody );
+        return pwmHttpClient.makeRequestAsync( pwmHttpClientRequest ).handle( ( httpResponse, throwable ) ->
+        {
+            final String errorMsg;
+            if ( throwable != null )
+            {
+                errorMsg = "http response error while executing external rest call, error: " + unwrap( throwable ).getMessage();
+            }
+            else if ( httpResponse.getStatusCode() != 200 )
+            {
+                LOGGER.trace( () -> "external rest call returned: " + httpResponse.getStatusPhrase()  );
+                errorMsg = "received non-200 response code (" + httpResponse.getStatusCode() + ") when executing web-service";
+            }
+            else
             {
-                final String errorMsg = "received non-200 response code (" + httpResponse.getStatusCode() + ") when executing web-service";
-                LOGGER.error( () -> errorMsg );
-                throw new PwmOperationalException( new ErrorInformation( PwmError.ERROR_INTERNAL, errorMsg ) );
+                LOGGER.trace( () -> "external rest call returned: " + httpResponse.getStatusPhrase()  );
+                circuitBreaker.recordSuccess();
+                return httpResponse.getBody();
             }
-            return responseBody;
+
+            circuitBreaker.recordFailure();
+            LOGGER.error( () -> errorMsg );
+            throw new CompletionException( new PwmOperationalException( new ErrorInformation( PwmError.ERROR_INTERNAL, errorMsg ) ) );
+        } );
+    }
+
+    /**
+     * Deadline shared by a set of outbound rest calls started together.
+     */
+    public static Instant deadline( final PwmDomain pwmDomain )
+    {
+        final long deadlineMs = Long.parseLong( pwmDomain.getConfig().readAppProperty( AppProperty.WS_REST_CLIENT_DEADLINE_MS ) );
+        return Instant.now().plusMillis( deadlineMs );
+    }
+
+    /**
+     * Wait for the result of an outbound call until the deadline.  A call still outstanding at the deadline is cancelled.
+     */
+    public static <T> T awaitResult( final CompletableFuture<T> future, final Instant deadline )
+            throws PwmOperationalException, PwmUnrecoverableException
+    {
+        try
+        {
+            final long remainingMs = Math.max( 0, Duration.between( Instant.now(), deadline ).toMillis() );
+            return future.get( remainingMs, TimeUnit.MILLISECONDS );
         }
-        catch ( final Exception e )
+        catch ( final TimeoutException e )
         {
-            final String errorMsg = "http response error while executing external rest call, error: " + e.getMessage();
+            future.cancel( true );
+            final String errorMsg = "timeout waiting for external rest call";
             LOGGER.error( () -> errorMsg );
-            throw new PwmOperationalException( new ErrorInformation( PwmError.ERROR_INTERNAL, errorMsg ), e );
+            throw new PwmOperationalException( new ErrorInformation( PwmError.ERROR_TIMEOUT, errorMsg ) );
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new PwmUnrecoverableException( PwmError.ERROR_INTERNAL, "interrupted waiting for external rest call" );
+        }
+        catch ( final ExecutionException e )
+        {
+            final Throwable cause = unwrap( e );
+            if ( cause instanceof PwmOperationalException )
+            {
+                throw ( PwmOperationalException ) cause;
+            }
+            if ( cause instanceof PwmUnrecoverableException )
+            {
+                throw ( PwmUnrecoverableException ) cause;
+            }
+            final String errorMsg = "http response error while executing external rest call, error: " + cause.getMessage();
+            throw new PwmOperationalException( new ErrorInformation( PwmError.ERROR_INTERNAL, errorMsg ), cause );
+        }
+    }
+
+    private static Throwable unwrap( final Throwable throwable )
+    {
+        Throwable cause = throwable;
+        while ( ( cause instanceof CompletionException || cause instanceof ExecutionException ) && cause.getCause() != null )
+        {
+            cause = cause.getCause();
         }
+        return cause;
     }
 }
@@ -0,0 +1,228 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import password.pwm.AppProperty;
+import password.pwm.PwmApplication;
+import password.pwm.PwmConstants;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.UserIdentity;
+import password.pwm.config.AppConfig;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.health.HealthRecord;
+import password.pwm.svc.AbstractPwmService;
+import password.pwm.svc.PwmService;
+import password.pwm.svc.stats.Statistic;
+import password.pwm.svc.stats.StatisticsClient;
+import password.pwm.util.PasswordData;
+import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.logging.PwmLogger;
+import password.pwm.util.secure.PwmRandom;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Short lived cache of successful rest basic authentications using ldap credentials.  A cache hit avoids the ldap
+ * search used to resolve the username and the ldap bind used to verify the password.  Entries are keyed by a
+ * salted PBKDF2 hash of the username and password, so the credentials themselves are never held by the cache.
+ *
+ * <p>Only authentications that pass the web service permission checks are cached.  Entries are discarded when
+ * they expire, when the domain configuration is reloaded (which restarts this service), when the user's password is
+ * changed, and when an intruder lockout or a failed authentication is detected for the cached user.</p>
+ */
+public class RestAuthenticationCacheService extends AbstractPwmService implements PwmService
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( RestAuthenticationCacheService.class );
+
+    private static final String HASH_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int HASH_LENGTH_BITS = 256;
+    private static final int SALT_LENGTH = 32;
+
+    private final StatisticCounterBundle<DebugKey> stats = new StatisticCounterBundle<>( DebugKey.class );
+
+    private Cache<String, CachedAuthentication> cache;
+    private byte[] salt;
+    private int hashIterations;
+
+    enum DebugKey
+    {
+        hits,
+        misses,
+        stores,
+        invalidations,
+    }
+
+    @Value
+    static class CachedAuthentication
+    {
+        private final UserIdentity userIdentity;
+        private final boolean thirdPartyEnabled;
+    }
+
+    @Override
+    protected Set<PwmApplication.Condition> openConditions()
+    {
+        return Collections.emptySet();
+    }
+
+    @Override
+    protected STATUS postAbstractInit( final PwmApplication pwmApplication, final DomainID domainID )
+            throws PwmException
+    {
+        final AppConfig appConfig = pwmApplication.getConfig();
+        if ( !appConfig.readBooleanAppProperty( AppProperty.WS_REST_SERVER_AUTH_CACHE_ENABLE ) )
+        {
+            return STATUS.CLOSED;
+        }
+
+        final TimeDuration lifetime = appConfig.readDurationAppProperty( AppProperty.WS_REST_SERVER_AUTH_CACHE_LIFETIME_MS );
+        final long maxEntries = Long.parseLong( appConfig.readAppProperty( AppProperty.WS_REST_SERVER_AUTH_CACHE_MAX_ENTRIES ) );
+        hashIterations = Integer.parseInt( appConfig.readAppProperty( AppProperty.WS_REST_SERVER_AUTH_CACHE_HASH_ITERATIONS ) );
+        salt = PwmRandom.getInstance().newBytes( SALT_LENGTH );
+
+        cache = Caffeine.newBuilder()
+                .maximumSize( maxEntries )
+                .expireAfterWrite( Duration.ofMillis( lifetime.asMillis() ) )
+                .build();
+
+        return STATUS.OPEN;
+    }
+
+    @Override
+    protected void shutdownImpl()
+    {
+        if ( cache != null )
+        {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    protected List<HealthRecord> serviceHealthCheck()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ServiceInfoBean serviceInfo()
+    {
+        final ServiceInfoBean.ServiceInfoBeanBuilder builder = ServiceInfoBean.builder()
+                .debugProperties( stats.debugStats( PwmConstants.DEFAULT_LOCALE ) );
+        if ( cache != null )
+        {
+            builder.debugProperty( "itemCount", String.valueOf( cache.estimatedSize() ) );
+            builder.debugProperty( "hitRate", hitRatePercent() + "%" );
+        }
+        return builder.build();
+    }
+
+    Optional<CachedAuthentication> read( final String username, final PasswordData password )
+    {
+        if ( status() != STATUS.OPEN )
+        {
+            return Optional.empty();
+        }
+
+        final Optional<CachedAuthentication> cachedAuthentication = makeKey( username, password ).map( cache::getIfPresent );
+        if ( cachedAuthentication.isPresent() )
+        {
+            stats.increment( DebugKey.hits );
+            StatisticsClient.incrementStat( getPwmApplication(), Statistic.REST_AUTH_CACHE_HITS );
+        }
+        else
+        {
+            stats.increment( DebugKey.misses );
+            StatisticsClient.incrementStat( getPwmApplication(), Statistic.REST_AUTH_CACHE_MISSES );
+        }
+        return cachedAuthentication;
+    }
+
+    void store( final String username, final PasswordData password, final CachedAuthentication cachedAuthentication )
+    {
+        if ( status() != STATUS.OPEN )
+        {
+            return;
+        }
+
+        makeKey( username, password ).ifPresent( key ->
+        {
+            cache.put( key, cachedAuthentication );
+            stats.increment( DebugKey.stores );
+        } );
+    }
+
+    public void invalidate( final UserIdentity userIdentity )
+    {
+        if ( status() != STATUS.OPEN )
+        {
+            return;
+        }
+
+        if ( cache.asMap().values().removeIf( cachedAuthentication -> cachedAuthentication.getUserIdentity().equals( userIdentity ) ) )
+        {
+            stats.increment( DebugKey.invalidations );
+            LOGGER.trace( getSessionLabel(), () -> "removed cached rest authentications for " + userIdentity );
+        }
+    }
+
+    private long hitRatePercent()
+    {
+        final long hits = stats.get( DebugKey.hits );
+        final long total = hits + stats.get( DebugKey.misses );
+        return total == 0 ? 0 : hits * 100 / total;
+    }
+
+    private Optional<String> makeKey( final String username, final PasswordData password )
+    {
+        try
+        {
+            final String credentials = username + '\n' + password.getStringValue();
+            final PBEKeySpec keySpec = new PBEKeySpec( credentials.toCharArray(), salt, hashIterations, HASH_LENGTH_BITS );
+            try
+            {
+                final byte[] hash = SecretKeyFactory.getInstance( HASH_ALGORITHM ).generateSecret( keySpec ).getEncoded();
+                return Optional.of( Base64.getEncoder().encodeToString( hash ) );
+            }
+            finally
+            {
+                keySpec.clearPassword();
+            }
+        }
+        catch ( final GeneralSecurityException | PwmUnrecoverableException e )
+        {
+            LOGGER.debug( getSessionLabel(), () -> "unable to generate rest authentication cache key: " + e.getMessage() );
+            return Optional.empty();
+        }
+    }
+}
@@ -20,6 +20,7 @@
 
 package password.pwm.ws.server;
 
+import com.novell.ldapchai.exception.ChaiUnavailableException;
 import com.novell.ldapchai.provider.ChaiProvider;
 import password.pwm.PwmDomain;
 import password.pwm.bean.SessionLabel;
@@ -33,11 +34,16 @@ import password.pwm.error.ErrorInformation;
 import password.pwm.error.PwmError;
 import password.pwm.error.PwmOperationalException;
 import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.ldap.LdapOperationsHelper;
 import password.pwm.ldap.auth.AuthenticationResult;
+import password.pwm.ldap.auth.AuthenticationType;
 import password.pwm.ldap.auth.SimpleLdapAuthenticator;
 import password.pwm.ldap.permission.UserPermissionUtility;
 import password.pwm.ldap.search.UserSearchService;
+import password.pwm.svc.intruder.IntruderRecordType;
+import password.pwm.svc.intruder.IntruderServiceClient;
 import password.pwm.util.BasicAuthInfo;
+import password.pwm.util.PasswordData;
 import password.pwm.util.java.CollectionUtil;
 import password.pwm.util.logging.PwmLogger;
 
@@ -93,38 +99,10 @@ public class RestAuthenticationProcessor
 
         {
             // ldap auth
-            final Optional<UserIdentity> userIdentity = readLdapUserIdentity();
-            if ( userIdentity.isPresent() )
+            final Optional<RestAuthentication> ldapAuthentication = readLdapAuthentication();
+            if ( ldapAuthentication.isPresent() )
             {
-                {
-                    final List<UserPermission> userPermission = pwmDomain.getConfig().readSettingAsUserPermission( PwmSetting.WEBSERVICES_QUERY_MATCH );
-                    final boolean result = UserPermissionUtility.testUserPermission( pwmDomain, sessionLabel, userIdentity.get(), userPermission );
-                    if ( !result )
-                    {
-                        final String errorMsg = "user does not have webservice permission due to setting "
-                                + PwmSetting.WEBSERVICES_QUERY_MATCH.toMenuLocationDebug( null, httpServletRequest.getLocale() );
-                        throw new PwmUnrecoverableException( new ErrorInformation( PwmError.ERROR_UNAUTHORIZED, errorMsg ) );
-                    }
-                }
-
-                final boolean thirdParty;
-                {
-                    final List<UserPermission> userPermission = pwmDomain.getConfig().readSettingAsUserPermission( PwmSetting.WEBSERVICES_THIRDPARTY_QUERY_MATCH );
-                    thirdParty = UserPermissionUtility.testUserPermission( pwmDomain, sessionLabel, userIdentity.get(), userPermission );
-                }
-
-                final ChaiProvider chaiProvider = authenticateUser( userIdentity.get() );
-
-                verifyAuthUserIsNotSystemUser( userIdentity.get() );
-
-                return new RestAuthentication(
-                        RestAuthenticationType.LDAP,
-                        null,
-                        userIdentity.get(),
-                        Collections.unmodifiableSet( CollectionUtil.copyToEnumSet( WebServiceUsage.forType( RestAuthenticationType.LDAP ), WebServiceUsage.class ) ),
-                        thirdParty,
-                        chaiProvider
-                );
+                return ldapAuthentication.get();
             }
         }
 
@@ -143,6 +121,125 @@ public class RestAuthenticationProcessor
         );
     }
 
+    private Optional<RestAuthentication> readLdapAuthentication( ) throws PwmUnrecoverableException
+    {
+        final Optional<BasicAuthInfo> basicAuthInfo = BasicAuthInfo.parseAuthHeader( pwmDomain, httpServletRequest );
+        if ( basicAuthInfo.isEmpty() )
+        {
+            return Optional.empty();
+        }
+
+        final RestAuthenticationCacheService authCache = pwmDomain.getRestAuthenticationCacheService();
+        final String username = basicAuthInfo.get().getUsername();
+        final PasswordData password = basicAuthInfo.get().getPassword();
+
+        final Optional<RestAuthenticationCacheService.CachedAuthentication> cachedAuthentication = authCache == null
+                ? Optional.empty()
+                : authCache.read( username, password );
+        if ( cachedAuthentication.isPresent() )
+        {
+            return Optional.of( authenticateFromCache( authCache, cachedAuthentication.get(), password ) );
+        }
+
+        final UserIdentity userIdentity = readLdapUserIdentity( username );
+
+        {
+            final List<UserPermission> userPermission = pwmDomain.getConfig().readSettingAsUserPermission( PwmSetting.WEBSERVICES_QUERY_MATCH );
+            final boolean result = UserPermissionUtility.testUserPermission( pwmDomain, sessionLabel, userIdentity, userPermission );
+            if ( !result )
+            {
+                final String errorMsg = "user does not have webservice permission due to setting "
+                        + PwmSetting.WEBSERVICES_QUERY_MATCH.toMenuLocationDebug( null, httpServletRequest.getLocale() );
+                throw new PwmUnrecoverableException( new ErrorInformation( PwmError.ERROR_UNAUTHORIZED, errorMsg ) );
+            }
+        }
+
+        final boolean thirdParty;
+        {
+            final List<UserPermission> userPermission = pwmDomain.getConfig().readSettingAsUserPermission( PwmSetting.WEBSERVICES_THIRDPARTY_QUERY_MATCH );
+            thirdParty = UserPermissionUtility.testUserPermission( pwmDomain, sessionLabel, userIdentity, userPermission );
+        }
+
+        final AuthenticationResult authenticationResult;
+        try
+        {
+            authenticationResult = SimpleLdapAuthenticator.authenticateUser( pwmDomain, sessionLabel, userIdentity, password );
+        }
+        catch ( final PwmUnrecoverableException e )
+        {
+            if ( authCache != null )
+            {
+                authCache.invalidate( userIdentity );
+            }
+            throw e;
+        }
+
+        verifyAuthUserIsNotSystemUser( userIdentity );
+
+        if ( authCache != null && authenticationResult.getAuthenticationType() == AuthenticationType.AUTHENTICATED )
+        {
+            authCache.store( username, password, new RestAuthenticationCacheService.CachedAuthentication( userIdentity, thirdParty ) );
+        }
+
+        return Optional.of( makeLdapRestAuthentication( userIdentity, thirdParty, authenticationResult.getUserProvider() ) );
+    }
+
+    private RestAuthentication authenticateFromCache(
+            final RestAuthenticationCacheService authCache,
+            final RestAuthenticationCacheService.CachedAuthentication cachedAuthentication,
+            final PasswordData password
+    )
+            throws PwmUnrecoverableException
+    {
+        final UserIdentity userIdentity = cachedAuthentication.getUserIdentity();
+        LOGGER.trace( sessionLabel, () -> "using cached rest authentication for " + userIdentity );
+
+        try
+        {
+            IntruderServiceClient.checkUserIdentity( pwmDomain, userIdentity );
+            pwmDomain.getIntruderService().check( IntruderRecordType.ADDRESS, sessionLabel.getSourceAddress() );
+        }
+        catch ( final PwmUnrecoverableException e )
+        {
+            authCache.invalidate( userIdentity );
+            throw e;
+        }
+
+        final ChaiProvider chaiProvider;
+        try
+        {
+            chaiProvider = LdapOperationsHelper.createChaiProvider(
+                    pwmDomain,
+                    sessionLabel,
+                    userIdentity.getLdapProfile( pwmDomain.getPwmApplication().getConfig() ),
+                    pwmDomain.getConfig(),
+                    userIdentity.getUserDN(),
+                    password );
+        }
+        catch ( final ChaiUnavailableException e )
+        {
+            throw PwmUnrecoverableException.fromChaiException( e );
+        }
+
+        return makeLdapRestAuthentication( userIdentity, cachedAuthentication.isThirdPartyEnabled(), chaiProvider );
+    }
+
+    private static RestAuthentication makeLdapRestAuthentication(
+            final UserIdentity userIdentity,
+            final boolean thirdParty,
+            final ChaiProvider chaiProvider
+    )
+    {
+        return new RestAuthentication(
+                RestAuthenticationType.LDAP,
+                null,
+                userIdentity,
+                Collections.unmodifiableSet( CollectionUtil.copyToEnumSet( WebServiceUsage.forType( RestAuthenticationType.LDAP ), WebServiceUsage.class ) ),
+                thirdParty,
+                chaiProvider
+        );
+    }
+
     private Optional<String> readNamedSecretName( )
             throws PwmUnrecoverableException
     {
@@ -192,33 +289,16 @@ public class RestAuthenticationProcessor
         }
     }
 
-    private Optional<UserIdentity> readLdapUserIdentity( ) throws PwmUnrecoverableException
+    private UserIdentity readLdapUserIdentity( final String username ) throws PwmUnrecoverableException
     {
-        final Optional<BasicAuthInfo> basicAuthInfo = BasicAuthInfo.parseAuthHeader( pwmDomain, httpServletRequest );
-        if ( basicAuthInfo.isEmpty() )
-        {
-            return Optional.empty();
-        }
-
         final UserSearchService userSearchService = pwmDomain.getUserSearchEngine();
         try
         {
-            return Optional.of( userSearchService.resolveUsername( basicAuthInfo.get().getUsername(), null, null, sessionLabel ) );
+            return userSearchService.resolveUsername( username, null, null, sessionLabel );
         }
         catch ( final PwmOperationalException e )
         {
             throw new PwmUnrecoverableException( e.getErrorInformation().wrapWithNewErrorCode( PwmError.ERROR_WRONGPASSWORD ) );
         }
     }
-
-    private ChaiProvider authenticateUser( final UserIdentity userIdentity )
-            throws PwmUnrecoverableException
-    {
-        final BasicAuthInfo basicAuthInfo = BasicAuthInfo.parseAuthHeader( pwmDomain, httpServletRequest )
-                .orElseThrow();
-
-        final AuthenticationResult authenticationResult = SimpleLdapAuthenticator.authenticateUser( pwmDomain, sessionLabel, userIdentity, basicAuthInfo.getPassword() );
-        return authenticationResult.getUserProvider();
-
-    }
 }
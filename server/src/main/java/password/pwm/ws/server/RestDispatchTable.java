@@ -0,0 +1,230 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server;
+
+import password.pwm.http.HttpContentType;
+import password.pwm.http.HttpHeader;
+import password.pwm.http.HttpMethod;
+import password.pwm.util.java.CollectionUtil;
+import password.pwm.util.java.JavaHelper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Dispatch table mapping each combination of request method, {@code Content-Type} and {@code Accept} header to the
+ * {@link RestMethodHandler} annotated method of a {@link RestServlet} instance.  The table is fully computed when
+ * the servlet is initialized so that request dispatching is a simple array lookup followed by a bound
+ * {@link MethodHandle} invocation.
+ */
+class RestDispatchTable
+{
+    private static final MethodType HANDLER_TYPE = MethodType.methodType( RestResultBean.class, RestRequest.class );
+
+    private static final int CONTENT_TYPE_SLOTS = HttpContentType.values().length + 1;
+
+    private final Dispatch[] table;
+
+    private RestDispatchTable( final Dispatch[] table )
+    {
+        this.table = table;
+    }
+
+    /**
+     * Result of a table lookup, either a bound handler or the error message describing why no handler matched.
+     */
+    static final class Dispatch
+    {
+        private final MethodHandle handler;
+        private final String errorMsg;
+
+        private Dispatch( final MethodHandle handler, final String errorMsg )
+        {
+            this.handler = handler;
+            this.errorMsg = errorMsg;
+        }
+
+        Optional<MethodHandle> getHandler()
+        {
+            return Optional.ofNullable( handler );
+        }
+
+        String getErrorMsg()
+        {
+            return errorMsg;
+        }
+    }
+
+    private static final class HandlerEntry
+    {
+        private final Set<HttpMethod> methods;
+        private final Set<HttpContentType> consumes;
+        private final Set<HttpContentType> produces;
+        private final Dispatch dispatch;
+
+        private HandlerEntry( final RestMethodHandler annotation, final MethodHandle boundHandle )
+        {
+            this.methods = CollectionUtil.enumSetFromArray( annotation.method() );
+            this.consumes = CollectionUtil.enumSetFromArray( annotation.consumes() );
+            this.produces = CollectionUtil.enumSetFromArray( annotation.produces() );
+            this.dispatch = new Dispatch( boundHandle, null );
+        }
+    }
+
+    static RestDispatchTable forServlet( final RestServlet restServlet )
+            throws IllegalAccessException
+    {
+        final List<HandlerEntry> handlers = new ArrayList<>();
+        for ( final Method method : JavaHelper.getAllMethodsForClass( restServlet.getClass() ) )
+        {
+            final RestMethodHandler annotation = method.getAnnotation( RestMethodHandler.class );
+            if ( annotation != null )
+            {
+                final MethodHandle boundHandle = MethodHandles.lookup().unreflect( method )
+                        .bindTo( restServlet )
+                        .asType( HANDLER_TYPE );
+                handlers.add( new HandlerEntry( annotation, boundHandle ) );
+            }
+        }
+
+        final Map<String, Dispatch> errorDispatches = new HashMap<>();
+        final Dispatch[] table = new Dispatch[HttpMethod.values().length * CONTENT_TYPE_SLOTS * CONTENT_TYPE_SLOTS];
+        for ( final HttpMethod httpMethod : HttpMethod.values() )
+        {
+            for ( final Optional<HttpContentType> contentType : contentTypeSlots() )
+            {
+                for ( final Optional<HttpContentType> acceptType : contentTypeSlots() )
+                {
+                    final Dispatch dispatch = resolve( handlers, httpMethod, contentType, acceptType, errorDispatches );
+                    table[index( httpMethod, contentType, acceptType )] = dispatch;
+                }
+            }
+        }
+
+        return new RestDispatchTable( table );
+    }
+
+    Dispatch lookup(
+            final HttpMethod httpMethod,
+            final Optional<HttpContentType> contentType,
+            final Optional<HttpContentType> acceptType
+    )
+    {
+        return table[index( httpMethod, contentType, acceptType )];
+    }
+
+    private static Dispatch resolve(
+            final List<HandlerEntry> handlers,
+            final HttpMethod reqMethod,
+            final Optional<HttpContentType> reqContent,
+            final Optional<HttpContentType> reqAccept,
+            final Map<String, Dispatch> errorDispatches
+    )
+    {
+        final boolean careAboutContentType = reqMethod.isHasBody();
+
+        boolean anyMethodMatch = false;
+        boolean anyContentMatch = false;
+        boolean anyAcceptMatch = false;
+
+        for ( final HandlerEntry handler : handlers )
+        {
+            final boolean methodMatch = handler.methods.isEmpty() || handler.methods.contains( reqMethod );
+
+            final boolean contentMatch = reqContent.isPresent()
+                    && ( !careAboutContentType || handler.consumes.isEmpty() || handler.consumes.contains( reqContent.get() ) );
+
+            final boolean acceptMatch = reqAccept.isPresent()
+                    && ( handler.produces.isEmpty() || handler.produces.contains( reqAccept.get() ) );
+
+            anyMethodMatch |= methodMatch;
+            anyContentMatch |= contentMatch;
+            anyAcceptMatch |= acceptMatch;
+
+            if ( methodMatch && contentMatch && acceptMatch )
+            {
+                return handler.dispatch;
+            }
+        }
+
+        final String errorMsg;
+        if ( !anyMethodMatch )
+        {
+            errorMsg = "HTTP method unavailable";
+        }
+        else if ( reqAccept.isEmpty() && !anyAcceptMatch )
+        {
+            errorMsg = HttpHeader.Accept.getHttpName() + " header is missing or has an unexpected value";
+        }
+        else if ( reqContent.isEmpty() && !anyContentMatch )
+        {
+            errorMsg = HttpHeader.ContentType.getHttpName() + " header is missing or has an unexpected value";
+        }
+        else if ( !anyAcceptMatch )
+        {
+            errorMsg = HttpHeader.Accept.getHttpName() + " value is not accepted for this service";
+        }
+        else if ( !anyContentMatch )
+        {
+            errorMsg = HttpHeader.ContentType.getHttpName() + " value is not accepted for this service";
+        }
+        else
+        {
+            errorMsg = "incorrect method, Content-Type header, or Accept header.";
+        }
+
+        return errorDispatches.computeIfAbsent( errorMsg, msg -> new Dispatch( null, msg ) );
+    }
+
+    private static int index(
+            final HttpMethod httpMethod,
+            final Optional<HttpContentType> contentType,
+            final Optional<HttpContentType> acceptType
+    )
+    {
+        return ( httpMethod.ordinal() * CONTENT_TYPE_SLOTS + slot( contentType ) ) * CONTENT_TYPE_SLOTS + slot( acceptType );
+    }
+
+    private static int slot( final Optional<HttpContentType> contentType )
+    {
+        return contentType.map( httpContentType -> httpContentType.ordinal() + 1 ).orElse( 0 );
+    }
+
+    private static List<Optional<HttpContentType>> contentTypeSlots()
+    {
+        final List<Optional<HttpContentType>> slots = new ArrayList<>( CONTENT_TYPE_SLOTS );
+        slots.add( Optional.empty() );
+        for ( final HttpContentType httpContentType : HttpContentType.values() )
+        {
+            slots.add( Optional.of( httpContentType ) );
+        }
+        return Collections.unmodifiableList( slots );
+    }
+}
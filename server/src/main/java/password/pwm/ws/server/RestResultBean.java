@@ -32,6 +32,8 @@ import password.pwm.i18n.Message;
 import password.pwm.util.json.JsonFactory;
 import password.pwm.util.json.JsonProvider;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.util.Locale;
 
@@ -227,22 +229,43 @@ public class RestResultBean<T>
 
     public String toJson( final boolean prettyPrintJson )
     {
-        final Type innerType;
-        if ( data == null )
-        {
-            innerType = Object.class;
-        }
-        else if ( classOfT != null )
+        final Type innerType = innerType();
+
+        return prettyPrintJson
+                ? JsonFactory.get().serialize( this, RestResultBean.class, innerType, JsonProvider.Flag.PrettyPrint ) + "\n"
+                : JsonFactory.get().serialize( this, RestResultBean.class, innerType );
+    }
+
+    /**
+     * Write the same output as {@link #toJson(boolean)} directly to the writer, without first building the json string.
+     */
+    public void writeJson( final Writer writer, final boolean prettyPrintJson )
+            throws IOException
+    {
+        final JsonProvider jsonProvider = JsonFactory.get();
+        final Type type = jsonProvider.newParameterizedType( RestResultBean.class, innerType() );
+
+        if ( prettyPrintJson )
         {
-            innerType = classOfT;
+            jsonProvider.serialize( this, type, writer, JsonProvider.Flag.PrettyPrint );
+            writer.write( '\n' );
         }
         else
         {
-            innerType = data.getClass();
+            jsonProvider.serialize( this, type, writer );
         }
+    }
 
-        return prettyPrintJson
-                ? JsonFactory.get().serialize( this, RestResultBean.class, innerType, JsonProvider.Flag.PrettyPrint ) + "\n"
-                : JsonFactory.get().serialize( this, RestResultBean.class, innerType );
+    private Type innerType()
+    {
+        if ( data == null )
+        {
+            return Object.class;
+        }
+        else if ( classOfT != null )
+        {
+            return classOfT;
+        }
+        return data.getClass();
     }
 }
@@ -23,7 +23,6 @@ package password.pwm.ws.server;
 import com.novell.ldapchai.ChaiUser;
 import com.novell.ldapchai.exception.ChaiUnavailableException;
 import com.novell.ldapchai.provider.ChaiProvider;
-import lombok.Data;
 import lombok.Value;
 import password.pwm.PwmApplication;
 import password.pwm.PwmApplicationMode;
@@ -40,14 +39,14 @@ import password.pwm.error.PwmUnrecoverableException;
 import password.pwm.http.ContextManager;
 import password.pwm.http.HttpContentType;
 import password.pwm.http.HttpHeader;
-import password.pwm.http.HttpMethod;
 import password.pwm.http.PwmHttpRequestWrapper;
 import password.pwm.http.filter.RequestInitializationFilter;
 import password.pwm.svc.stats.EpsStatistic;
+import password.pwm.svc.stats.MetricType;
+import password.pwm.svc.stats.MetricsClient;
 import password.pwm.svc.stats.StatisticsClient;
 import password.pwm.util.i18n.LocaleHelper;
 import password.pwm.util.java.AtomicLoopLongIncrementer;
-import password.pwm.util.java.JavaHelper;
 import password.pwm.util.java.MutableReference;
 import password.pwm.util.java.StringUtil;
 import password.pwm.util.java.TimeDuration;
@@ -62,10 +61,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
@@ -77,6 +74,22 @@ public abstract class RestServlet extends HttpServlet
 
     private static final PwmLogger LOGGER = PwmLogger.forClass( RestServlet.class );
 
+    private RestDispatchTable dispatchTable;
+
+    @Override
+    public void init( ) throws ServletException
+    {
+        super.init();
+        try
+        {
+            dispatchTable = RestDispatchTable.forServlet( this );
+        }
+        catch ( final IllegalAccessException e )
+        {
+            throw new ServletException( "unable to build rest handler dispatch table for " + this.getClass().getName() + ": " + e.getMessage(), e );
+        }
+    }
+
     @Override
     protected void service( final HttpServletRequest req, final HttpServletResponse resp )
             throws ServletException, IOException
@@ -227,134 +240,47 @@ public abstract class RestServlet extends HttpServlet
     }
 
     private RestResultBean invokeWebService( final RestRequest restRequest )
-            throws IOException, PwmUnrecoverableException
-    {
-        final Method interestedMethod = discoverMethodForAction( this.getClass(), restRequest );
-
-        if ( interestedMethod != null )
-        {
-            try
-            {
-                final RestResultBean<?> restResultBean = ( RestResultBean ) interestedMethod.invoke( this, restRequest );
-                StatisticsClient.updateEps( restRequest.getDomain().getPwmApplication(), EpsStatistic.REST_REQUESTS );
-                return restResultBean;
-            }
-            catch ( final InvocationTargetException e )
-            {
-                final Throwable rootException = e.getTargetException();
-                if ( rootException instanceof PwmUnrecoverableException )
-                {
-                    throw ( PwmUnrecoverableException ) rootException;
-                }
-                LOGGER.error( restRequest.getSessionLabel(), () -> "internal error executing rest request: " + e.getMessage(), e );
-                throw PwmUnrecoverableException.newException( PwmError.ERROR_INTERNAL, e.getMessage() );
-            }
-            catch ( final IllegalAccessException e )
-            {
-                LOGGER.error( restRequest.getSessionLabel(), () -> "internal error executing rest request: " + e.getMessage(), e );
-                throw PwmUnrecoverableException.newException( PwmError.ERROR_INTERNAL, e.getMessage() );
-            }
-        }
-        return null;
-    }
-
-    @Data
-    private static class MethodMatcher
-    {
-        boolean methodMatch;
-        boolean contentMatch;
-        boolean acceptMatch;
-    }
-
-    private Method discoverMethodForAction( final Class clazz, final RestRequest restRequest )
-            throws PwmUnrecoverableException, IOException
+            throws PwmUnrecoverableException
     {
-        final HttpMethod reqMethod = restRequest.getMethod();
-        final Optional<HttpContentType> reqContent = restRequest.readContentType();
-        final Optional<HttpContentType> reqAccept = restRequest.readAcceptType();
+        final RestDispatchTable.Dispatch dispatch = dispatchTable.lookup(
+                restRequest.getMethod(),
+                restRequest.readContentType(),
+                restRequest.readAcceptType() );
 
-        final boolean careAboutContentType = reqMethod.isHasBody();
+        final MethodHandle handler = dispatch.getHandler().orElseThrow( () ->
+                PwmUnrecoverableException.newException( PwmError.ERROR_REST_INVOCATION_ERROR, dispatch.getErrorMsg() ) );
 
-        final MethodMatcher anyMatch = new MethodMatcher();
-
-        final Collection<Method> methods = JavaHelper.getAllMethodsForClass( clazz );
-        for ( final Method method : methods )
-        {
-            final RestMethodHandler annotation = method.getAnnotation( RestMethodHandler.class );
-            final MethodMatcher loopMatch = new MethodMatcher();
-
-            if ( annotation != null )
-            {
-                if (
-                        annotation.method().length == 0
-                                || Arrays.asList( annotation.method() ).contains( reqMethod )
-                )
-                {
-                    loopMatch.setMethodMatch( true );
-                    anyMatch.setMethodMatch( true );
-                }
-
-                if ( reqContent.isPresent() )
-                {
-                    if (
-                            !careAboutContentType
-                                    || annotation.consumes().length == 0
-                                    || Arrays.asList( annotation.consumes() ).contains( reqContent.get() ) )
-                    {
-                        loopMatch.setContentMatch( true );
-                        anyMatch.setContentMatch( true );
-                    }
-                }
-
-                if ( reqAccept.isPresent() )
-                {
-                    if (
-                            annotation.produces().length == 0
-                                    || Arrays.asList( annotation.produces() ).contains( reqAccept.get() )
-                    )
-                    {
-                        loopMatch.setAcceptMatch( true );
-                        anyMatch.setAcceptMatch( true );
-                    }
-                }
-
-                if (
-                        loopMatch.isMethodMatch()
-                                && loopMatch.isContentMatch()
-                                && loopMatch.isAcceptMatch() )
-                {
-                    return method;
-                }
-            }
-        }
-
-        final String errorMsg;
-        if ( !anyMatch.isMethodMatch() )
+        final Instant startTime = Instant.now();
+        boolean success = false;
+        try
         {
-            errorMsg = "HTTP method unavailable";
+            final RestResultBean<?> restResultBean = ( RestResultBean ) handler.invokeExact( restRequest );
+            StatisticsClient.updateEps( restRequest.getDomain().getPwmApplication(), EpsStatistic.REST_REQUESTS );
+            success = restResultBean != null && !restResultBean.isError();
+            return restResultBean;
         }
-        else if ( reqAccept.isEmpty() && !anyMatch.isAcceptMatch() )
+        catch ( final PwmUnrecoverableException e )
         {
-            errorMsg = HttpHeader.Accept.getHttpName() + " header is missing or has an unexpected value";
+            throw e;
         }
-        else if ( reqContent.isEmpty() && !anyMatch.isContentMatch() )
+        catch ( final Error e )
         {
-            errorMsg = HttpHeader.ContentType.getHttpName() + " header is missing or has an unexpected value";
+            throw e;
         }
-        else if ( !anyMatch.isAcceptMatch() )
+        catch ( final Exception e )
         {
-            errorMsg = HttpHeader.Accept.getHttpName() + " value is not accepted for this service";
+            LOGGER.error( restRequest.getSessionLabel(), () -> "internal error executing rest request: " + e.getMessage(), e );
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_INTERNAL, e.getMessage() );
         }
-        else if ( !anyMatch.isContentMatch() )
+        catch ( final Throwable e )
         {
-            errorMsg = HttpHeader.ContentType.getHttpName() + " value is not accepted for this service";
+            // invokeExact declares Throwable; handlers can only throw exceptions or errors
+            throw new IllegalStateException( "unexpected throwable executing rest request", e );
         }
-        else
+        finally
         {
-            errorMsg = "incorrect method, Content-Type header, or Accept header.";
+            MetricsClient.record( restRequest.getPwmApplication(), MetricType.REST, this.getClass().getSimpleName(), startTime, success );
         }
-
-        throw PwmUnrecoverableException.newException( PwmError.ERROR_REST_INVOCATION_ERROR, errorMsg );
     }
 
     private void preCheck( final RestRequest restRequest )
@@ -430,14 +356,15 @@ public abstract class RestServlet extends HttpServlet
                     final boolean jsonPretty = Boolean.parseBoolean( request.getParameter( PwmConstants.PARAM_FORMAT_JSON_PRETTY ) );
                     try ( PrintWriter pw = resp.getWriter() )
                     {
-                        pw.write( restResultBean.toJson( jsonPretty ) );
+                        restResultBean.writeJson( pw, jsonPretty );
                     }
                 }
                 break;
 
                 case plain:
+                case openmetrics:
                 {
-                    resp.setHeader( HttpHeader.ContentType.getHttpName(), HttpContentType.plain.getHeaderValueWithEncoding() );
+                    resp.setHeader( HttpHeader.ContentType.getHttpName(), acceptType.getHeaderValueWithEncoding() );
                     if ( restResultBean.isError() )
                     {
                         resp.setStatus( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
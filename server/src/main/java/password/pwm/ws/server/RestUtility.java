@@ -34,6 +34,8 @@ import password.pwm.util.java.EnumUtil;
 import password.pwm.util.json.JsonFactory;
 import password.pwm.util.java.StringUtil;
 
+import java.lang.reflect.Type;
+import java.util.List;
 import java.util.Optional;
 
 public class RestUtility
@@ -65,6 +67,32 @@ public class RestUtility
         }
     }
 
+    /**
+     * Read a json array request body.  Unlike {@link password.pwm.util.json.JsonProvider#deserializeList(String, Class)},
+     * null array elements are retained so that element positions match the request.
+     */
+    public static <T> List<T> deserializeJsonBodyAsList( final RestRequest restRequest, final Class<T> classOfT )
+            throws PwmUnrecoverableException
+    {
+        final List<T> jsonData;
+        try
+        {
+            final Type listType = JsonFactory.get().newParameterizedType( List.class, classOfT );
+            jsonData = JsonFactory.get().deserialize( restRequest.readRequestBodyAsString(), listType );
+        }
+        catch ( final Exception e )
+        {
+            final String msg = e.getCause() instanceof MalformedJsonException ? e.getCause().getMessage() : e.getMessage();
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_REST_INVOCATION_ERROR, "json parse error: " + msg );
+        }
+
+        if ( jsonData == null )
+        {
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_REST_INVOCATION_ERROR, "missing json body" );
+        }
+        return jsonData;
+    }
+
     public static RestServlet.TargetUserIdentity resolveRequestedUsername(
             final RestRequest restRequest,
             final String username
@@ -0,0 +1,261 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server.rest;
+
+import password.pwm.AppProperty;
+import password.pwm.config.AppConfig;
+import password.pwm.config.DomainConfig;
+import password.pwm.error.ErrorInformation;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.logging.PwmLogManager;
+import password.pwm.util.logging.PwmLogger;
+import password.pwm.ws.server.RestRequest;
+import password.pwm.ws.server.rest.bean.PublicBulkItemResult;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Executes the items of a bulk rest request.  Items are processed in parallel on the server-wide executor of
+ * {@link RestBulkService}, which is shared by all concurrent bulk requests; a request is rejected as a whole when
+ * the executor's queue has no room for its items.  Results are returned in request order.  A failure of one item is
+ * reported in that item's result and does not fail the remaining items.
+ *
+ * @param <I> item input type.
+ * @param <O> item output type.
+ */
+class RestBulkProcessor<I, O>
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( RestBulkProcessor.class );
+
+    private final RestRequest restRequest;
+    private final ItemOperation<I, O> itemOperation;
+    private final Locale locale;
+    private final DomainConfig domainConfig;
+
+    interface ItemOperation<I, O>
+    {
+        O process( I item ) throws PwmException;
+    }
+
+    @FunctionalInterface
+    interface CheckedLoader<K, V>
+    {
+        V load( K key ) throws PwmException;
+    }
+
+    RestBulkProcessor( final RestRequest restRequest, final ItemOperation<I, O> itemOperation )
+    {
+        this.restRequest = restRequest;
+        this.itemOperation = itemOperation;
+        this.locale = restRequest.getLocale();
+        this.domainConfig = restRequest.getDomain().getConfig();
+    }
+
+    List<PublicBulkItemResult<O>> process( final List<I> items )
+            throws PwmUnrecoverableException
+    {
+        final AppConfig appConfig = restRequest.getDomain().getPwmApplication().getConfig();
+        final int maxItems = Integer.parseInt( appConfig.readAppProperty( AppProperty.WS_REST_SERVER_BULK_MAX_ITEMS ) );
+        final int maxThreads = Integer.parseInt( appConfig.readAppProperty( AppProperty.WS_REST_SERVER_BULK_MAX_THREADS ) );
+
+        if ( items == null || items.isEmpty() )
+        {
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_REST_INVOCATION_ERROR, "json array body with at least one item is required" );
+        }
+
+        if ( items.size() > maxItems )
+        {
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_REST_INVOCATION_ERROR,
+                    "bulk request contains " + items.size() + " items, maximum permitted is " + maxItems );
+        }
+
+        final boolean parallel = maxThreads > 1 && items.size() > 1;
+        final Instant startTime = Instant.now();
+        final List<PublicBulkItemResult<O>> results = parallel
+                ? processInParallel( items )
+                : processSerially( items );
+
+        LOGGER.trace( restRequest.getSessionLabel(), () -> "completed bulk request of " + items.size()
+                + " items" + ( parallel ? " in parallel" : "" ), TimeDuration.fromCurrent( startTime ) );
+        return Collections.unmodifiableList( results );
+    }
+
+    private List<PublicBulkItemResult<O>> processSerially( final List<I> items )
+    {
+        final List<PublicBulkItemResult<O>> results = new ArrayList<>( items.size() );
+        for ( int i = 0; i < items.size(); i++ )
+        {
+            results.add( processItem( i, items.get( i ) ) );
+        }
+        return results;
+    }
+
+    private List<PublicBulkItemResult<O>> processInParallel( final List<I> items )
+            throws PwmUnrecoverableException
+    {
+        final List<Callable<PublicBulkItemResult<O>>> tasks = new ArrayList<>( items.size() );
+        for ( int i = 0; i < items.size(); i++ )
+        {
+            final int index = i;
+            final I item = items.get( i );
+            tasks.add( () -> PwmLogManager.executeWithThreadSessionData(
+                    restRequest.getSessionLabel(),
+                    () -> processItem( index, item ) ) );
+        }
+
+        final List<Future<PublicBulkItemResult<O>>> futures = restRequest.getPwmApplication().getRestBulkService().submitAll( tasks );
+        try
+        {
+            final List<PublicBulkItemResult<O>> results = new ArrayList<>( items.size() );
+            for ( int i = 0; i < futures.size(); i++ )
+            {
+                results.add( readFuture( i, futures.get( i ) ) );
+            }
+            return results;
+        }
+        finally
+        {
+            // release the shared executor's capacity if this request is abandoned before all items complete
+            futures.forEach( future -> future.cancel( true ) );
+        }
+    }
+
+    private PublicBulkItemResult<O> readFuture( final int index, final Future<PublicBulkItemResult<O>> future )
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            return errorResult( index, new ErrorInformation( PwmError.ERROR_INTERNAL, "interrupted while processing bulk request" ) );
+        }
+        catch ( final ExecutionException e )
+        {
+            return errorResult( index, new ErrorInformation( PwmError.ERROR_INTERNAL, "unexpected error processing item: " + e.getCause().getMessage() ) );
+        }
+    }
+
+    private PublicBulkItemResult<O> processItem( final int index, final I item )
+    {
+        if ( item == null )
+        {
+            return errorResult( index, new ErrorInformation( PwmError.ERROR_MISSING_PARAMETER, "bulk request item is null" ) );
+        }
+
+        try
+        {
+            final O output = itemOperation.process( item );
+            return PublicBulkItemResult.<O>builder()
+                    .index( index )
+                    .data( output )
+                    .build();
+        }
+        catch ( final PwmException e )
+        {
+            LOGGER.debug( restRequest.getSessionLabel(), () -> "error processing bulk item " + index + ": " + e.getMessage() );
+            return errorResult( index, e.getErrorInformation() );
+        }
+        catch ( final Exception e )
+        {
+            final ErrorInformation errorInformation = new ErrorInformation( PwmError.ERROR_INTERNAL, "unexpected error processing item: " + e.getMessage() );
+            LOGGER.error( restRequest.getSessionLabel(), errorInformation::toDebugStr, e );
+            return errorResult( index, errorInformation );
+        }
+    }
+
+    private PublicBulkItemResult<O> errorResult( final int index, final ErrorInformation errorInformation )
+    {
+        return PublicBulkItemResult.<O>builder()
+                .index( index )
+                .error( true )
+                .errorCode( errorInformation.getError().getErrorCode() )
+                .errorMessage( errorInformation.toUserStr( locale, domainConfig ) )
+                .build();
+    }
+
+    /**
+     * Per-request cache of values shared by multiple items, such as resolved users and password policies.  Each
+     * distinct key is loaded once, concurrent readers of the same key wait for the first load to complete, and a
+     * failed load is reported to every item with that key.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     */
+    static class SharedValues<K, V>
+    {
+        private final Map<K, FutureTask<V>> values = new ConcurrentHashMap<>();
+        private final CheckedLoader<K, V> loader;
+
+        SharedValues( final CheckedLoader<K, V> loader )
+        {
+            this.loader = loader;
+        }
+
+        V get( final K key )
+                throws PwmException
+        {
+            FutureTask<V> task = values.get( key );
+            if ( task == null )
+            {
+                final FutureTask<V> newTask = new FutureTask<>( () -> loader.load( key ) );
+                task = values.putIfAbsent( key, newTask );
+                if ( task == null )
+                {
+                    task = newTask;
+                    newTask.run();
+                }
+            }
+
+            try
+            {
+                return task.get();
+            }
+            catch ( final InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw PwmUnrecoverableException.newException( PwmError.ERROR_INTERNAL, "interrupted while loading bulk request value" );
+            }
+            catch ( final ExecutionException e )
+            {
+                if ( e.getCause() instanceof PwmException )
+                {
+                    throw ( PwmException ) e.getCause();
+                }
+                throw PwmUnrecoverableException.newException( PwmError.ERROR_INTERNAL, e.getCause().getMessage() );
+            }
+        }
+    }
+}
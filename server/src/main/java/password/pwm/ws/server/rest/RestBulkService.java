@@ -0,0 +1,161 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server.rest;
+
+import password.pwm.AppProperty;
+import password.pwm.PwmApplication;
+import password.pwm.PwmConstants;
+import password.pwm.bean.DomainID;
+import password.pwm.config.AppConfig;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.health.HealthRecord;
+import password.pwm.svc.AbstractPwmService;
+import password.pwm.svc.PwmService;
+import password.pwm.util.PwmScheduler;
+import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.logging.PwmLogger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Shared executor for the items of bulk rest requests.  All concurrent bulk requests use the same pool of
+ * {@link AppProperty#WS_REST_SERVER_BULK_MAX_THREADS} threads, and at most {@link AppProperty#WS_REST_SERVER_BULK_MAX_QUEUED_ITEMS}
+ * items may be queued or running at once.  A request whose items do not fit in the remaining capacity is rejected as a whole.
+ */
+public class RestBulkService extends AbstractPwmService implements PwmService
+{
+    private static final PwmLogger LOGGER = PwmLogger.forClass( RestBulkService.class );
+
+    private final StatisticCounterBundle<DebugKey> stats = new StatisticCounterBundle<>( DebugKey.class );
+
+    private ThreadPoolExecutor executor;
+    private Semaphore itemPermits;
+    private int maxQueuedItems;
+
+    enum DebugKey
+    {
+        requests,
+        items,
+        rejectedRequests,
+    }
+
+    @Override
+    protected Set<PwmApplication.Condition> openConditions()
+    {
+        return Collections.emptySet();
+    }
+
+    @Override
+    protected STATUS postAbstractInit( final PwmApplication pwmApplication, final DomainID domainID )
+            throws PwmException
+    {
+        final AppConfig appConfig = pwmApplication.getConfig();
+        final int maxThreads = Math.max( 1, Integer.parseInt( appConfig.readAppProperty( AppProperty.WS_REST_SERVER_BULK_MAX_THREADS ) ) );
+        maxQueuedItems = Math.max( 1, Integer.parseInt( appConfig.readAppProperty( AppProperty.WS_REST_SERVER_BULK_MAX_QUEUED_ITEMS ) ) );
+        itemPermits = new Semaphore( maxQueuedItems );
+        executor = PwmScheduler.makeMultiThreadExecutor( maxThreads, pwmApplication, getSessionLabel(), RestBulkService.class );
+        return STATUS.OPEN;
+    }
+
+    @Override
+    protected void shutdownImpl()
+    {
+        PwmScheduler.closeAndWaitExecutor( executor, TimeDuration.SECONDS_10, LOGGER, getSessionLabel() );
+    }
+
+    @Override
+    protected List<HealthRecord> serviceHealthCheck()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ServiceInfoBean serviceInfo()
+    {
+        final ServiceInfoBean.ServiceInfoBeanBuilder builder = ServiceInfoBean.builder()
+                .debugProperties( stats.debugStats( PwmConstants.DEFAULT_LOCALE ) );
+        if ( executor != null )
+        {
+            builder.debugProperty( "activeThreads", String.valueOf( executor.getActiveCount() ) );
+            builder.debugProperty( "pendingItems", String.valueOf( maxQueuedItems - itemPermits.availablePermits() ) );
+        }
+        return builder.build();
+    }
+
+    /**
+     * Submit all items of one bulk request.  Each returned future completes when its item has been processed, or is
+     * cancelled by the caller; either way the item's queue capacity is released.
+     */
+    <T> List<Future<T>> submitAll( final List<Callable<T>> tasks )
+            throws PwmUnrecoverableException
+    {
+        checkOpenStatus();
+        stats.increment( DebugKey.requests );
+
+        if ( !itemPermits.tryAcquire( tasks.size() ) )
+        {
+            stats.increment( DebugKey.rejectedRequests );
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_TOO_MANY_THREADS,
+                    "too many bulk rest items are in progress, maximum is " + maxQueuedItems + ", try again later" );
+        }
+
+        final List<Future<T>> futures = new ArrayList<>( tasks.size() );
+        int submitted = 0;
+        try
+        {
+            for ( final Callable<T> task : tasks )
+            {
+                final FutureTask<T> futureTask = new FutureTask<>( task )
+                {
+                    @Override
+                    protected void done()
+                    {
+                        itemPermits.release();
+                    }
+                };
+                executor.execute( futureTask );
+                futures.add( futureTask );
+                submitted++;
+                stats.increment( DebugKey.items );
+            }
+        }
+        catch ( final RejectedExecutionException e )
+        {
+            itemPermits.release( tasks.size() - submitted );
+            futures.forEach( future -> future.cancel( true ) );
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_SERVICE_NOT_AVAILABLE, "bulk rest executor is not available" );
+        }
+
+        return Collections.unmodifiableList( futures );
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server.rest;
+
+import com.novell.ldapchai.ChaiUser;
+import com.novell.ldapchai.exception.ChaiUnavailableException;
+import lombok.Value;
+import password.pwm.PwmConstants;
+import password.pwm.config.option.WebServiceUsage;
+import password.pwm.error.ErrorInformation;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.http.HttpContentType;
+import password.pwm.http.HttpMethod;
+import password.pwm.http.PwmRequestContext;
+import password.pwm.ldap.UserInfoFactory;
+import password.pwm.svc.stats.Statistic;
+import password.pwm.svc.stats.StatisticsClient;
+import password.pwm.user.UserInfo;
+import password.pwm.util.PasswordData;
+import password.pwm.util.java.StringUtil;
+import password.pwm.util.password.PasswordUtility;
+import password.pwm.ws.server.RestMethodHandler;
+import password.pwm.ws.server.RestRequest;
+import password.pwm.ws.server.RestResultBean;
+import password.pwm.ws.server.RestServlet;
+import password.pwm.ws.server.RestUtility;
+import password.pwm.ws.server.RestWebServer;
+import password.pwm.ws.server.rest.bean.PublicBulkItemResult;
+
+import javax.servlet.annotation.WebServlet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bulk variant of {@link RestCheckPasswordServer}.  The request body is a json array of
+ * {@link RestCheckPasswordServer.JsonInput} items; each distinct username is resolved and its user info (including
+ * password policy) is read only once per request.
+ */
+@WebServlet(
+        urlPatterns = {
+                PwmConstants.URL_PREFIX_PUBLIC + PwmConstants.URL_PREFIX_REST + "/checkpassword/bulk"
+        }
+)
+@RestWebServer( webService = WebServiceUsage.CheckPassword )
+public class RestCheckPasswordBulkServer extends RestServlet
+{
+    @Value
+    private static class TargetUser
+    {
+        private final ChaiUser chaiUser;
+        private final UserInfo userInfo;
+    }
+
+    @Override
+    public void preCheckRequest( final RestRequest request ) throws PwmUnrecoverableException
+    {
+    }
+
+    @RestMethodHandler( method = HttpMethod.POST, consumes = HttpContentType.json, produces = HttpContentType.json )
+    public RestResultBean doBulkPasswordRuleCheck( final RestRequest restRequest )
+            throws PwmUnrecoverableException
+    {
+        final List<RestCheckPasswordServer.JsonInput> items = RestUtility.deserializeJsonBodyAsList( restRequest, RestCheckPasswordServer.JsonInput.class );
+
+        final Locale locale = restRequest.getLocale();
+        final PwmRequestContext requestContext = restRequest.getPwmRestRequest();
+        final RestBulkProcessor.SharedValues<String, TargetUser> targetUsers = new RestBulkProcessor.SharedValues<>(
+                username -> readTargetUser( restRequest, locale, username ) );
+
+        final RestBulkProcessor<RestCheckPasswordServer.JsonInput, RestCheckPasswordServer.JsonOutput> bulkProcessor = new RestBulkProcessor<>(
+                restRequest,
+                item -> checkPassword( restRequest, requestContext, targetUsers, item ) );
+        final List<PublicBulkItemResult<RestCheckPasswordServer.JsonOutput>> results = bulkProcessor.process( items );
+
+        return RestResultBean.withData( results, List.class );
+    }
+
+    private static RestCheckPasswordServer.JsonOutput checkPassword(
+            final RestRequest restRequest,
+            final PwmRequestContext requestContext,
+            final RestBulkProcessor.SharedValues<String, TargetUser> targetUsers,
+            final RestCheckPasswordServer.JsonInput jsonInput
+    )
+            throws PwmException
+    {
+        if ( StringUtil.isEmpty( jsonInput.getPassword1() ) )
+        {
+            throw new PwmUnrecoverableException( new ErrorInformation( PwmError.ERROR_FIELD_REQUIRED, "missing field 'password1'", new String[]
+                    {
+                            "password1",
+                    }
+            ) );
+        }
+
+        final TargetUser targetUser = targetUsers.get( StringUtil.isEmpty( jsonInput.getUsername() ) ? "" : jsonInput.getUsername() );
+
+        StatisticsClient.incrementStat( restRequest.getPwmApplication(), Statistic.REST_CHECKPASSWORD );
+
+        try
+        {
+            final PasswordUtility.PasswordCheckInfo passwordCheckInfo = PasswordUtility.checkEnteredPassword(
+                    requestContext,
+                    targetUser.getChaiUser(),
+                    targetUser.getUserInfo(),
+                    null,
+                    new PasswordData( jsonInput.getPassword1() ),
+                    StringUtil.isEmpty( jsonInput.getPassword2() ) ? null : new PasswordData( jsonInput.getPassword2() )
+            );
+            return RestCheckPasswordServer.JsonOutput.fromPasswordCheckInfo( passwordCheckInfo );
+        }
+        catch ( final ChaiUnavailableException e )
+        {
+            throw PwmUnrecoverableException.fromChaiException( e );
+        }
+    }
+
+    private static TargetUser readTargetUser(
+            final RestRequest restRequest,
+            final Locale locale,
+            final String username
+    )
+            throws PwmUnrecoverableException
+    {
+        final TargetUserIdentity targetUserIdentity = RestUtility.resolveRequestedUsername( restRequest, username );
+        final UserInfo userInfo = UserInfoFactory.newUserInfo(
+                restRequest.getPwmApplication(),
+                restRequest.getSessionLabel(),
+                locale,
+                targetUserIdentity.getUserIdentity(),
+                targetUserIdentity.getChaiProvider()
+        );
+
+        // read once here so the policy is resolved before the user info is shared between items
+        userInfo.getPasswordPolicy();
+
+        return new TargetUser( targetUserIdentity.getChaiUser(), userInfo );
+    }
+}
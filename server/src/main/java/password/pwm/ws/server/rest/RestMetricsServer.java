@@ -0,0 +1,68 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server.rest;
+
+import password.pwm.PwmConstants;
+import password.pwm.config.option.WebServiceUsage;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.http.HttpContentType;
+import password.pwm.http.HttpMethod;
+import password.pwm.svc.PwmService;
+import password.pwm.svc.stats.MetricsService;
+import password.pwm.ws.server.RestMethodHandler;
+import password.pwm.ws.server.RestRequest;
+import password.pwm.ws.server.RestResultBean;
+import password.pwm.ws.server.RestServlet;
+import password.pwm.ws.server.RestWebServer;
+
+import javax.servlet.annotation.WebServlet;
+
+/**
+ * Exposes the latency histograms held by {@link MetricsService} in OpenMetrics text format, suitable for
+ * scraping by Prometheus compatible collectors.  Metrics are local to this server node.
+ */
+@WebServlet(
+        urlPatterns = {
+                PwmConstants.URL_PREFIX_PUBLIC + PwmConstants.URL_PREFIX_REST + "/metrics",
+        }
+)
+@RestWebServer( webService = WebServiceUsage.Metrics )
+public class RestMetricsServer extends RestServlet
+{
+    @Override
+    public void preCheckRequest( final RestRequest restRequest ) throws PwmUnrecoverableException
+    {
+    }
+
+    @RestMethodHandler( method = HttpMethod.GET, consumes = HttpContentType.form, produces = { HttpContentType.openmetrics, HttpContentType.plain } )
+    public RestResultBean<String> doGetMetrics( final RestRequest restRequest )
+            throws PwmUnrecoverableException
+    {
+        final MetricsService metricsService = restRequest.getPwmApplication().getMetricsService();
+        if ( metricsService == null || metricsService.status() != PwmService.STATUS.OPEN )
+        {
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_SERVICE_NOT_AVAILABLE, "metrics service is not enabled" );
+        }
+
+        return RestResultBean.withData( metricsService.toOpenMetricsText(), String.class );
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server.rest;
+
+import lombok.Builder;
+import lombok.Value;
+import password.pwm.AppProperty;
+import password.pwm.PwmConstants;
+import password.pwm.config.option.WebServiceUsage;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.http.HttpContentType;
+import password.pwm.http.HttpMethod;
+import password.pwm.svc.PwmService;
+import password.pwm.svc.wordlist.WordType;
+import password.pwm.svc.wordlist.WordlistHashRange;
+import password.pwm.svc.wordlist.WordlistService;
+import password.pwm.util.java.EnumUtil;
+import password.pwm.ws.server.RestMethodHandler;
+import password.pwm.ws.server.RestRequest;
+import password.pwm.ws.server.RestResultBean;
+import password.pwm.ws.server.RestServlet;
+import password.pwm.ws.server.RestWebServer;
+
+import javax.servlet.annotation.WebServlet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * k-anonymity range query against the hashed entries of the imported wordlist.  The caller sends the leading hex
+ * characters of a password hash and receives the suffixes of all stored hashes sharing that prefix, then compares
+ * its full hash locally, so the password hash is never disclosed.  Hashes are of the unmodified password, as for
+ * hashed wordlist entries.
+ */
+@WebServlet(
+        urlPatterns = {
+                PwmConstants.URL_PREFIX_PUBLIC + PwmConstants.URL_PREFIX_REST + "/passwordhashrange",
+        }
+)
+@RestWebServer( webService = WebServiceUsage.PasswordHashRange )
+public class RestPasswordHashRangeServer extends RestServlet
+{
+    private static final String FIELD_PREFIX = "prefix";
+    private static final String FIELD_TYPE = "type";
+    private static final Pattern HEX_PATTERN = Pattern.compile( "^[0-9a-fA-F]+$" );
+
+    @Value
+    @Builder
+    public static class JsonOutput
+    {
+        private WordType type;
+        private String prefix;
+        private List<String> suffixes;
+        private boolean truncated;
+    }
+
+    @Override
+    public void preCheckRequest( final RestRequest restRequest ) throws PwmUnrecoverableException
+    {
+    }
+
+    @RestMethodHandler( method = HttpMethod.GET, consumes = HttpContentType.form, produces = HttpContentType.json )
+    public RestResultBean<JsonOutput> doGetHashRange( final RestRequest restRequest )
+            throws PwmUnrecoverableException
+    {
+        final WordlistService wordlistService = restRequest.getPwmApplication().getWordlistService();
+        if ( wordlistService == null || wordlistService.status() != PwmService.STATUS.OPEN )
+        {
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_SERVICE_NOT_AVAILABLE, "wordlist service is not available" );
+        }
+
+        final String typeValue = restRequest.readParameterAsString( FIELD_TYPE, WordType.SHA1.name() );
+        final WordType wordType = EnumUtil.readEnumFromString( WordType.class, typeValue.toUpperCase( PwmConstants.DEFAULT_LOCALE ) )
+                .filter( type -> type != WordType.RAW )
+                .orElseThrow( () -> PwmUnrecoverableException.newException( PwmError.ERROR_REST_INVOCATION_ERROR,
+                        "unsupported hash type '" + typeValue + "'" ) );
+
+        final int minPrefixLength = Integer.parseInt( restRequest.getDomain().getConfig().readAppProperty( AppProperty.WS_REST_SERVER_HASH_RANGE_MIN_PREFIX_LENGTH ) );
+        final int maxResults = Integer.parseInt( restRequest.getDomain().getConfig().readAppProperty( AppProperty.WS_REST_SERVER_HASH_RANGE_MAX_RESULTS ) );
+        final String prefix = restRequest.readParameterAsString( FIELD_PREFIX, wordType.getHexValueLength() );
+        if ( prefix.length() < minPrefixLength || prefix.length() >= wordType.getHexValueLength() || !HEX_PATTERN.matcher( prefix ).matches() )
+        {
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_REST_INVOCATION_ERROR,
+                    "'" + FIELD_PREFIX + "' must be " + minPrefixLength + " to " + ( wordType.getHexValueLength() - 1 ) + " hex characters" );
+        }
+
+        final WordlistHashRange hashRange = wordlistService.hashRange( wordType, prefix, maxResults );
+        final JsonOutput jsonOutput = JsonOutput.builder()
+                .type( hashRange.getWordType() )
+                .prefix( hashRange.getPrefix() )
+                .suffixes( hashRange.getSuffixes() )
+                .truncated( hashRange.isTruncated() )
+                .build();
+        return RestResultBean.withData( jsonOutput, JsonOutput.class );
+    }
+}
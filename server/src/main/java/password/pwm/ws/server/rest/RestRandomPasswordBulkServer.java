@@ -0,0 +1,126 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server.rest;
+
+import password.pwm.PwmConstants;
+import password.pwm.config.option.WebServiceUsage;
+import password.pwm.config.profile.PwmPasswordPolicy;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.http.HttpContentType;
+import password.pwm.http.HttpMethod;
+import password.pwm.svc.stats.Statistic;
+import password.pwm.svc.stats.StatisticsClient;
+import password.pwm.util.PasswordData;
+import password.pwm.util.java.StringUtil;
+import password.pwm.util.password.PasswordUtility;
+import password.pwm.util.password.RandomGeneratorConfig;
+import password.pwm.ws.server.RestMethodHandler;
+import password.pwm.ws.server.RestRequest;
+import password.pwm.ws.server.RestResultBean;
+import password.pwm.ws.server.RestServlet;
+import password.pwm.ws.server.RestUtility;
+import password.pwm.ws.server.RestWebServer;
+import password.pwm.ws.server.rest.bean.PublicBulkItemResult;
+
+import javax.servlet.annotation.WebServlet;
+import java.util.List;
+
+/**
+ * Bulk variant of {@link RestRandomPasswordServer}.  The request body is a json array of
+ * {@link RestRandomPasswordServer.JsonInput} items.  The password policy of each distinct username, and the random
+ * generator configuration of each distinct set of item options, is resolved only once per request.
+ */
+@WebServlet(
+        urlPatterns = {
+                PwmConstants.URL_PREFIX_PUBLIC + PwmConstants.URL_PREFIX_REST + "/randompassword/bulk",
+        }
+)
+@RestWebServer( webService = WebServiceUsage.RandomPassword )
+public class RestRandomPasswordBulkServer extends RestServlet
+{
+    @Override
+    public void preCheckRequest( final RestRequest request ) throws PwmUnrecoverableException
+    {
+    }
+
+    @RestMethodHandler( method = HttpMethod.POST, consumes = HttpContentType.json, produces = HttpContentType.json )
+    public RestResultBean doBulkRandomPassword( final RestRequest restRequest )
+            throws PwmUnrecoverableException
+    {
+        final List<RestRandomPasswordServer.JsonInput> items = RestUtility.deserializeJsonBodyAsList( restRequest, RestRandomPasswordServer.JsonInput.class );
+
+        final RestBulkProcessor.SharedValues<String, PwmPasswordPolicy> policies = new RestBulkProcessor.SharedValues<>(
+                username -> readPasswordPolicy( restRequest, username ) );
+        final RestBulkProcessor.SharedValues<RestRandomPasswordServer.JsonInput, RandomGeneratorConfig> randomConfigs = new RestBulkProcessor.SharedValues<>(
+                jsonInput -> RestRandomPasswordServer.jsonInputToRandomConfig( jsonInput, restRequest.getDomain(), policies.get( policyKey( jsonInput ) ) ) );
+
+        final RestBulkProcessor<RestRandomPasswordServer.JsonInput, RestRandomPasswordServer.JsonOutput> bulkProcessor = new RestBulkProcessor<>(
+                restRequest,
+                item -> generateRandom( restRequest, randomConfigs.get( item ) ) );
+        final List<PublicBulkItemResult<RestRandomPasswordServer.JsonOutput>> results = bulkProcessor.process( items );
+
+        return RestResultBean.withData( results, List.class );
+    }
+
+    private static RestRandomPasswordServer.JsonOutput generateRandom(
+            final RestRequest restRequest,
+            final RandomGeneratorConfig randomConfig
+    )
+            throws PwmException
+    {
+        final PasswordData randomPassword = PasswordUtility.generateRandom(
+                restRequest.getSessionLabel(),
+                randomConfig,
+                restRequest.getDomain() );
+
+        final RestRandomPasswordServer.JsonOutput jsonOutput = new RestRandomPasswordServer.JsonOutput();
+        jsonOutput.setPassword( randomPassword.getStringValue() );
+
+        StatisticsClient.incrementStat( restRequest.getDomain(), Statistic.REST_RANDOMPASSWORD );
+
+        return jsonOutput;
+    }
+
+    private static String policyKey( final RestRandomPasswordServer.JsonInput jsonInput )
+    {
+        return jsonInput.isNoUser() || StringUtil.isEmpty( jsonInput.getUsername() ) ? "" : jsonInput.getUsername();
+    }
+
+    private static PwmPasswordPolicy readPasswordPolicy(
+            final RestRequest restRequest,
+            final String username
+    )
+            throws PwmUnrecoverableException
+    {
+        if ( StringUtil.isEmpty( username ) )
+        {
+            return PwmPasswordPolicy.defaultPolicy();
+        }
+
+        final TargetUserIdentity targetUserIdentity = RestUtility.resolveRequestedUsername( restRequest, username );
+        return PasswordUtility.readPasswordPolicyForUser(
+                restRequest.getDomain(),
+                restRequest.getSessionLabel(),
+                targetUserIdentity.getUserIdentity(),
+                targetUserIdentity.getChaiUser() );
+    }
+}
@@ -55,8 +55,11 @@ import password.pwm.ws.server.RestWebServer;
 import javax.servlet.annotation.WebServlet;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -78,7 +81,9 @@ public class RestStatisticsServer extends RestServlet
 
     private static final String FIELD_VERSION = "version";
     private static final String FIELD_DAYS = "days";
+    private static final String FIELD_MONTHS = "months";
     private static final int MAX_DAYS = 365 * 5;
+    private static final int MAX_MONTHS = 12 * 5;
 
     @Value
     @Builder
@@ -89,6 +94,7 @@ public class RestStatisticsServer extends RestServlet
         public List<StatValue> current;
         public List<StatValue> cumulative;
         public List<HistoryData> history;
+        public List<HistoryData> monthlyHistory;
     }
 
     @Builder
@@ -160,6 +166,11 @@ public class RestStatisticsServer extends RestServlet
                     restRequest.readParameterAsInt( FIELD_DAYS, defaultDays ),
                     MAX_DAYS
             );
+            final int months = JavaHelper.rangeCheck(
+                    0,
+                    restRequest.readParameterAsInt( FIELD_MONTHS, 0 ),
+                    MAX_MONTHS
+            );
 
             final StatisticsService statisticsManager = restRequest.getDomain().getStatisticsService();
             final JsonOutput jsonOutput = RestStatisticsServer.JsonOutput.builder()
@@ -167,6 +178,7 @@ public class RestStatisticsServer extends RestServlet
                     .current( makeStatInfos( statisticsManager.getCurrentBundle() ) )
                     .eventRates( makeEpsStatInfos( statisticsManager ) )
                     .history( makeHistoryStatInfos( statisticsManager, days ) )
+                    .monthlyHistory( makeMonthlyHistoryStatInfos( statisticsManager, months ) )
                     .labels( makeLabels( locale ) )
                     .build();
             return RestResultBean.withData( jsonOutput, JsonOutput.class );
@@ -194,17 +206,9 @@ public class RestStatisticsServer extends RestServlet
 
             for ( int daysAgo = 0; daysAgo < days; daysAgo++ )
             {
-                final Map<String, StatValue> output = new TreeMap<>();
-                for ( final Statistic statistic : Statistic.values() )
-                {
-                    statisticsManager.getStatBundleForKey( dailyKey ).ifPresent( bundle ->
-                    {
-                        final String value = bundle.getStatistic( statistic );
-                        final StatValue statValue = new StatValue( statistic.name(), value );
-                        output.put( statistic.name(), statValue );
-                    } );
-                }
-                final List<StatValue> statValues = List.copyOf( output.values() );
+                final List<StatValue> statValues = statisticsManager.getStatBundleForKey( dailyKey )
+                        .map( OutputVersion2::makeStatInfos )
+                        .orElse( Collections.emptyList() );
                 final HistoryData historyData = HistoryData.builder()
                         .name( dailyKey.toString() )
                         .date( DateTimeFormatter.ofPattern( "yyyy-MM-dd" ).withZone( ZoneOffset.UTC )
@@ -222,6 +226,36 @@ public class RestStatisticsServer extends RestServlet
             return Collections.unmodifiableList( outerOutput );
         }
 
+        private static List<HistoryData> makeMonthlyHistoryStatInfos(
+                final StatisticsService statisticsManager,
+                final int months
+        )
+        {
+            final List<HistoryData> outerOutput = new ArrayList<>( months );
+            final LocalDate today = LocalDate.now();
+
+            YearMonth month = YearMonth.from( today );
+            for ( int monthsAgo = 0; monthsAgo < months; monthsAgo++ )
+            {
+                final List<StatValue> statValues = statisticsManager.getMonthlyStatBundle( month )
+                        .map( OutputVersion2::makeStatInfos )
+                        .orElse( Collections.emptyList() );
+                final HistoryData historyData = HistoryData.builder()
+                        .name( "MONTHLY_" + month.getYear() + "_" + month.getMonthValue() )
+                        .date( DateTimeFormatter.ofPattern( "yyyy-MM" ).format( month ) )
+                        .year( month.getYear() )
+                        .month( month.getMonthValue() )
+                        .day( 1 )
+                        .daysAgo( ( int ) ChronoUnit.DAYS.between( month.atDay( 1 ), today ) )
+                        .data( statValues )
+                        .build();
+                outerOutput.add( historyData );
+                month = month.minusMonths( 1 );
+            }
+
+            return Collections.unmodifiableList( outerOutput );
+        }
+
         private static List<StatValue> makeEpsStatInfos( final StatisticsService statisticsManager )
         {
             final Map<String, StatValue> output = new TreeMap<>();
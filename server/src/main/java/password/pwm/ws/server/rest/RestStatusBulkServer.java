@@ -0,0 +1,123 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server.rest;
+
+import lombok.Data;
+import password.pwm.PwmConstants;
+import password.pwm.bean.pub.PublicUserInfoBean;
+import password.pwm.config.option.WebServiceUsage;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.http.HttpContentType;
+import password.pwm.http.HttpMethod;
+import password.pwm.ldap.UserInfoFactory;
+import password.pwm.svc.stats.Statistic;
+import password.pwm.svc.stats.StatisticsClient;
+import password.pwm.user.UserInfo;
+import password.pwm.user.UserInfoBean;
+import password.pwm.util.java.StringUtil;
+import password.pwm.util.macro.MacroRequest;
+import password.pwm.ws.server.RestMethodHandler;
+import password.pwm.ws.server.RestRequest;
+import password.pwm.ws.server.RestResultBean;
+import password.pwm.ws.server.RestServlet;
+import password.pwm.ws.server.RestUtility;
+import password.pwm.ws.server.RestWebServer;
+import password.pwm.ws.server.rest.bean.PublicBulkItemResult;
+
+import javax.servlet.annotation.WebServlet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bulk variant of {@link RestStatusServer}.  The request body is a json array of {@link JsonInput} items; each
+ * distinct username is resolved and read only once per request.
+ */
+@WebServlet(
+        urlPatterns = {
+                PwmConstants.URL_PREFIX_PUBLIC + PwmConstants.URL_PREFIX_REST + "/status/bulk",
+        }
+)
+@RestWebServer( webService = WebServiceUsage.Status )
+public class RestStatusBulkServer extends RestServlet
+{
+    @Data
+    public static class JsonInput
+    {
+        private String username;
+    }
+
+    @Override
+    public void preCheckRequest( final RestRequest restRequest ) throws PwmUnrecoverableException
+    {
+    }
+
+    @RestMethodHandler( method = HttpMethod.POST, consumes = HttpContentType.json, produces = HttpContentType.json )
+    public RestResultBean doBulkGetStatusData( final RestRequest restRequest )
+            throws PwmUnrecoverableException
+    {
+        final List<JsonInput> items = RestUtility.deserializeJsonBodyAsList( restRequest, JsonInput.class );
+
+        final Locale locale = restRequest.getLocale();
+        final RestBulkProcessor.SharedValues<String, PublicUserInfoBean> userInfoBeans = new RestBulkProcessor.SharedValues<>(
+                username -> readPublicUserInfo( restRequest, locale, username ) );
+
+        final RestBulkProcessor<JsonInput, PublicUserInfoBean> bulkProcessor = new RestBulkProcessor<>(
+                restRequest,
+                item ->
+                {
+                    StatisticsClient.incrementStat( restRequest.getDomain(), Statistic.REST_STATUS );
+                    return userInfoBeans.get( StringUtil.isEmpty( item.getUsername() ) ? "" : item.getUsername() );
+                } );
+        final List<PublicBulkItemResult<PublicUserInfoBean>> results = bulkProcessor.process( items );
+
+        return RestResultBean.withData( results, List.class );
+    }
+
+    private static PublicUserInfoBean readPublicUserInfo(
+            final RestRequest restRequest,
+            final Locale locale,
+            final String username
+    )
+            throws PwmUnrecoverableException
+    {
+        final TargetUserIdentity targetUserIdentity = RestUtility.resolveRequestedUsername( restRequest, username );
+        final UserInfo userInfo = UserInfoFactory.newUserInfo(
+                restRequest.getPwmApplication(),
+                restRequest.getSessionLabel(),
+                locale,
+                targetUserIdentity.getUserIdentity(),
+                targetUserIdentity.getChaiProvider()
+        );
+        final MacroRequest macroRequest = MacroRequest.forUser(
+                restRequest.getPwmApplication(),
+                locale,
+                restRequest.getSessionLabel(),
+                targetUserIdentity.getUserIdentity()
+        );
+
+        return UserInfoBean.toPublicUserInfoBean(
+                userInfo,
+                restRequest.getDomain().getConfig(),
+                locale,
+                macroRequest
+        );
+    }
+}
@@ -126,7 +126,10 @@ public class RestVerifyResponsesServer extends RestServlet
                     targetUserIdentity.getChaiUser()
             );
 
-            final boolean verified = responseSet.isPresent() && responseSet.get().test( jsonInput.toCrMap() );
+            final boolean verified = responseSet.isPresent() && restRequest.getDomain().getCrService().testResponses(
+                    restRequest.getSessionLabel(),
+                    responseSet.get(),
+                    jsonInput.toCrMap() );
 
             final RestResultBean restResultBean = RestResultBean.forSuccessMessage( verified, restRequest, Message.Success_Unknown );
 
@@ -0,0 +1,108 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.servlet.peoplesearch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.ProfileID;
+import password.pwm.bean.UserIdentity;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class PeopleSearchDataReaderTest
+{
+    private static UserIdentity makeIdentity( final String userDN )
+    {
+        return UserIdentity.create( userDN, ProfileID.PROFILE_ID_DEFAULT, DomainID.DOMAIN_ID_DEFAULT );
+    }
+
+    @Test
+    public void testOrgChartChildrenFilter()
+    {
+        final String filter = PeopleSearchDataReader.makeOrgChartChildrenFilter(
+                "(objectClass=inetOrgPerson)",
+                "manager",
+                makeIdentity( "cn=Smith\\, John (IT),ou=people,o=org" ) );
+        Assertions.assertEquals( "(&(objectClass=inetOrgPerson)(manager=cn=Smith\\5c, John \\28IT\\29,ou=people,o=org))", filter );
+    }
+
+    @Test
+    public void testMatchOrgChartChildren()
+    {
+        final UserIdentity child1 = makeIdentity( "cn=child1,ou=people,o=org" );
+        final UserIdentity child2 = makeIdentity( "cn=child2,ou=people,o=org" );
+        final UserIdentity child3 = makeIdentity( "cn=child3,ou=people,o=org" );
+
+        final Map<UserIdentity, Map<String, String>> searchResults = new LinkedHashMap<>();
+
+        // dn case returned by the search may differ from the child attribute values
+        searchResults.put( makeIdentity( "CN=Child1,OU=People,O=Org" ), Map.of( "cn", "child1" ) );
+        searchResults.put( makeIdentity( "cn=child2,ou=people,o=org" ), Map.of( "cn", "child2" ) );
+
+        // entries naming the parent that are not listed as children are ignored
+        searchResults.put( makeIdentity( "cn=other,ou=people,o=org" ), Map.of( "cn", "other" ) );
+
+        final Map<UserIdentity, Map<String, String>> matched = PeopleSearchDataReader.matchOrgChartChildren(
+                List.of( child1, child2, child3 ),
+                searchResults );
+
+        Assertions.assertEquals( 2, matched.size() );
+        Assertions.assertEquals( Map.of( "cn", "child1" ), matched.get( child1 ) );
+        Assertions.assertEquals( Map.of( "cn", "child2" ), matched.get( child2 ) );
+
+        // children missing from the batched result are left to be read individually
+        Assertions.assertFalse( matched.containsKey( child3 ) );
+    }
+
+    @Test
+    public void testMatchOrgChartChildrenEmptySearch()
+    {
+        final List<UserIdentity> children = List.of( makeIdentity( "cn=child1,ou=people,o=org" ), makeIdentity( "cn=child2,ou=people,o=org" ) );
+        Assertions.assertTrue( PeopleSearchDataReader.matchOrgChartChildren( children, Map.of() ).isEmpty() );
+    }
+
+    @Test
+    public void testDisplayCardAttributes()
+    {
+        final Optional<Set<String>> attributes = PeopleSearchConfiguration.ldapMacroAttributes( List.of(
+                "@LDAP:givenName@ @LDAP:sn@",
+                "@User:LDAP:title@",
+                "@LDAP:mail:30@ (@LDAP:dn@)" ) );
+
+        Assertions.assertTrue( attributes.isPresent() );
+        Assertions.assertEquals( List.of( "givenName", "sn", "title", "mail" ), List.copyOf( attributes.get() ) );
+    }
+
+    @Test
+    public void testDisplayCardAttributesWithOtherMacros()
+    {
+        // labels using macros that need a full user read can not be expanded from the batched values
+        Assertions.assertTrue( PeopleSearchConfiguration.ldapMacroAttributes( List.of( "@LDAP:cn@", "@User:Email@" ) ).isEmpty() );
+        Assertions.assertTrue( PeopleSearchConfiguration.ldapMacroAttributes( List.of( "@LDAP:cn@ @User:PwExpireTime@" ) ).isEmpty() );
+
+        Assertions.assertEquals( Optional.of( Set.of() ), PeopleSearchConfiguration.ldapMacroAttributes( List.of( "plain label" ) ) );
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.servlet.peoplesearch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.ProfileID;
+import password.pwm.bean.UserIdentity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class PeopleSearchIndexTest
+{
+    private static final UserIdentity USER_1 = makeIdentity( "cn=jsmith,o=org" );
+    private static final UserIdentity USER_2 = makeIdentity( "cn=ajones,o=org" );
+    private static final UserIdentity USER_3 = makeIdentity( "cn=bsmithers,o=org" );
+
+    private static UserIdentity makeIdentity( final String userDN )
+    {
+        return UserIdentity.create( userDN, ProfileID.PROFILE_ID_DEFAULT, DomainID.create( "default" ) );
+    }
+
+    private static PeopleSearchIndex makeIndex()
+    {
+        final PeopleSearchIndex index = new PeopleSearchIndex( List.of( "cn", "givenName", "sn" ) );
+        index.put( USER_1, Map.of( "cn", "jsmith", "givenName", "John", "sn", "Smith", "title", "Engineer" ) );
+        index.put( USER_2, Map.of( "cn", "ajones", "givenName", "Alice", "sn", "Jones" ) );
+        index.put( USER_3, Map.of( "cn", "bsmithers", "givenName", "Bob", "sn", "Smithers" ) );
+        return index;
+    }
+
+    @Test
+    public void testSubstringSearch()
+    {
+        final PeopleSearchIndex index = makeIndex();
+        Assertions.assertEquals( List.of( USER_3, USER_1 ), index.search( "smith", 10 ) );
+        Assertions.assertEquals( List.of( USER_3 ), index.search( "MITHERS", 10 ) );
+        Assertions.assertEquals( List.of( USER_2 ), index.search( "lic", 10 ) );
+        Assertions.assertTrue( index.search( "engineer", 10 ).isEmpty() );
+    }
+
+    @Test
+    public void testShortPrefixSearch()
+    {
+        final PeopleSearchIndex index = makeIndex();
+        Assertions.assertEquals( List.of( USER_2 ), index.search( "al", 10 ) );
+        Assertions.assertEquals( List.of( USER_3, USER_1 ), index.search( "s", 10 ) );
+        Assertions.assertTrue( index.search( "li", 10 ).isEmpty() );
+    }
+
+    @Test
+    public void testMultiTermSearch()
+    {
+        final PeopleSearchIndex index = makeIndex();
+        Assertions.assertEquals( List.of( USER_1 ), index.search( "john smith", 10 ) );
+        Assertions.assertTrue( index.search( "alice smith", 10 ).isEmpty() );
+    }
+
+    @Test
+    public void testUpdateAndRemove()
+    {
+        final PeopleSearchIndex index = makeIndex();
+        index.put( USER_1, Map.of( "cn", "jdoe", "givenName", "John", "sn", "Doe" ) );
+        Assertions.assertEquals( List.of( USER_3 ), index.search( "smith", 10 ) );
+        Assertions.assertEquals( List.of( USER_1 ), index.search( "doe", 10 ) );
+
+        index.remove( USER_3 );
+        Assertions.assertTrue( index.search( "smith", 10 ).isEmpty() );
+        Assertions.assertEquals( 2, index.size() );
+    }
+
+    @Test
+    public void testRetainAll()
+    {
+        final PeopleSearchIndex index = makeIndex();
+        final UserIdentity movedUser = makeIdentity( "cn=jsmith,ou=moved,o=org" );
+        index.put( movedUser, Map.of( "cn", "jsmith", "givenName", "John", "sn", "Smith" ) );
+
+        Assertions.assertEquals( 2, index.retainAll( Set.of( USER_2, movedUser ) ) );
+        Assertions.assertEquals( 2, index.size() );
+        Assertions.assertEquals( List.of( movedUser ), index.search( "smith", 10 ) );
+        Assertions.assertEquals( 0, index.retainAll( Set.of( USER_2, movedUser ) ) );
+    }
+
+    @Test
+    public void testMaxResults()
+    {
+        final PeopleSearchIndex index = makeIndex();
+        Assertions.assertEquals( 1, index.search( "smith", 1 ).size() );
+        Assertions.assertEquals( Map.of( "sn", "Smith" ), index.readAttributes( USER_1, List.of( "sn", "mail" ) ) );
+    }
+}
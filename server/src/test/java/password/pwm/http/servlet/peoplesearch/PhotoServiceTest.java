@@ -0,0 +1,84 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package password.pwm.http.servlet.peoplesearch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import password.pwm.bean.PhotoDataBean;
+import password.pwm.data.ImmutableByteArray;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class PhotoServiceTest
+{
+    private static PhotoDataBean makePhoto( final int width, final int height )
+            throws IOException
+    {
+        final BufferedImage image = new BufferedImage( width, height, BufferedImage.TYPE_INT_RGB );
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write( image, "jpeg", outputStream );
+        return new PhotoDataBean( "image/jpeg", ImmutableByteArray.of( outputStream.toByteArray() ) );
+    }
+
+    @Test
+    public void testThumbnailScaling()
+            throws IOException
+    {
+        final PhotoDataBean thumbnail = PhotoService.makeThumbnail( makePhoto( 400, 200 ), 96 );
+        Assertions.assertEquals( "image/jpeg", thumbnail.getMimeType() );
+
+        final BufferedImage thumbnailImage = ImageIO.read( thumbnail.getContents().newByteArrayInputStream() );
+        Assertions.assertEquals( 96, thumbnailImage.getWidth() );
+        Assertions.assertEquals( 48, thumbnailImage.getHeight() );
+    }
+
+    @Test
+    public void testSmallPhotoUnchanged()
+            throws IOException
+    {
+        final PhotoDataBean original = makePhoto( 50, 80 );
+        Assertions.assertSame( original, PhotoService.makeThumbnail( original, 96 ) );
+    }
+
+    @Test
+    public void testUndecodablePhotoUnchanged()
+            throws IOException
+    {
+        final PhotoDataBean original = new PhotoDataBean( "image/jpeg", ImmutableByteArray.of( new byte[] {1, 2, 3, 4} ) );
+        Assertions.assertSame( original, PhotoService.makeThumbnail( original, 96 ) );
+    }
+
+    @Test
+    public void testETag()
+            throws IOException
+    {
+        final PhotoDataBean photo = makePhoto( 50, 80 );
+        final PhotoService.ServedPhoto servedPhoto = PhotoService.ServedPhoto.forPhoto( photo );
+        Assertions.assertEquals( PhotoService.makeETag( photo ), servedPhoto.getEtag() );
+        Assertions.assertTrue( servedPhoto.getEtag().startsWith( "\"" ) && servedPhoto.getEtag().endsWith( "\"" ) );
+        Assertions.assertNotEquals( servedPhoto.getEtag(), PhotoService.makeETag( makePhoto( 80, 50 ) ) );
+        Assertions.assertNull( PhotoService.makeETag( new PhotoDataBean( "image/jpeg", ImmutableByteArray.of( new byte[0] ) ) ) );
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.state;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+public class SessionStateCodecTest
+{
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        final SessionStateRecord record = SessionStateRecord.builder()
+                .revision( 42 )
+                .lastWrite( Instant.now().truncatedTo( ChronoUnit.MILLIS ) )
+                .value( "password.pwm.bean.LoginInfoBean", "{\"guid\":\"abc\",\"auth\":true}" )
+                .value( "password.pwm.http.bean.ShortcutsBean", "{\"name\":\"éè中文\"}" )
+                .build();
+
+        final byte[] encoded = SessionStateCodec.encode( record );
+        Assertions.assertEquals( SessionStateCodec.FORMAT_VERSION, encoded[0] );
+        Assertions.assertEquals( record, SessionStateCodec.decode( encoded ) );
+    }
+
+    @Test
+    public void testEmptyRecord() throws Exception
+    {
+        final SessionStateRecord record = SessionStateRecord.empty();
+        Assertions.assertEquals( record, SessionStateCodec.decode( SessionStateCodec.encode( record ) ) );
+    }
+
+    @Test
+    public void testInvalidInput() throws Exception
+    {
+        final byte[] encoded = SessionStateCodec.encode( SessionStateRecord.empty() );
+
+        final byte[] badVersion = Arrays.copyOf( encoded, encoded.length );
+        badVersion[0] = ( byte ) ( SessionStateCodec.FORMAT_VERSION + 1 );
+        Assertions.assertThrows( IOException.class, () -> SessionStateCodec.decode( badVersion ) );
+
+        Assertions.assertThrows( IOException.class, () -> SessionStateCodec.decode( new byte[0] ) );
+        Assertions.assertThrows( IOException.class, () -> SessionStateCodec.decode( Arrays.copyOf( encoded, 3 ) ) );
+    }
+
+    @Test
+    public void testExpiredValue()
+    {
+        final Instant now = Instant.now();
+        Assertions.assertTrue( SessionStateStore.isExpired( now.minusSeconds( 1 ).toEpochMilli() + ".AAAA", now ) );
+        Assertions.assertFalse( SessionStateStore.isExpired( now.plusSeconds( 60 ).toEpochMilli() + ".AAAA", now ) );
+        Assertions.assertTrue( SessionStateStore.isExpired( "garbage", now ) );
+    }
+}
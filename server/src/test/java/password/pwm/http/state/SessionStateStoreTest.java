@@ -0,0 +1,155 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.state;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import password.pwm.PwmApplication;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.SessionLabel;
+import password.pwm.svc.secure.AbstractSecureService;
+import password.pwm.util.DataStore;
+import password.pwm.util.java.FileSystemUtility;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.localdb.LocalDBDataStore;
+import password.pwm.util.localdb.LocalDBFactory;
+import password.pwm.util.localdb.TestHelper;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+public class SessionStateStoreTest
+{
+    private static final DomainID DOMAIN_ID = DomainID.create( "default" );
+    private static final String SESSION_ID = "abcdefghijklmnopqrstuvwxyz012345";
+
+    @TempDir
+    public Path temporaryFolder;
+
+    private LocalDB localDB;
+    private DataStore dataStore;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        final Path localDbTestFolder = FileSystemUtility.createDirectory( temporaryFolder, "test-session-state-store" );
+        final PwmApplication pwmApplication = TestHelper.makeTestPwmApplication( localDbTestFolder );
+        localDB = LocalDBFactory.getInstance( localDbTestFolder, false, pwmApplication.getPwmEnvironment(), pwmApplication.getConfig() );
+        dataStore = new LocalDBDataStore( localDB, LocalDB.DB.SESSION_STATE );
+    }
+
+    @AfterEach
+    public void shutdown() throws Exception
+    {
+        localDB.close();
+    }
+
+    private SessionStateStore makeStore( final int sweepBatchSize ) throws Exception
+    {
+        // encryption is not under test, so values are stored as encoded
+        final AbstractSecureService secureService = Mockito.mock( AbstractSecureService.class );
+        Mockito.when( secureService.encryptBytes( Mockito.any() ) ).thenAnswer( invocation -> invocation.getArgument( 0 ) );
+        Mockito.when( secureService.decryptBytes( Mockito.any() ) ).thenAnswer( invocation -> invocation.getArgument( 0 ) );
+
+        return new SessionStateStore( dataStore, secureService, SessionLabel.TEST_SESSION_LABEL, 100, TimeDuration.HOUR, sweepBatchSize );
+    }
+
+    private static SessionStateRecord makeRecord( final long revision, final String value )
+    {
+        return SessionStateRecord.builder()
+                .revision( revision )
+                .lastWrite( Instant.now() )
+                .value( "bean", value )
+                .build();
+    }
+
+    @Test
+    public void testNearCacheRevisionCheck() throws Exception
+    {
+        final SessionStateStore localNode = makeStore( 10 );
+        final SessionStateStore otherNode = makeStore( 10 );
+        final Instant expiration = Instant.now().plusSeconds( 600 );
+
+        Assertions.assertTrue( localNode.write( DOMAIN_ID, SESSION_ID, makeRecord( 1, "value1" ), expiration ) );
+        Assertions.assertEquals( Optional.of( "value1" ), localNode.read( DOMAIN_ID, SESSION_ID, 1 ).map( r -> r.getValues().get( "bean" ) ) );
+        Assertions.assertEquals( 1, localNode.getStats().get( SessionStateStore.DebugKey.nearCacheHits ) );
+        Assertions.assertEquals( 0, localNode.getStats().get( SessionStateStore.DebugKey.storeReads ) );
+
+        // a newer revision written by another node is read from the data store, not the stale near-cache entry
+        Assertions.assertTrue( otherNode.write( DOMAIN_ID, SESSION_ID, makeRecord( 2, "value2" ), expiration ) );
+        Assertions.assertEquals( Optional.of( "value2" ), localNode.read( DOMAIN_ID, SESSION_ID, 2 ).map( r -> r.getValues().get( "bean" ) ) );
+        Assertions.assertEquals( 1, localNode.getStats().get( SessionStateStore.DebugKey.storeReads ) );
+
+        // the re-read record replaces the near-cache entry
+        Assertions.assertTrue( localNode.read( DOMAIN_ID, SESSION_ID, 2 ).isPresent() );
+        Assertions.assertEquals( 2, localNode.getStats().get( SessionStateStore.DebugKey.nearCacheHits ) );
+    }
+
+    @Test
+    public void testExpiredRecord() throws Exception
+    {
+        final SessionStateStore store = makeStore( 10 );
+        Assertions.assertTrue( store.write( DOMAIN_ID, SESSION_ID, makeRecord( 1, "value1" ), Instant.now().minusSeconds( 1 ) ) );
+
+        Assertions.assertTrue( store.read( DOMAIN_ID, SESSION_ID, 1 ).isEmpty() );
+        Assertions.assertEquals( 0, store.getStats().get( SessionStateStore.DebugKey.nearCacheHits ) );
+        Assertions.assertEquals( 1, store.getStats().get( SessionStateStore.DebugKey.storeMisses ) );
+        Assertions.assertEquals( 0, store.nearCacheSize() );
+    }
+
+    @Test
+    public void testRemove() throws Exception
+    {
+        final SessionStateStore store = makeStore( 10 );
+        store.write( DOMAIN_ID, SESSION_ID, makeRecord( 1, "value1" ), Instant.now().plusSeconds( 600 ) );
+        store.remove( DOMAIN_ID, SESSION_ID );
+
+        Assertions.assertTrue( store.read( DOMAIN_ID, SESSION_ID, 1 ).isEmpty() );
+        Assertions.assertEquals( 0, dataStore.size() );
+    }
+
+    @Test
+    public void testSweepExpired() throws Exception
+    {
+        final SessionStateStore store = makeStore( 2 );
+        for ( int i = 0; i < 5; i++ )
+        {
+            store.write( DOMAIN_ID, "expired" + i, makeRecord( 1, "value" ), Instant.now().minusSeconds( 1 ) );
+        }
+        for ( int i = 0; i < 3; i++ )
+        {
+            store.write( DOMAIN_ID, "valid" + i, makeRecord( 1, "value" ), Instant.now().plusSeconds( 600 ) );
+        }
+
+        Assertions.assertEquals( 5, store.sweepExpired() );
+        Assertions.assertEquals( 3, dataStore.size() );
+        Assertions.assertEquals( 5, store.getStats().get( SessionStateStore.DebugKey.sweepRemovals ) );
+        Assertions.assertTrue( store.read( DOMAIN_ID, "valid0", 1 ).isPresent() );
+
+        Assertions.assertEquals( 0, store.sweepExpired() );
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.http.state;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import password.pwm.util.java.TimeDuration;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class SharedSessionStateTest
+{
+    private static final String SESSION_ID = "abcdefghijklmnopqrstuvwxyz012345";
+
+    private static SharedSessionState makeState( final String sessionID, final Instant lastWrite )
+    {
+        final SessionStateRecord storedRecord = SessionStateRecord.builder()
+                .revision( 1 )
+                .lastWrite( lastWrite )
+                .value( String.class.getName(), "\"value1\"" )
+                .build();
+        return new SharedSessionState( null, TimeDuration.MINUTE, sessionID, storedRecord );
+    }
+
+    @Test
+    public void testUnchangedValueSkipsWrite()
+    {
+        final SharedSessionState state = makeState( SESSION_ID, Instant.now() );
+        state.trackValue( String.class, "value1" );
+
+        final Map<String, String> newValues = state.mergeTrackedValues();
+        Assertions.assertEquals( SharedSessionState.FlushAction.none, state.flushAction( newValues ) );
+    }
+
+    @Test
+    public void testUnchangedValueWrittenAfterTouchInterval()
+    {
+        final SharedSessionState state = makeState( SESSION_ID, Instant.now().minusSeconds( 120 ) );
+        state.trackValue( String.class, "value1" );
+
+        Assertions.assertTrue( state.isTouchDue() );
+        Assertions.assertEquals( SharedSessionState.FlushAction.write, state.flushAction( state.mergeTrackedValues() ) );
+    }
+
+    @Test
+    public void testChangedValueWritten()
+    {
+        final SharedSessionState state = makeState( SESSION_ID, Instant.now() );
+        state.trackValue( String.class, "value2" );
+
+        final Map<String, String> newValues = state.mergeTrackedValues();
+        Assertions.assertEquals( "\"value2\"", newValues.get( String.class.getName() ) );
+        Assertions.assertEquals( SharedSessionState.FlushAction.write, state.flushAction( newValues ) );
+    }
+
+    @Test
+    public void testRemovedValues()
+    {
+        final SharedSessionState state = makeState( SESSION_ID, Instant.now() );
+        state.removeValue( String.class );
+        Assertions.assertEquals( SharedSessionState.FlushAction.remove, state.flushAction( state.mergeTrackedValues() ) );
+
+        final SharedSessionState newState = makeState( null, Instant.now() );
+        newState.removeValue( String.class );
+        Assertions.assertEquals( SharedSessionState.FlushAction.none, newState.flushAction( newState.mergeTrackedValues() ) );
+    }
+}
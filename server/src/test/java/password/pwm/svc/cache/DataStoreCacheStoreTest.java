@@ -0,0 +1,169 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import password.pwm.PwmApplication;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.SessionLabel;
+import password.pwm.util.java.FileSystemUtility;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.localdb.LocalDBDataStore;
+import password.pwm.util.localdb.LocalDBFactory;
+import password.pwm.util.localdb.TestHelper;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+public class DataStoreCacheStoreTest
+{
+    private static final CacheKey CACHE_KEY = CacheKey.newKey( DataStoreCacheStoreTest.class, null, "test-key" );
+
+    @TempDir
+    public Path temporaryFolder;
+
+    private LocalDB localDB;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        final Path localDbTestFolder = FileSystemUtility.createDirectory( temporaryFolder, "test-cache-store" );
+        final PwmApplication pwmApplication = TestHelper.makeTestPwmApplication( localDbTestFolder );
+        localDB = LocalDBFactory.getInstance( localDbTestFolder, false, pwmApplication.getPwmEnvironment(), pwmApplication.getConfig() );
+    }
+
+    @AfterEach
+    public void shutdown() throws Exception
+    {
+        localDB.close();
+    }
+
+    private DataStoreCacheStore makeStore()
+    {
+        return makeStore( "default" );
+    }
+
+    private DataStoreCacheStore makeStore( final String domainID )
+    {
+        return new DataStoreCacheStore(
+                new LocalDBDataStore( localDB, LocalDB.DB.CACHE_STORE ),
+                new LocalDBDataStore( localDB, LocalDB.DB.CACHE_STORE_EXPIRY ),
+                DomainID.create( domainID ),
+                SessionLabel.TEST_SESSION_LABEL,
+                100 );
+    }
+
+    @Test
+    public void testWriteBehind() throws Exception
+    {
+        final DataStoreCacheStore cacheStore = makeStore();
+        cacheStore.store( CACHE_KEY, Instant.now().plusSeconds( 60 ), "value1" );
+
+        Assertions.assertEquals( 1, cacheStore.pendingWriteCount() );
+        Assertions.assertEquals( 0, localDB.size( LocalDB.DB.CACHE_STORE ) );
+        Assertions.assertEquals( "value1", cacheStore.read( CACHE_KEY, String.class ) );
+
+        cacheStore.flushPendingWrites();
+        Assertions.assertEquals( 0, cacheStore.pendingWriteCount() );
+        Assertions.assertEquals( 1, localDB.size( LocalDB.DB.CACHE_STORE ) );
+
+        Assertions.assertEquals( "value1", makeStore().read( CACHE_KEY, String.class ) );
+    }
+
+    @Test
+    public void testExpiration() throws Exception
+    {
+        final DataStoreCacheStore cacheStore = makeStore();
+        cacheStore.store( CACHE_KEY, Instant.now().minusSeconds( 120 ), "value1" );
+        cacheStore.store( CacheKey.newKey( DataStoreCacheStoreTest.class, null, "other-key" ), Instant.now().plusSeconds( 60 ), "value2" );
+        cacheStore.flushPendingWrites();
+
+        Assertions.assertNull( cacheStore.read( CACHE_KEY, String.class ) );
+        Assertions.assertEquals( 2, localDB.size( LocalDB.DB.CACHE_STORE ) );
+
+        cacheStore.sweepExpired();
+        Assertions.assertEquals( 1, localDB.size( LocalDB.DB.CACHE_STORE ) );
+        Assertions.assertEquals( 1, localDB.size( LocalDB.DB.CACHE_STORE_EXPIRY ) );
+        Assertions.assertEquals( 1, cacheStore.itemCount() );
+    }
+
+    @Test
+    public void testSweepSkipsOtherDomains() throws Exception
+    {
+        final DataStoreCacheStore cacheStore = makeStore( "default" );
+        final DataStoreCacheStore otherCacheStore = makeStore( "other" );
+        cacheStore.store( CACHE_KEY, Instant.now().minusSeconds( 120 ), "value1" );
+        otherCacheStore.store( CACHE_KEY, Instant.now().minusSeconds( 120 ), "value2" );
+        cacheStore.flushPendingWrites();
+        otherCacheStore.flushPendingWrites();
+        Assertions.assertEquals( 2, localDB.size( LocalDB.DB.CACHE_STORE ) );
+
+        cacheStore.sweepExpired();
+        Assertions.assertEquals( 1, localDB.size( LocalDB.DB.CACHE_STORE ) );
+        Assertions.assertEquals( 1, localDB.size( LocalDB.DB.CACHE_STORE_EXPIRY ) );
+
+        otherCacheStore.sweepExpired();
+        Assertions.assertEquals( 0, localDB.size( LocalDB.DB.CACHE_STORE ) );
+        Assertions.assertEquals( 0, localDB.size( LocalDB.DB.CACHE_STORE_EXPIRY ) );
+    }
+
+    @Test
+    public void testSweepKeepsRestoredValue() throws Exception
+    {
+        final DataStoreCacheStore cacheStore = makeStore();
+        cacheStore.store( CACHE_KEY, Instant.now().minusSeconds( 120 ), "value1" );
+        cacheStore.flushPendingWrites();
+        cacheStore.store( CACHE_KEY, Instant.now().plusSeconds( 3600 ), "value2" );
+        cacheStore.flushPendingWrites();
+        Assertions.assertEquals( 2, localDB.size( LocalDB.DB.CACHE_STORE_EXPIRY ) );
+
+        cacheStore.sweepExpired();
+        Assertions.assertEquals( "value2", cacheStore.read( CACHE_KEY, String.class ) );
+        Assertions.assertEquals( 1, localDB.size( LocalDB.DB.CACHE_STORE_EXPIRY ) );
+    }
+
+    @Test
+    public void testExpiryIndexKey()
+    {
+        final Instant expiration = Instant.parse( "2021-06-01T12:00:30Z" );
+        final String indexKey = DataStoreCacheStore.indexKey( expiration, "default|ABC" );
+
+        Assertions.assertEquals( Optional.empty(), DataStoreCacheStore.expiredStorageKey( indexKey, expiration ) );
+        Assertions.assertEquals( Optional.of( "default|ABC" ), DataStoreCacheStore.expiredStorageKey( indexKey, Instant.parse( "2021-06-01T12:01:00Z" ) ) );
+        Assertions.assertTrue( indexKey.compareTo( DataStoreCacheStore.indexKey( Instant.parse( "2021-06-02T12:00:00Z" ), "a|A" ) ) < 0 );
+    }
+
+    @Test
+    public void testMaxPendingWrites()
+    {
+        final DataStoreCacheStore cacheStore = makeStore();
+        for ( int i = 0; i < 150; i++ )
+        {
+            cacheStore.store( CacheKey.newKey( DataStoreCacheStoreTest.class, null, "key" + i ), Instant.now().plusSeconds( 60 ), "value" );
+        }
+        Assertions.assertEquals( 100, cacheStore.pendingWriteCount() );
+    }
+}
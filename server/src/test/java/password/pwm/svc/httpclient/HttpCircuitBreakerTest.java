@@ -0,0 +1,123 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.httpclient;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import password.pwm.util.java.TimeDuration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+class HttpCircuitBreakerTest
+{
+    private static final Instant START = Instant.parse( "2021-01-01T00:00:00Z" );
+
+    @Test
+    public void opensAfterThresholdTest()
+    {
+        final HttpCircuitBreaker circuitBreaker = new HttpCircuitBreaker( "http://example.com", 3, TimeDuration.SECONDS_30, fixedClock( START ) );
+
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals( HttpCircuitBreaker.State.closed, circuitBreaker.getState() );
+        Assertions.assertTrue( circuitBreaker.allowRequest() );
+
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals( HttpCircuitBreaker.State.open, circuitBreaker.getState() );
+        Assertions.assertFalse( circuitBreaker.allowRequest() );
+    }
+
+    @Test
+    public void successResetsFailuresTest()
+    {
+        final HttpCircuitBreaker circuitBreaker = new HttpCircuitBreaker( "http://example.com", 2, TimeDuration.SECONDS_30, fixedClock( START ) );
+
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals( HttpCircuitBreaker.State.closed, circuitBreaker.getState() );
+    }
+
+    @Test
+    public void halfOpenTrialTest()
+    {
+        final MutableClock clock = new MutableClock( START );
+        final HttpCircuitBreaker circuitBreaker = new HttpCircuitBreaker( "http://example.com", 1, TimeDuration.SECONDS_30, clock );
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals( HttpCircuitBreaker.State.open, circuitBreaker.getState() );
+
+        clock.setInstant( START.plus( Duration.ofSeconds( 31 ) ) );
+        Assertions.assertEquals( HttpCircuitBreaker.State.halfOpen, circuitBreaker.getState() );
+        Assertions.assertTrue( circuitBreaker.allowRequest() );
+        Assertions.assertFalse( circuitBreaker.allowRequest() );
+
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals( HttpCircuitBreaker.State.open, circuitBreaker.getState() );
+
+        clock.setInstant( START.plus( Duration.ofSeconds( 62 ) ) );
+        Assertions.assertTrue( circuitBreaker.allowRequest() );
+        circuitBreaker.recordSuccess();
+        Assertions.assertEquals( HttpCircuitBreaker.State.closed, circuitBreaker.getState() );
+        Assertions.assertTrue( circuitBreaker.allowRequest() );
+    }
+
+    private static Clock fixedClock( final Instant instant )
+    {
+        return Clock.fixed( instant, ZoneOffset.UTC );
+    }
+
+    private static class MutableClock extends Clock
+    {
+        private Instant instant;
+
+        MutableClock( final Instant instant )
+        {
+            this.instant = instant;
+        }
+
+        void setInstant( final Instant instant )
+        {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone()
+        {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone( final ZoneId zone )
+        {
+            return this;
+        }
+
+        @Override
+        public Instant instant()
+        {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package password.pwm.svc.intruder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.SessionLabel;
+import password.pwm.util.java.ClosableIterator;
+import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.json.JsonFactory;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class IntruderRecordCacheTest
+{
+    private static final DomainID DOMAIN_ID = DomainID.create( "default" );
+    private static final TimeDuration CHECK_DURATION = TimeDuration.MINUTE;
+    private static final String KEY = "key1";
+    private static final String SUBJECT = "subject1";
+    private static final int CHECK_COUNT = 5;
+
+    @Test
+    public void testMarkAndCheck()
+    {
+        final MapRecordStore recordStore = new MapRecordStore();
+        final IntruderRecordCache recordCache = new IntruderRecordCache( recordStore, SessionLabel.TEST_SESSION_LABEL, 100, null );
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            Assertions.assertFalse( recordCache.check( KEY, CHECK_DURATION, 3 ) );
+            recordCache.mark( KEY, DOMAIN_ID, IntruderRecordType.USERNAME, SUBJECT, CHECK_DURATION, CHECK_COUNT );
+        }
+        Assertions.assertTrue( recordCache.check( KEY, CHECK_DURATION, 3 ) );
+        Assertions.assertTrue( recordStore.records.isEmpty() );
+
+        recordCache.flush();
+        Assertions.assertEquals( 3, recordStore.readRecord( KEY ).getAttemptCount() );
+
+        recordCache.clear( KEY, CHECK_DURATION );
+        Assertions.assertFalse( recordCache.check( KEY, CHECK_DURATION, 3 ) );
+        recordCache.flush();
+        Assertions.assertEquals( 0, recordStore.readRecord( KEY ).getAttemptCount() );
+    }
+
+    @Test
+    public void testLockoutWrittenImmediately()
+    {
+        final MapRecordStore recordStore = new MapRecordStore();
+        final IntruderRecordCache recordCache = new IntruderRecordCache( recordStore, SessionLabel.TEST_SESSION_LABEL, 100, null );
+
+        for ( int i = 0; i < CHECK_COUNT - 1; i++ )
+        {
+            recordCache.mark( KEY, DOMAIN_ID, IntruderRecordType.USERNAME, SUBJECT, CHECK_DURATION, CHECK_COUNT );
+        }
+        Assertions.assertTrue( recordStore.records.isEmpty() );
+
+        // reaching the lockout count does not wait for the next flush
+        recordCache.mark( KEY, DOMAIN_ID, IntruderRecordType.USERNAME, SUBJECT, CHECK_DURATION, CHECK_COUNT );
+        Assertions.assertEquals( CHECK_COUNT, recordStore.readRecord( KEY ).getAttemptCount() );
+
+        recordCache.mark( KEY, DOMAIN_ID, IntruderRecordType.USERNAME, SUBJECT, CHECK_DURATION, CHECK_COUNT );
+        Assertions.assertEquals( CHECK_COUNT + 1, recordStore.readRecord( KEY ).getAttemptCount() );
+        Assertions.assertEquals( 2, recordCache.getStats().get( IntruderRecordCache.DebugKeys.lockoutWrites ) );
+    }
+
+    @Test
+    public void testMergeWithStoredRecord()
+    {
+        final MapRecordStore recordStore = new MapRecordStore();
+        final IntruderRecordCache recordCache = new IntruderRecordCache( recordStore, SessionLabel.TEST_SESSION_LABEL, 100, null );
+
+        recordCache.mark( KEY, DOMAIN_ID, IntruderRecordType.USERNAME, SUBJECT, CHECK_DURATION, CHECK_COUNT );
+        recordCache.flush();
+
+        // simulate another node adding attempts to the shared record
+        final IntruderRecord storedRecord = recordStore.readRecord( KEY );
+        storedRecord.setAttemptCount( storedRecord.getAttemptCount() + 2 );
+        recordStore.writeRecord( KEY, storedRecord );
+
+        recordCache.mark( KEY, DOMAIN_ID, IntruderRecordType.USERNAME, SUBJECT, CHECK_DURATION, CHECK_COUNT );
+        recordCache.flush();
+
+        Assertions.assertEquals( 4, recordStore.readRecord( KEY ).getAttemptCount() );
+        Assertions.assertTrue( recordCache.check( KEY, CHECK_DURATION, 4 ) );
+    }
+
+    @Test
+    public void testOutdatedRecordReset()
+    {
+        final MapRecordStore recordStore = new MapRecordStore();
+        final IntruderRecord outdatedRecord = new IntruderRecord( DOMAIN_ID, IntruderRecordType.USERNAME, SUBJECT );
+        outdatedRecord.setAttemptCount( 10 );
+        outdatedRecord.setTimeStamp( Instant.now().minus( TimeDuration.HOUR.asDuration() ) );
+        recordStore.writeRecord( KEY, outdatedRecord );
+
+        final IntruderRecordCache recordCache = new IntruderRecordCache( recordStore, SessionLabel.TEST_SESSION_LABEL, 100, null );
+        Assertions.assertFalse( recordCache.check( KEY, CHECK_DURATION, 3 ) );
+
+        recordCache.mark( KEY, DOMAIN_ID, IntruderRecordType.USERNAME, SUBJECT, CHECK_DURATION, CHECK_COUNT );
+        recordCache.flush();
+        Assertions.assertEquals( 1, recordStore.readRecord( KEY ).getAttemptCount() );
+    }
+
+    private static class MapRecordStore implements IntruderRecordStore
+    {
+        private final Map<String, String> records = new ConcurrentHashMap<>();
+        private final StatisticCounterBundle<DebugKeys> stats = new StatisticCounterBundle<>( DebugKeys.class );
+
+        IntruderRecord readRecord( final String key )
+        {
+            return read( key ).orElseThrow();
+        }
+
+        void writeRecord( final String key, final IntruderRecord record )
+        {
+            write( key, record );
+        }
+
+        @Override
+        public StatisticCounterBundle<DebugKeys> getStats()
+        {
+            return stats;
+        }
+
+        @Override
+        public Optional<IntruderRecord> read( final String key )
+        {
+            return Optional.ofNullable( records.get( key ) ).map( value -> JsonFactory.get().deserialize( value, IntruderRecord.class ) );
+        }
+
+        @Override
+        public void write( final String key, final IntruderRecord record )
+        {
+            records.put( key, JsonFactory.get().serialize( record ) );
+        }
+
+        @Override
+        public ClosableIterator<IntruderRecord> iterator()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void cleanup( final TimeDuration maxRecordAge )
+        {
+        }
+    }
+}
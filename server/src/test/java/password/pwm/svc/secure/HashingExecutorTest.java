@@ -0,0 +1,122 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.secure;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import password.pwm.bean.SessionLabel;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmUnrecoverableException;
+import password.pwm.util.java.TimeDuration;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HashingExecutorTest
+{
+    private final AtomicInteger recordedOperations = new AtomicInteger();
+    private HashingExecutor hashingExecutor;
+
+    @BeforeEach
+    public void setUp()
+    {
+        hashingExecutor = new HashingExecutor(
+                1,
+                1,
+                TimeDuration.SECONDS_10,
+                Executors.defaultThreadFactory(),
+                ( operationName, queueWait, computeTime, success ) -> recordedOperations.incrementAndGet() );
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        hashingExecutor.close();
+    }
+
+    @Test
+    public void testResultAndException()
+            throws Exception
+    {
+        Assertions.assertEquals( "hash", hashingExecutor.execute( SessionLabel.TEST_SESSION_LABEL, "test", () -> "hash" ) );
+
+        Assertions.assertThrows( IOException.class, () -> hashingExecutor.execute( SessionLabel.TEST_SESSION_LABEL, "test", () ->
+        {
+            throw new IOException( "failed" );
+        } ) );
+
+        Assertions.assertEquals( 2, recordedOperations.get() );
+    }
+
+    @Test
+    public void testNestedOperationRunsInline()
+            throws Exception
+    {
+        final String result = hashingExecutor.execute( SessionLabel.TEST_SESSION_LABEL, "outer", () ->
+                hashingExecutor.execute( SessionLabel.TEST_SESSION_LABEL, "inner", () -> "nested" ) );
+        Assertions.assertEquals( "nested", result );
+    }
+
+    @Test
+    public void testRejectWhenQueueFull()
+            throws Exception
+    {
+        final CountDownLatch running = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final ExecutorService callers = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            final Future<Boolean> blockingCall = callers.submit( () -> hashingExecutor.execute( SessionLabel.TEST_SESSION_LABEL, "blocking", () ->
+            {
+                running.countDown();
+                return release.await( 10, TimeUnit.SECONDS );
+            } ) );
+            Assertions.assertTrue( running.await( 10, TimeUnit.SECONDS ) );
+
+            final Future<String> queuedCall = callers.submit( () -> hashingExecutor.execute( SessionLabel.TEST_SESSION_LABEL, "queued", () -> "queued" ) );
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while ( hashingExecutor.queueSize() < 1 && System.currentTimeMillis() < deadline )
+            {
+                Thread.sleep( 5 );
+            }
+
+            final PwmUnrecoverableException exception = Assertions.assertThrows( PwmUnrecoverableException.class,
+                    () -> hashingExecutor.execute( SessionLabel.TEST_SESSION_LABEL, "rejected", () -> "rejected" ) );
+            Assertions.assertEquals( PwmError.ERROR_SERVICE_NOT_AVAILABLE, exception.getError() );
+
+            release.countDown();
+            Assertions.assertTrue( blockingCall.get( 10, TimeUnit.SECONDS ) );
+            Assertions.assertEquals( "queued", queuedCall.get( 10, TimeUnit.SECONDS ) );
+        }
+        finally
+        {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+}
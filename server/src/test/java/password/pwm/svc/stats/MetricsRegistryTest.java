@@ -0,0 +1,74 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.stats;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class MetricsRegistryTest
+{
+    @Test
+    public void testHistogramOutput()
+    {
+        final MetricsRegistry registry = new MetricsRegistry( 100 );
+        registry.record( MetricType.REST, "RestStatisticsServer", 3, true );
+        registry.record( MetricType.REST, "RestStatisticsServer", 40, true );
+        registry.record( MetricType.REST, "RestStatisticsServer", 2000, false );
+
+        final List<String> lines = List.of( registry.toOpenMetrics().split( "\n" ) );
+        final String label = "{endpoint=\"RestStatisticsServer\"";
+        Assertions.assertTrue( lines.contains( "# TYPE pwm_rest_request_duration_seconds histogram" ) );
+        Assertions.assertTrue( lines.contains( "pwm_rest_request_duration_seconds_bucket" + label + ",le=\"0.001\"} 0" ) );
+        Assertions.assertTrue( lines.contains( "pwm_rest_request_duration_seconds_bucket" + label + ",le=\"0.005\"} 1" ) );
+        Assertions.assertTrue( lines.contains( "pwm_rest_request_duration_seconds_bucket" + label + ",le=\"0.05\"} 2" ) );
+        Assertions.assertTrue( lines.contains( "pwm_rest_request_duration_seconds_bucket" + label + ",le=\"+Inf\"} 3" ) );
+        Assertions.assertTrue( lines.contains( "pwm_rest_request_duration_seconds_count" + label + "} 3" ) );
+        Assertions.assertTrue( lines.contains( "pwm_rest_request_duration_seconds_sum" + label + "} 2.043" ) );
+        Assertions.assertTrue( lines.contains( "pwm_rest_request_errors_total" + label + "} 1" ) );
+        Assertions.assertEquals( "# EOF", lines.get( lines.size() - 1 ) );
+        Assertions.assertFalse( lines.stream().anyMatch( line -> line.startsWith( MetricType.LDAP.getMetricName() ) ) );
+    }
+
+    @Test
+    public void testMaxSeries()
+    {
+        final MetricsRegistry registry = new MetricsRegistry( 2 );
+        registry.record( MetricType.DB, "get", 1, true );
+        registry.record( MetricType.DB, "put", 1, true );
+        registry.record( MetricType.DB, "remove", 1, true );
+        registry.record( MetricType.DB, "get", 1, true );
+
+        Assertions.assertEquals( 2, registry.seriesCount() );
+        Assertions.assertEquals( 1, registry.droppedSamples() );
+        Assertions.assertTrue( registry.toOpenMetrics().contains( "pwm_db_operation_duration_seconds_count{operation=\"get\"} 2\n" ) );
+    }
+
+    @Test
+    public void testFormatting()
+    {
+        Assertions.assertEquals( "0.001", MetricsRegistry.millisToSeconds( 1 ) );
+        Assertions.assertEquals( "30", MetricsRegistry.millisToSeconds( 30000 ) );
+        Assertions.assertEquals( "0", MetricsRegistry.millisToSeconds( 0 ) );
+        Assertions.assertEquals( "a\\\"b\\\\c\\n", MetricsRegistry.escapeLabelValue( "a\"b\\c\n" ) );
+    }
+}
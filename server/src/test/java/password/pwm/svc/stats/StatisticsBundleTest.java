@@ -0,0 +1,79 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.stats;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class StatisticsBundleTest
+{
+    @Test
+    public void roundTripTest()
+    {
+        final StatisticsBundle bundle = new StatisticsBundle();
+        bundle.incrementValue( Statistic.AUTHENTICATIONS );
+        bundle.incrementValue( Statistic.AUTHENTICATIONS );
+        bundle.incrementValue( Statistic.AUDIT_EVENTS );
+        bundle.updateAverageValue( AvgStatistic.AVG_AUTHENTICATION_TIME, 100 );
+        bundle.updateAverageValue( AvgStatistic.AVG_AUTHENTICATION_TIME, 300 );
+
+        // fixed layout, so the encoded size does not depend on the values
+        final String output = bundle.output();
+        Assertions.assertEquals( new StatisticsBundle().output().length(), output.length() );
+
+        final StatisticsBundle restored = StatisticsBundle.input( output );
+        Assertions.assertEquals( "2", restored.getStatistic( Statistic.AUTHENTICATIONS ) );
+        Assertions.assertEquals( "1", restored.getStatistic( Statistic.AUDIT_EVENTS ) );
+        Assertions.assertEquals( "0", restored.getStatistic( Statistic.AUTHENTICATION_FAILURES ) );
+        Assertions.assertEquals( "200", restored.getAvgStatistic( AvgStatistic.AVG_AUTHENTICATION_TIME ) );
+        Assertions.assertEquals( "0", restored.getAvgStatistic( AvgStatistic.AVG_PASSWORD_SYNC_TIME ) );
+    }
+
+    @Test
+    public void legacyJsonInputTest()
+    {
+        final String legacyJson = "{\"AUTHENTICATIONS\":\"42\",\"AVG_AUTHENTICATION_TIME\":\"{\\\"total\\\":900,\\\"count\\\":3}\"}";
+
+        final StatisticsBundle restored = StatisticsBundle.input( legacyJson );
+        Assertions.assertEquals( "42", restored.getStatistic( Statistic.AUTHENTICATIONS ) );
+        Assertions.assertEquals( "300", restored.getAvgStatistic( AvgStatistic.AVG_AUTHENTICATION_TIME ) );
+    }
+
+    @Test
+    public void addAllTest()
+    {
+        final StatisticsBundle day1 = new StatisticsBundle();
+        day1.incrementValue( Statistic.AUTHENTICATIONS );
+        day1.updateAverageValue( AvgStatistic.AVG_AUTHENTICATION_TIME, 100 );
+
+        final StatisticsBundle day2 = new StatisticsBundle();
+        day2.incrementValue( Statistic.AUTHENTICATIONS );
+        day2.incrementValue( Statistic.AUTHENTICATIONS );
+        day2.updateAverageValue( AvgStatistic.AVG_AUTHENTICATION_TIME, 400 );
+
+        final StatisticsBundle rollup = new StatisticsBundle();
+        rollup.addAll( day1 );
+        rollup.addAll( day2 );
+
+        Assertions.assertEquals( "3", rollup.getStatistic( Statistic.AUTHENTICATIONS ) );
+        Assertions.assertEquals( "250", rollup.getAvgStatistic( AvgStatistic.AVG_AUTHENTICATION_TIME ) );
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import password.pwm.PwmApplication;
+import password.pwm.util.java.FileSystemUtility;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.localdb.LocalDBFactory;
+import password.pwm.util.localdb.TestHelper;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+
+public class StatisticsServiceTest
+{
+    private static final YearMonth TEST_MONTH = YearMonth.of( 2024, 3 );
+
+    @TempDir
+    public Path temporaryFolder;
+
+    private LocalDB localDB;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        final Path localDbTestFolder = FileSystemUtility.createDirectory( temporaryFolder, "test-statistics-service" );
+        final PwmApplication pwmApplication = TestHelper.makeTestPwmApplication( localDbTestFolder );
+        localDB = LocalDBFactory.getInstance( localDbTestFolder, false, pwmApplication.getPwmEnvironment(), pwmApplication.getConfig() );
+    }
+
+    @AfterEach
+    public void shutdown() throws Exception
+    {
+        localDB.close();
+    }
+
+    private static StatisticsBundleKey dayKey( final int dayOfMonth )
+    {
+        return StatisticsBundleKey.forDate( TEST_MONTH.atDay( dayOfMonth ) );
+    }
+
+    private static void incrementAuthentications( final StatisticsService statisticsService, final int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            statisticsService.incrementValue( Statistic.AUTHENTICATIONS );
+        }
+    }
+
+    /**
+     * Store the current day as the nightly task does before moving to the next day.
+     */
+    private void flushCurrentDay( final StatisticsService statisticsService ) throws Exception
+    {
+        final StatisticsBundleKey currentKey = statisticsService.getCurrentDailyKey();
+        localDB.put( LocalDB.DB.PWM_STATS, currentKey.toString(), statisticsService.getStatBundleForKey( currentKey ).orElseThrow().output() );
+    }
+
+    private static String monthlyAuthentications( final StatisticsService statisticsService, final YearMonth month )
+    {
+        return statisticsService.getMonthlyStatBundle( month ).orElseThrow().getStatistic( Statistic.AUTHENTICATIONS );
+    }
+
+    @Test
+    public void testMonthlyRollupAfterDayChange() throws Exception
+    {
+        final StatisticsBundle storedDay = new StatisticsBundle();
+        storedDay.incrementValue( Statistic.AUTHENTICATIONS );
+        storedDay.incrementValue( Statistic.AUTHENTICATIONS );
+        localDB.put( LocalDB.DB.PWM_STATS, dayKey( 10 ).toString(), storedDay.output() );
+        localDB.put( LocalDB.DB.PWM_STATS, "INITIAL_DAILY_KEY", dayKey( 1 ).toString() );
+
+        final StatisticsService statisticsService = new StatisticsService();
+        statisticsService.openLocalDB( localDB, 100, dayKey( 15 ) );
+
+        // read mid-month, which must not remember the remaining days of the month as empty
+        incrementAuthentications( statisticsService, 3 );
+        Assertions.assertEquals( "5", monthlyAuthentications( statisticsService, TEST_MONTH ) );
+        Assertions.assertEquals( Optional.empty(), statisticsService.getStatBundleForKey( dayKey( 16 ) ) );
+
+        flushCurrentDay( statisticsService );
+        statisticsService.resetDailyStats( dayKey( 16 ) );
+        incrementAuthentications( statisticsService, 4 );
+        Assertions.assertEquals( "9", monthlyAuthentications( statisticsService, TEST_MONTH ) );
+
+        flushCurrentDay( statisticsService );
+        statisticsService.resetDailyStats( dayKey( 17 ) );
+        Assertions.assertEquals( "4", statisticsService.getStatBundleForKey( dayKey( 16 ) ).orElseThrow().getStatistic( Statistic.AUTHENTICATIONS ) );
+        Assertions.assertEquals( "9", monthlyAuthentications( statisticsService, TEST_MONTH ) );
+
+        // moving into the next month stores the rollup of the completed month
+        flushCurrentDay( statisticsService );
+        statisticsService.resetDailyStats( StatisticsBundleKey.forDate( LocalDate.of( 2024, 4, 1 ) ) );
+        final Optional<String> storedRollup = localDB.get( LocalDB.DB.PWM_STATS, "MONTHLY_2024_3" );
+        Assertions.assertTrue( storedRollup.isPresent() );
+        Assertions.assertEquals( "9", StatisticsBundle.input( storedRollup.get() ).getStatistic( Statistic.AUTHENTICATIONS ) );
+        Assertions.assertEquals( "9", monthlyAuthentications( statisticsService, TEST_MONTH ) );
+        Assertions.assertEquals( "0", monthlyAuthentications( statisticsService, TEST_MONTH.plusMonths( 1 ) ) );
+    }
+}
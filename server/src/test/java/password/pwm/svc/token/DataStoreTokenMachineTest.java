@@ -0,0 +1,183 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.token;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import password.pwm.PwmApplication;
+import password.pwm.bean.SessionLabel;
+import password.pwm.svc.PwmService;
+import password.pwm.util.DataStore;
+import password.pwm.util.java.ClosableIterator;
+import password.pwm.util.java.FileSystemUtility;
+import password.pwm.util.java.StatisticCounterBundle;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.localdb.LocalDBDataStore;
+import password.pwm.util.localdb.LocalDBFactory;
+import password.pwm.util.localdb.TestHelper;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class DataStoreTokenMachineTest
+{
+    @TempDir
+    public Path temporaryFolder;
+
+    private LocalDB localDB;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        final Path localDbTestFolder = FileSystemUtility.createDirectory( temporaryFolder, "test-token-machine" );
+        final PwmApplication pwmApplication = TestHelper.makeTestPwmApplication( localDbTestFolder );
+        localDB = LocalDBFactory.getInstance( localDbTestFolder, false, pwmApplication.getPwmEnvironment(), pwmApplication.getConfig() );
+    }
+
+    @AfterEach
+    public void shutdown() throws Exception
+    {
+        localDB.close();
+    }
+
+    @Test
+    public void purgeStopsAtFirstUnexpiredEntryTest() throws Exception
+    {
+        final DataStore dataStore = new LocalDBDataStore( localDB, LocalDB.DB.TOKENS );
+        final DataStore expiryIndex = Mockito.spy( new LocalDBDataStore( localDB, LocalDB.DB.TOKEN_EXPIRY ) );
+        Assertions.assertTrue( expiryIndex.isSortedIteration() );
+
+        final Instant now = Instant.now();
+        expiryIndex.put( "!indexVersion", "1" );
+        for ( int i = 1; i <= 3; i++ )
+        {
+            dataStore.put( "expired" + i, "value" );
+            expiryIndex.put( DataStoreTokenMachine.indexKey( now.minusSeconds( i * 3600L ), "expired" + i ), "" );
+        }
+        for ( int i = 1; i <= 2; i++ )
+        {
+            dataStore.put( "valid" + i, "value" );
+            expiryIndex.put( DataStoreTokenMachine.indexKey( now.plusSeconds( i * 3600L ), "valid" + i ), "" );
+        }
+
+        final List<String> readIndexKeys = new ArrayList<>();
+        Mockito.doAnswer( invocation ->
+        {
+            final ClosableIterator<Map.Entry<String, String>> realIterator = localDB.iterator( LocalDB.DB.TOKEN_EXPIRY );
+            return new ClosableIterator<Map.Entry<String, String>>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return realIterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, String> next()
+                {
+                    final Map.Entry<String, String> entry = realIterator.next();
+                    readIndexKeys.add( entry.getKey() );
+                    return entry;
+                }
+
+                @Override
+                public void close()
+                {
+                    realIterator.close();
+                }
+            };
+        } ).when( expiryIndex ).iterator();
+
+        final TokenService tokenService = Mockito.mock( TokenService.class );
+        Mockito.when( tokenService.status() ).thenReturn( PwmService.STATUS.OPEN );
+        Mockito.when( tokenService.getSessionLabel() ).thenReturn( SessionLabel.TEST_SESSION_LABEL );
+        Mockito.when( tokenService.getStats() ).thenReturn( new StatisticCounterBundle<>( TokenService.StatsKey.class ) );
+
+        new DataStoreTokenMachine( null, tokenService, dataStore, expiryIndex ).cleanup();
+
+        Assertions.assertEquals( 2, dataStore.size() );
+        Assertions.assertTrue( dataStore.contains( "valid1" ) && dataStore.contains( "valid2" ) );
+        Assertions.assertEquals( 3, expiryIndex.size() );
+
+        // the version key, the three expired entries and the first unexpired entry
+        Assertions.assertEquals( 5, readIndexKeys.size() );
+        Assertions.assertFalse( readIndexKeys.contains( DataStoreTokenMachine.indexKey( now.plusSeconds( 7200L ), "valid2" ) ) );
+    }
+
+    @Test
+    public void removeTokenRemovesIndexEntryTest() throws Exception
+    {
+        final DataStore dataStore = new LocalDBDataStore( localDB, LocalDB.DB.TOKENS );
+        final DataStore expiryIndex = new LocalDBDataStore( localDB, LocalDB.DB.TOKEN_EXPIRY );
+
+        final Instant expiration = Instant.now().plusSeconds( 3600L );
+        final TokenPayload tokenPayload = new TokenPayload( "name", expiration, null, null, null, "guid" );
+
+        final TokenService tokenService = Mockito.mock( TokenService.class );
+        Mockito.when( tokenService.getStats() ).thenReturn( new StatisticCounterBundle<>( TokenService.StatsKey.class ) );
+        Mockito.when( tokenService.toEncryptedString( tokenPayload ) ).thenReturn( "encrypted" );
+        Mockito.when( tokenService.fromEncryptedString( "encrypted" ) ).thenReturn( tokenPayload );
+
+        final DataStoreTokenMachine tokenMachine = new DataStoreTokenMachine( null, tokenService, dataStore, expiryIndex );
+        final TokenKey tokenKey = tokenMachine.keyFromStoredHash( "token-hash" );
+        tokenMachine.storeToken( tokenKey, tokenPayload );
+        Assertions.assertTrue( expiryIndex.contains( DataStoreTokenMachine.indexKey( expiration, "token-hash" ) ) );
+
+        tokenMachine.removeToken( tokenKey );
+        Assertions.assertEquals( 0, dataStore.size() );
+        Assertions.assertEquals( 0, expiryIndex.size() );
+    }
+
+    @Test
+    public void expiryIndexKeyTest()
+    {
+        final Instant expiration = Instant.parse( "2021-06-01T12:00:30Z" );
+        final String indexKey = DataStoreTokenMachine.indexKey( expiration, "A1B2_C3" );
+
+        Assertions.assertEquals( Optional.empty(), DataStoreTokenMachine.expiredStoredHash( indexKey, expiration ) );
+        Assertions.assertEquals( Optional.empty(), DataStoreTokenMachine.expiredStoredHash( indexKey, Instant.parse( "2021-06-01T12:00:59Z" ) ) );
+        Assertions.assertEquals( Optional.of( "A1B2_C3" ), DataStoreTokenMachine.expiredStoredHash( indexKey, Instant.parse( "2021-06-01T12:01:00Z" ) ) );
+    }
+
+    @Test
+    public void expiryIndexKeyOrderTest()
+    {
+        final String earlier = DataStoreTokenMachine.indexKey( Instant.parse( "2021-06-01T12:00:00Z" ), "zzz" );
+        final String later = DataStoreTokenMachine.indexKey( Instant.parse( "2021-06-02T12:00:00Z" ), "aaa" );
+        Assertions.assertTrue( earlier.compareTo( later ) < 0 );
+    }
+
+    @Test
+    public void missingExpirationTest()
+    {
+        final String indexKey = DataStoreTokenMachine.indexKey( null, "hash" );
+        Assertions.assertEquals( Optional.of( "hash" ), DataStoreTokenMachine.expiredStoredHash( indexKey, Instant.now() ) );
+        Assertions.assertEquals( Optional.empty(), DataStoreTokenMachine.expiredStoredHash( "!indexVersion", Instant.now() ) );
+    }
+}
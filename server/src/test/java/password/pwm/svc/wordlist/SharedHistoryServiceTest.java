@@ -0,0 +1,144 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.svc.wordlist;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import password.pwm.PwmApplication;
+import password.pwm.util.java.FileSystemUtility;
+import password.pwm.util.java.TimeDuration;
+import password.pwm.util.localdb.LocalDB;
+import password.pwm.util.localdb.LocalDBFactory;
+import password.pwm.util.localdb.TestHelper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class SharedHistoryServiceTest
+{
+    @TempDir
+    public Path temporaryFolder;
+
+    @Test
+    public void testBucketLayoutCoversMaxAge()
+    {
+        final TimeDuration maxAge = TimeDuration.of( 28, TimeDuration.Unit.DAYS );
+        final SharedHistoryBucketLayout layout = SharedHistoryBucketLayout.forMaxAge( 4, maxAge );
+
+        Assertions.assertTrue( layout.supportsMaxAge( maxAge ) );
+        Assertions.assertFalse( layout.supportsMaxAge( TimeDuration.of( 60, TimeDuration.Unit.DAYS ) ) );
+
+        // a slot is only reused once the bucket it held has expired
+        final Instant now = Instant.parse( "2024-05-01T12:00:00Z" );
+        final long currentBucket = layout.bucketNumber( now );
+        final long previousOccupant = currentBucket - 4;
+        Assertions.assertEquals( layout.slot( currentBucket ), layout.slot( previousOccupant ) );
+        Assertions.assertTrue( layout.isExpired( previousOccupant, now, maxAge ) );
+        Assertions.assertFalse( layout.isExpired( currentBucket - 2, now, maxAge ) );
+    }
+
+    @Test
+    public void testBucketSlotsRotate()
+    {
+        final SharedHistoryBucketLayout layout = new SharedHistoryBucketLayout( 4, 1000 );
+        final Set<Integer> slots = new HashSet<>();
+        for ( long bucket = 10; bucket < 14; bucket++ )
+        {
+            slots.add( layout.slot( bucket ) );
+        }
+        Assertions.assertEquals( 4, slots.size() );
+        Assertions.assertEquals( Instant.ofEpochMilli( 10_000 ), layout.bucketStart( layout.bucketNumber( Instant.ofEpochMilli( 10_999 ) ) ) );
+    }
+
+    @Test
+    public void testHasherModes()
+    {
+        final SharedHistoryHasher iterated = new SharedHistoryHasher( "salt", "SHA-512", 10, SharedHistoryHasher.HashMode.iterated );
+        final SharedHistoryHasher hmac = new SharedHistoryHasher( "salt", "SHA-512", 10, SharedHistoryHasher.HashMode.hmac );
+        final SharedHistoryHasher otherSalt = new SharedHistoryHasher( "other", "SHA-512", 10, SharedHistoryHasher.HashMode.hmac );
+
+        Assertions.assertEquals( iterated.hash( "password" ), iterated.hash( "password" ) );
+        Assertions.assertNotEquals( iterated.hash( "password" ), iterated.hash( "password1" ) );
+        Assertions.assertEquals( hmac.hash( "password" ), hmac.hash( "password" ) );
+        Assertions.assertNotEquals( iterated.hash( "password" ), hmac.hash( "password" ) );
+        Assertions.assertNotEquals( hmac.hash( "password" ), otherSalt.hash( "password" ) );
+    }
+
+    @Test
+    public void testLegacyMigration() throws Exception
+    {
+        final Path localDbTestFolder = FileSystemUtility.createDirectory( temporaryFolder, "test-shared-history-migration" );
+        final PwmApplication pwmApplication = TestHelper.makeTestPwmApplication( localDbTestFolder );
+        final LocalDB localDB = LocalDBFactory.getInstance( localDbTestFolder, false, pwmApplication.getPwmEnvironment(), pwmApplication.getConfig() );
+        try
+        {
+            final TimeDuration maxAge = TimeDuration.of( 28, TimeDuration.Unit.DAYS );
+            final SharedHistoryBucketLayout layout = SharedHistoryBucketLayout.forMaxAge( 4, maxAge );
+            final Instant now = Instant.now();
+            final Instant recent = now.minus( Duration.ofHours( 1 ) );
+            final Instant older = now.minus( Duration.ofDays( 20 ) );
+
+            final LocalDB.DB legacyDB = SharedHistoryService.BUCKET_DBS.get( 0 );
+            localDB.put( legacyDB, "recent", Long.toString( recent.toEpochMilli() ) );
+            localDB.put( legacyDB, "older", Long.toString( older.toEpochMilli() ) );
+            localDB.put( legacyDB, "expired", Long.toString( now.minus( Duration.ofDays( 40 ) ).toEpochMilli() ) );
+            localDB.put( legacyDB, "invalid", "not-a-timestamp" );
+
+            final long[] slotBucketNumbers = new long[SharedHistoryService.BUCKET_DBS.size()];
+            Arrays.fill( slotBucketNumbers, SharedHistoryBucketLayout.NO_BUCKET );
+            Assertions.assertEquals( 2, SharedHistoryService.migrateLegacyWords( localDB, layout, slotBucketNumbers, now, maxAge ) );
+
+            for ( final Instant timestamp : new Instant[] {recent, older} )
+            {
+                final long bucketNumber = layout.bucketNumber( timestamp );
+                final int slot = layout.slot( bucketNumber );
+                Assertions.assertEquals( bucketNumber, slotBucketNumbers[slot] );
+                final String key = timestamp.equals( recent ) ? "recent" : "older";
+                Assertions.assertTrue( localDB.contains( SharedHistoryService.BUCKET_DBS.get( slot ), key ) );
+            }
+
+            Assertions.assertEquals( 2, totalSize( localDB ) );
+
+            // re-running the migration, as after an interrupted start, leaves the migrated words in place
+            SharedHistoryService.migrateLegacyWords( localDB, layout, slotBucketNumbers, now, maxAge );
+            Assertions.assertEquals( 2, totalSize( localDB ) );
+        }
+        finally
+        {
+            localDB.close();
+        }
+    }
+
+    private static long totalSize( final LocalDB localDB ) throws Exception
+    {
+        long totalSize = 0;
+        for ( final LocalDB.DB bucketDB : SharedHistoryService.BUCKET_DBS )
+        {
+            totalSize += localDB.size( bucketDB );
+        }
+        return totalSize;
+    }
+}
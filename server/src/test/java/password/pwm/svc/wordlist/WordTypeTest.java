@@ -44,4 +44,18 @@ public class WordTypeTest
         Assertions.assertEquals( WordType.SHA512, WordType.determineWordType(
                 "sha512:B109F3BBBC244EB82441917ED06D618B9008DD09B3BEFD1B5E07394C706A8BB980B1D7785E5976EC049B46DF5F1326AF5A2EA6D103FD07C95385FFAB0CACBC86" ) );
     }
+
+    @Test
+    public void testStoredHashBytes()
+    {
+        final String storedValue = "5baa61e4c9b93f3f0682250b6cf8331b7ee68fd8:SHA1";
+        final byte[] hashBytes = WordType.storedHashBytes( storedValue ).orElseThrow();
+        Assertions.assertEquals( 20, hashBytes.length );
+        Assertions.assertEquals( storedValue, WordType.storedValueForHashBytes( hashBytes ).orElseThrow() );
+
+        Assertions.assertTrue( WordType.storedHashBytes( "password" ).isEmpty() );
+        Assertions.assertTrue( WordType.storedHashBytes( "5baa61e4c9b93f3f0682250b6cf8331b7ee68fd:SHA1" ).isEmpty() );
+        Assertions.assertTrue( WordType.storedHashBytes( "zzaa61e4c9b93f3f0682250b6cf8331b7ee68fd8:SHA1" ).isEmpty() );
+        Assertions.assertTrue( WordType.storedValueForHashBytes( new byte[3] ).isEmpty() );
+    }
 }
@@ -31,9 +31,13 @@ import password.pwm.config.PwmSetting;
 import password.pwm.config.stored.StoredConfigurationFactory;
 import password.pwm.util.java.FileSystemUtility;
 import password.pwm.util.localdb.TestHelper;
+import password.pwm.util.secure.PwmHashAlgorithm;
 
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.List;
 
 public class WordlistServiceTest
 {
@@ -110,6 +114,42 @@ public class WordlistServiceTest
 
     }
 
+    @Test
+    public void testHashRange()
+            throws Exception
+    {
+        final WordlistService wordlistService = makeWordlistService( null );
+        final byte[] digest = PwmHashAlgorithm.SHA1.newMessageDigest().digest( "sha1-Password-Test".getBytes( StandardCharsets.UTF_8 ) );
+        final String hash = HexFormat.of().formatHex( digest );
+
+        for ( final int prefixLength : new int[] {0, 5, 6} )
+        {
+            final String prefix = hash.substring( 0, prefixLength ).toUpperCase();
+            final WordlistHashRange hashRange = wordlistService.hashRange( WordType.SHA1, prefix, 1000 );
+            Assertions.assertTrue( hashRange.getSuffixes().contains( hash.substring( prefixLength ) ) );
+            Assertions.assertFalse( hashRange.isTruncated() );
+            hashRange.getSuffixes().forEach( suffix -> Assertions.assertEquals( 40 - prefixLength, suffix.length() ) );
+        }
+
+        final String otherPrefix = hash.charAt( 0 ) == '0' ? "fffff" : "00000";
+        Assertions.assertTrue( wordlistService.hashRange( WordType.SHA1, otherPrefix, 1000 ).getSuffixes().isEmpty() );
+
+        Assertions.assertTrue( wordlistService.hashRange( WordType.SHA1, "", 1 ).isTruncated() );
+
+        // truncation is reported only when more hashes matching the odd length prefix exist than were returned
+        final String oddPrefix = hash.substring( 0, 1 );
+        final List<String> allSuffixes = wordlistService.hashRange( WordType.SHA1, oddPrefix, 1000 ).getSuffixes();
+        Assertions.assertFalse( wordlistService.hashRange( WordType.SHA1, oddPrefix, allSuffixes.size() ).isTruncated() );
+        if ( allSuffixes.size() > 1 )
+        {
+            final WordlistHashRange firstOnly = wordlistService.hashRange( WordType.SHA1, oddPrefix, 1 );
+            Assertions.assertTrue( firstOnly.isTruncated() );
+            Assertions.assertEquals( List.of( allSuffixes.get( 0 ) ), firstOnly.getSuffixes() );
+        }
+        Assertions.assertThrows( IllegalArgumentException.class, () -> wordlistService.hashRange( WordType.SHA1, hash, 1000 ) );
+        Assertions.assertThrows( IllegalArgumentException.class, () -> wordlistService.hashRange( WordType.RAW, "abcde", 1000 ) );
+    }
+
     @Test
     public void testCaseSensitiveWordlist()
             throws Exception
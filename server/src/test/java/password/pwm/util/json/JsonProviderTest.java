@@ -43,6 +43,8 @@ import password.pwm.util.secure.X509Utils;
 import password.pwm.ws.server.RestResultBean;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.time.Duration;
@@ -50,10 +52,12 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
@@ -189,6 +193,91 @@ public class JsonProviderTest
         Assertions.assertEquals( Map.of( "key1", "value1", "key2", "value2" ), list.get( 2 ) );
     }
 
+    @ParameterizedTest
+    @MethodSource( "jsonProviders" )
+    public void streamingSerializationTest( final JsonProvider instance )
+            throws IOException
+    {
+        final Map<String, String> srcObject = new LinkedHashMap<>();
+        srcObject.put( "ascii", "value1" );
+        srcObject.put( "multibyte", "été 日本 😀" );
+
+        final StringWriter stringWriter = new StringWriter();
+        instance.serialize( srcObject, stringWriter );
+        Assertions.assertEquals( instance.serialize( srcObject ), stringWriter.toString() );
+
+        final Map<String, String> readMap = instance.deserialize( new StringReader( stringWriter.toString() ),
+                instance.newParameterizedType( Map.class, String.class, String.class ) );
+        Assertions.assertEquals( srcObject, readMap );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "jsonProviders" )
+    public void streamingSerializationDoesNotFlushTest( final JsonProvider instance )
+            throws IOException
+    {
+        final AtomicInteger flushCount = new AtomicInteger();
+        final StringWriter stringWriter = new StringWriter()
+        {
+            @Override
+            public void flush()
+            {
+                flushCount.incrementAndGet();
+            }
+        };
+
+        final StringBuilder expected = new StringBuilder();
+        for ( int i = 0; i < 10; i++ )
+        {
+            final List<String> srcObject = List.of( "value" + i, "日本" );
+            instance.serialize( srcObject, stringWriter );
+            expected.append( instance.serialize( srcObject ) );
+        }
+
+        Assertions.assertEquals( 0, flushCount.get() );
+        Assertions.assertEquals( expected.toString(), stringWriter.toString() );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "jsonProviders" )
+    public void streamingLargeValueTest( final JsonProvider instance )
+            throws IOException
+    {
+        // exceeds the internal buffer sizes so multibyte sequences are split across buffer boundaries
+        final StringBuilder largeValue = new StringBuilder();
+        for ( int i = 0; i < 20_000; i++ )
+        {
+            largeValue.append( i % 3 == 0 ? "😀" : i % 3 == 1 ? "日" : "a" );
+        }
+        final List<String> srcObject = List.of( largeValue.toString(), "end" );
+
+        final StringWriter stringWriter = new StringWriter();
+        instance.serialize( srcObject, stringWriter );
+
+        final List<String> readList = instance.deserialize( new StringReader( stringWriter.toString() ),
+                instance.newParameterizedType( List.class, String.class ) );
+        Assertions.assertEquals( srcObject, readList );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "jsonProviders" )
+    public void arrayWriterTest( final JsonProvider instance )
+            throws IOException
+    {
+        final StringWriter stringWriter = new StringWriter();
+        try ( JsonArrayWriter<Map> arrayWriter = instance.newArrayWriter( stringWriter, Map.class ) )
+        {
+            arrayWriter.write( Map.of( "key1", "value1" ) );
+            arrayWriter.write( Map.of( "key2", "value2" ) );
+            Assertions.assertEquals( 2, arrayWriter.count() );
+        }
+        Assertions.assertEquals( "[{\"key1\":\"value1\"},{\"key2\":\"value2\"}]", stringWriter.toString() );
+
+        final StringWriter emptyWriter = new StringWriter();
+        instance.newArrayWriter( emptyWriter, String.class ).close();
+        Assertions.assertEquals( "[]", emptyWriter.toString() );
+    }
+
     @ParameterizedTest
     @MethodSource( "jsonProviders" )
     public void serializeNavTreeTest( final JsonProvider instance )
@@ -146,4 +146,91 @@ public class LocalDBBasicTest
             Assertions.assertFalse( iter.hasNext() );
         }
     }
+
+    @Test
+    public void testTransact() throws LocalDBException
+    {
+        localDB.put( TEST_DB, "key1", "value1" );
+
+        final String readValue = localDB.transact( transaction ->
+        {
+            transaction.put( TEST_DB, "key2", "value2" );
+            transaction.putAll( LocalDB.DB.CACHE, Map.of( "key3", "value3" ) );
+            transaction.remove( TEST_DB, "key1" );
+            Assertions.assertTrue( transaction.get( TEST_DB, "key1" ).isEmpty() );
+            return transaction.get( TEST_DB, "key2" ).orElseThrow();
+        } );
+
+        Assertions.assertEquals( "value2", readValue );
+        Assertions.assertFalse( localDB.contains( TEST_DB, "key1" ) );
+        Assertions.assertEquals( "value2", localDB.get( TEST_DB, "key2" ).orElseThrow() );
+        Assertions.assertEquals( "value3", localDB.get( LocalDB.DB.CACHE, "key3" ).orElseThrow() );
+    }
+
+    @Test
+    public void testTransactRollback() throws LocalDBException
+    {
+        localDB.put( TEST_DB, "key1", "value1" );
+
+        Assertions.assertThrows( IllegalStateException.class, () -> localDB.transact( transaction ->
+        {
+            transaction.put( TEST_DB, "key2", "value2" );
+            transaction.remove( TEST_DB, "key1" );
+            throw new IllegalStateException( "abort transaction" );
+        } ) );
+
+        Assertions.assertEquals( "value1", localDB.get( TEST_DB, "key1" ).orElseThrow() );
+        Assertions.assertFalse( localDB.contains( TEST_DB, "key2" ) );
+    }
+
+    @Test
+    public void testBinary() throws LocalDBException
+    {
+        final LocalDB.DB binaryDb = LocalDB.DB.WORDLIST_HASHES;
+        final byte[] key = new byte[] {0, 1, 2, ( byte ) 0xFF};
+        final byte[] value = new byte[] {10, ( byte ) 0x80};
+
+        Assertions.assertFalse( localDB.containsBytes( binaryDb, key ) );
+        localDB.putBytes( binaryDb, key, value );
+
+        Assertions.assertTrue( localDB.containsBytes( binaryDb, key ) );
+        Assertions.assertArrayEquals( value, localDB.getBytes( binaryDb, key ).orElseThrow() );
+        Assertions.assertEquals( 1, localDB.size( binaryDb ) );
+
+        try ( LocalDB.LocalDBIterator iterator = localDB.iterator( binaryDb ) )
+        {
+            final Map.Entry<String, String> entry = iterator.next();
+            Assertions.assertArrayEquals( key, LocalDBUtility.decodeBinary( entry.getKey() ) );
+            Assertions.assertArrayEquals( value, LocalDBUtility.decodeBinary( entry.getValue() ) );
+        }
+
+        Assertions.assertThrows( IllegalArgumentException.class, () -> localDB.putBytes( TEST_DB, key, value ) );
+    }
+
+    @Test
+    public void testKeysByPrefixBytes() throws LocalDBException
+    {
+        final LocalDB.DB binaryDb = LocalDB.DB.WORDLIST_HASHES;
+        final byte[] value = new byte[0];
+        localDB.putBytes( binaryDb, new byte[] {1, 2, 3}, value );
+        localDB.putBytes( binaryDb, new byte[] {1, 2, ( byte ) 0xFF}, value );
+        localDB.putBytes( binaryDb, new byte[] {1, 3, 0}, value );
+        localDB.putBytes( binaryDb, new byte[] {( byte ) 0x81, 2, 3}, value );
+
+        final List<byte[]> keys = localDB.keysByPrefixBytes( binaryDb, new byte[] {1, 2}, 0, 10 );
+        Assertions.assertEquals( 2, keys.size() );
+        Assertions.assertArrayEquals( new byte[] {1, 2, 3}, keys.get( 0 ) );
+        Assertions.assertArrayEquals( new byte[] {1, 2, ( byte ) 0xFF}, keys.get( 1 ) );
+
+        Assertions.assertEquals( 1, localDB.keysByPrefixBytes( binaryDb, new byte[] {1, 2}, 0, 1 ).size() );
+        Assertions.assertEquals( 4, localDB.keysByPrefixBytes( binaryDb, new byte[0], 0, 10 ).size() );
+        Assertions.assertArrayEquals( new byte[] {( byte ) 0x81, 2, 3}, localDB.keysByPrefixBytes( binaryDb, new byte[] {( byte ) 0x81}, 0, 10 ).get( 0 ) );
+        Assertions.assertTrue( localDB.keysByPrefixBytes( binaryDb, new byte[] {2}, 0, 10 ).isEmpty() );
+
+        localDB.putBytes( binaryDb, new byte[] {1, 2, 3, 4}, value );
+        final List<byte[]> longKeys = localDB.keysByPrefixBytes( binaryDb, new byte[] {1, 2}, 4, 10 );
+        Assertions.assertEquals( 1, longKeys.size() );
+        Assertions.assertArrayEquals( new byte[] {1, 2, 3, 4}, longKeys.get( 0 ) );
+        Assertions.assertEquals( 2, localDB.keysByPrefixBytes( binaryDb, new byte[] {1, 2}, 3, 10 ).size() );
+    }
 }
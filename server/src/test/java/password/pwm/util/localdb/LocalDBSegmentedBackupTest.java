@@ -0,0 +1,124 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.localdb;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import password.pwm.PwmApplication;
+import password.pwm.util.java.FileSystemUtility;
+import password.pwm.util.json.JsonFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+@Execution( ExecutionMode.SAME_THREAD )
+public class LocalDBSegmentedBackupTest
+{
+    private static final int RECORD_COUNT = 250_000;
+
+    @TempDir
+    public Path temporaryFolder;
+
+    private LocalDB localDB;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        final Path localDbTestFolder = FileSystemUtility.createDirectory( temporaryFolder, "test-segmented-backup" );
+        final PwmApplication pwmApplication = TestHelper.makeTestPwmApplication( localDbTestFolder );
+        localDB = LocalDBFactory.getInstance( localDbTestFolder, false, pwmApplication.getPwmEnvironment(), pwmApplication.getConfig() );
+    }
+
+    @AfterEach
+    public void shutdown() throws Exception
+    {
+        localDB.close();
+    }
+
+    @Test
+    public void testExportImport() throws Exception
+    {
+        final Map<String, String> words = new HashMap<>();
+        for ( int i = 0; i < RECORD_COUNT; i++ )
+        {
+            words.put( "word" + i, "" );
+        }
+        localDB.putAll( LocalDB.DB.WORDLIST_WORDS, words );
+        localDB.put( LocalDB.DB.PWM_STATS, "key1", "value1" );
+        localDB.putBytes( LocalDB.DB.WORDLIST_HASHES, new byte[] {1, 2, 3}, new byte[0] );
+
+        final Path exportDirectory = temporaryFolder.resolve( "export" );
+        final LocalDBUtility localDBUtility = new LocalDBUtility( localDB );
+        localDBUtility.exportLocalDBSegments( exportDirectory, null );
+
+        final LocalDBSegmentedBackup.Manifest manifest = LocalDBSegmentedBackup.readManifest( exportDirectory ).orElseThrow();
+        Assertions.assertTrue( manifest.isComplete() );
+        Assertions.assertTrue( manifest.getSegments().size() > 3 );
+
+        localDB.truncate( LocalDB.DB.WORDLIST_WORDS );
+        localDB.put( LocalDB.DB.SEEDLIST_WORDS, "stale", "value" );
+        localDBUtility.importLocalDBSegments( exportDirectory, null );
+
+        Assertions.assertEquals( RECORD_COUNT, localDB.size( LocalDB.DB.WORDLIST_WORDS ) );
+        Assertions.assertEquals( "value1", localDB.get( LocalDB.DB.PWM_STATS, "key1" ).orElseThrow() );
+        Assertions.assertTrue( localDB.containsBytes( LocalDB.DB.WORDLIST_HASHES, new byte[] {1, 2, 3} ) );
+        Assertions.assertEquals( 0, localDB.size( LocalDB.DB.SEEDLIST_WORDS ) );
+        Assertions.assertFalse( localDBUtility.readSegmentedImportInprogressFlag() );
+    }
+
+    @Test
+    public void testResumeExport() throws Exception
+    {
+        final Map<String, String> words = new HashMap<>();
+        for ( int i = 0; i < RECORD_COUNT; i++ )
+        {
+            words.put( "word" + i, "" );
+        }
+        localDB.putAll( LocalDB.DB.WORDLIST_WORDS, words );
+
+        final Path exportDirectory = temporaryFolder.resolve( "export" );
+        final LocalDBUtility localDBUtility = new LocalDBUtility( localDB );
+        localDBUtility.exportLocalDBSegments( exportDirectory, null );
+
+        // simulate an interrupted export by dropping the completion flag and corrupting the last segment
+        final LocalDBSegmentedBackup.Manifest manifest = LocalDBSegmentedBackup.readManifest( exportDirectory ).orElseThrow();
+        final LocalDBSegmentedBackup.Segment lastSegment = manifest.getSegments().get( manifest.getSegments().size() - 1 );
+        Files.writeString( exportDirectory.resolve( lastSegment.getFileName() ), "corrupt" );
+        Files.writeString( exportDirectory.resolve( LocalDBSegmentedBackup.MANIFEST_FILENAME ),
+                JsonFactory.get().serialize( manifest.toBuilder().complete( false ).build() ) );
+
+        localDBUtility.exportLocalDBSegments( exportDirectory, null );
+        final LocalDBSegmentedBackup.Manifest resumedManifest = LocalDBSegmentedBackup.readManifest( exportDirectory ).orElseThrow();
+        Assertions.assertTrue( resumedManifest.isComplete() );
+        Assertions.assertEquals( manifest.getSegments().size(), resumedManifest.getSegments().size() );
+
+        localDB.truncate( LocalDB.DB.WORDLIST_WORDS );
+        localDBUtility.importLocalDBSegments( exportDirectory, null );
+        Assertions.assertEquals( RECORD_COUNT, localDB.size( LocalDB.DB.WORDLIST_WORDS ) );
+    }
+}
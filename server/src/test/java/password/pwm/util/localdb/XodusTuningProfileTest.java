@@ -0,0 +1,51 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.util.localdb;
+
+import jetbrains.exodus.env.EnvironmentConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class XodusTuningProfileTest
+{
+    @Test
+    public void testForName()
+    {
+        Assertions.assertEquals( XodusTuningProfile.readHeavy, XodusTuningProfile.forName( "readHeavy" ) );
+        Assertions.assertEquals( XodusTuningProfile.standard, XodusTuningProfile.forName( "bogus" ) );
+        Assertions.assertEquals( XodusTuningProfile.standard, XodusTuningProfile.forName( null ) );
+    }
+
+    @Test
+    public void testApplyProfiles()
+    {
+        for ( final XodusTuningProfile profile : XodusTuningProfile.values() )
+        {
+            final EnvironmentConfig environmentConfig = new EnvironmentConfig();
+            profile.apply( environmentConfig );
+        }
+
+        final EnvironmentConfig environmentConfig = new EnvironmentConfig();
+        XodusTuningProfile.writeHeavy.apply( environmentConfig );
+        Assertions.assertEquals( 32 * 1024, environmentConfig.getLogFileSize() );
+        Assertions.assertFalse( environmentConfig.getLogDurableWrite() );
+    }
+}
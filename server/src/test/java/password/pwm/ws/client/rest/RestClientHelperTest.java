@@ -0,0 +1,50 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.client.rest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmOperationalException;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+public class RestClientHelperTest
+{
+    @Test
+    public void awaitResultTest() throws Exception
+    {
+        final CompletableFuture<String> future = CompletableFuture.completedFuture( "result" );
+        Assertions.assertEquals( "result", RestClientHelper.awaitResult( future, Instant.now().plusSeconds( 10 ) ) );
+    }
+
+    @Test
+    public void awaitResultTimeoutCancelsCallTest()
+    {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final PwmOperationalException exception = Assertions.assertThrows( PwmOperationalException.class,
+                () -> RestClientHelper.awaitResult( future, Instant.now().minusSeconds( 1 ) ) );
+
+        Assertions.assertEquals( PwmError.ERROR_TIMEOUT, exception.getError() );
+        Assertions.assertTrue( future.isCancelled() );
+    }
+}
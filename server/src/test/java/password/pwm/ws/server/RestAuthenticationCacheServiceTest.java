@@ -0,0 +1,137 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import password.pwm.AppProperty;
+import password.pwm.PwmApplication;
+import password.pwm.bean.DomainID;
+import password.pwm.bean.ProfileID;
+import password.pwm.bean.UserIdentity;
+import password.pwm.config.AppConfig;
+import password.pwm.config.PwmSetting;
+import password.pwm.config.stored.StoredConfigKey;
+import password.pwm.config.stored.StoredConfiguration;
+import password.pwm.config.stored.StoredConfigurationFactory;
+import password.pwm.config.stored.StoredConfigurationModifier;
+import password.pwm.config.value.StringArrayValue;
+import password.pwm.svc.PwmService;
+import password.pwm.util.PasswordData;
+import password.pwm.util.localdb.TestHelper;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class RestAuthenticationCacheServiceTest
+{
+    private static final long LIFETIME_MS = 500;
+
+    @TempDir
+    public Path temporaryFolder;
+
+    private RestAuthenticationCacheService cacheService;
+    private UserIdentity user1;
+    private UserIdentity user2;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        final StoredConfiguration storedConfiguration = StoredConfigurationFactory.newConfig();
+        final StoredConfigurationModifier modifier = StoredConfigurationModifier.newModifier( storedConfiguration );
+        modifier.writeSetting(
+                StoredConfigKey.forSetting( PwmSetting.APP_PROPERTY_OVERRIDES, null, DomainID.systemId() ),
+                StringArrayValue.create( List.of(
+                        AppProperty.WS_REST_SERVER_AUTH_CACHE_LIFETIME_MS.getKey() + "=" + LIFETIME_MS,
+                        AppProperty.WS_REST_SERVER_AUTH_CACHE_HASH_ITERATIONS.getKey() + "=10" ) ),
+                null );
+        final AppConfig appConfig = AppConfig.forStoredConfig( modifier.newStoredConfiguration() );
+        final PwmApplication pwmApplication = TestHelper.makeTestPwmApplication( temporaryFolder, appConfig );
+
+        cacheService = new RestAuthenticationCacheService();
+        cacheService.init( pwmApplication, DomainID.DOMAIN_ID_DEFAULT );
+        Assertions.assertEquals( PwmService.STATUS.OPEN, cacheService.status() );
+
+        user1 = UserIdentity.create( "cn=user1,o=test", ProfileID.PROFILE_ID_DEFAULT, DomainID.DOMAIN_ID_DEFAULT );
+        user2 = UserIdentity.create( "cn=user2,o=test", ProfileID.PROFILE_ID_DEFAULT, DomainID.DOMAIN_ID_DEFAULT );
+    }
+
+    @AfterEach
+    public void shutdown()
+    {
+        cacheService.shutdown();
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception
+    {
+        final PasswordData password = new PasswordData( "password1" );
+        Assertions.assertTrue( cacheService.read( "user1", password ).isEmpty() );
+
+        cacheService.store( "user1", password, new RestAuthenticationCacheService.CachedAuthentication( user1, true ) );
+        final RestAuthenticationCacheService.CachedAuthentication cached = cacheService.read( "user1", password ).orElseThrow();
+        Assertions.assertEquals( user1, cached.getUserIdentity() );
+        Assertions.assertTrue( cached.isThirdPartyEnabled() );
+
+        // the key covers both username and password
+        Assertions.assertTrue( cacheService.read( "user1", new PasswordData( "password2" ) ).isEmpty() );
+        Assertions.assertTrue( cacheService.read( "user2", password ).isEmpty() );
+
+        final Map<String, String> debugProperties = cacheService.serviceInfo().getDebugProperties();
+        Assertions.assertEquals( "1", debugProperties.get( RestAuthenticationCacheService.DebugKey.hits.name() ) );
+        Assertions.assertEquals( "3", debugProperties.get( RestAuthenticationCacheService.DebugKey.misses.name() ) );
+        Assertions.assertEquals( "1", debugProperties.get( "itemCount" ) );
+    }
+
+    @Test
+    public void testExpiry() throws Exception
+    {
+        final PasswordData password = new PasswordData( "password1" );
+        cacheService.store( "user1", password, new RestAuthenticationCacheService.CachedAuthentication( user1, false ) );
+        Assertions.assertTrue( cacheService.read( "user1", password ).isPresent() );
+
+        Thread.sleep( LIFETIME_MS * 2 );
+        Assertions.assertTrue( cacheService.read( "user1", password ).isEmpty() );
+    }
+
+    @Test
+    public void testInvalidateOnCredentialChange() throws Exception
+    {
+        final PasswordData oldPassword = new PasswordData( "password1" );
+        final PasswordData otherPassword = new PasswordData( "password2" );
+        cacheService.store( "user1", oldPassword, new RestAuthenticationCacheService.CachedAuthentication( user1, false ) );
+        cacheService.store( "cn=user1,o=test", oldPassword, new RestAuthenticationCacheService.CachedAuthentication( user1, false ) );
+        cacheService.store( "user2", otherPassword, new RestAuthenticationCacheService.CachedAuthentication( user2, false ) );
+
+        // a password change invalidates every cached authentication for the user, under any username form
+        cacheService.invalidate( user1 );
+        Assertions.assertTrue( cacheService.read( "user1", oldPassword ).isEmpty() );
+        Assertions.assertTrue( cacheService.read( "cn=user1,o=test", oldPassword ).isEmpty() );
+        Assertions.assertTrue( cacheService.read( "user2", otherPassword ).isPresent() );
+
+        final Map<String, String> debugProperties = cacheService.serviceInfo().getDebugProperties();
+        Assertions.assertEquals( "1", debugProperties.get( RestAuthenticationCacheService.DebugKey.invalidations.name() ) );
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import password.pwm.http.HttpContentType;
+import password.pwm.http.HttpMethod;
+import password.pwm.ws.server.rest.RestCheckPasswordServer;
+import password.pwm.ws.server.rest.RestHealthServer;
+
+import java.util.Optional;
+
+public class RestDispatchTableTest
+{
+    @Test
+    public void testHandlerMatch() throws Exception
+    {
+        final RestDispatchTable table = RestDispatchTable.forServlet( new RestHealthServer() );
+
+        Assertions.assertTrue( table.lookup( HttpMethod.GET, Optional.of( HttpContentType.form ), Optional.of( HttpContentType.plain ) )
+                .getHandler().isPresent() );
+        Assertions.assertTrue( table.lookup( HttpMethod.GET, Optional.of( HttpContentType.json ), Optional.of( HttpContentType.json ) )
+                .getHandler().isPresent() );
+    }
+
+    @Test
+    public void testUnmatchedErrorMessages() throws Exception
+    {
+        final RestDispatchTable table = RestDispatchTable.forServlet( new RestCheckPasswordServer() );
+
+        assertError( table, HttpMethod.GET, Optional.of( HttpContentType.json ), Optional.of( HttpContentType.json ),
+                "HTTP method unavailable" );
+        assertError( table, HttpMethod.POST, Optional.of( HttpContentType.json ), Optional.empty(),
+                "Accept header is missing or has an unexpected value" );
+        assertError( table, HttpMethod.POST, Optional.empty(), Optional.of( HttpContentType.json ),
+                "Content-Type header is missing or has an unexpected value" );
+        assertError( table, HttpMethod.POST, Optional.of( HttpContentType.json ), Optional.of( HttpContentType.xml ),
+                "Accept value is not accepted for this service" );
+        assertError( table, HttpMethod.POST, Optional.of( HttpContentType.xml ), Optional.of( HttpContentType.json ),
+                "Content-Type value is not accepted for this service" );
+
+        Assertions.assertTrue( table.lookup( HttpMethod.POST, Optional.of( HttpContentType.form ), Optional.of( HttpContentType.json ) )
+                .getHandler().isPresent() );
+    }
+
+    private static void assertError(
+            final RestDispatchTable table,
+            final HttpMethod httpMethod,
+            final Optional<HttpContentType> contentType,
+            final Optional<HttpContentType> acceptType,
+            final String expectedMsg
+    )
+    {
+        final RestDispatchTable.Dispatch dispatch = table.lookup( httpMethod, contentType, acceptType );
+        Assertions.assertFalse( dispatch.getHandler().isPresent() );
+        Assertions.assertEquals( expectedMsg, dispatch.getErrorMsg() );
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Password Management Servlets (PWM)
+ * http://www.pwm-project.org
+ *
+ * Copyright (c) 2006-2009 Novell, Inc.
+ * Copyright (c) 2009-2021 The PWM Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package password.pwm.ws.server.rest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import password.pwm.error.PwmError;
+import password.pwm.error.PwmException;
+import password.pwm.error.PwmUnrecoverableException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RestBulkProcessorTest
+{
+    @Test
+    public void testSharedValuesLoadedOncePerKey()
+            throws Exception
+    {
+        final AtomicInteger loadCount = new AtomicInteger();
+        final RestBulkProcessor.SharedValues<String, String> sharedValues = new RestBulkProcessor.SharedValues<>( key ->
+        {
+            loadCount.incrementAndGet();
+            return key + "-value";
+        } );
+
+        final ExecutorService executorService = Executors.newFixedThreadPool( 8 );
+        try
+        {
+            final List<Future<String>> futures = new ArrayList<>();
+            for ( int i = 0; i < 100; i++ )
+            {
+                final String key = i % 2 == 0 ? "user1" : "user2";
+                futures.add( executorService.submit( () -> sharedValues.get( key ) ) );
+            }
+
+            for ( int i = 0; i < futures.size(); i++ )
+            {
+                Assertions.assertEquals( i % 2 == 0 ? "user1-value" : "user2-value", futures.get( i ).get() );
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+
+        Assertions.assertEquals( 2, loadCount.get() );
+    }
+
+    @Test
+    public void testSharedValuesFailureIsCached()
+    {
+        final AtomicInteger loadCount = new AtomicInteger();
+        final RestBulkProcessor.SharedValues<String, String> sharedValues = new RestBulkProcessor.SharedValues<>( key ->
+        {
+            loadCount.incrementAndGet();
+            throw PwmUnrecoverableException.newException( PwmError.ERROR_CANT_MATCH_USER, "no such user" );
+        } );
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            final PwmException exception = Assertions.assertThrows( PwmException.class, () -> sharedValues.get( "missing" ) );
+            Assertions.assertEquals( PwmError.ERROR_CANT_MATCH_USER, exception.getError() );
+        }
+        Assertions.assertEquals( 1, loadCount.get() );
+    }
+}